@@ -0,0 +1,167 @@
+package uk.ac.ebi.intact.jami.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import psidev.psi.mi.jami.model.Participant;
+import uk.ac.ebi.intact.jami.context.SynchronizerContext;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.extension.*;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Abstract class for the benchmarks running on the embedded H2 database of intact-jami-test-spring.xml.
+ *
+ * The spring context is loaded once per trial. The objects synchronized by the benchmarks are rolled back
+ * so the database does not grow between iterations.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractIntactBenchmark {
+
+    private ClassPathXmlApplicationContext springContext;
+    private PlatformTransactionManager transactionManager;
+    private IntactDao intactDao;
+    private final AtomicLong counter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void loadSpringContext() throws Exception {
+        this.springContext = new ClassPathXmlApplicationContext("classpath*:/META-INF/intact-jami-test-spring.xml");
+        this.transactionManager = this.springContext.getBean("jamiTransactionManager", PlatformTransactionManager.class);
+        this.intactDao = this.springContext.getBean("intactDao", IntactDao.class);
+        prepareData();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeSpringContext() {
+        if (this.springContext != null){
+            this.springContext.close();
+            this.springContext = null;
+        }
+    }
+
+    /**
+     * Persists the data needed by the benchmarks. Nothing to do by default
+     * @throws Exception
+     */
+    protected void prepareData() throws Exception {
+        // nothing to do by default
+    }
+
+    /**
+     * Runs the callback in a transaction which is committed
+     */
+    protected <T> T executeAndCommit(IntactDaoCallback<T> callback) throws Exception {
+        TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            T result = callback.execute(this.intactDao);
+            this.transactionManager.commit(status);
+            return result;
+        }
+        catch (Exception e){
+            if (!status.isCompleted()){
+                this.transactionManager.rollback(status);
+            }
+            throw e;
+        }
+        finally {
+            this.intactDao.getSynchronizerContext().clearCache();
+        }
+    }
+
+    /**
+     * Runs the callback and flushes the changes in a transaction which is rolled back
+     */
+    protected <T> T executeAndRollback(IntactDaoCallback<T> callback) throws Exception {
+        TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            T result = callback.execute(this.intactDao);
+            this.intactDao.getEntityManager().flush();
+            return result;
+        }
+        finally {
+            this.intactDao.getSynchronizerContext().clearCache();
+            this.transactionManager.rollback(status);
+        }
+    }
+
+    protected IntactDao getIntactDao() {
+        return intactDao;
+    }
+
+    protected PlatformTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    protected <T> T getBean(String name) {
+        return (T) this.springContext.getBean(name);
+    }
+
+    /**
+     *
+     * @param prefix : the prefix of the name
+     * @return a name which has not been used yet by this benchmark
+     */
+    protected String nextName(String prefix) {
+        return prefix + "-" + this.counter.incrementAndGet();
+    }
+
+    /**
+     * Synchronizes the publication and the experiment of the interaction before the interaction, as InteractionEvidenceService
+     */
+    protected IntactInteractionEvidence synchronizeInteractionEvidence(IntactDao intactDao, IntactInteractionEvidence interaction) throws Exception {
+        SynchronizerContext context = intactDao.getSynchronizerContext();
+        IntactExperiment experiment = (IntactExperiment) interaction.getExperiment();
+        experiment.setPublication(context.getPublicationSynchronizer().synchronize(experiment.getPublication(), true));
+        interaction.setExperiment(context.getExperimentSynchronizer().synchronize(experiment, true));
+        return context.getInteractionSynchronizer().synchronize(interaction, true);
+    }
+
+    protected IntactProtein createProtein(String name) {
+        IntactProtein protein = new IntactProtein(name, new IntactOrganism(9606));
+        protein.setSequence("MAAAKGLSCRVASLLLSLVLAGCGGSTPEQTTAAAPEAKPAA");
+        return protein;
+    }
+
+    protected IntactInteractionEvidence createInteractionEvidence(String name, int numberOfParticipants) {
+        IntactPublication publication = new IntactPublication("12345");
+        publication.getAuthors().add("benchmark");
+        IntactInteractionEvidence interaction = new IntactInteractionEvidence(name);
+        interaction.setExperiment(new IntactExperiment(publication));
+        for (int i = 0; i < numberOfParticipants; i++){
+            IntactParticipantEvidence participant = new IntactParticipantEvidence(createProtein(name + "-p" + i));
+            // the first participant is the bait of the interaction
+            participant.setExperimentalRole(i == 0 ?
+                    IntactUtils.createMIExperimentalRole(Participant.BAIT_ROLE, Participant.BAIT_ROLE_MI) :
+                    IntactUtils.createMIExperimentalRole(Participant.PREY, Participant.PREY_MI));
+            interaction.addParticipant(participant);
+        }
+        return interaction;
+    }
+
+    protected IntactComplex createComplex(String name, int numberOfParticipants) {
+        IntactComplex complex = new IntactComplex(name, new IntactOrganism(9606));
+        for (int i = 0; i < numberOfParticipants; i++){
+            complex.addParticipant(new IntactModelledParticipant(createProtein(name + "-p" + i)));
+        }
+        return complex;
+    }
+
+    /**
+     * Callback executed in a transaction
+     */
+    protected interface IntactDaoCallback<T> {
+        T execute(IntactDao intactDao) throws Exception;
+    }
+}
@@ -0,0 +1,98 @@
+package uk.ac.ebi.intact.jami.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.binary.expansion.InteractionEvidenceMatrixExpansion;
+import psidev.psi.mi.jami.binary.expansion.InteractionEvidenceSpokeExpansion;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.Participant;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactParticipantEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.binary.expansion.IntactLazyInteractionEvidenceMatrixExpansion;
+import uk.ac.ebi.intact.jami.model.extension.binary.expansion.IntactLazyInteractionEvidenceSpokeExpansion;
+import uk.ac.ebi.intact.jami.model.extension.factory.IntactBinaryInteractionFactory;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import java.util.Iterator;
+
+/**
+ * Benchmark of the binary expansion of a n-ary interaction evidence, comparing the eager JAMI expansions
+ * with the lazy IntAct expansions.
+ *
+ * The interaction is only built in memory, no database is needed.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public class BinaryExpansionBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int participants;
+
+    private IntactInteractionEvidence interaction;
+    private InteractionEvidenceSpokeExpansion spokeExpansion;
+    private InteractionEvidenceMatrixExpansion matrixExpansion;
+    private IntactLazyInteractionEvidenceSpokeExpansion lazySpokeExpansion;
+    private IntactLazyInteractionEvidenceMatrixExpansion lazyMatrixExpansion;
+
+    @Setup(Level.Trial)
+    public void createInteraction() {
+        this.interaction = new IntactInteractionEvidence("expansion");
+        for (int i = 0; i < this.participants; i++){
+            IntactParticipantEvidence participant = new IntactParticipantEvidence(new IntactProtein("protein-" + i));
+            // the first participant is the bait of the interaction
+            participant.setExperimentalRole(i == 0 ?
+                    IntactUtils.createMIExperimentalRole(Participant.BAIT_ROLE, Participant.BAIT_ROLE_MI) :
+                    IntactUtils.createMIExperimentalRole(Participant.PREY, Participant.PREY_MI));
+            this.interaction.addParticipant(participant);
+        }
+
+        this.spokeExpansion = new InteractionEvidenceSpokeExpansion();
+        this.spokeExpansion.setBinaryInteractionFactory(new IntactBinaryInteractionFactory());
+        this.matrixExpansion = new InteractionEvidenceMatrixExpansion();
+        this.matrixExpansion.setBinaryInteractionFactory(new IntactBinaryInteractionFactory());
+        this.lazySpokeExpansion = new IntactLazyInteractionEvidenceSpokeExpansion();
+        this.lazySpokeExpansion.setBinaryInteractionFactory(new IntactBinaryInteractionFactory());
+        this.lazyMatrixExpansion = new IntactLazyInteractionEvidenceMatrixExpansion();
+        this.lazyMatrixExpansion.setBinaryInteractionFactory(new IntactBinaryInteractionFactory());
+    }
+
+    @Benchmark
+    public void spokeExpansion(Blackhole blackhole) throws Exception {
+        for (BinaryInteractionEvidence binary : this.spokeExpansion.expand(this.interaction)){
+            blackhole.consume(binary);
+        }
+    }
+
+    @Benchmark
+    public void lazySpokeExpansion(Blackhole blackhole) throws Exception {
+        Iterator<BinaryInteractionEvidence> iterator = this.lazySpokeExpansion.expandLazily(this.interaction);
+        while (iterator.hasNext()){
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void matrixExpansion(Blackhole blackhole) throws Exception {
+        for (BinaryInteractionEvidence binary : this.matrixExpansion.expand(this.interaction)){
+            blackhole.consume(binary);
+        }
+    }
+
+    @Benchmark
+    public void lazyMatrixExpansion(Blackhole blackhole) throws Exception {
+        Iterator<BinaryInteractionEvidence> iterator = this.lazyMatrixExpansion.expandLazily(this.interaction);
+        while (iterator.hasNext()){
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package uk.ac.ebi.intact.jami.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import uk.ac.ebi.intact.jami.context.IntactConfiguration;
+import uk.ac.ebi.intact.jami.context.PersistenceProfile;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+/**
+ * Benchmark of the flushes of the synchronizers with the default and the write optimised persistence profiles.
+ *
+ * Each invocation synchronizes new objects with the synchronizers of the IntactDao, flushes and rolls back the transaction.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public class PersistenceProfileBenchmark extends AbstractIntactBenchmark {
+
+    @Param({"DEFAULT", "WRITE_OPTIMISED"})
+    private PersistenceProfile profile;
+
+    @Param({"100"})
+    private int cvTerms;
+
+    private SyntheticDatasetGenerator generator;
+    private int publicationIndex = 0;
+
+    @Override
+    protected void prepareData() throws Exception {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setMinInteractionsPerExperiment(10);
+        config.setMaxInteractionsPerExperiment(50);
+        this.generator = new SyntheticDatasetGenerator(config);
+        getIntactDao().getSynchronizerContext().setPersistenceProfile(this.profile, IntactConfiguration.DEFAULT_JDBC_BATCH_SIZE);
+    }
+
+    @Benchmark
+    public IntactCvTerm flushCvTerms() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactCvTerm>() {
+            public IntactCvTerm execute(IntactDao intactDao) throws Exception {
+                IntactCvTerm topic = null;
+                for (int i = 0; i < cvTerms; i++){
+                    topic = intactDao.getSynchronizerContext().getTopicSynchronizer()
+                            .synchronize(IntactUtils.createMITopic(nextName("topic"), null), true);
+                }
+                return topic;
+            }
+        });
+    }
+
+    @Benchmark
+    public IntactPublication flushSyntheticPublication() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactPublication>() {
+            public IntactPublication execute(IntactDao intactDao) throws Exception {
+                IntactPublication publication = generator.generatePublication(publicationIndex++ % generator.getConfig().getNumberOfPublications());
+                return intactDao.getSynchronizerContext().getPublicationSynchronizer().synchronize(publication, true);
+            }
+        });
+    }
+}
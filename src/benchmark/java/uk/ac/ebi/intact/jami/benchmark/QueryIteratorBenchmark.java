@@ -0,0 +1,65 @@
+package uk.ac.ebi.intact.jami.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import uk.ac.ebi.intact.jami.service.AcKeysetSortKey;
+import uk.ac.ebi.intact.jami.service.IntactQueryResultIterator;
+import uk.ac.ebi.intact.jami.service.InteractionEvidenceService;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatabasePopulator;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+
+/**
+ * Benchmark of the chunked reads of interaction evidences with IntactQueryResultIterator in keyset mode,
+ * with and without the initialisation of the lazy collections and the prefetch of the next chunk.
+ * The database is populated once per trial with a synthetic dataset.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public class QueryIteratorBenchmark extends AbstractIntactBenchmark {
+
+    private static final String ENTITY = "IntactInteractionEvidence";
+
+    @Param({"100"})
+    private int publications;
+
+    @Param({"false", "true"})
+    private boolean loadLazy;
+
+    @Param({"false", "true"})
+    private boolean prefetch;
+
+    private InteractionEvidenceService interactionEvidenceService;
+
+    @Override
+    protected void prepareData() throws Exception {
+        this.interactionEvidenceService = getBean("interactionEvidenceService");
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(this.publications);
+        config.setNumberOfComplexes(0);
+        new SyntheticDatabasePopulator(getIntactDao(), getTransactionManager()).populate(new SyntheticDatasetGenerator(config));
+    }
+
+    @Benchmark
+    public void readInteractionEvidences(Blackhole blackhole) {
+        IntactQueryResultIterator<InteractionEvidence> iterator = new IntactQueryResultIterator<InteractionEvidence>(this.interactionEvidenceService,
+                AcKeysetSortKey.createFirstQuery(ENTITY), AcKeysetSortKey.createKeysetQuery(ENTITY), null,
+                new AcKeysetSortKey<InteractionEvidence>(), this.loadLazy);
+        try {
+            iterator.setPrefetch(this.prefetch);
+            while (iterator.hasNext()){
+                blackhole.consume(iterator.next());
+            }
+        }
+        finally {
+            iterator.close();
+        }
+    }
+}
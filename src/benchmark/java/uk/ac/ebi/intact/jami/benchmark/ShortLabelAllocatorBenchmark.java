@@ -0,0 +1,50 @@
+package uk.ac.ebi.intact.jami.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.extension.IntactSource;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+
+/**
+ * Benchmark of the allocation of a free short label when the base label collides with existing labels.
+ *
+ * The sources 'collision', 'collision-1', ... 'collision-n' are persisted once per trial. A new allocator is created for each invocation
+ * so the labels reserved and the suffixes cached by the previous invocations are not reused.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public class ShortLabelAllocatorBenchmark extends AbstractIntactBenchmark {
+
+    private static final String BASE_LABEL = "collision";
+
+    @Param({"0", "10", "100"})
+    private int collisions;
+
+    @Override
+    protected void prepareData() throws Exception {
+        executeAndCommit(new IntactDaoCallback<Object>() {
+            public Object execute(IntactDao intactDao) throws Exception {
+                for (int i = 0; i < collisions; i++){
+                    intactDao.getEntityManager().persist(new IntactSource(i == 0 ? BASE_LABEL : BASE_LABEL + "-" + i));
+                }
+                return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public String nextFreeLabel() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<String>() {
+            public String execute(IntactDao intactDao) throws Exception {
+                ShortLabelAllocator allocator = new ShortLabelAllocator("shortName", null, "IntactSource");
+                return allocator.nextFreeLabel(intactDao.getEntityManager(), BASE_LABEL, 255, false, null);
+            }
+        });
+    }
+}
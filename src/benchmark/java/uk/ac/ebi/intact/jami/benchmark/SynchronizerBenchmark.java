@@ -0,0 +1,89 @@
+package uk.ac.ebi.intact.jami.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+/**
+ * Benchmark of the synchronization and persistence of new cv terms, proteins, interaction evidences and complexes.
+ *
+ * Each invocation synchronizes one new object with the synchronizers of the IntactDao, flushes and rolls back the transaction.
+ * The synthetic publication benchmark synchronizes a whole publication with its experiments and interaction evidences.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public class SynchronizerBenchmark extends AbstractIntactBenchmark {
+
+    @Param({"2", "10"})
+    private int participants;
+
+    private SyntheticDatasetGenerator generator;
+    private int publicationIndex = 0;
+
+    @Override
+    protected void prepareData() throws Exception {
+        this.generator = new SyntheticDatasetGenerator(new SyntheticDatasetConfig());
+    }
+
+    @Benchmark
+    public IntactCvTerm synchronizeCvTerm() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactCvTerm>() {
+            public IntactCvTerm execute(IntactDao intactDao) throws Exception {
+                return intactDao.getSynchronizerContext().getTopicSynchronizer()
+                        .synchronize(IntactUtils.createMITopic(nextName("topic"), null), true);
+            }
+        });
+    }
+
+    @Benchmark
+    public IntactProtein synchronizeProtein() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactProtein>() {
+            public IntactProtein execute(IntactDao intactDao) throws Exception {
+                return intactDao.getSynchronizerContext().getProteinSynchronizer()
+                        .synchronize(createProtein(nextName("protein")), true);
+            }
+        });
+    }
+
+    @Benchmark
+    public IntactInteractionEvidence synchronizeInteractionEvidence() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactInteractionEvidence>() {
+            public IntactInteractionEvidence execute(IntactDao intactDao) throws Exception {
+                return synchronizeInteractionEvidence(intactDao, createInteractionEvidence(nextName("interaction"), participants));
+            }
+        });
+    }
+
+    @Benchmark
+    public IntactComplex synchronizeComplex() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactComplex>() {
+            public IntactComplex execute(IntactDao intactDao) throws Exception {
+                return intactDao.getSynchronizerContext().getComplexSynchronizer()
+                        .synchronize(createComplex(nextName("complex"), participants), true);
+            }
+        });
+    }
+
+    @Benchmark
+    public IntactPublication synchronizeSyntheticPublication() throws Exception {
+        return executeAndRollback(new IntactDaoCallback<IntactPublication>() {
+            public IntactPublication execute(IntactDao intactDao) throws Exception {
+                IntactPublication publication = generator.generatePublication(publicationIndex++ % generator.getConfig().getNumberOfPublications());
+                return intactDao.getSynchronizerContext().getPublicationSynchronizer().synchronize(publication, true);
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package uk.ac.ebi.intact.jami.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Benchmark of the AC generation with and without a pool of sequence values.
+ *
+ * It is in the package of AcSequencePool because the pool is package private.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@State(Scope.Benchmark)
+public class AcSequencePoolBenchmark {
+
+    @Param({"1", "50"})
+    private int blockSize;
+
+    private Connection connection;
+    private AcSequencePool pool;
+
+    @Setup(Level.Trial)
+    public void createSequence() throws Exception {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:acbenchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement st = this.connection.createStatement()) {
+            st.execute("create sequence if not exists benchmark_seq start with 1 increment by " + this.blockSize);
+        }
+        this.pool = new AcSequencePool("call next value for benchmark_seq", this.blockSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void dropSequence() throws Exception {
+        try (Statement st = this.connection.createStatement()) {
+            st.execute("drop sequence benchmark_seq");
+        }
+        this.connection.close();
+    }
+
+    @Benchmark
+    public long nextValue() throws Exception {
+        return this.pool.nextValue(this.connection);
+    }
+}
@@ -0,0 +1,155 @@
+package uk.ac.ebi.intact.jami.context;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In memory index of all the cv terms of the database, built by SynchronizerContext.preload.
+ *
+ * The cv acs are indexed per objclass by identifier (identity and secondary xrefs) and by shortlabel.
+ * Each cv is also indexed without objclass so synchronizers without objclass can use the index.
+ *
+ * A cv found in the index exists in the database. A cv which is not in the index may have been created after the preload
+ * by another process so the synchronizers still query the database when they cannot find a cv in the index.
+ * The cvs persisted by the synchronizers are added to the index and the cvs updated or deleted by the synchronizers are removed from it.
+ *
+ * This index is thread safe.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CvTermIndex {
+
+    private final ConcurrentMap<String, Set<String>> acsPerIdentifier;
+    private final ConcurrentMap<String, Set<String>> acsPerShortName;
+    // identifier and shortlabel keys per ac so a cv can be removed from the index
+    private final ConcurrentMap<String, Set<String>> identifierKeysPerAc;
+    private final ConcurrentMap<String, Set<String>> shortNameKeysPerAc;
+
+    public CvTermIndex() {
+        this.acsPerIdentifier = new ConcurrentHashMap<String, Set<String>>();
+        this.acsPerShortName = new ConcurrentHashMap<String, Set<String>>();
+        this.identifierKeysPerAc = new ConcurrentHashMap<String, Set<String>>();
+        this.shortNameKeysPerAc = new ConcurrentHashMap<String, Set<String>>();
+    }
+
+    /**
+     * Indexes the shortlabel of a cv
+     * @param ac : the cv ac
+     * @param objClass : the cv objclass
+     * @param shortName : the cv shortlabel
+     */
+    public void addTerm(String ac, String objClass, String shortName) {
+        if (ac == null || shortName == null){
+            return;
+        }
+        index(this.acsPerShortName, this.shortNameKeysPerAc, ac, createKey(objClass, shortName));
+        index(this.acsPerShortName, this.shortNameKeysPerAc, ac, createKey(null, shortName));
+    }
+
+    /**
+     * Indexes an identifier of a cv
+     * @param ac : the cv ac
+     * @param objClass : the cv objclass
+     * @param database : the shortlabel of the database of the identifier
+     * @param identifier : the identifier
+     */
+    public void addIdentifier(String ac, String objClass, String database, String identifier) {
+        if (ac == null || database == null || identifier == null){
+            return;
+        }
+        index(this.acsPerIdentifier, this.identifierKeysPerAc, ac, createKey(objClass, database, identifier));
+        index(this.acsPerIdentifier, this.identifierKeysPerAc, ac, createKey(null, database, identifier));
+    }
+
+    /**
+     *
+     * @param objClass : the objclass of the cvs. If null, the cvs of any objclass are returned
+     * @param database : the shortlabel of the database of the identifier
+     * @param identifier : the identifier
+     * @return the acs of the cvs having this identifier, empty if no cvs in the index
+     */
+    public Collection<String> getAcsByIdentifier(String objClass, String database, String identifier) {
+        return getAcs(this.acsPerIdentifier, createKey(objClass, database, identifier));
+    }
+
+    /**
+     *
+     * @param objClass : the objclass of the cvs. If null, the cvs of any objclass are returned
+     * @param shortName : the shortlabel
+     * @return the acs of the cvs having this shortlabel, empty if no cvs in the index
+     */
+    public Collection<String> getAcsByShortName(String objClass, String shortName) {
+        return getAcs(this.acsPerShortName, createKey(objClass, shortName));
+    }
+
+    /**
+     * Removes a cv from the index
+     * @param ac : the ac of the cv to remove
+     */
+    public void remove(String ac) {
+        if (ac == null){
+            return;
+        }
+        unindex(this.acsPerIdentifier, this.identifierKeysPerAc, ac);
+        unindex(this.acsPerShortName, this.shortNameKeysPerAc, ac);
+    }
+
+    /**
+     *
+     * @return the number of indexed cvs
+     */
+    public int size() {
+        return this.shortNameKeysPerAc.size();
+    }
+
+    private void index(ConcurrentMap<String, Set<String>> acsPerKey, ConcurrentMap<String, Set<String>> keysPerAc, String ac, String key) {
+        getOrCreateSet(acsPerKey, key).add(ac);
+        getOrCreateSet(keysPerAc, ac).add(key);
+    }
+
+    private void unindex(ConcurrentMap<String, Set<String>> acsPerKey, ConcurrentMap<String, Set<String>> keysPerAc, String ac) {
+        Set<String> keys = keysPerAc.remove(ac);
+        if (keys != null){
+            for (String key : keys){
+                Set<String> acs = acsPerKey.get(key);
+                if (acs != null){
+                    acs.remove(ac);
+                }
+            }
+        }
+    }
+
+    private Collection<String> getAcs(ConcurrentMap<String, Set<String>> acsPerKey, String key) {
+        Set<String> acs = acsPerKey.get(key);
+        if (acs == null || acs.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        return Collections.unmodifiableSet(acs);
+    }
+
+    private Set<String> getOrCreateSet(ConcurrentMap<String, Set<String>> map, String key) {
+        Set<String> values = map.get(key);
+        if (values == null){
+            Set<String> newValues = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            values = map.putIfAbsent(key, newValues);
+            if (values == null){
+                values = newValues;
+            }
+        }
+        return values;
+    }
+
+    private String createKey(String objClass, String shortName) {
+        return objClass + "|" + shortName;
+    }
+
+    private String createKey(String objClass, String database, String identifier) {
+        return objClass + "|" + database + "|" + identifier;
+    }
+}
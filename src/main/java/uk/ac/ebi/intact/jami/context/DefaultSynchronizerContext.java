@@ -1,5 +1,14 @@
 package uk.ac.ebi.intact.jami.context;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import psidev.psi.mi.jami.model.*;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
 import uk.ac.ebi.intact.jami.merger.IntactDbMergerIgnoringLocalObject;
@@ -19,8 +28,12 @@ import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.impl.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 
 import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Default implementation of SynchronizerContext
@@ -31,12 +44,33 @@ import javax.persistence.EntityManager;
  */
 
 public class DefaultSynchronizerContext implements SynchronizerContext {
+    private static final Log log = LogFactory.getLog(DefaultSynchronizerContext.class);
+
     private EntityManager entityManager;
 
     private UserContext userContext;
 
     private DbSynchronizerListener listener;
 
+    // cache of reference data kept between transactions
+    private ReferenceDataCache referenceDataCache;
+
+    // short label allocators shared by the synchronizers writing in the same label space
+    private Map<String, ShortLabelAllocator> shortLabelAllocators = new HashMap<String, ShortLabelAllocator>();
+
+    // index of all cv terms, only available after preload
+    private CvTermIndex cvTermIndex;
+    // index of all interactor identifiers, only available after preloadInteractorIdentities
+    private InteractorIdentityIndex interactorIdentityIndex;
+    // number of rows fetched per database round trip when streaming the preloaded rows
+    private static final int PRELOAD_FETCH_SIZE = 1000;
+
+    // how the persisted objects are written, initialised from the IntactConfiguration
+    private PersistenceProfile persistenceProfile;
+    private boolean orderingWarningLogged = false;
+    private int jdbcBatchSize = IntactConfiguration.DEFAULT_JDBC_BATCH_SIZE;
+    private SequenceStorageMode sequenceStorageMode;
+
     // cv synchronizer
     private IntactCvSynchronizer generalCvSynchronizer;
     private IntactCvSynchronizer databaseSynchronizer;
@@ -174,6 +208,11 @@ public class DefaultSynchronizerContext implements SynchronizerContext {
         this.userContext = context != null ? context : (UserContext) ApplicationContextProvider.getBean("jamiUserContext");
     }
 
+    public DefaultSynchronizerContext(EntityManager entityManager, UserContext context, ReferenceDataCache referenceDataCache) {
+        this(entityManager, context);
+        this.referenceDataCache = referenceDataCache;
+    }
+
     public EntityManager getEntityManager() {
         return this.entityManager;
     }
@@ -957,6 +996,179 @@ public class DefaultSynchronizerContext implements SynchronizerContext {
         return this.userContext;
     }
 
+    @Override
+    public ReferenceDataCache getReferenceDataCache() {
+        if (this.referenceDataCache == null){
+            this.referenceDataCache = new ReferenceDataCache();
+        }
+        return this.referenceDataCache;
+    }
+
+    @Override
+    public void initialiseReferenceDataCache(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @Override
+    public ShortLabelAllocator getShortLabelAllocator(ShortLabelSpace labelSpace, String objClass) {
+        String key = labelSpace.name() + "|" + objClass;
+        ShortLabelAllocator allocator = this.shortLabelAllocators.get(key);
+        if (allocator == null){
+            allocator = new ShortLabelAllocator(getReferenceDataCache().getShortLabelRegistry(), labelSpace, objClass);
+            this.shortLabelAllocators.put(key, allocator);
+        }
+        return allocator;
+    }
+
+    @Override
+    public void preload() {
+        CvTermIndex index = new CvTermIndex();
+        // only projections are loaded so the cv entities are not attached to the session
+        ScrollableResults rows = scrollProjection("select cv.ac, cv.objClass, cv.shortName, d.shortName, q.shortName, x.id " +
+                "from IntactCvTerm cv " +
+                "left join cv.dbXrefs as x " +
+                "left join x.database as d " +
+                "left join x.qualifier as q");
+        try {
+            while (rows.next()){
+                Object[] row = rows.get();
+                String ac = (String) row[0];
+                String objClass = (String) row[1];
+                index.addTerm(ac, objClass, (String) row[2]);
+                // same identifiers as the ones used by the cv synchronizers
+                String qualifier = (String) row[4];
+                if (Xref.IDENTITY.equals(qualifier) || Xref.SECONDARY.equals(qualifier)){
+                    index.addIdentifier(ac, objClass, (String) row[3], (String) row[5]);
+                }
+            }
+        }
+        finally {
+            rows.close();
+        }
+
+        this.cvTermIndex = index;
+    }
+
+    /**
+     * Streams the rows of a projection query with a forward only cursor in a single query.
+     * The rows are not all loaded in memory and the query is not repeated per page.
+     * @param projectionQuery : the HQL projection query
+     * @return the rows of the query. They must be closed after reading
+     */
+    private ScrollableResults scrollProjection(String projectionQuery) {
+        Query query = this.entityManager.unwrap(Session.class).createQuery(projectionQuery);
+        query.setReadOnly(true);
+        query.setFetchSize(PRELOAD_FETCH_SIZE);
+        query.setCacheMode(CacheMode.IGNORE);
+        return query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    @Override
+    public CvTermIndex getCvTermIndex() {
+        return this.cvTermIndex;
+    }
+
+    @Override
+    public void preloadInteractorIdentities() {
+        InteractorIdentityIndex index = new InteractorIdentityIndex();
+        // only projections are loaded so the interactor entities are not attached to the session
+        ScrollableResults rows = scrollProjection("select i.ac, t.ac, o.ac, d.shortName, q.shortName, x.id " +
+                "from IntactInteractor i " +
+                "join i.interactorType as t " +
+                "left join i.organism as o " +
+                "left join i.dbXrefs as x " +
+                "left join x.database as d " +
+                "left join x.qualifier as q");
+        try {
+            while (rows.next()){
+                Object[] row = rows.get();
+                String ac = (String) row[0];
+                String typeAc = (String) row[1];
+                String organismAc = (String) row[2];
+                index.addInteractor(ac, typeAc, organismAc);
+                // same identifiers as the ones used by the interactor synchronizers
+                String qualifier = (String) row[4];
+                if (Xref.IDENTITY.equals(qualifier) || Xref.SECONDARY.equals(qualifier)){
+                    index.addIdentifier(ac, typeAc, organismAc, (String) row[3], (String) row[5]);
+                }
+            }
+        }
+        finally {
+            rows.close();
+        }
+
+        this.interactorIdentityIndex = index;
+    }
+
+    @Override
+    public InteractorIdentityIndex getInteractorIdentityIndex() {
+        return this.interactorIdentityIndex;
+    }
+
+    @Override
+    public PersistenceProfile getPersistenceProfile() {
+        if (this.persistenceProfile == null){
+            IntactContext intactContext = ApplicationContextProvider.getBean("intactJamiContext");
+            if (intactContext != null){
+                this.persistenceProfile = intactContext.getIntactConfiguration().getPersistenceProfile();
+                this.jdbcBatchSize = intactContext.getIntactConfiguration().getJdbcBatchSize();
+            }
+            else{
+                this.persistenceProfile = PersistenceProfile.DEFAULT;
+            }
+        }
+        return this.persistenceProfile;
+    }
+
+    @Override
+    public void setPersistenceProfile(PersistenceProfile persistenceProfile, int jdbcBatchSize) {
+        if (persistenceProfile == PersistenceProfile.WRITE_OPTIMISED && jdbcBatchSize < 2){
+            throw new IllegalArgumentException("The JDBC batch size of the write optimised persistence profile must be at least 2");
+        }
+        this.persistenceProfile = persistenceProfile;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Override
+    public int getJdbcBatchSize() {
+        getPersistenceProfile();
+        return this.jdbcBatchSize;
+    }
+
+    @Override
+    public void applyPersistenceProfile() {
+        // the default profile keeps the batch size of the entity manager factory
+        if (getPersistenceProfile() == PersistenceProfile.WRITE_OPTIMISED){
+            this.entityManager.unwrap(Session.class).setJdbcBatchSize(this.jdbcBatchSize);
+            SessionFactoryOptions options = this.entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getSessionFactoryOptions();
+            if (!orderingWarningLogged && (!options.isOrderInsertsEnabled() || !options.isOrderUpdatesEnabled())){
+                log.warn("The WRITE_OPTIMISED persistence profile is used without ordering the inserts and updates " +
+                        "(jami.db.order.statements=true) : the JDBC batches are split each time the entity type changes");
+                orderingWarningLogged = true;
+            }
+        }
+    }
+
+    @Override
+    public SequenceStorageMode getSequenceStorageMode() {
+        if (this.sequenceStorageMode == null){
+            IntactContext intactContext = ApplicationContextProvider.getBean("intactJamiContext");
+            if (intactContext != null){
+                this.sequenceStorageMode = intactContext.getIntactConfiguration().getSequenceStorageMode();
+            }
+            else{
+                this.sequenceStorageMode = SequenceStorageMode.CHUNKS;
+            }
+        }
+        return this.sequenceStorageMode;
+    }
+
+    @Override
+    public void setSequenceStorageMode(SequenceStorageMode sequenceStorageMode) {
+        this.sequenceStorageMode = sequenceStorageMode;
+    }
+
     @Override
     public DbSynchronizerListener getSynchronizerListener() {
         return this.listener;
@@ -1094,6 +1306,15 @@ public class DefaultSynchronizerContext implements SynchronizerContext {
         clearCache(this.dbInfoSynchronizer);
         clearCache(this.applicationSynchronizer);
         clearCache(this.applicationPropertySynchronizer);
+        for (ShortLabelAllocator allocator : this.shortLabelAllocators.values()){
+            // the transaction has been committed or rolled back
+            allocator.releaseClaims();
+            allocator.clear();
+        }
+        // the objects created in the transaction can now be found by the other contexts
+        if (getReferenceDataCache().getCreationRegistry() != null){
+            getReferenceDataCache().getCreationRegistry().releaseAll(this);
+        }
     }
 
     public IntactCvSynchronizer getGeneralCvSynchronizer() {
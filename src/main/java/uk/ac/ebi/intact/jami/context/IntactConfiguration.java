@@ -33,6 +33,11 @@ public class IntactConfiguration {
     private IntactSource defaultInstitution;
     private String localCvPrefix;
     private String complexAcPrefix;
+    private SequenceStorageMode sequenceStorageMode;
+    private PersistenceProfile persistenceProfile;
+    private int jdbcBatchSize = DEFAULT_JDBC_BATCH_SIZE;
+
+    public static final int DEFAULT_JDBC_BATCH_SIZE = 50;
 
     public IntactConfiguration() {
     }
@@ -81,6 +86,40 @@ public class IntactConfiguration {
         this.complexAcPrefix = complexAcPrefix;
     }
 
+    public SequenceStorageMode getSequenceStorageMode() {
+        if (sequenceStorageMode == null){
+            sequenceStorageMode = SequenceStorageMode.CHUNKS;
+        }
+        return sequenceStorageMode;
+    }
+
+    public void setSequenceStorageMode(SequenceStorageMode sequenceStorageMode) {
+        this.sequenceStorageMode = sequenceStorageMode;
+    }
+
+    public PersistenceProfile getPersistenceProfile() {
+        if (persistenceProfile == null){
+            persistenceProfile = PersistenceProfile.DEFAULT;
+        }
+        return persistenceProfile;
+    }
+
+    public void setPersistenceProfile(PersistenceProfile persistenceProfile) {
+        this.persistenceProfile = persistenceProfile;
+    }
+
+    /**
+     *
+     * @return the number of statements sent in one JDBC batch with the write optimised persistence profile
+     */
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize;
+    }
+
+    public void setJdbcBatchSize(int jdbcBatchSize) {
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder( 256 );
@@ -89,6 +128,9 @@ public class IntactConfiguration {
         sb.append( ", defaultInstitution=" ).append( defaultInstitution );
         sb.append( ", localCvPrefix='" ).append( localCvPrefix ).append( '\'' );
         sb.append( ", complexAcPrefix='" ).append(complexAcPrefix).append( '\'' );
+        sb.append( ", sequenceStorageMode=" ).append(sequenceStorageMode);
+        sb.append( ", persistenceProfile=" ).append(persistenceProfile);
+        sb.append( ", jdbcBatchSize=" ).append(jdbcBatchSize);
         sb.append( '}' );
         return sb.toString();
     }
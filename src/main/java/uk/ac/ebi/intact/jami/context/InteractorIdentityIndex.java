@@ -0,0 +1,182 @@
+package uk.ac.ebi.intact.jami.context;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In memory index of the identifiers of all the interactors of the database, built by SynchronizerContext.preloadInteractorIdentities.
+ *
+ * Each identity or secondary xref of an interactor (database shortlabel, identifier) is indexed with the ac of the interactor,
+ * the ac of its interactor type and the ac of its organism so the interactor synchronizers can filter the interactors
+ * without joining the xrefs.
+ * The interactors are also indexed by ac.
+ *
+ * An interactor found in the index exists in the database. An identifier which is not in the index may have been added after the preload
+ * by another process so the synchronizers still query the database when they cannot find an interactor in the index.
+ * The interactors persisted by the synchronizers are added to the index and the interactors updated or deleted by the synchronizers are removed from it.
+ *
+ * This index is thread safe.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class InteractorIdentityIndex {
+
+    private final ConcurrentMap<String, Set<Entry>> entriesPerIdentifier;
+    // identifier keys per interactor ac so an interactor can be removed from the index
+    private final ConcurrentMap<String, Set<String>> keysPerAc;
+
+    public InteractorIdentityIndex() {
+        this.entriesPerIdentifier = new ConcurrentHashMap<String, Set<Entry>>();
+        this.keysPerAc = new ConcurrentHashMap<String, Set<String>>();
+    }
+
+    /**
+     * Indexes an interactor by ac
+     * @param ac : the interactor ac
+     * @param typeAc : the ac of the interactor type
+     * @param organismAc : the ac of the organism. Can be null
+     */
+    public void addInteractor(String ac, String typeAc, String organismAc) {
+        if (ac == null){
+            return;
+        }
+        index(createKey(null, ac), new Entry(ac, typeAc, organismAc));
+    }
+
+    /**
+     * Indexes an identity or secondary xref of an interactor
+     * @param ac : the interactor ac
+     * @param typeAc : the ac of the interactor type
+     * @param organismAc : the ac of the organism. Can be null
+     * @param database : the shortlabel of the database of the identifier
+     * @param identifier : the identifier
+     */
+    public void addIdentifier(String ac, String typeAc, String organismAc, String database, String identifier) {
+        if (ac == null || database == null || identifier == null){
+            return;
+        }
+        index(createKey(database, identifier), new Entry(ac, typeAc, organismAc));
+    }
+
+    /**
+     *
+     * @param database : the shortlabel of the database of the identifier. If null, the identifier is an interactor ac
+     * @param identifier : the identifier
+     * @return the interactors having this identifier, empty if no interactors in the index
+     */
+    public Collection<Entry> getInteractors(String database, String identifier) {
+        Set<Entry> entries = this.entriesPerIdentifier.get(createKey(database, identifier));
+        if (entries == null || entries.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+
+    /**
+     * Removes an interactor from the index
+     * @param ac : the ac of the interactor to remove
+     */
+    public void remove(String ac) {
+        if (ac == null){
+            return;
+        }
+        Set<String> keys = this.keysPerAc.remove(ac);
+        if (keys != null){
+            for (String key : keys){
+                Set<Entry> entries = this.entriesPerIdentifier.get(key);
+                if (entries != null){
+                    entries.removeIf(entry -> ac.equals(entry.getAc()));
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the number of indexed interactors
+     */
+    public int size() {
+        return this.keysPerAc.size();
+    }
+
+    private void index(String key, Entry entry) {
+        Set<Entry> entries = this.entriesPerIdentifier.get(key);
+        if (entries == null){
+            Set<Entry> newEntries = Collections.newSetFromMap(new ConcurrentHashMap<Entry, Boolean>());
+            entries = this.entriesPerIdentifier.putIfAbsent(key, newEntries);
+            if (entries == null){
+                entries = newEntries;
+            }
+        }
+        entries.add(entry);
+
+        Set<String> keys = this.keysPerAc.get(entry.getAc());
+        if (keys == null){
+            Set<String> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            keys = this.keysPerAc.putIfAbsent(entry.getAc(), newKeys);
+            if (keys == null){
+                keys = newKeys;
+            }
+        }
+        keys.add(key);
+    }
+
+    private String createKey(String database, String identifier) {
+        return database + "|" + identifier;
+    }
+
+    /**
+     * Immutable entry of the index
+     */
+    public static final class Entry {
+        private final String ac;
+        private final String typeAc;
+        private final String organismAc;
+
+        private Entry(String ac, String typeAc, String organismAc) {
+            this.ac = ac;
+            this.typeAc = typeAc;
+            this.organismAc = organismAc;
+        }
+
+        public String getAc() {
+            return ac;
+        }
+
+        public String getTypeAc() {
+            return typeAc;
+        }
+
+        public String getOrganismAc() {
+            return organismAc;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o){
+                return true;
+            }
+            if (!(o instanceof Entry)){
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return ac.equals(entry.ac);
+        }
+
+        @Override
+        public int hashCode() {
+            return ac.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return ac + " (type: " + typeAc + ", organism: " + organismAc + ")";
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package uk.ac.ebi.intact.jami.context;
+
+/**
+ * How the synchronizers write the objects they persist in the database.
+ *
+ * The profile is selected for each SynchronizerContext so a writer or a service can use the write optimised profile
+ * while the other services keep the default one.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public enum PersistenceProfile {
+    /**
+     * The statements are sent with the JDBC batch size of the entity manager factory (hibernate.jdbc.batch_size, no batching by default)
+     */
+    DEFAULT,
+    /**
+     * The inserts and updates of the session are sent in JDBC batches of IntactConfiguration.jdbcBatchSize statements.
+     *
+     * This profile needs jami.db.order.statements=true (hibernate.order_inserts and hibernate.order_updates in intact-jami-spring.xml).
+     * Without it, a JDBC batch is sent each time the entity type of the statements changes, which happens for almost every statement
+     * of a synchronizer cascade, so the batches stay very small. The ordering is disabled by default because it is a setting
+     * of the entity manager factory which applies to all the sessions, so the applications writing with this profile should enable it
+     * in the entity manager factory they use for writing. A warning is logged when the profile is applied without it.
+     */
+    WRITE_OPTIMISED
+}
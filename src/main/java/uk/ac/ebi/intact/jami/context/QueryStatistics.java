@@ -0,0 +1,169 @@
+package uk.ac.ebi.intact.jami.context;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Counts of the SQL statements and of the entities and collections loaded by Hibernate.
+ *
+ * The Hibernate statistics (hibernate.generate_statistics) are global to the entity manager factory so a difference of two snapshots
+ * also includes the statements of the other threads using the same factory. The counts are exact when nothing else runs at the same time,
+ * which is the case in unit tests and most batch imports.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class QueryStatistics {
+
+    public static final QueryStatistics EMPTY = new QueryStatistics(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long statementCount;
+    private final long queryExecutionCount;
+    private final long entityLoadCount;
+    private final long entityFetchCount;
+    private final long collectionLoadCount;
+    private final long collectionFetchCount;
+    private final long entityInsertCount;
+    private final long entityUpdateCount;
+    private final long entityDeleteCount;
+
+    public QueryStatistics(long statementCount, long queryExecutionCount, long entityLoadCount, long entityFetchCount,
+                           long collectionLoadCount, long collectionFetchCount, long entityInsertCount, long entityUpdateCount,
+                           long entityDeleteCount) {
+        this.statementCount = statementCount;
+        this.queryExecutionCount = queryExecutionCount;
+        this.entityLoadCount = entityLoadCount;
+        this.entityFetchCount = entityFetchCount;
+        this.collectionLoadCount = collectionLoadCount;
+        this.collectionFetchCount = collectionFetchCount;
+        this.entityInsertCount = entityInsertCount;
+        this.entityUpdateCount = entityUpdateCount;
+        this.entityDeleteCount = entityDeleteCount;
+    }
+
+    /**
+     *
+     * @param statistics : the Hibernate statistics
+     * @return the counts of the Hibernate statistics since they were enabled or cleared
+     */
+    public static QueryStatistics snapshot(Statistics statistics) {
+        return new QueryStatistics(statistics.getPrepareStatementCount(), statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(), statistics.getCollectionFetchCount(),
+                statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount());
+    }
+
+    /**
+     *
+     * @param entityManagerFactory : a Hibernate entity manager factory
+     * @return the counts of the Hibernate statistics of the entity manager factory, EMPTY if the statistics are not enabled
+     */
+    public static QueryStatistics snapshot(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = getStatistics(entityManagerFactory);
+        return statistics != null ? snapshot(statistics) : EMPTY;
+    }
+
+    /**
+     *
+     * @param entityManagerFactory : a Hibernate entity manager factory
+     * @return the Hibernate statistics of the entity manager factory, null if they are not enabled
+     */
+    public static Statistics getStatistics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return statistics.isStatisticsEnabled() ? statistics : null;
+    }
+
+    /**
+     *
+     * @param previous : an older snapshot
+     * @return the counts since the previous snapshot
+     */
+    public QueryStatistics minus(QueryStatistics previous) {
+        return new QueryStatistics(statementCount - previous.statementCount, queryExecutionCount - previous.queryExecutionCount,
+                entityLoadCount - previous.entityLoadCount, entityFetchCount - previous.entityFetchCount,
+                collectionLoadCount - previous.collectionLoadCount, collectionFetchCount - previous.collectionFetchCount,
+                entityInsertCount - previous.entityInsertCount, entityUpdateCount - previous.entityUpdateCount,
+                entityDeleteCount - previous.entityDeleteCount);
+    }
+
+    public QueryStatistics plus(QueryStatistics other) {
+        return new QueryStatistics(statementCount + other.statementCount, queryExecutionCount + other.queryExecutionCount,
+                entityLoadCount + other.entityLoadCount, entityFetchCount + other.entityFetchCount,
+                collectionLoadCount + other.collectionLoadCount, collectionFetchCount + other.collectionFetchCount,
+                entityInsertCount + other.entityInsertCount, entityUpdateCount + other.entityUpdateCount,
+                entityDeleteCount + other.entityDeleteCount);
+    }
+
+    /**
+     *
+     * @return the number of JDBC statements prepared: queries, lazy loads, inserts, updates and deletes
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     *
+     * @return the number of HQL, criteria and native queries
+     */
+    public long getQueryExecutionCount() {
+        return queryExecutionCount;
+    }
+
+    public long getEntityLoadCount() {
+        return entityLoadCount;
+    }
+
+    /**
+     *
+     * @return the number of entities fetched with their own select, for instance when initialising a lazy proxy
+     */
+    public long getEntityFetchCount() {
+        return entityFetchCount;
+    }
+
+    public long getCollectionLoadCount() {
+        return collectionLoadCount;
+    }
+
+    /**
+     *
+     * @return the number of collections fetched with their own select, for instance when initialising a lazy collection
+     */
+    public long getCollectionFetchCount() {
+        return collectionFetchCount;
+    }
+
+    public long getEntityInsertCount() {
+        return entityInsertCount;
+    }
+
+    public long getEntityUpdateCount() {
+        return entityUpdateCount;
+    }
+
+    public long getEntityDeleteCount() {
+        return entityDeleteCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder( 256 );
+        sb.append( "QueryStatistics{" );
+        sb.append( "statements=" ).append( statementCount );
+        sb.append( ", queries=" ).append( queryExecutionCount );
+        sb.append( ", entityLoads=" ).append( entityLoadCount );
+        sb.append( ", entityFetches=" ).append( entityFetchCount );
+        sb.append( ", collectionLoads=" ).append( collectionLoadCount );
+        sb.append( ", collectionFetches=" ).append( collectionFetchCount );
+        sb.append( ", inserts=" ).append( entityInsertCount );
+        sb.append( ", updates=" ).append( entityUpdateCount );
+        sb.append( ", deletes=" ).append( entityDeleteCount );
+        sb.append( '}' );
+        return sb.toString();
+    }
+}
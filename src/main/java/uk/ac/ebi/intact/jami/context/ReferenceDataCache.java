@@ -0,0 +1,171 @@
+package uk.ac.ebi.intact.jami.context;
+
+import uk.ac.ebi.intact.jami.utils.CreationRegistry;
+import uk.ac.ebi.intact.jami.utils.ShortLabelRegistry;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Long-lived cache of reference data (cv terms, sources and organisms).
+ *
+ * Unlike the caches of the synchronizers, this cache is not cleared at the end of a transaction (see SynchronizerContext.clearCache).
+ * It never keeps entities : it keeps immutable snapshots containing the ac of the reference data matching a business key
+ * (identifier in an ontology). The synchronizers reload the entity from its ac in the current transaction.
+ *
+ * The snapshots of an entity must be invalidated when this entity is updated or deleted.
+ *
+ * This cache is thread safe and can be shared between several synchronizer contexts.
+ * A cache shared by synchronizer contexts writing in parallel also holds the registry of the short labels claimed by the short label allocators
+ * of these synchronizer contexts and the registry of the new objects they are creating.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ReferenceDataCache {
+
+    private final ConcurrentMap<String, Snapshot> snapshots;
+    // business keys per ac so all the snapshots of an entity can be invalidated
+    private final ConcurrentMap<String, Set<String>> keysPerAc;
+    private final ShortLabelRegistry shortLabelRegistry;
+    private final CreationRegistry creationRegistry;
+
+    public ReferenceDataCache() {
+        this(false);
+    }
+
+    /**
+     *
+     * @param sharedByParallelContexts : true if the cache is shared by synchronizer contexts writing in parallel. In this case,
+     * the short labels allocated by the contexts and the new objects created by the contexts are claimed in shared registries
+     */
+    public ReferenceDataCache(boolean sharedByParallelContexts) {
+        this.snapshots = new ConcurrentHashMap<String, Snapshot>();
+        this.keysPerAc = new ConcurrentHashMap<String, Set<String>>();
+        this.shortLabelRegistry = sharedByParallelContexts ? new ShortLabelRegistry() : null;
+        this.creationRegistry = sharedByParallelContexts ? new CreationRegistry() : null;
+    }
+
+    /**
+     *
+     * @param entityClass : the class of the reference data
+     * @param businessKey : the business key
+     * @return the snapshot of the reference data matching this business key, null if not cached
+     */
+    public Snapshot get(Class<?> entityClass, String businessKey) {
+        return this.snapshots.get(createKey(entityClass, businessKey));
+    }
+
+    /**
+     * Caches the ac of the reference data matching this business key
+     * @param entityClass : the class of the reference data
+     * @param businessKey : the business key
+     * @param ac : the ac of the reference data. Transient reference data (null ac) are not cached
+     * @param label : the label of the reference data when cached
+     */
+    public void put(Class<?> entityClass, String businessKey, String ac, String label) {
+        if (ac == null){
+            return;
+        }
+        String key = createKey(entityClass, businessKey);
+        Set<String> keys = this.keysPerAc.get(ac);
+        if (keys == null){
+            Set<String> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            keys = this.keysPerAc.putIfAbsent(ac, newKeys);
+            if (keys == null){
+                keys = newKeys;
+            }
+        }
+        keys.add(key);
+        this.snapshots.put(key, new Snapshot(ac, label));
+    }
+
+    /**
+     * Removes all the snapshots of the reference data having this ac
+     * @param ac : the ac of the reference data which has been updated or deleted
+     */
+    public void invalidate(String ac) {
+        if (ac == null){
+            return;
+        }
+        Set<String> keys = this.keysPerAc.remove(ac);
+        if (keys != null){
+            for (String key : keys){
+                Snapshot snapshot = this.snapshots.get(key);
+                if (snapshot != null && ac.equals(snapshot.getAc())){
+                    this.snapshots.remove(key, snapshot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the snapshot cached for this business key
+     * @param entityClass : the class of the reference data
+     * @param businessKey : the business key
+     */
+    public void invalidate(Class<?> entityClass, String businessKey) {
+        this.snapshots.remove(createKey(entityClass, businessKey));
+    }
+
+    public void clear() {
+        this.snapshots.clear();
+        this.keysPerAc.clear();
+    }
+
+    public int size() {
+        return this.snapshots.size();
+    }
+
+    /**
+     *
+     * @return the registry of the short labels claimed by the synchronizer contexts sharing this cache,
+     * null if the cache is not shared by synchronizer contexts writing in parallel
+     */
+    public ShortLabelRegistry getShortLabelRegistry() {
+        return shortLabelRegistry;
+    }
+
+    /**
+     *
+     * @return the registry of the new objects created by the synchronizer contexts sharing this cache,
+     * null if the cache is not shared by synchronizer contexts writing in parallel
+     */
+    public CreationRegistry getCreationRegistry() {
+        return creationRegistry;
+    }
+
+    private String createKey(Class<?> entityClass, String businessKey) {
+        return entityClass.getSimpleName() + "|" + businessKey;
+    }
+
+    /**
+     * Immutable snapshot of a reference data
+     */
+    public static final class Snapshot {
+        private final String ac;
+        private final String label;
+
+        private Snapshot(String ac, String label) {
+            this.ac = ac;
+            this.label = label;
+        }
+
+        public String getAc() {
+            return ac;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return label + " (" + ac + ")";
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package uk.ac.ebi.intact.jami.context;
+
+/**
+ * How the sequences of the polymers are stored in the database.
+ *
+ * The sequences are always read from both storages so the polymers persisted with one mode can still be read with the other mode.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public enum SequenceStorageMode {
+    /**
+     * The sequence is split in sequence chunks of IntactUtils.MAX_SEQ_LENGTH_PER_CHUNK characters (ia_sequence_chunk table).
+     * This mode is compatible with intact-core
+     */
+    CHUNKS,
+    /**
+     * The sequence is compressed and stored as a single LOB (ia_polymer_sequence table)
+     */
+    LOB
+}
@@ -14,6 +14,8 @@ import uk.ac.ebi.intact.jami.model.user.Role;
 import uk.ac.ebi.intact.jami.model.user.User;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 
 import javax.persistence.EntityManager;
 
@@ -37,7 +39,8 @@ public interface SynchronizerContext {
     public EntityManager getEntityManager();
 
     /**
-     * Clear cache of all synchronizers
+     * Clear cache of all synchronizers.
+     * The reference data cache is not cleared as it is kept between transactions
      */
     public void clearCache();
 
@@ -270,4 +273,92 @@ public interface SynchronizerContext {
     public DbSynchronizerListener getSynchronizerListener();
 
     public void initialiseDbSynchronizerListener(DbSynchronizerListener listener);
+
+    /**
+     *
+     * @return the cache of reference data (cvs, sources, organisms) which is kept between transactions. It is not cleared by clearCache
+     */
+    public ReferenceDataCache getReferenceDataCache();
+
+    /**
+     * Replaces the cache of reference data so it can be shared with other synchronizer contexts.
+     * It must be called before the synchronizers of this context are used because the short label allocators
+     * keep the short label registry of the cache they are created with
+     * @param referenceDataCache : the shared cache of reference data
+     */
+    public void initialiseReferenceDataCache(ReferenceDataCache referenceDataCache);
+
+    /**
+     * The allocators are shared by all the synchronizers of this context writing labels in the same label space.
+     * They are cleared and release the labels they claimed in the short label registry (if any) by clearCache
+     * @param labelSpace : the label space
+     * @param objClass : the objclass of the cv terms. Null if the label space is not the one of the cv terms
+     * @return the short label allocator of this label space
+     */
+    public ShortLabelAllocator getShortLabelAllocator(ShortLabelSpace labelSpace, String objClass);
+
+    /**
+     * Loads all the cv terms of the database with their identifiers and objclass and builds the cv term index
+     * used by all cv synchronizers.
+     * The cv term index is not cleared by clearCache
+     */
+    public void preload();
+
+    /**
+     *
+     * @return the index of all cv terms built by preload, null if the cv terms have not been preloaded
+     */
+    public CvTermIndex getCvTermIndex();
+
+    /**
+     * Loads the identity and secondary identifiers of all the interactors of the database with the acs of their interactor type and organism
+     * and builds the interactor identity index used by all interactor synchronizers.
+     * The interactor identity index is not cleared by clearCache
+     */
+    public void preloadInteractorIdentities();
+
+    /**
+     *
+     * @return the index of the interactor identifiers built by preloadInteractorIdentities, null if the interactors have not been preloaded
+     */
+    public InteractorIdentityIndex getInteractorIdentityIndex();
+
+    /**
+     *
+     * @return the profile used to write the objects persisted by the synchronizers. By default, the profile of the IntactConfiguration
+     */
+    public PersistenceProfile getPersistenceProfile();
+
+    /**
+     * Selects how the objects persisted by the synchronizers of this context are written.
+     * When switching back to the default profile, the session of the current transaction keeps the batch size of the previous profile
+     * @param persistenceProfile : the persistence profile
+     * @param jdbcBatchSize : the number of statements sent in one JDBC batch with the write optimised profile
+     */
+    public void setPersistenceProfile(PersistenceProfile persistenceProfile, int jdbcBatchSize);
+
+    /**
+     *
+     * @return the number of statements sent in one JDBC batch with the write optimised profile
+     */
+    public int getJdbcBatchSize();
+
+    /**
+     * Configures the session of the current transaction with the persistence profile.
+     * It is called by the synchronizers before persisting or flushing objects
+     */
+    public void applyPersistenceProfile();
+
+    /**
+     *
+     * @return how the sequences of the new polymers are stored. By default, the sequence storage mode of the IntactConfiguration
+     */
+    public SequenceStorageMode getSequenceStorageMode();
+
+    /**
+     * Selects how the sequences of the polymers persisted by the synchronizers of this context are stored.
+     * The sequences of the existing polymers are converted with InteractorService.convertSequenceStorage
+     * @param sequenceStorageMode : the sequence storage mode
+     */
+    public void setSequenceStorageMode(SequenceStorageMode sequenceStorageMode);
 }
@@ -17,4 +17,18 @@ public interface PolymerDao<I extends IntactPolymer> extends InteractorDao<I> {
     String getSequenceByPolymerAc( String polymerAc );
 
     public Collection<I> getByCanonicalIds(String dbMI, Collection<String> primaryIds);
+
+    /**
+     *
+     * @param sequenceDigests : the sequence digests computed with SequenceChecksumUtils.computeSequenceDigest
+     * @return the polymers having one of these sequence digests
+     */
+    public Collection<I> getBySequenceChecksum(Collection<String> sequenceDigests);
+
+    /**
+     *
+     * @param crc64s : the crc64 of the sequences computed with SequenceChecksumUtils.computeCrc64
+     * @return the polymers having one of these crc64. The polymers must then be compared by sequence as the crc64 can have collisions
+     */
+    public Collection<I> getByCrc64(Collection<String> crc64s);
 }
@@ -142,9 +142,8 @@ public abstract class AbstractIntactBaseDao<I,T extends Auditable> implements In
     }
 
     public void persistAll(Collection<T> objsToPersist) throws FinderException,PersisterException,SynchronizerException{
-        for (T obj : objsToPersist){
-            persist(obj);
-        }
+        getDbSynchronizer().synchronizeAll(objsToPersist, true);
+        getDbSynchronizer().flush();
     }
 
     public void delete(T objToDelete) {
@@ -13,6 +13,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Implementation of polymerDao
@@ -91,6 +92,34 @@ public class PolymerDaoImpl<T extends Polymer, P extends IntactPolymer> extends
         return query.getResultList();
     }
 
+    @Retryable(
+            include = PersistenceException.class,
+            maxAttemptsExpression = "${retry.maxAttempts}",
+            backoff = @Backoff(delayExpression = "${retry.maxDelay}", multiplierExpression = "${retry.multiplier}"))
+    public Collection<P> getBySequenceChecksum(Collection<String> sequenceDigests) {
+        if (sequenceDigests.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        Query query = getEntityManager().createQuery("select f from " + getEntityClass().getSimpleName() + " f " +
+                "where f.sequenceDigest in (:digests)");
+        query.setParameter("digests", sequenceDigests);
+        return query.getResultList();
+    }
+
+    @Retryable(
+            include = PersistenceException.class,
+            maxAttemptsExpression = "${retry.maxAttempts}",
+            backoff = @Backoff(delayExpression = "${retry.maxDelay}", multiplierExpression = "${retry.multiplier}"))
+    public Collection<P> getByCrc64(Collection<String> crc64s) {
+        if (crc64s.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        Query query = getEntityManager().createQuery("select f from " + getEntityClass().getSimpleName() + " f " +
+                "where f.crc64 in (:crc64s)");
+        query.setParameter("crc64s", crc64s);
+        return query.getResultList();
+    }
+
     @Override
     public IntactDbSynchronizer getDbSynchronizer() {
         return getSynchronizerContext().getPolymerSynchronizer();
@@ -0,0 +1,153 @@
+package uk.ac.ebi.intact.jami.interceptor;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import uk.ac.ebi.intact.jami.context.QueryStatistics;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JPA transaction manager which records the SQL statements and the entity and collection loads of each transaction
+ * from the Hibernate statistics (hibernate.generate_statistics).
+ *
+ * The statistics are aggregated by transaction name. The transactions started by @Transactional are named after the class and the method
+ * of the service, so the statistics of a service are the ones of the calls which started a transaction. A service called inside an existing transaction
+ * is counted in the statistics of the outer transaction.
+ * As the Hibernate statistics are global, the statistics of concurrent transactions include each other's statements (see QueryStatistics).
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactJpaTransactionManager extends JpaTransactionManager {
+    private static final Logger LOGGER = Logger.getLogger("IntactJpaTransactionManager");
+
+    private static final String UNNAMED_TRANSACTION = "unnamed";
+
+    private final ThreadLocal<Deque<TransactionStart>> currentTransactions = new ThreadLocal<Deque<TransactionStart>>();
+    private final ThreadLocal<QueryStatistics> lastTransactionStatistics = new ThreadLocal<QueryStatistics>();
+    private final ConcurrentMap<String, QueryStatistics> transactionStatistics = new ConcurrentHashMap<String, QueryStatistics>();
+    private final ConcurrentMap<String, LongAdder> transactionCounts = new ConcurrentHashMap<String, LongAdder>();
+
+    private long statementWarningThreshold = 0;
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (QueryStatistics.getStatistics(getEntityManagerFactory()) != null){
+            Deque<TransactionStart> transactions = this.currentTransactions.get();
+            if (transactions == null){
+                transactions = new ArrayDeque<TransactionStart>();
+                this.currentTransactions.set(transactions);
+            }
+            transactions.push(new TransactionStart(definition.getName() != null ? definition.getName() : UNNAMED_TRANSACTION,
+                    QueryStatistics.snapshot(getEntityManagerFactory())));
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            Deque<TransactionStart> transactions = this.currentTransactions.get();
+            if (transactions != null && !transactions.isEmpty()){
+                TransactionStart start = transactions.pop();
+                if (transactions.isEmpty()){
+                    this.currentTransactions.remove();
+                }
+                recordTransaction(start.name, QueryStatistics.snapshot(getEntityManagerFactory()).minus(start.statistics));
+            }
+        }
+        finally {
+            super.doCleanupAfterCompletion(transaction);
+        }
+    }
+
+    /**
+     *
+     * @return the statistics of the last transaction completed by the current thread, null if no transaction has been recorded
+     */
+    public QueryStatistics getLastTransactionStatistics() {
+        return this.lastTransactionStatistics.get();
+    }
+
+    /**
+     *
+     * @return the sum of the statistics of the completed transactions, per transaction name
+     */
+    public Map<String, QueryStatistics> getTransactionStatistics() {
+        return Collections.unmodifiableMap(new HashMap<String, QueryStatistics>(this.transactionStatistics));
+    }
+
+    /**
+     *
+     * @return the number of completed transactions, per transaction name
+     */
+    public Map<String, Long> getTransactionCounts() {
+        Map<String, Long> counts = new HashMap<String, Long>(this.transactionCounts.size());
+        for (Map.Entry<String, LongAdder> entry : this.transactionCounts.entrySet()){
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    public void resetTransactionStatistics() {
+        this.transactionStatistics.clear();
+        this.transactionCounts.clear();
+    }
+
+    public long getStatementWarningThreshold() {
+        return statementWarningThreshold;
+    }
+
+    /**
+     *
+     * @param statementWarningThreshold : the transactions issuing more statements are logged as warnings. 0 to disable the warnings
+     */
+    public void setStatementWarningThreshold(long statementWarningThreshold) {
+        this.statementWarningThreshold = statementWarningThreshold;
+    }
+
+    private void recordTransaction(String name, QueryStatistics statistics) {
+        this.lastTransactionStatistics.set(statistics);
+        QueryStatistics total = this.transactionStatistics.putIfAbsent(name, statistics);
+        while (total != null && !this.transactionStatistics.replace(name, total, total.plus(statistics))){
+            total = this.transactionStatistics.get(name);
+        }
+        LongAdder count = this.transactionCounts.get(name);
+        if (count == null){
+            LongAdder newCount = new LongAdder();
+            count = this.transactionCounts.putIfAbsent(name, newCount);
+            if (count == null){
+                count = newCount;
+            }
+        }
+        count.increment();
+
+        if (this.statementWarningThreshold > 0 && statistics.getStatementCount() > this.statementWarningThreshold){
+            LOGGER.log(Level.WARNING, "The transaction " + name + " issued more than " + this.statementWarningThreshold + " statements: " + statistics);
+        }
+        else if (LOGGER.isLoggable(Level.FINE)){
+            LOGGER.log(Level.FINE, "Transaction " + name + ": " + statistics);
+        }
+    }
+
+    private static class TransactionStart {
+        private final String name;
+        private final QueryStatistics statistics;
+
+        private TransactionStart(String name, QueryStatistics statistics) {
+            this.name = name;
+            this.statistics = statistics;
+        }
+    }
+}
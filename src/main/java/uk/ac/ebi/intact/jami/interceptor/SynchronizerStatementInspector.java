@@ -0,0 +1,24 @@
+package uk.ac.ebi.intact.jami.interceptor;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbSynchronizerTracer;
+
+/**
+ * Statement inspector which attaches the SQL statements prepared by Hibernate to the synchronizer operation
+ * traced by the DbSynchronizerTracer of the current thread.
+ *
+ * It is configured with the property hibernate.session_factory.statement_inspector and does not change the statements.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SynchronizerStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        DbSynchronizerTracer.recordStatement(sql);
+        return sql;
+    }
+}
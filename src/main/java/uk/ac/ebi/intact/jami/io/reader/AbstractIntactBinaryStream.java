@@ -57,6 +57,22 @@ public abstract class AbstractIntactBinaryStream<T extends Interaction, B extend
         this.delegate.setCountQuery(countQuery);
     }
 
+    public String getKeysetQuery() {
+        return this.delegate.getKeysetQuery();
+    }
+
+    public void setKeysetQuery(String keysetQuery) {
+        this.delegate.setKeysetQuery(keysetQuery);
+    }
+
+    public boolean isPrefetchNextChunk() {
+        return this.delegate.isPrefetchNextChunk();
+    }
+
+    public void setPrefetchNextChunk(boolean prefetchNextChunk) {
+        this.delegate.setPrefetchNextChunk(prefetchNextChunk);
+    }
+
     public ComplexExpansionMethod<T, B> getExpansionMethod() {
         if (this.expansionMethod == null){
            initialiseDefaultExpansionMethod();
@@ -88,7 +104,7 @@ public abstract class AbstractIntactBinaryStream<T extends Interaction, B extend
         if (!this.delegate.isInitialised()){
             this.delegate.initialiseContext(null);
         }
-        return new IntactQueryBinaryResultIterator<T,B>(this.delegate.getIntactService(), getQuery(), getCountQuery(), getQueryParameters(), getExpansionMethod());
+        return new IntactQueryBinaryResultIterator<T,B>(this.delegate.createQueryIterator(false), getExpansionMethod());
     }
 
     public void close() throws MIIOException{
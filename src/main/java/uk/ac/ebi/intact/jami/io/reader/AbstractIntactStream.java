@@ -6,10 +6,14 @@ import psidev.psi.mi.jami.datasource.MIDataSource;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.Interaction;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.service.AcKeysetSortKey;
 import uk.ac.ebi.intact.jami.service.IntactQueryResultIterator;
+import uk.ac.ebi.intact.jami.service.IntactScrollableResultIterator;
 import uk.ac.ebi.intact.jami.service.IntactService;
+import uk.ac.ebi.intact.jami.service.KeysetSortKey;
 import uk.ac.ebi.intact.jami.utils.IntactDataSourceOptions;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -29,6 +33,13 @@ public abstract class AbstractIntactStream<T extends Interaction> implements MID
     private String query;
     private Map<String, Object> queryParameters;
     private boolean initialiseLazy = false;
+    private String keysetQuery;
+    private KeysetSortKey<T> keysetSortKey;
+    private boolean streamingMode = false;
+    private int streamingFetchSize = IntactScrollableResultIterator.DEFAULT_FETCH_SIZE;
+    private IntactScrollableResultIterator<T> streamingIterator;
+    private boolean prefetchNextChunk = false;
+    private IntactQueryResultIterator<T> queryIterator;
 
     public AbstractIntactStream(){
         if (isSpringContextInitialised()){
@@ -66,6 +77,46 @@ public abstract class AbstractIntactStream<T extends Interaction> implements MID
         this.countQuery = countQuery;
     }
 
+    public String getKeysetQuery() {
+        return keysetQuery;
+    }
+
+    public void setKeysetQuery(String keysetQuery) {
+        this.keysetQuery = keysetQuery;
+    }
+
+    public KeysetSortKey<T> getKeysetSortKey() {
+        return keysetSortKey;
+    }
+
+    public void setKeysetSortKey(KeysetSortKey<T> keysetSortKey) {
+        this.keysetSortKey = keysetSortKey;
+    }
+
+    public boolean isStreamingMode() {
+        return streamingMode;
+    }
+
+    public void setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+    }
+
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+
+    public void setStreamingFetchSize(int streamingFetchSize) {
+        this.streamingFetchSize = streamingFetchSize;
+    }
+
+    public boolean isPrefetchNextChunk() {
+        return prefetchNextChunk;
+    }
+
+    public void setPrefetchNextChunk(boolean prefetchNextChunk) {
+        this.prefetchNextChunk = prefetchNextChunk;
+    }
+
     public void initialiseContext(Map<String, Object> options) {
         IntactService<T> intactService = null;
 
@@ -104,6 +155,14 @@ public abstract class AbstractIntactStream<T extends Interaction> implements MID
         if (options.containsKey(IntactDataSourceOptions.HQL_QUERY_OPTION)){
             this.query = (String)options.get(IntactDataSourceOptions.HQL_QUERY_OPTION);
         }
+        // load keyset query
+        if (options.containsKey(IntactDataSourceOptions.HQL_KEYSET_QUERY_OPTION)){
+            this.keysetQuery = (String)options.get(IntactDataSourceOptions.HQL_KEYSET_QUERY_OPTION);
+        }
+        // load keyset sort key
+        if (options.containsKey(IntactDataSourceOptions.KEYSET_SORT_KEY_OPTION)){
+            this.keysetSortKey = (KeysetSortKey<T>)options.get(IntactDataSourceOptions.KEYSET_SORT_KEY_OPTION);
+        }
         // load query parameters
         if (options.containsKey(IntactDataSourceOptions.HQL_QUERY_PARAMETERS_OPTION)){
             this.queryParameters = (Map<String, Object>)options.get(IntactDataSourceOptions.DB_INITIALISE_LAZY);
@@ -112,6 +171,17 @@ public abstract class AbstractIntactStream<T extends Interaction> implements MID
         if (options.containsKey(IntactDataSourceOptions.DB_INITIALISE_LAZY)){
             this.initialiseLazy = (Boolean)options.get(IntactDataSourceOptions.HQL_QUERY_PARAMETERS_OPTION);
         }
+        // load streaming mode
+        if (options.containsKey(IntactDataSourceOptions.DB_STREAMING_MODE)){
+            this.streamingMode = (Boolean)options.get(IntactDataSourceOptions.DB_STREAMING_MODE);
+        }
+        if (options.containsKey(IntactDataSourceOptions.DB_STREAMING_FETCH_SIZE)){
+            this.streamingFetchSize = (Integer)options.get(IntactDataSourceOptions.DB_STREAMING_FETCH_SIZE);
+        }
+        // load prefetch of the next chunk
+        if (options.containsKey(IntactDataSourceOptions.DB_PREFETCH_NEXT_CHUNK)){
+            this.prefetchNextChunk = (Boolean)options.get(IntactDataSourceOptions.DB_PREFETCH_NEXT_CHUNK);
+        }
 
         if (this.intactService == null){
             throw new IllegalStateException("The IntAct interaction datasource has not been initialised. The options for the IntAct interaction datasource should contains at least "+ IntactDataSourceOptions.SPRING_CONFIG_OPTION + " to know how to connect to " +
@@ -126,29 +196,118 @@ public abstract class AbstractIntactStream<T extends Interaction> implements MID
         if (!isInitialised){
             initialiseContext(null);
         }
-        return new IntactQueryResultIterator<T>(getIntactService(), getQuery(), getCountQuery(), getQueryParameters(), initialiseLazy);
+        if (streamingMode && (getQuery() != null || getDefaultEntityName() != null)){
+            return createStreamingIterator(initialiseLazy);
+        }
+        return createQueryIterator(initialiseLazy);
+    }
+
+    /**
+     * Creates the iterator streaming the IntAct results with a server side cursor.
+     * When there is no custom query, all the results of the default entity are streamed by ac.
+     * The previous streaming iterator of this stream is closed.
+     * @param loadLazyCollections : true if the lazy collections should be initialised
+     * @return the iterator over the IntAct results
+     */
+    protected IntactScrollableResultIterator<T> createStreamingIterator(boolean loadLazyCollections) {
+        closeStreamingIterator();
+        String streamingQuery = getQuery() != null ? getQuery() : AcKeysetSortKey.createFirstQuery(getDefaultEntityName());
+        this.streamingIterator = new IntactScrollableResultIterator<T>(
+                ApplicationContextProvider.getBean("intactEntityManagerFactory", EntityManagerFactory.class),
+                streamingQuery, getQueryParameters(), this.streamingFetchSize,
+                loadLazyCollections ? this::initialiseLazyProperties : null);
+        return this.streamingIterator;
+    }
+
+    /**
+     * Initialises the lazy properties of a result streamed with a server side cursor, before it is detached.
+     * Does nothing by default
+     * @param result : the result to initialise
+     */
+    protected void initialiseLazyProperties(T result) {
+        // nothing to do by default
+    }
+
+    /**
+     * Creates the iterator over the IntAct results.
+     * When there is no custom query, all the results are iterated by ac in keyset mode if the stream provides a default entity name.
+     * When there is a custom query, the keyset mode is used if a keyset query is provided. Otherwise,
+     * the results are loaded chunk by chunk with an offset.
+     * If the prefetch is enabled, the next chunk is loaded in background and the previous iterator of this stream is closed.
+     * @param loadLazyCollections : true if the lazy collections should be initialised
+     * @return the iterator over the IntAct results
+     */
+    protected IntactQueryResultIterator<T> createQueryIterator(boolean loadLazyCollections) {
+        IntactQueryResultIterator<T> iterator;
+        if (getQuery() == null && getDefaultEntityName() != null){
+            iterator = new IntactQueryResultIterator<T>(getIntactService(), AcKeysetSortKey.createFirstQuery(getDefaultEntityName()),
+                    AcKeysetSortKey.createKeysetQuery(getDefaultEntityName()), null, new AcKeysetSortKey<T>(), loadLazyCollections);
+        }
+        else if (getQuery() != null && getKeysetQuery() != null){
+            iterator = new IntactQueryResultIterator<T>(getIntactService(), getQuery(), getKeysetQuery(), getQueryParameters(),
+                    getKeysetSortKey() != null ? getKeysetSortKey() : new AcKeysetSortKey<T>(), loadLazyCollections);
+        }
+        else{
+            iterator = new IntactQueryResultIterator<T>(getIntactService(), getQuery(), getCountQuery(), getQueryParameters(), loadLazyCollections);
+        }
+        if (this.prefetchNextChunk){
+            closeQueryIterator();
+            iterator.setPrefetch(true);
+            this.queryIterator = iterator;
+        }
+        return iterator;
+    }
+
+    /**
+     *
+     * @return the name of the entity to iterate by ac when no query is provided. If null, the results are loaded with an offset
+     */
+    protected String getDefaultEntityName() {
+        return null;
     }
 
     public void close() throws MIIOException{
+        closeStreamingIterator();
+        closeQueryIterator();
         if (isInitialised){
             this.intactService = null;
             this.queryParameters = null;
             this.query = null;
             this.countQuery = null;
+            this.keysetQuery = null;
+            this.keysetSortKey = null;
             isInitialised = false;
         }
     }
 
     public void reset() throws MIIOException{
+        closeStreamingIterator();
+        closeQueryIterator();
         if (isInitialised){
             this.intactService = null;
             this.queryParameters = null;
             this.query = null;
             this.countQuery = null;
+            this.keysetQuery = null;
+            this.keysetSortKey = null;
             isInitialised = false;
         }
     }
 
+    private void closeStreamingIterator() {
+        if (this.streamingIterator != null){
+            this.streamingIterator.close();
+            this.streamingIterator = null;
+        }
+    }
+
+    private void closeQueryIterator() {
+        if (this.queryIterator != null){
+            this.queryIterator.close();
+            this.queryIterator = null;
+        }
+    }
+
     protected abstract boolean isSpringContextInitialised();
 
     protected abstract void initialiseDefaultIntactService();
@@ -4,7 +4,9 @@ import psidev.psi.mi.jami.datasource.ComplexStream;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.Complex;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
 import uk.ac.ebi.intact.jami.service.ComplexService;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
 
 import java.util.Iterator;
 
@@ -40,4 +42,16 @@ public class IntactComplexStream extends AbstractIntactStream<Complex> implement
     public Iterator<Complex> getInteractorsIterator() throws MIIOException {
         return getInteractionsIterator();
     }
+
+    @Override
+    protected String getDefaultEntityName() {
+        return "IntactComplex";
+    }
+
+    @Override
+    protected void initialiseLazyProperties(Complex result) {
+        if (result instanceof IntactComplex){
+            IntactUtils.initialiseComplex((IntactComplex) result);
+        }
+    }
 }
@@ -3,7 +3,9 @@ package uk.ac.ebi.intact.jami.io.reader;
 import psidev.psi.mi.jami.datasource.InteractionEvidenceStream;
 import psidev.psi.mi.jami.model.InteractionEvidence;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
 import uk.ac.ebi.intact.jami.service.InteractionEvidenceService;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
 
 /**
  * Intact stream for interaction evidences
@@ -32,4 +34,16 @@ public class IntactEvidenceStream extends AbstractIntactStream<InteractionEviden
     protected void initialiseDefaultIntactService() {
         setIntactService((InteractionEvidenceService) ApplicationContextProvider.getBean("interactionEvidenceService"));
     }
+
+    @Override
+    protected String getDefaultEntityName() {
+        return "IntactInteractionEvidence";
+    }
+
+    @Override
+    protected void initialiseLazyProperties(InteractionEvidence result) {
+        if (result instanceof IntactInteractionEvidence){
+            IntactUtils.initialiseInteractionEvidence((IntactInteractionEvidence) result, true);
+        }
+    }
 }
@@ -32,4 +32,9 @@ public class IntactModelledStream extends AbstractIntactStream<ModelledInteracti
     protected void initialiseDefaultIntactService() {
         setIntactService((ModelledInteractionService)ApplicationContextProvider.getBean("modelledInteractionService"));
     }
+
+    @Override
+    protected String getDefaultEntityName() {
+        return "IntactComplex";
+    }
 }
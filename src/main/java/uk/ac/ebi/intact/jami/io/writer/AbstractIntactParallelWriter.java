@@ -0,0 +1,290 @@
+package uk.ac.ebi.intact.jami.io.writer;
+
+import psidev.psi.mi.jami.datasource.InteractionWriter;
+import psidev.psi.mi.jami.exception.MIIOException;
+import psidev.psi.mi.jami.model.Interaction;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
+import uk.ac.ebi.intact.jami.utils.IntactWriterOptions;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Abstract class for Intact interaction writers persisting interactions with several workers in parallel.
+ *
+ * The interactions are partitioned by publication : all the interactions of a publication are persisted by the same worker, in the order
+ * they have been written, so two workers never synchronize the same publication, experiments or interactions.
+ * Each worker is an AbstractIntactWriter running in its own thread with its own IntactService, IntactDao and SynchronizerContext.
+ *
+ * The workers share the same ReferenceDataCache so the reference data (cvs, sources, organisms) are resolved once for all the workers
+ * and the short labels allocated by one worker are never allocated by another worker. The acs are generated by the database sequence
+ * and cannot collide.
+ * New reference data or interactors which do not exist in the database are claimed in the CreationRegistry of the ReferenceDataCache
+ * before being created : a worker creating an object already being created by another worker waits for the end of the other worker's
+ * transaction and loads the committed object instead of creating it twice. If two workers wait for each other, the chunk of one of them
+ * is rolled back and persisted again interaction by interaction.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public abstract class AbstractIntactParallelWriter<T extends Interaction> implements InteractionWriter<T> {
+
+    private static final int DEFAULT_NUMBER_OF_WORKERS = 4;
+    // maximum number of interactions waiting for a worker, per worker
+    private static final int MAX_PENDING_INTERACTIONS_PER_WORKER = 100;
+
+    private int numberOfWorkers = DEFAULT_NUMBER_OF_WORKERS;
+    private List<AbstractIntactWriter<T>> workers;
+    private List<ExecutorService> executors;
+    private ReferenceDataCache referenceDataCache;
+    private Semaphore pendingInteractions;
+    // first error thrown by a worker
+    private AtomicReference<Exception> workerFailure = new AtomicReference<Exception>();
+    private int nextWorker = 0;
+    private boolean isInitialised = false;
+
+    public AbstractIntactParallelWriter(){
+        this.referenceDataCache = new ReferenceDataCache(true);
+    }
+
+    /**
+     *
+     * @param referenceDataCache : the cache of reference data shared by the workers. It must be created for parallel contexts
+     * (see ReferenceDataCache(boolean)) so the workers share the same short label registry
+     */
+    public AbstractIntactParallelWriter(ReferenceDataCache referenceDataCache){
+        if (referenceDataCache != null && referenceDataCache.getShortLabelRegistry() == null){
+            throw new IllegalArgumentException("The reference data cache of the IntAct parallel writer must be shared by parallel contexts so the workers do not allocate the same short labels");
+        }
+        this.referenceDataCache = referenceDataCache != null ? referenceDataCache : new ReferenceDataCache(true);
+    }
+
+    public void initialiseContext(Map<String, Object> options) {
+        if (options != null && options.containsKey(IntactWriterOptions.NUMBER_OF_WORKERS_OPTION)){
+            setNumberOfWorkers((Integer)options.get(IntactWriterOptions.NUMBER_OF_WORKERS_OPTION));
+        }
+
+        this.workers = new ArrayList<AbstractIntactWriter<T>>(this.numberOfWorkers);
+        this.executors = new ArrayList<ExecutorService>(this.numberOfWorkers);
+        Map<String, Object> workerOptions = options;
+        for (int i = 0; i < this.numberOfWorkers; i++){
+            AbstractIntactWriter<T> worker = createWorker();
+            worker.initialiseContext(workerOptions);
+            // each worker has its own synchronizer context but all the contexts share the same reference data
+            if (worker.getIntactService().getIntactDao() != null){
+                worker.getIntactService().getIntactDao().getSynchronizerContext().initialiseReferenceDataCache(this.referenceDataCache);
+            }
+            this.workers.add(worker);
+            this.executors.add(Executors.newSingleThreadExecutor());
+
+            // the spring configuration is only loaded by the first worker
+            if (i == 0 && options != null && options.containsKey(IntactWriterOptions.SPRING_CONFIG_OPTION)){
+                workerOptions = new HashMap<String, Object>(options);
+                workerOptions.remove(IntactWriterOptions.SPRING_CONFIG_OPTION);
+            }
+        }
+        this.pendingInteractions = new Semaphore(this.numberOfWorkers * MAX_PENDING_INTERACTIONS_PER_WORKER);
+        this.workerFailure.set(null);
+        this.nextWorker = 0;
+        this.isInitialised = true;
+    }
+
+    public void start() throws MIIOException {
+        // nothing to do
+    }
+
+    public void end() throws MIIOException {
+        // nothing to do
+    }
+
+    public void write(T interaction) throws MIIOException {
+        if (!isInitialised){
+            throw new IllegalStateException("The IntAct parallel writer has not been initialised. The options for the IntAct parallel writer should contains at least "+ IntactWriterOptions.SPRING_CONFIG_OPTION + " to know how to connect to " +
+                    "the IntAct database using a valid IntactService<Interaction> bean.");
+        }
+        checkWorkerFailure();
+
+        int workerIndex = selectWorker(interaction);
+        final AbstractIntactWriter<T> worker = this.workers.get(workerIndex);
+        final T interactionToWrite = interaction;
+        try {
+            this.pendingInteractions.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MIIOException("The IntAct parallel writer has been interrupted", e);
+        }
+        this.executors.get(workerIndex).execute(() -> {
+            try {
+                // a worker stops writing after the first error
+                if (workerFailure.get() == null){
+                    worker.write(interactionToWrite);
+                }
+            } catch (Exception e) {
+                workerFailure.compareAndSet(null, e);
+            } finally {
+                pendingInteractions.release();
+            }
+        });
+    }
+
+    public void write(Collection<? extends T> interactions) throws MIIOException {
+        write(interactions.iterator());
+    }
+
+    public void write(Iterator<? extends T> iterator) throws MIIOException {
+        while(iterator.hasNext()){
+            write(iterator.next());
+        }
+    }
+
+    public void flush() throws MIIOException {
+        if (isInitialised){
+            runOnAllWorkers(AbstractIntactWriter::flush, true);
+        }
+    }
+
+    public void close() throws MIIOException {
+        if (isInitialised){
+            try{
+                runOnAllWorkers(AbstractIntactWriter::close, true);
+            }
+            finally {
+                shutdownWorkers();
+            }
+        }
+    }
+
+    public void reset() throws MIIOException {
+        if (isInitialised){
+            try{
+                // the interactions not written yet and the errors of the workers are discarded
+                runOnAllWorkers(AbstractIntactWriter::reset, false);
+            }
+            finally {
+                this.workerFailure.set(null);
+                shutdownWorkers();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the number of workers persisting interactions in parallel
+     */
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    public void setNumberOfWorkers(int numberOfWorkers) {
+        if (numberOfWorkers < 1){
+            throw new IllegalArgumentException("The IntAct parallel writer needs at least one worker");
+        }
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    /**
+     *
+     * @return the cache of reference data shared by all the workers
+     */
+    public ReferenceDataCache getReferenceDataCache() {
+        return referenceDataCache;
+    }
+
+    /**
+     *
+     * @return the interactions which could not be persisted and have been skipped by the workers
+     */
+    public List<T> getSkippedInteractions() {
+        List<T> skippedInteractions = new ArrayList<T>();
+        if (this.workers != null){
+            for (AbstractIntactWriter<T> worker : this.workers){
+                skippedInteractions.addAll(worker.getSkippedInteractions());
+            }
+        }
+        return skippedInteractions;
+    }
+
+    /**
+     *
+     * @return a new writer which will be used as a worker
+     */
+    protected abstract AbstractIntactWriter<T> createWorker();
+
+    /**
+     *
+     * @param interaction : the interaction to persist
+     * @return the key of the partition of this interaction (usually its publication), null if the interaction does not belong to any partition
+     */
+    protected abstract Object extractPartitionKey(T interaction);
+
+    protected int selectWorker(T interaction) {
+        Object key = extractPartitionKey(interaction);
+        // the interactions without partition are distributed between all the workers
+        if (key == null){
+            int worker = this.nextWorker;
+            this.nextWorker = (this.nextWorker + 1) % this.numberOfWorkers;
+            return worker;
+        }
+        return Math.floorMod(key.hashCode(), this.numberOfWorkers);
+    }
+
+    private void runOnAllWorkers(WorkerTask<T> task, boolean stopAfterFailure) throws MIIOException {
+        List<Future<?>> results = new ArrayList<Future<?>>(this.numberOfWorkers);
+        for (int i = 0; i < this.workers.size(); i++){
+            final AbstractIntactWriter<T> worker = this.workers.get(i);
+            // the tasks are run after all the interactions already submitted to the worker
+            results.add(this.executors.get(i).submit(() -> {
+                if (!stopAfterFailure || workerFailure.get() == null){
+                    task.run(worker);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results){
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MIIOException("The IntAct parallel writer has been interrupted", e);
+            } catch (ExecutionException e) {
+                this.workerFailure.compareAndSet(null, e.getCause() instanceof Exception ? (Exception)e.getCause() : e);
+            }
+        }
+        if (stopAfterFailure){
+            checkWorkerFailure();
+        }
+    }
+
+    private void shutdownWorkers() throws MIIOException {
+        for (ExecutorService executor : this.executors){
+            executor.shutdown();
+        }
+        try {
+            for (ExecutorService executor : this.executors){
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MIIOException("The IntAct parallel writer has been interrupted", e);
+        } finally {
+            this.isInitialised = false;
+        }
+    }
+
+    private void checkWorkerFailure() throws MIIOException {
+        Exception failure = this.workerFailure.get();
+        if (failure instanceof MIIOException){
+            throw (MIIOException)failure;
+        }
+        else if (failure != null){
+            throw new MIIOException("A worker of the IntAct parallel writer failed", failure);
+        }
+    }
+
+    private interface WorkerTask<T extends Interaction> {
+        void run(AbstractIntactWriter<T> worker) throws MIIOException;
+    }
+}
@@ -1,19 +1,22 @@
 package uk.ac.ebi.intact.jami.io.writer;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 import psidev.psi.mi.jami.datasource.InteractionWriter;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.Interaction;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.context.PersistenceProfile;
+import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.service.IntactService;
 import uk.ac.ebi.intact.jami.synchronizer.FinderException;
 import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
 import uk.ac.ebi.intact.jami.utils.IntactWriterOptions;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Abstract class for Intact interaction writer
@@ -28,6 +31,14 @@ public abstract class AbstractIntactWriter<T extends Interaction> implements Int
     private boolean isInitialised = false;
     private IntactService<T> intactService;
 
+    // interactions persisted together in one transaction
+    private int chunkSize = 1;
+    private List<T> chunk = new ArrayList<T>();
+    private boolean skipFailedInteractions = false;
+    private List<T> skippedInteractions = new ArrayList<T>();
+
+    private static final Log log = LogFactory.getLog(AbstractIntactWriter.class);
+
     public AbstractIntactWriter(){
         if (isSpringContextInitialised()){
             initialiseDefaultIntactService();
@@ -55,6 +66,8 @@ public abstract class AbstractIntactWriter<T extends Interaction> implements Int
             return;
         }
 
+        initialiseChunkOptions(options);
+
         // first load spring context if not done yet
         if (options.containsKey(IntactWriterOptions.SPRING_CONFIG_OPTION)
                 && options.containsKey(IntactWriterOptions.INTERACTION_SERVICE_NAME_OPTION)){
@@ -77,6 +90,8 @@ public abstract class AbstractIntactWriter<T extends Interaction> implements Int
         else{
             isInitialised = true;
         }
+
+        initialisePersistenceOptions(options);
     }
 
     public void start() throws MIIOException {
@@ -93,14 +108,15 @@ public abstract class AbstractIntactWriter<T extends Interaction> implements Int
                     "the IntAct database using a valid IntactService<Interaction> bean.");
         }
 
-        try {
-            getIntactService().saveOrUpdate(t);
-        } catch (PersisterException e) {
-            throw new MIIOException("Cannot persist interaction "+t.toString(), e);
-        } catch (FinderException e) {
-            throw new MIIOException("Cannot persist interaction "+t.toString(), e);
-        } catch (SynchronizerException e) {
-            throw new MIIOException("Cannot persist interaction "+t.toString(), e);
+        // chunk mode : the interaction is persisted with the other interactions of the chunk
+        if (this.chunkSize > 1){
+            this.chunk.add(t);
+            if (this.chunk.size() >= this.chunkSize){
+                writeChunk();
+            }
+        }
+        else{
+            writeInteraction(t);
         }
     }
 
@@ -115,13 +131,22 @@ public abstract class AbstractIntactWriter<T extends Interaction> implements Int
     }
 
     public void flush() throws MIIOException {
-         // nothing to do
+        // commit the interactions of the current chunk
+        if (isInitialised && !this.chunk.isEmpty()){
+            writeChunk();
+        }
     }
 
     public void close() throws MIIOException{
         if (isInitialised){
-            this.intactService = null;
-            isInitialised = false;
+            try{
+                flush();
+            }
+            finally {
+                this.intactService = null;
+                isInitialised = false;
+                this.chunk.clear();
+            }
         }
     }
 
@@ -130,6 +155,127 @@ public abstract class AbstractIntactWriter<T extends Interaction> implements Int
             this.intactService = null;
             isInitialised = false;
         }
+        // the interactions not written yet are discarded
+        this.chunk.clear();
+        this.skippedInteractions.clear();
+    }
+
+    /**
+     *
+     * @return the number of interactions persisted together in one transaction
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     *
+     * @return true if the interactions which cannot be persisted are skipped, false if the writer fails
+     */
+    public boolean isSkipFailedInteractions() {
+        return skipFailedInteractions;
+    }
+
+    public void setSkipFailedInteractions(boolean skipFailedInteractions) {
+        this.skipFailedInteractions = skipFailedInteractions;
+    }
+
+    /**
+     *
+     * @return the interactions which could not be persisted and have been skipped
+     */
+    public List<T> getSkippedInteractions() {
+        return skippedInteractions;
+    }
+
+    /**
+     * Persists all the interactions of the current chunk in one transaction.
+     * If the chunk cannot be persisted, the transaction is rolled back and each interaction of the chunk is persisted again
+     * in its own transaction so only the invalid interactions are skipped or fail the writer.
+     * @throws MIIOException
+     */
+    protected void writeChunk() throws MIIOException {
+        List<T> interactions = new ArrayList<T>(this.chunk);
+        this.chunk.clear();
+
+        try {
+            getIntactService().saveOrUpdate(interactions);
+        } catch (PersisterException | FinderException | SynchronizerException | RuntimeException e) {
+            log.warn("Cannot persist the chunk of " + interactions.size() + " interactions, the interactions will be persisted one by one", e);
+            // the synchronizers may have cached objects of the rolled back transaction
+            clearSynchronizerCache();
+            // the interactions keep the acs generated in the rolled back transaction
+            resetRolledBackAcs(interactions);
+            for (T interaction : interactions){
+                writeInteraction(interaction);
+            }
+        }
+    }
+
+    /**
+     * Persists one interaction in its own transaction and skips it if it fails and the writer can skip failed interactions
+     * @param t : the interaction to persist
+     * @throws MIIOException
+     */
+    protected void writeInteraction(T t) throws MIIOException {
+        try {
+            getIntactService().saveOrUpdate(t);
+        } catch (PersisterException | FinderException | SynchronizerException | RuntimeException e) {
+            if (!this.skipFailedInteractions){
+                if (e instanceof RuntimeException){
+                    throw (RuntimeException)e;
+                }
+                throw new MIIOException("Cannot persist interaction "+t.toString(), e);
+            }
+            log.error("Cannot persist interaction " + t.toString() + ", the interaction is skipped", e);
+            this.skippedInteractions.add(t);
+            clearSynchronizerCache();
+            // the objects shared with the next interactions keep the acs generated in the rolled back transaction
+            resetRolledBackAcs(Collections.singletonList(t));
+        }
+    }
+
+    protected void clearSynchronizerCache() {
+        if (getIntactService().getIntactDao() != null){
+            getIntactService().getIntactDao().getSynchronizerContext().clearCache();
+        }
+    }
+
+    /**
+     * Resets the acs generated in a rolled back transaction in the interactions and all the objects they reference
+     * so they can be persisted again in another transaction
+     * @param interactions : the interactions of the rolled back transaction
+     */
+    protected void resetRolledBackAcs(Collection<T> interactions) {
+        if (getIntactService().getIntactDao() != null){
+            IntactUtils.resetRolledBackAcs(getIntactService().getIntactDao().getEntityManager(), interactions);
+        }
+    }
+
+    protected void initialiseChunkOptions(Map<String, Object> options) {
+        if (options.containsKey(IntactWriterOptions.CHUNK_SIZE_OPTION)){
+            setChunkSize((Integer)options.get(IntactWriterOptions.CHUNK_SIZE_OPTION));
+        }
+        if (options.containsKey(IntactWriterOptions.SKIP_FAILED_INTERACTIONS_OPTION)){
+            setSkipFailedInteractions((Boolean)options.get(IntactWriterOptions.SKIP_FAILED_INTERACTIONS_OPTION));
+        }
+    }
+
+    /**
+     * Selects the persistence profile of the synchronizers of the IntAct service
+     * @param options
+     */
+    protected void initialisePersistenceOptions(Map<String, Object> options) {
+        if (options.containsKey(IntactWriterOptions.PERSISTENCE_PROFILE_OPTION) && getIntactService().getIntactDao() != null){
+            SynchronizerContext context = getIntactService().getIntactDao().getSynchronizerContext();
+            context.setPersistenceProfile((PersistenceProfile)options.get(IntactWriterOptions.PERSISTENCE_PROFILE_OPTION),
+                    options.containsKey(IntactWriterOptions.JDBC_BATCH_SIZE_OPTION) ?
+                            (Integer)options.get(IntactWriterOptions.JDBC_BATCH_SIZE_OPTION) : context.getJdbcBatchSize());
+        }
     }
 
     protected abstract boolean isSpringContextInitialised();
@@ -58,7 +58,8 @@ public class IntactMixedWriter implements InteractionWriter<Interaction> {
     }
 
     public void flush() throws MIIOException {
-        // nothing to do
+        this.evidenceWriter.flush();
+        this.modelledWriter.flush();
     }
 
     public void close() throws MIIOException {
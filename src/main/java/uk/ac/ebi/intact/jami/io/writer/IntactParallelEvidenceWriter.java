@@ -0,0 +1,54 @@
+package uk.ac.ebi.intact.jami.io.writer;
+
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.Publication;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
+
+/**
+ * Parallel writer for interaction evidences, partitioned by publication
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactParallelEvidenceWriter extends AbstractIntactParallelWriter<InteractionEvidence>{
+
+    public IntactParallelEvidenceWriter() {
+        super();
+    }
+
+    public IntactParallelEvidenceWriter(ReferenceDataCache referenceDataCache) {
+        super(referenceDataCache);
+    }
+
+    @Override
+    protected AbstractIntactWriter<InteractionEvidence> createWorker() {
+        return new IntactEvidenceWriter();
+    }
+
+    @Override
+    protected Object extractPartitionKey(InteractionEvidence interaction) {
+        if (interaction.getExperiment() == null || interaction.getExperiment().getPublication() == null){
+            return null;
+        }
+        return extractPublicationKey(interaction.getExperiment().getPublication());
+    }
+
+    static Object extractPublicationKey(Publication publication) {
+        if (publication.getPubmedId() != null){
+            return publication.getPubmedId();
+        }
+        else if (publication.getDoi() != null){
+            return publication.getDoi();
+        }
+        else if (publication.getImexId() != null){
+            return publication.getImexId();
+        }
+        else if (publication.getTitle() != null){
+            return publication.getTitle();
+        }
+        // same publication instance
+        return publication;
+    }
+}
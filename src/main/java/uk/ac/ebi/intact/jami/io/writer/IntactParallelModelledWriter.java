@@ -0,0 +1,42 @@
+package uk.ac.ebi.intact.jami.io.writer;
+
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.ModelledInteraction;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
+
+/**
+ * Parallel writer for modelled interactions, partitioned by the publication of their first interaction evidence.
+ * The modelled interactions without interaction evidences are distributed between all the workers.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactParallelModelledWriter extends AbstractIntactParallelWriter<ModelledInteraction>{
+
+    public IntactParallelModelledWriter() {
+        super();
+    }
+
+    public IntactParallelModelledWriter(ReferenceDataCache referenceDataCache) {
+        super(referenceDataCache);
+    }
+
+    @Override
+    protected AbstractIntactWriter<ModelledInteraction> createWorker() {
+        return new IntactModelledWriter();
+    }
+
+    @Override
+    protected Object extractPartitionKey(ModelledInteraction interaction) {
+        if (interaction.getInteractionEvidences().isEmpty()){
+            return null;
+        }
+        InteractionEvidence evidence = interaction.getInteractionEvidences().iterator().next();
+        if (evidence.getExperiment() == null || evidence.getExperiment().getPublication() == null){
+            return null;
+        }
+        return IntactParallelEvidenceWriter.extractPublicationKey(evidence.getExperiment().getPublication());
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2002-2006 The European Bioinformatics Institute, and others.
+ * All rights reserved. Please see the file LICENSE
+ * in the root directory of this distribution.
+ */
+package uk.ac.ebi.intact.jami.model;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.id.IdentifierGenerationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooled (pooled-lo) allocator of sequence values used by the AC generators.
+ *
+ * Each call to the database sequence reserves a block of blockSize values [value, value + blockSize[.
+ * The database sequence MUST be declared with 'increment by blockSize' so that several JVMs sharing the same sequence
+ * never get overlapping blocks. When the block size is 1, the sequence is called for each new value as before.
+ *
+ * Values are handed out from the current block with a lock-free counter, only the reservation of a new block is synchronized.
+ * A failure of the sequence call is thrown as an IdentifierGenerationException so the flush fails where the AC could not be generated.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ */
+class AcSequencePool {
+
+    private static final Log log = LogFactory.getLog(AcSequencePool.class);
+
+    private final String sequenceCallSyntax;
+    private final int blockSize;
+    private volatile Block currentBlock;
+    private boolean isIncrementChecked = false;
+
+    AcSequencePool(String sequenceCallSyntax, int blockSize) {
+        if (blockSize < 1){
+            throw new IllegalArgumentException("The block size of the sequence "+sequenceCallSyntax+" must be at least 1 but was "+blockSize);
+        }
+        this.sequenceCallSyntax = sequenceCallSyntax;
+        this.blockSize = blockSize;
+        this.currentBlock = new Block(0, 0);
+    }
+
+    long nextValue(Connection connection) {
+        try {
+            return nextPooledValue(connection);
+        } catch (SQLException e) {
+            log.error("Cannot get the next value of the sequence called with '"+sequenceCallSyntax+"'", e);
+            throw new IdentifierGenerationException("Cannot get the next value of the sequence called with '"+sequenceCallSyntax+"'", e);
+        }
+    }
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    private long nextPooledValue(Connection connection) throws SQLException {
+        if (blockSize == 1){
+            return callSequence(connection);
+        }
+
+        while (true){
+            Block block = currentBlock;
+            long value = block.next.getAndIncrement();
+            if (value < block.upperBound){
+                return value;
+            }
+            reserveBlock(block, connection);
+        }
+    }
+
+    private synchronized void reserveBlock(Block exhaustedBlock, Connection connection) throws SQLException {
+        // another thread already reserved a new block
+        if (currentBlock != exhaustedBlock){
+            return;
+        }
+        long lowerBound = callSequence(connection);
+        if (!isIncrementChecked){
+            // the sequence must be incremented by the block size, otherwise two JVMs would hand out the same values
+            long secondValue = callSequence(connection);
+            if (secondValue - lowerBound < blockSize){
+                throw new HibernateException("The sequence called with '"+sequenceCallSyntax+"' is not incremented by "+blockSize
+                        +" (got "+lowerBound+" then "+secondValue+"). Alter the sequence increment or use a block size of 1.");
+            }
+            isIncrementChecked = true;
+            lowerBound = secondValue;
+        }
+        if (log.isTraceEnabled()){
+            log.trace("Reserved sequence block ["+lowerBound+", "+(lowerBound + blockSize)+"[");
+        }
+        currentBlock = new Block(lowerBound, lowerBound + blockSize);
+    }
+
+    private long callSequence(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sequenceCallSyntax)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+        throw new SQLException("The sequence call '"+sequenceCallSyntax+"' did not return any value");
+    }
+
+    /**
+     * Range of reserved values [next, upperBound[
+     */
+    private static class Block {
+        private final AtomicLong next;
+        private final long upperBound;
+
+        private Block(long lowerBound, long upperBound) {
+            this.next = new AtomicLong(lowerBound);
+            this.upperBound = upperBound;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.commons.logging.LogFactory;
 import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.enhanced.SequenceStyleGenerator;
@@ -20,9 +21,6 @@ import uk.ac.ebi.intact.jami.ApplicationContextProvider;
 import uk.ac.ebi.intact.jami.context.IntactContext;
 
 import java.io.Serializable;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.Properties;
 
 /**
@@ -33,13 +31,19 @@ import java.util.Properties;
 public class ComplexAcGenerator extends SequenceStyleGenerator {
 
     private static final Log log = LogFactory.getLog(ComplexAcGenerator.class);
-    private String sequenceCallSyntax;
+    private AcSequencePool sequencePool;
+    private volatile String prefix;
     // To avoid the use of the schema in the sequence name a public synonym was added after created the sequence
     // INTACT_AC sequence works in the same way
     // grant select on INTACT.COMPLEX_AC to REPLACE_SCHEMA_USER;
     // create public synonym COMPLEX_AC for INTACT.COMPLEX_AC;
     // grant select,delete,insert,update on IA_COMPLEX_AC to REPLACE_SCHEMA_USER;
     // create public synonym IA_COMPLEX_AC for INTACT.IA_COMPLEX_AC;
+    /**
+     * Number of ACs reserved with one sequence call. It can be given as a generator parameter or as a hibernate property.
+     * When it is bigger than 1, the database sequence must be incremented by the same value.
+     */
+    public static final String BLOCK_SIZE_PARAM = "intact.complex_ac.block_size";
     public static final String COMPLEX_AC_SEQUENCE_NAME = "intact.complex_ac";
 
     @Override
@@ -62,38 +66,38 @@ public class ComplexAcGenerator extends SequenceStyleGenerator {
                 ? properties.getProperty(JPA_ENTITY_NAME) + sequencePerEntitySuffix
                 : DEF_SEQUENCE_NAME;
 
-        sequenceCallSyntax = dialect.getSequenceNextValString(ConfigurationHelper.getString(SEQUENCE_PARAM, properties, defaultSequenceName));
+        int blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_PARAM, properties,
+                ConfigurationHelper.getInt(BLOCK_SIZE_PARAM, serviceRegistry.getService(ConfigurationService.class).getSettings(), 1));
+        // the sequence created by the schema export must be incremented by the block size
+        if (blockSize > 1 && !properties.containsKey(INCREMENT_PARAM)){
+            properties.put(INCREMENT_PARAM, Integer.toString(blockSize));
+        }
+
+        sequencePool = new AcSequencePool(dialect.getSequenceNextValString(ConfigurationHelper.getString(SEQUENCE_PARAM, properties, defaultSequenceName)),
+                blockSize);
         super.configure(type, properties, serviceRegistry);
     }
 
     @Override
     public Serializable generate(SharedSessionContractImplementor sessionImplementor, Object object) throws HibernateException {
-         //TODO... Change the logic
-        String prefix = "CPX";
-        String stringId = null;
+        // a failure of the sequence is thrown as an IdentifierGenerationException by the pool
+        long id = sequencePool.nextValue(sessionImplementor.connection());
+        String stringId = getPrefix() + "-" + id;
+        log.trace("Assigning Complex Ac: " + stringId);
+
+        return stringId;
+    }
+
+    private String getPrefix() {
+        // the prefix is cached as soon as the intact context is available to avoid a spring lookup per generated AC
+        if (prefix != null){
+            return prefix;
+        }
         IntactContext intactContext = ApplicationContextProvider.getBean("intactJamiContext");
         if (intactContext != null) {
             prefix = intactContext.getIntactConfiguration().getComplexAcPrefix();
+            return prefix;
         }
-
-        Connection connection = sessionImplementor.connection();
-        try {
-            try (PreparedStatement ps = connection.prepareStatement(sequenceCallSyntax)) {
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        long id = rs.getLong(1);
-                        stringId = prefix + "-" + id;
-                    }
-                    log.trace("Assigning Complex Ac: " + stringId);
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-
-        return stringId;
+        return "CPX";
     }
-
-
 }
@@ -8,6 +8,7 @@ package uk.ac.ebi.intact.jami.model;
 import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.enhanced.SequenceStyleGenerator;
@@ -18,9 +19,6 @@ import uk.ac.ebi.intact.jami.ApplicationContextProvider;
 import uk.ac.ebi.intact.jami.context.IntactContext;
 
 import java.io.Serializable;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.Properties;
 
 /**
@@ -30,7 +28,13 @@ import java.util.Properties;
  */
 public class IntactAcGenerator extends SequenceStyleGenerator {
 
-    private String sequenceCallSyntax;
+    private AcSequencePool sequencePool;
+    private volatile String prefix;
+    /**
+     * Number of ACs reserved with one sequence call. It can be given as a generator parameter or as a hibernate property.
+     * When it is bigger than 1, the database sequence must be incremented by the same value.
+     */
+    public static final String BLOCK_SIZE_PARAM = "intact.ac.block_size";
     public static final String INTACT_AC_SEQUENCE_NAME = "intact.intact_ac";
 
 
@@ -53,35 +57,37 @@ public class IntactAcGenerator extends SequenceStyleGenerator {
                 ? properties.getProperty(JPA_ENTITY_NAME) + sequencePerEntitySuffix
                 : DEF_SEQUENCE_NAME;
 
-        sequenceCallSyntax = dialect.getSequenceNextValString(ConfigurationHelper.getString(SEQUENCE_PARAM, properties, defaultSequenceName));
+        int blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_PARAM, properties,
+                ConfigurationHelper.getInt(BLOCK_SIZE_PARAM, serviceRegistry.getService(ConfigurationService.class).getSettings(), 1));
+        // the sequence created by the schema export must be incremented by the block size
+        if (blockSize > 1 && !properties.containsKey(INCREMENT_PARAM)){
+            properties.put(INCREMENT_PARAM, Integer.toString(blockSize));
+        }
+
+        sequencePool = new AcSequencePool(dialect.getSequenceNextValString(ConfigurationHelper.getString(SEQUENCE_PARAM, properties, defaultSequenceName)),
+                blockSize);
         super.configure(type, properties, serviceRegistry);
     }
 
     @Override
     public Serializable generate(SharedSessionContractImplementor sessionImplementor, Object object) throws HibernateException {
-        //TODO... Change the logic
-        String prefix = "UNK";
-        String stringId = null;
+        // a failure of the sequence is thrown as an IdentifierGenerationException by the pool
+        long id = sequencePool.nextValue(sessionImplementor.connection());
+        String stringId = getPrefix() + "-" + id;
+
+        return stringId;
+    }
+
+    private String getPrefix() {
+        // the prefix is cached as soon as the intact context is available to avoid a spring lookup per generated AC
+        if (prefix != null){
+            return prefix;
+        }
         IntactContext intactContext = ApplicationContextProvider.getBean("intactJamiContext");
         if (intactContext != null) {
             prefix = intactContext.getIntactConfiguration().getAcPrefix();
+            return prefix;
         }
-
-        Connection connection = sessionImplementor.connection();
-        try {
-            try (PreparedStatement ps = connection.prepareStatement(sequenceCallSyntax)) {
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        long id = rs.getLong(1);
-                        stringId = prefix + "-" + id;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return stringId;
+        return "UNK";
     }
-
 }
@@ -0,0 +1,96 @@
+package uk.ac.ebi.intact.jami.model;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The sequence of a polymer stored as a single compressed LOB.
+ *
+ * It is used instead of the sequence chunks when the sequence storage mode of the IntactConfiguration is LOB.
+ * The polymer references its sequence lazily so the sequence is only loaded when it is needed.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@Entity
+@Table( name = "ia_polymer_sequence" )
+public class PolymerSequence extends AbstractIntactPrimaryObject {
+
+    /**
+     * The sequence compressed with GZIP
+     */
+    private byte[] compressedSequence;
+
+    private transient String sequence;
+
+    public PolymerSequence() {
+    }
+
+    public PolymerSequence(String sequence) {
+        setSequence(sequence);
+    }
+
+    @Transient
+    public String getSequence() {
+        if (this.sequence == null && this.compressedSequence != null){
+            this.sequence = decompress(this.compressedSequence);
+        }
+        return this.sequence;
+    }
+
+    public void setSequence(String sequence) {
+        if (sequence == null){
+            throw new IllegalArgumentException("The sequence of a PolymerSequence cannot be null");
+        }
+        this.sequence = sequence;
+        this.compressedSequence = compress(sequence);
+    }
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column( name = "sequence", nullable = false)
+    @NotNull
+    /**
+     * NOTE: the compressed sequence should not be used in any applications and getSequence should always be used instead
+     */
+    protected byte[] getCompressedSequence() {
+        return compressedSequence;
+    }
+
+    protected void setCompressedSequence(byte[] compressedSequence) {
+        this.compressedSequence = compressedSequence;
+        this.sequence = null;
+    }
+
+    private static byte[] compress(String sequence) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(sequence.length() / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(sequence.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot compress the sequence", e);
+        }
+        return output.toByteArray();
+    }
+
+    private static String decompress(byte[] compressedSequence) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressedSequence))) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(compressedSequence.length * 3);
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot decompress the sequence", e);
+        }
+    }
+}
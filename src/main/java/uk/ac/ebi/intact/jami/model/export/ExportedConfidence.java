@@ -0,0 +1,37 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+/**
+ * Immutable confidence of the export read model
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public final class ExportedConfidence {
+
+    private final String type;
+    private final String value;
+
+    public ExportedConfidence(String type, String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     *
+     * @return the short name of the confidence type
+     */
+    public String getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + value;
+    }
+}
@@ -0,0 +1,43 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+/**
+ * Immutable controlled vocabulary term of the export read model : the short name and the MI identifier
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public final class ExportedCvTerm {
+
+    private final String shortName;
+    private final String miIdentifier;
+
+    public ExportedCvTerm(String shortName, String miIdentifier) {
+        this.shortName = shortName;
+        this.miIdentifier = miIdentifier;
+    }
+
+    /**
+     *
+     * @param shortName : the short name of the term
+     * @param miIdentifier : the MI identifier of the term
+     * @return the term, null if the short name is null
+     */
+    public static ExportedCvTerm valueOf(String shortName, String miIdentifier) {
+        return shortName != null ? new ExportedCvTerm(shortName, miIdentifier) : null;
+    }
+
+    public String getShortName() {
+        return shortName;
+    }
+
+    public String getMiIdentifier() {
+        return miIdentifier;
+    }
+
+    @Override
+    public String toString() {
+        return miIdentifier != null ? shortName + " (" + miIdentifier + ")" : shortName;
+    }
+}
@@ -0,0 +1,96 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable interaction evidence of the export read model.
+ *
+ * It only contains the properties needed by the tabular exports and is loaded by ExportedInteractionEvidenceLoader with projection queries,
+ * without loading any managed entities.
+ * ExportedInteractionEvidenceConverter converts it into a JAMI interaction evidence which can be written with the JAMI writers
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public final class ExportedInteractionEvidence {
+
+    private final String ac;
+    private final String shortName;
+    private final ExportedCvTerm interactionType;
+    private final ExportedCvTerm detectionMethod;
+    private final String publicationId;
+    private final String hostTaxId;
+    private final List<ExportedParticipant> participants;
+    private final List<ExportedXref> xrefs;
+    private final List<ExportedConfidence> confidences;
+
+    public ExportedInteractionEvidence(String ac, String shortName, ExportedCvTerm interactionType, ExportedCvTerm detectionMethod,
+                                       String publicationId, String hostTaxId, List<ExportedParticipant> participants,
+                                       List<ExportedXref> xrefs, List<ExportedConfidence> confidences) {
+        this.ac = ac;
+        this.shortName = shortName;
+        this.interactionType = interactionType;
+        this.detectionMethod = detectionMethod;
+        this.publicationId = publicationId;
+        this.hostTaxId = hostTaxId;
+        this.participants = participants != null ? Collections.unmodifiableList(participants) : Collections.<ExportedParticipant>emptyList();
+        this.xrefs = xrefs != null ? Collections.unmodifiableList(xrefs) : Collections.<ExportedXref>emptyList();
+        this.confidences = confidences != null ? Collections.unmodifiableList(confidences) : Collections.<ExportedConfidence>emptyList();
+    }
+
+    public String getAc() {
+        return ac;
+    }
+
+    public String getShortName() {
+        return shortName;
+    }
+
+    public ExportedCvTerm getInteractionType() {
+        return interactionType;
+    }
+
+    /**
+     *
+     * @return the interaction detection method of the experiment
+     */
+    public ExportedCvTerm getDetectionMethod() {
+        return detectionMethod;
+    }
+
+    /**
+     *
+     * @return the short label of the publication of the experiment (pubmed id for most of the publications)
+     */
+    public String getPublicationId() {
+        return publicationId;
+    }
+
+    /**
+     *
+     * @return the taxid of the host organism of the experiment
+     */
+    public String getHostTaxId() {
+        return hostTaxId;
+    }
+
+    public List<ExportedParticipant> getParticipants() {
+        return participants;
+    }
+
+    public List<ExportedXref> getXrefs() {
+        return xrefs;
+    }
+
+    public List<ExportedConfidence> getConfidences() {
+        return confidences;
+    }
+
+    @Override
+    public String toString() {
+        return ac + " (" + shortName + ")";
+    }
+}
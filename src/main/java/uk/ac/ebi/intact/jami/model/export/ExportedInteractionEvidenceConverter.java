@@ -0,0 +1,132 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.model.impl.*;
+import psidev.psi.mi.jami.utils.CvTermUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the export read model into JAMI interaction evidences so the exported interactions can be given to the JAMI writers
+ * (MITAB, PSI-XML, ...).
+ *
+ * The JAMI objects are detached default implementations and are not managed entities. The ac of the interactions, participants
+ * and interactors is added as an identity xref of the given institution. The xrefs having an identity qualifier are added
+ * to the identifiers, the other xrefs are added to the xrefs.
+ * The interactors shared by several participants are only converted once by a converter so a converter should be used
+ * for a single chunk of interactions.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ExportedInteractionEvidenceConverter {
+
+    private CvTerm institution;
+    private Map<String, Interactor> convertedInteractors;
+
+    /**
+     *
+     * @param institution : the database of the ac identifiers. If null, the acs are not exported
+     */
+    public ExportedInteractionEvidenceConverter(CvTerm institution) {
+        this.institution = institution;
+        this.convertedInteractors = new HashMap<String, Interactor>();
+    }
+
+    /**
+     *
+     * @param interactions : the exported interaction evidences
+     * @return the JAMI interaction evidences in the same order
+     */
+    public List<InteractionEvidence> toInteractionEvidences(List<ExportedInteractionEvidence> interactions) {
+        List<InteractionEvidence> results = new ArrayList<InteractionEvidence>(interactions.size());
+        for (ExportedInteractionEvidence interaction : interactions){
+            results.add(toInteractionEvidence(interaction));
+        }
+        return results;
+    }
+
+    public InteractionEvidence toInteractionEvidence(ExportedInteractionEvidence exported) {
+        InteractionEvidence interaction = new DefaultInteractionEvidence(exported.getShortName());
+        interaction.setInteractionType(toCvTerm(exported.getInteractionType()));
+        addAc(interaction.getIdentifiers(), exported.getAc());
+        addXrefs(interaction.getIdentifiers(), interaction.getXrefs(), exported.getXrefs());
+        for (ExportedConfidence confidence : exported.getConfidences()){
+            if (confidence.getType() != null && confidence.getValue() != null){
+                interaction.getConfidences().add(new DefaultConfidence(new DefaultCvTerm(confidence.getType()), confidence.getValue()));
+            }
+        }
+
+        Publication publication = exported.getPublicationId() != null ?
+                new DefaultPublication(exported.getPublicationId()) : new DefaultPublication();
+        Experiment experiment = new DefaultExperiment(publication, toCvTerm(exported.getDetectionMethod()));
+        experiment.setHostOrganism(toOrganism(exported.getHostTaxId(), null));
+        interaction.setExperiment(experiment);
+
+        for (ExportedParticipant exportedParticipant : exported.getParticipants()){
+            ParticipantEvidence participant = new DefaultParticipantEvidence(toInteractor(exportedParticipant.getInteractor()));
+            addAc(participant.getXrefs(), exportedParticipant.getAc());
+            if (exportedParticipant.getBiologicalRole() != null){
+                participant.setBiologicalRole(toCvTerm(exportedParticipant.getBiologicalRole()));
+            }
+            // JAMI only has one experimental role per participant
+            if (!exportedParticipant.getExperimentalRoles().isEmpty()){
+                participant.setExperimentalRole(toCvTerm(exportedParticipant.getExperimentalRoles().get(0)));
+            }
+            interaction.addParticipant(participant);
+        }
+        return interaction;
+    }
+
+    private Interactor toInteractor(ExportedInteractor exported) {
+        Interactor interactor = this.convertedInteractors.get(exported.getAc());
+        if (interactor == null){
+            interactor = new DefaultInteractor(exported.getShortName(), toCvTerm(exported.getInteractorType()),
+                    toOrganism(exported.getTaxId(), exported.getOrganismName()));
+            addAc(interactor.getIdentifiers(), exported.getAc());
+            addXrefs(interactor.getIdentifiers(), interactor.getXrefs(), exported.getXrefs());
+            this.convertedInteractors.put(exported.getAc(), interactor);
+        }
+        return interactor;
+    }
+
+    private void addAc(Collection<Xref> identifiers, String ac) {
+        if (this.institution != null && ac != null){
+            identifiers.add(new DefaultXref(this.institution, ac, CvTermUtils.createIdentityQualifier()));
+        }
+    }
+
+    private void addXrefs(Collection<Xref> identifiers, Collection<Xref> xrefs, List<ExportedXref> exportedXrefs) {
+        for (ExportedXref exported : exportedXrefs){
+            CvTerm qualifier = exported.getQualifier() != null ? new DefaultCvTerm(exported.getQualifier()) : null;
+            Xref xref = new DefaultXref(new DefaultCvTerm(exported.getDatabase()), exported.getId(), qualifier);
+            if (Xref.IDENTITY.equals(exported.getQualifier())){
+                identifiers.add(xref);
+            }
+            else {
+                xrefs.add(xref);
+            }
+        }
+    }
+
+    private CvTerm toCvTerm(ExportedCvTerm exported) {
+        return exported != null ? new DefaultCvTerm(exported.getShortName(), exported.getMiIdentifier()) : null;
+    }
+
+    private Organism toOrganism(String taxId, String commonName) {
+        if (taxId == null){
+            return null;
+        }
+        try {
+            return commonName != null ? new DefaultOrganism(Integer.parseInt(taxId), commonName) : new DefaultOrganism(Integer.parseInt(taxId));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The taxid " + taxId + " is not a valid taxid", e);
+        }
+    }
+}
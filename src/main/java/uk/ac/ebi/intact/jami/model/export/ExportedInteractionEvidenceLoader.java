@@ -0,0 +1,157 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.*;
+
+/**
+ * Loads the export read model of interaction evidences with projection queries.
+ *
+ * A chunk of interactions is loaded with a fixed number of set based queries selecting only the exported columns:
+ * the interactions with their experiment, the interaction xrefs, the confidences, the participants, the experimental roles,
+ * the interactors and the interactor xrefs. No managed entities are loaded so the persistence context stays empty.
+ * The interactors shared by several participants of a chunk are only loaded once.
+ *
+ * It must be used inside a transaction.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ExportedInteractionEvidenceLoader {
+
+    /**
+     * Maximum number of acs in the 'in' clause of a projection query
+     */
+    public static final int MAX_IN_SIZE = 500;
+
+    private EntityManager entityManager;
+
+    public ExportedInteractionEvidenceLoader(EntityManager entityManager) {
+        if (entityManager == null){
+            throw new IllegalArgumentException("The entity manager cannot be null");
+        }
+        this.entityManager = entityManager;
+    }
+
+    /**
+     *
+     * @param interactionAcs : the acs of the interaction evidences to load
+     * @return the exported interaction evidences in the order of the acs. The acs which do not match any interaction evidences are ignored
+     */
+    public List<ExportedInteractionEvidence> load(List<String> interactionAcs) {
+        if (interactionAcs == null || interactionAcs.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+
+        Map<String, List<ExportedXref>> interactionXrefs = loadXrefs("IntactInteractionEvidence", interactionAcs);
+        Map<String, List<ExportedConfidence>> confidences = loadConfidences(interactionAcs);
+
+        // participants
+        Map<String, List<ExportedCvTerm>> experimentalRoles = new HashMap<String, List<ExportedCvTerm>>();
+        for (Object[] row : select("select p.ac, r.shortName, r.identifier " +
+                "from IntactParticipantEvidence p join p.dbExperimentalRoles as r " +
+                "where p.dbParentInteraction.ac in (:acs)", interactionAcs)){
+            addValue(experimentalRoles, (String) row[0], ExportedCvTerm.valueOf((String) row[1], (String) row[2]));
+        }
+        List<Object[]> participantRows = select("select p.ac, p.dbParentInteraction.ac, p.interactor.ac, b.shortName, b.identifier " +
+                "from IntactParticipantEvidence p left join p.biologicalRole as b " +
+                "where p.dbParentInteraction.ac in (:acs) order by p.ac", interactionAcs);
+        Set<String> interactorAcs = new HashSet<String>(participantRows.size());
+        for (Object[] row : participantRows){
+            interactorAcs.add((String) row[2]);
+        }
+        Map<String, ExportedInteractor> interactors = loadInteractors(new ArrayList<String>(interactorAcs));
+        Map<String, List<ExportedParticipant>> participants = new HashMap<String, List<ExportedParticipant>>();
+        for (Object[] row : participantRows){
+            String participantAc = (String) row[0];
+            addValue(participants, (String) row[1], new ExportedParticipant(participantAc, interactors.get((String) row[2]),
+                    ExportedCvTerm.valueOf((String) row[3], (String) row[4]), experimentalRoles.get(participantAc)));
+        }
+
+        // interactions with their experiment
+        Map<String, ExportedInteractionEvidence> interactions = new HashMap<String, ExportedInteractionEvidence>(interactionAcs.size());
+        for (Object[] row : select("select i.ac, i.shortName, t.shortName, t.identifier, d.shortName, d.identifier, p.shortLabel, h.dbTaxid " +
+                "from IntactInteractionEvidence i left join i.interactionType as t " +
+                "left join i.dbExperiments as e left join e.interactionDetectionMethod as d " +
+                "left join e.publication as p left join e.hostOrganism as h " +
+                "where i.ac in (:acs) order by i.ac, e.ac", interactionAcs)){
+            String ac = (String) row[0];
+            // only one experiment is exported as in IntactInteractionEvidence.getExperiment. The join table does not have any order column
+            // so the experiment having the lowest ac is selected to always export the same experiment
+            if (!interactions.containsKey(ac)){
+                interactions.put(ac, new ExportedInteractionEvidence(ac, (String) row[1],
+                        ExportedCvTerm.valueOf((String) row[2], (String) row[3]), ExportedCvTerm.valueOf((String) row[4], (String) row[5]),
+                        (String) row[6], (String) row[7], participants.get(ac), interactionXrefs.get(ac), confidences.get(ac)));
+            }
+        }
+
+        List<ExportedInteractionEvidence> results = new ArrayList<ExportedInteractionEvidence>(interactions.size());
+        for (String ac : interactionAcs){
+            ExportedInteractionEvidence interaction = interactions.get(ac);
+            if (interaction != null){
+                results.add(interaction);
+            }
+        }
+        return results;
+    }
+
+    private Map<String, ExportedInteractor> loadInteractors(List<String> interactorAcs) {
+        Map<String, List<ExportedXref>> xrefs = loadXrefs("IntactInteractor", interactorAcs);
+        Map<String, ExportedInteractor> interactors = new HashMap<String, ExportedInteractor>(interactorAcs.size());
+        for (Object[] row : select("select i.ac, i.shortName, t.shortName, t.identifier, o.dbTaxid, o.commonName " +
+                "from IntactInteractor i left join i.interactorType as t left join i.organism as o " +
+                "where i.ac in (:acs)", interactorAcs)){
+            String ac = (String) row[0];
+            interactors.put(ac, new ExportedInteractor(ac, (String) row[1], ExportedCvTerm.valueOf((String) row[2], (String) row[3]),
+                    (String) row[4], (String) row[5], xrefs.get(ac)));
+        }
+        return interactors;
+    }
+
+    private Map<String, List<ExportedXref>> loadXrefs(String entityName, List<String> parentAcs) {
+        Map<String, List<ExportedXref>> xrefs = new HashMap<String, List<ExportedXref>>();
+        for (Object[] row : select("select i.ac, d.shortName, x.id, q.shortName " +
+                "from " + entityName + " i join i.dbXrefs as x join x.database as d left join x.qualifier as q " +
+                "where i.ac in (:acs)", parentAcs)){
+            addValue(xrefs, (String) row[0], new ExportedXref((String) row[1], (String) row[2], (String) row[3]));
+        }
+        return xrefs;
+    }
+
+    private Map<String, List<ExportedConfidence>> loadConfidences(List<String> interactionAcs) {
+        Map<String, List<ExportedConfidence>> confidences = new HashMap<String, List<ExportedConfidence>>();
+        for (Object[] row : select("select i.ac, t.shortName, c.value " +
+                "from IntactInteractionEvidence i join i.confidences as c left join c.type as t " +
+                "where i.ac in (:acs)", interactionAcs)){
+            addValue(confidences, (String) row[0], new ExportedConfidence((String) row[1], (String) row[2]));
+        }
+        return confidences;
+    }
+
+    private List<Object[]> select(String hql, List<String> acs) {
+        if (acs.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; i < acs.size(); i += MAX_IN_SIZE){
+            Query query = this.entityManager.createQuery(hql);
+            query.setParameter("acs", acs.subList(i, Math.min(i + MAX_IN_SIZE, acs.size())));
+            rows.addAll(query.getResultList());
+        }
+        return rows;
+    }
+
+    private <V> void addValue(Map<String, List<V>> map, String key, V value) {
+        if (value == null){
+            return;
+        }
+        List<V> values = map.get(key);
+        if (values == null){
+            values = new ArrayList<V>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+}
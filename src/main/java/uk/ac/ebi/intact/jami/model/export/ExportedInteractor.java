@@ -0,0 +1,71 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable interactor of the export read model.
+ *
+ * An interactor is loaded once per chunk and shared by all the participants of the chunk which involve it
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public final class ExportedInteractor {
+
+    private final String ac;
+    private final String shortName;
+    private final ExportedCvTerm interactorType;
+    private final String taxId;
+    private final String organismName;
+    private final List<ExportedXref> xrefs;
+
+    public ExportedInteractor(String ac, String shortName, ExportedCvTerm interactorType, String taxId, String organismName,
+                              List<ExportedXref> xrefs) {
+        this.ac = ac;
+        this.shortName = shortName;
+        this.interactorType = interactorType;
+        this.taxId = taxId;
+        this.organismName = organismName;
+        this.xrefs = xrefs != null ? Collections.unmodifiableList(xrefs) : Collections.<ExportedXref>emptyList();
+    }
+
+    public String getAc() {
+        return ac;
+    }
+
+    public String getShortName() {
+        return shortName;
+    }
+
+    public ExportedCvTerm getInteractorType() {
+        return interactorType;
+    }
+
+    /**
+     *
+     * @return the taxid of the organism, null if the interactor does not have an organism
+     */
+    public String getTaxId() {
+        return taxId;
+    }
+
+    public String getOrganismName() {
+        return organismName;
+    }
+
+    /**
+     *
+     * @return the identifiers and xrefs of the interactor
+     */
+    public List<ExportedXref> getXrefs() {
+        return xrefs;
+    }
+
+    @Override
+    public String toString() {
+        return ac + " (" + shortName + ")";
+    }
+}
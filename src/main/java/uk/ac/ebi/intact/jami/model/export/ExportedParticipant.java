@@ -0,0 +1,48 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable participant of the export read model
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public final class ExportedParticipant {
+
+    private final String ac;
+    private final ExportedInteractor interactor;
+    private final ExportedCvTerm biologicalRole;
+    private final List<ExportedCvTerm> experimentalRoles;
+
+    public ExportedParticipant(String ac, ExportedInteractor interactor, ExportedCvTerm biologicalRole, List<ExportedCvTerm> experimentalRoles) {
+        this.ac = ac;
+        this.interactor = interactor;
+        this.biologicalRole = biologicalRole;
+        this.experimentalRoles = experimentalRoles != null ? Collections.unmodifiableList(experimentalRoles) : Collections.<ExportedCvTerm>emptyList();
+    }
+
+    public String getAc() {
+        return ac;
+    }
+
+    public ExportedInteractor getInteractor() {
+        return interactor;
+    }
+
+    public ExportedCvTerm getBiologicalRole() {
+        return biologicalRole;
+    }
+
+    public List<ExportedCvTerm> getExperimentalRoles() {
+        return experimentalRoles;
+    }
+
+    @Override
+    public String toString() {
+        return ac + " (" + interactor + ")";
+    }
+}
@@ -0,0 +1,47 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+/**
+ * Immutable xref of the export read model
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public final class ExportedXref {
+
+    private final String database;
+    private final String id;
+    private final String qualifier;
+
+    public ExportedXref(String database, String id, String qualifier) {
+        this.database = database;
+        this.id = id;
+        this.qualifier = qualifier;
+    }
+
+    /**
+     *
+     * @return the short name of the database
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     *
+     * @return the short name of the qualifier, can be null
+     */
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    @Override
+    public String toString() {
+        return database + ":" + id + (qualifier != null ? " (" + qualifier + ")" : "");
+    }
+}
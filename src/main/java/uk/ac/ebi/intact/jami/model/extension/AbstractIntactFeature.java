@@ -134,6 +134,12 @@ public abstract class AbstractIntactFeature<P extends Entity, F extends Feature>
         super.setAc(ac);
         // only if identifiers are initialised
         if (this.acRef != null && !this.acRef.getId().equals(ac)) {
+            // the ac is reset when the transaction which generated it has been rolled back
+            if (ac == null) {
+                this.identifiers.removeOnly(acRef);
+                this.acRef = null;
+                return;
+            }
             // we don't want to create a persistent xref
             Xref newRef = new DefaultXref(this.acRef.getDatabase(), ac, this.acRef.getQualifier());
             this.identifiers.removeOnly(acRef);
@@ -17,6 +17,7 @@ import uk.ac.ebi.intact.jami.model.lifecycle.Releasable;
 import uk.ac.ebi.intact.jami.model.listener.ComplexParameterListener;
 import uk.ac.ebi.intact.jami.model.user.User;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactParticipantSignatureFactory;
 
 import javax.persistence.*;
 import javax.persistence.CascadeType;
@@ -83,6 +84,7 @@ public class IntactComplex extends IntactInteractor implements Complex, Releasab
     private transient Xref complexAcXref;
 
     private Boolean predictedComplex;
+    private String participantSignature;
 
     protected IntactComplex() {
         super();
@@ -1123,6 +1125,20 @@ public class IntactComplex extends IntactInteractor implements Complex, Releasab
         this.predictedComplex = predictedComplex;
     }
 
+    /**
+     *
+     * @return the signature of the participants of this complex, computed by the ComplexSynchronizer with IntactParticipantSignatureFactory.
+     * It is null for the complexes which have not been synchronized since the signature was introduced
+     */
+    @Column(name = "participant_signature", length = IntactParticipantSignatureFactory.SIGNATURE_LEN)
+    public String getParticipantSignature() {
+        return participantSignature;
+    }
+
+    public void setParticipantSignature(String participantSignature) {
+        this.participantSignature = participantSignature;
+    }
+
     private class ComplexChecksumList extends AbstractListHavingProperties<Checksum> {
         public ComplexChecksumList() {
             super();
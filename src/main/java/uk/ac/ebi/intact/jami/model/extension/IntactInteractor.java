@@ -46,7 +46,9 @@ import java.util.Collection;
  */
 @javax.persistence.Entity
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
-@Table(name = "ia_interactor")
+@Table(name = "ia_interactor", indexes = {@Index(columnList = ("participant_signature"), name = ("interactor_participant_signature_idx")),
+        @Index(columnList = ("sequence_digest"), name = ("interactor_sequence_digest_idx")),
+        @Index(columnList = ("crc64"), name = ("interactor_crc64_idx"))})
 @DiscriminatorColumn(name = "category", discriminatorType = DiscriminatorType.STRING)
 @DiscriminatorValue("interactor")
 @Cacheable
@@ -166,6 +168,12 @@ public class IntactInteractor extends AbstractIntactPrimaryObject implements Int
         super.setAc(ac);
         // only if identifiers are initialised
         if (this.acRef != null && !this.acRef.getId().equals(ac)) {
+            // the ac is reset when the transaction which generated it has been rolled back
+            if (ac == null) {
+                this.identifiers.removeOnly(acRef);
+                this.acRef = null;
+                return;
+            }
             // we don't want to create a persistent xref
             Xref newRef = new DefaultXref(this.acRef.getDatabase(), ac, this.acRef.getQualifier());
             this.identifiers.removeOnly(acRef);
@@ -1,12 +1,16 @@
 package uk.ac.ebi.intact.jami.model.extension;
 
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.*;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.model.impl.DefaultChecksum;
 import psidev.psi.mi.jami.utils.ChecksumUtils;
 import psidev.psi.mi.jami.utils.collection.AbstractListHavingProperties;
+import uk.ac.ebi.intact.jami.context.SequenceStorageMode;
+import uk.ac.ebi.intact.jami.model.PolymerSequence;
 import uk.ac.ebi.intact.jami.model.SequenceChunk;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.SequenceChecksumUtils;
 
 import javax.persistence.CascadeType;
 import javax.persistence.*;
@@ -25,6 +29,11 @@ import java.util.List;
  * We may want to remove this column in the future and this property in the future so we should avoid using this method
  * NOTE: for backward compatibility with intact-core, the sequence property is not persistent and the getSequenceChunks is how the sequence is persisted in
  * the database. getSequenceChunks should not be used in any applications and getSequence should always be used instead
+ * NOTE: when the sequence storage mode is LOB, the sequence is persisted as a single compressed PolymerSequence instead of
+ * sequence chunks. The sequence is read from the PolymerSequence if any, from the sequence chunks otherwise. The sequence chunks are loaded eagerly
+ * and the PolymerSequence is loaded lazily. The polymer synchronizers apply the sequence storage mode of the IntactConfiguration to the new polymers.
+ * NOTE: the crc64 and the sequence digest are computed when the sequence is set. The sequence digest is indexed and is used to look up polymers by sequence
+ * without comparing the sequence chunks
  *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
@@ -43,8 +52,15 @@ public class IntactPolymer extends IntactMolecule implements Polymer {
      */
     private List<SequenceChunk> sequenceChunks;
 
+    /**
+     * The compressed sequence when the sequence storage mode is LOB
+     */
+    private PolymerSequence polymerSequence;
+
     private transient Checksum crc64;
 
+    private String sequenceDigest;
+
     protected IntactPolymer() {
         super();
     }
@@ -115,8 +131,8 @@ public class IntactPolymer extends IntactMolecule implements Polymer {
 
     @Transient
     /**
-     * This sequence is generated from the sequence chunks for backward compatibility only. It may be good to persist this property as a Lob in the future
-     * when intact-core is removed and remove the sequence chunks
+     * This sequence is generated from the compressed polymer sequence if any, from the sequence chunks otherwise.
+     * The sequence chunks are kept for backward compatibility with intact-core and are still the default storage
      */
     public String getSequence() {
         if (this.sequence == null) {
@@ -125,9 +141,57 @@ public class IntactPolymer extends IntactMolecule implements Polymer {
         return this.sequence;
     }
 
+    /**
+     * Sets the sequence and keeps the current storage of the sequence. The new polymers store their sequence as sequence chunks
+     * until the polymer synchronizer applies the sequence storage mode of the IntactConfiguration
+     * @param sequence : the sequence
+     */
     public void setSequence(String sequence) {
+        setSequence(sequence, getSequenceStorageMode());
+    }
+
+    /**
+     * Rewrites the sequence of this polymer with the given storage mode. It is used to migrate the sequences from one storage to another.
+     * @param storageMode : the storage mode of the sequence
+     */
+    public void convertSequenceStorage(SequenceStorageMode storageMode) {
+        setSequence(getSequence(), storageMode);
+    }
+
+    /**
+     * Sets the sequence and stores it with the given storage mode
+     * @param sequence : the sequence
+     * @param storageMode : the storage mode of the sequence
+     */
+    public void setSequence(String sequence, SequenceStorageMode storageMode) {
         this.sequence = sequence;
-        convertSequence(this.sequence, getDbSequenceChunks());
+        if (sequence != null && storageMode == SequenceStorageMode.LOB) {
+            getDbSequenceChunks().clear();
+            if (this.polymerSequence != null) {
+                this.polymerSequence.setSequence(sequence);
+            } else {
+                this.polymerSequence = new PolymerSequence(sequence);
+            }
+        } else {
+            this.polymerSequence = null;
+            convertSequence(this.sequence, getDbSequenceChunks());
+        }
+        this.sequenceDigest = SequenceChecksumUtils.computeSequenceDigest(this.sequence);
+        setCrc64(SequenceChecksumUtils.computeCrc64(this.sequence));
+    }
+
+    /**
+     *
+     * @return the MD5 of the sequence computed with SequenceChecksumUtils, null if the polymer does not have a sequence or if the sequence
+     * has been persisted before the sequence digest was introduced
+     */
+    @Column(name = "sequence_digest", length = SequenceChecksumUtils.SEQUENCE_DIGEST_LEN)
+    public String getSequenceDigest() {
+        return sequenceDigest;
+    }
+
+    protected void setSequenceDigest(String sequenceDigest) {
+        this.sequenceDigest = sequenceDigest;
     }
 
     @Override
@@ -282,12 +346,49 @@ public class IntactPolymer extends IntactMolecule implements Polymer {
         this.sequence = null;
     }
 
+    @OneToOne(fetch = FetchType.LAZY, orphanRemoval = true, cascade = {CascadeType.ALL})
+    @JoinColumn(name = "sequence_ac", referencedColumnName = "ac")
+    /**
+     * NOTE: getDbPolymerSequence should not be used in any applications and getSequence should always be used instead
+     */
+    protected PolymerSequence getDbPolymerSequence() {
+        return polymerSequence;
+    }
+
+    protected void setDbPolymerSequence(PolymerSequence polymerSequence) {
+        this.polymerSequence = polymerSequence;
+        this.sequence = null;
+    }
+
     protected void initialiseSequence() {
-        if (!getDbSequenceChunks().isEmpty()) {
+        if (this.polymerSequence != null) {
+            this.sequence = this.polymerSequence.getSequence();
+        } else if (!getDbSequenceChunks().isEmpty()) {
             this.sequence = convertToSequence(sequenceChunks);
         }
     }
 
+    /**
+     *
+     * @return true if the storage holding the sequence, the polymer sequence or the sequence chunks, is loaded
+     */
+    @Transient
+    public boolean isSequenceInitialized() {
+        if (this.sequence != null) {
+            return true;
+        }
+        return this.polymerSequence != null ? Hibernate.isInitialized(this.polymerSequence) : Hibernate.isInitialized(getDbSequenceChunks());
+    }
+
+    /**
+     *
+     * @return LOB if the sequence is stored as a compressed PolymerSequence, CHUNKS otherwise
+     */
+    @Transient
+    public SequenceStorageMode getSequenceStorageMode() {
+        return this.polymerSequence != null ? SequenceStorageMode.LOB : SequenceStorageMode.CHUNKS;
+    }
+
     @Override
     protected String generateObjClass() {
         return "uk.ac.ebi.intact.model.PolymerImpl";
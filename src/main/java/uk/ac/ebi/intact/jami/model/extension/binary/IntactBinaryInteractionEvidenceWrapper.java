@@ -8,8 +8,11 @@ import uk.ac.ebi.intact.jami.model.IntactPrimaryObject;
 import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
 
 import javax.persistence.Transient;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 /**
  * A wrapper for InteractionEvidence which contains two participants
@@ -23,6 +26,11 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
     private IntactInteractionEvidence wrappedInteraction;
     private BinaryInteractionEvidenceWrapper binaryWrapper;
 
+    // participants of a binary view over an n-ary interaction
+    private ParticipantEvidence participantA;
+    private ParticipantEvidence participantB;
+    private CvTerm complexExpansion;
+
     public IntactBinaryInteractionEvidenceWrapper(IntactInteractionEvidence interaction) {
         this.wrappedInteraction = interaction;
         this.binaryWrapper = new BinaryInteractionEvidenceWrapper(interaction);
@@ -33,28 +41,63 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
         this.binaryWrapper = new BinaryInteractionEvidenceWrapper(interaction, complexExpansion);
     }
 
+    /**
+     * Creates a binary view of two participants of an n-ary interaction.
+     * The properties of the interaction are not copied and are shared by all the binary views of the interaction.
+     * The participants of a binary view cannot be added or removed.
+     * @param interaction : the n-ary interaction
+     * @param participantA : the first participant
+     * @param participantB : the second participant
+     * @param complexExpansion : the complex expansion method used to select the participants
+     */
+    public IntactBinaryInteractionEvidenceWrapper(IntactInteractionEvidence interaction, ParticipantEvidence participantA,
+                                                  ParticipantEvidence participantB, CvTerm complexExpansion) {
+        if (interaction == null){
+            throw new IllegalArgumentException("The wrapped interaction cannot be null");
+        }
+        this.wrappedInteraction = interaction;
+        this.participantA = participantA;
+        this.participantB = participantB;
+        this.complexExpansion = complexExpansion;
+    }
+
     public ParticipantEvidence getParticipantA() {
-        return this.binaryWrapper.getParticipantA();
+        return this.binaryWrapper != null ? this.binaryWrapper.getParticipantA() : this.participantA;
     }
 
     public void setParticipantA(ParticipantEvidence participantA) {
-        this.binaryWrapper.setParticipantA(participantA);
+        if (this.binaryWrapper != null){
+            this.binaryWrapper.setParticipantA(participantA);
+        }
+        else{
+            this.participantA = participantA;
+        }
     }
 
     public ParticipantEvidence getParticipantB() {
-        return this.binaryWrapper.getParticipantB();
+        return this.binaryWrapper != null ? this.binaryWrapper.getParticipantB() : this.participantB;
     }
 
     public void setParticipantB(ParticipantEvidence participantB) {
-        this.binaryWrapper.setParticipantB(participantB);
+        if (this.binaryWrapper != null){
+            this.binaryWrapper.setParticipantB(participantB);
+        }
+        else{
+            this.participantB = participantB;
+        }
     }
 
     public CvTerm getComplexExpansion() {
-        return this.binaryWrapper.getComplexExpansion();
+        return this.binaryWrapper != null ? this.binaryWrapper.getComplexExpansion() : this.complexExpansion;
     }
 
     public void setComplexExpansion(CvTerm expansion) {
-        this.binaryWrapper.setComplexExpansion(expansion);
+        if (this.binaryWrapper != null){
+            this.binaryWrapper.setComplexExpansion(expansion);
+        }
+        else{
+            this.complexExpansion = expansion;
+        }
     }
 
     /**
@@ -64,6 +107,16 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
      * @return
      */
     public Collection<ParticipantEvidence> getParticipants() {
+        if (this.binaryWrapper == null){
+            List<ParticipantEvidence> participants = new ArrayList<ParticipantEvidence>(2);
+            if (this.participantA != null){
+                participants.add(this.participantA);
+            }
+            if (this.participantB != null){
+                participants.add(this.participantB);
+            }
+            return Collections.unmodifiableList(participants);
+        }
         return this.binaryWrapper.getParticipants();
     }
 
@@ -76,6 +129,7 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
      * @throws IllegalArgumentException if this Binary interaction already contains two participants
      */
     public boolean addParticipant(ParticipantEvidence part) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.addParticipant(part);
     }
 
@@ -86,6 +140,7 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
      * @return
      */
     public boolean removeParticipant(ParticipantEvidence part) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.removeParticipant(part);
     }
 
@@ -98,10 +153,12 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
      * @throws IllegalArgumentException if this Binary interaction already contains two participants or the given participants contains more than two participants
      */
     public boolean addAllParticipants(Collection<? extends ParticipantEvidence> participants) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.addAllParticipants(participants);
     }
 
     public boolean removeAllParticipants(Collection<? extends ParticipantEvidence> participants) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.removeAllParticipants(participants);
     }
 
@@ -284,4 +341,10 @@ public class IntactBinaryInteractionEvidenceWrapper implements BinaryInteraction
     public Confidence getMiScore() {
         return null;
     }
-}
\ No newline at end of file
+
+    private void checkParticipantsCanBeChanged() {
+        if (this.binaryWrapper == null){
+            throw new UnsupportedOperationException("The participants of a binary view of an n-ary interaction cannot be changed");
+        }
+    }
+}
@@ -11,7 +11,9 @@ import uk.ac.ebi.intact.jami.model.lifecycle.LifeCycleStatus;
 import uk.ac.ebi.intact.jami.model.user.User;
 
 import javax.persistence.Transient;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -27,6 +29,11 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
     private IntactComplex wrappedInteraction;
     private ModelledBinaryInteractionWrapper binaryWrapper;
 
+    // participants of a binary view over an n-ary interaction
+    private ModelledParticipant participantA;
+    private ModelledParticipant participantB;
+    private CvTerm complexExpansion;
+
     public IntactModelledBinaryInteractionWrapper(IntactComplex interaction) {
         this.wrappedInteraction = interaction;
         this.binaryWrapper = new ModelledBinaryInteractionWrapper(interaction);
@@ -37,28 +44,63 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
         this.binaryWrapper = new ModelledBinaryInteractionWrapper(interaction, complexExpansion);
     }
 
+    /**
+     * Creates a binary view of two participants of an n-ary interaction.
+     * The properties of the interaction are not copied and are shared by all the binary views of the interaction.
+     * The participants of a binary view cannot be added or removed.
+     * @param interaction : the n-ary interaction
+     * @param participantA : the first participant
+     * @param participantB : the second participant
+     * @param complexExpansion : the complex expansion method used to select the participants
+     */
+    public IntactModelledBinaryInteractionWrapper(IntactComplex interaction, ModelledParticipant participantA,
+                                                  ModelledParticipant participantB, CvTerm complexExpansion) {
+        if (interaction == null){
+            throw new IllegalArgumentException("The wrapped interaction cannot be null");
+        }
+        this.wrappedInteraction = interaction;
+        this.participantA = participantA;
+        this.participantB = participantB;
+        this.complexExpansion = complexExpansion;
+    }
+
     public ModelledParticipant getParticipantA() {
-        return this.binaryWrapper.getParticipantA();
+        return this.binaryWrapper != null ? this.binaryWrapper.getParticipantA() : this.participantA;
     }
 
     public void setParticipantA(ModelledParticipant participantA) {
-        this.binaryWrapper.setParticipantA(participantA);
+        if (this.binaryWrapper != null){
+            this.binaryWrapper.setParticipantA(participantA);
+        }
+        else{
+            this.participantA = participantA;
+        }
     }
 
     public ModelledParticipant getParticipantB() {
-        return this.binaryWrapper.getParticipantB();
+        return this.binaryWrapper != null ? this.binaryWrapper.getParticipantB() : this.participantB;
     }
 
     public void setParticipantB(ModelledParticipant participantB) {
-        this.binaryWrapper.setParticipantB(participantB);
+        if (this.binaryWrapper != null){
+            this.binaryWrapper.setParticipantB(participantB);
+        }
+        else{
+            this.participantB = participantB;
+        }
     }
 
     public CvTerm getComplexExpansion() {
-        return this.binaryWrapper.getComplexExpansion();
+        return this.binaryWrapper != null ? this.binaryWrapper.getComplexExpansion() : this.complexExpansion;
     }
 
     public void setComplexExpansion(CvTerm expansion) {
-        this.binaryWrapper.setComplexExpansion(expansion);
+        if (this.binaryWrapper != null){
+            this.binaryWrapper.setComplexExpansion(expansion);
+        }
+        else{
+            this.complexExpansion = expansion;
+        }
     }
 
     /**
@@ -68,6 +110,16 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
      * @return
      */
     public Collection<ModelledParticipant> getParticipants() {
+        if (this.binaryWrapper == null){
+            List<ModelledParticipant> participants = new ArrayList<ModelledParticipant>(2);
+            if (this.participantA != null){
+                participants.add(this.participantA);
+            }
+            if (this.participantB != null){
+                participants.add(this.participantB);
+            }
+            return Collections.unmodifiableList(participants);
+        }
         return this.binaryWrapper.getParticipants();
     }
 
@@ -80,6 +132,7 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
      * @throws IllegalArgumentException if this Binary interaction already contains two participants
      */
     public boolean addParticipant(ModelledParticipant part) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.addParticipant(part);
     }
 
@@ -90,6 +143,7 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
      * @return
      */
     public boolean removeParticipant(ModelledParticipant part) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.removeParticipant(part);
     }
 
@@ -102,10 +156,12 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
      * @throws IllegalArgumentException if this Binary interaction already contains two participants or the given participants contains more than two participants
      */
     public boolean addAllParticipants(Collection<? extends ModelledParticipant> participants) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.addAllParticipants(participants);
     }
 
     public boolean removeAllParticipants(Collection<? extends ModelledParticipant> participants) {
+        checkParticipantsCanBeChanged();
         return this.binaryWrapper.removeAllParticipants(participants);
     }
 
@@ -305,4 +361,10 @@ public class IntactModelledBinaryInteractionWrapper implements ModelledBinaryInt
     public Confidence getMiScore() {
         return null;
     }
-}
\ No newline at end of file
+
+    private void checkParticipantsCanBeChanged() {
+        if (this.binaryWrapper == null){
+            throw new UnsupportedOperationException("The participants of a binary view of an n-ary interaction cannot be changed");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package uk.ac.ebi.intact.jami.model.extension.binary.expansion;
+
+import psidev.psi.mi.jami.binary.BinaryInteraction;
+import psidev.psi.mi.jami.binary.expansion.ComplexExpansionMethod;
+import psidev.psi.mi.jami.exception.ComplexExpansionException;
+import psidev.psi.mi.jami.factory.BinaryInteractionFactory;
+import psidev.psi.mi.jami.model.CvTerm;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.model.Participant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Abstract complex expansion creating the binary interactions of an n-ary interaction lazily.
+ *
+ * The binary interactions are created one by one from index cursors over the participants of the n-ary interaction
+ * so the full expansion is never kept in memory. Each binary interaction is a lightweight view sharing the properties of the n-ary interaction.
+ * The interactions having less than three participants and the n-ary interactions which cannot be expanded lazily are expanded
+ * by the delegate complex expansion.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public abstract class AbstractIntactLazyExpansion<T extends Interaction, B extends BinaryInteraction> implements ComplexExpansionMethod<T,B> {
+
+    private ComplexExpansionMethod<T,B> delegate;
+    private BinaryInteractionFactory binaryInteractionFactory;
+
+    protected AbstractIntactLazyExpansion(ComplexExpansionMethod<T,B> delegate){
+        if (delegate == null){
+            throw new IllegalArgumentException("The delegate complex expansion cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    public CvTerm getMethod() {
+        return this.delegate.getMethod();
+    }
+
+    public boolean isInteractionExpandable(T interaction) {
+        return this.delegate.isInteractionExpandable(interaction);
+    }
+
+    /**
+     * Expands the interaction and loads all the binary interactions in memory. expandLazily should be used instead
+     * @param interaction : the interaction to expand
+     * @return the binary interactions
+     * @throws ComplexExpansionException
+     */
+    public Collection<B> expand(T interaction) throws ComplexExpansionException {
+        List<B> binaryInteractions = new ArrayList<B>();
+        Iterator<B> binaryIterator = expandLazily(interaction);
+        while (binaryIterator.hasNext()){
+            binaryInteractions.add(binaryIterator.next());
+        }
+        return binaryInteractions;
+    }
+
+    /**
+     *
+     * @param interaction : the interaction to expand
+     * @return the iterator creating the binary interactions of the interaction one by one
+     * @throws ComplexExpansionException
+     */
+    public Iterator<B> expandLazily(T interaction) throws ComplexExpansionException {
+        if (interaction != null && isInteractionExpandable(interaction)){
+            List<Participant> participants = new ArrayList<Participant>(interaction.getParticipants());
+            if (participants.size() > 2){
+                Iterator<B> binaryIterator = createBinaryIterator(interaction, participants);
+                if (binaryIterator != null){
+                    return binaryIterator;
+                }
+            }
+        }
+        return this.delegate.expand(interaction).iterator();
+    }
+
+    public BinaryInteractionFactory getBinaryInteractionFactory() {
+        return binaryInteractionFactory;
+    }
+
+    public void setBinaryInteractionFactory(BinaryInteractionFactory factory) {
+        this.binaryInteractionFactory = factory;
+        this.delegate.setBinaryInteractionFactory(factory);
+    }
+
+    protected ComplexExpansionMethod<T, B> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     *
+     * @param interaction : the n-ary interaction
+     * @param participants : the participants of the interaction (more than two)
+     * @return the iterator creating the binary interactions lazily, null if the interaction must be expanded by the delegate
+     */
+    protected abstract Iterator<B> createBinaryIterator(T interaction, List<Participant> participants);
+
+    /**
+     *
+     * @param interaction : the n-ary interaction
+     * @param participantA : the first participant
+     * @param participantB : the second participant
+     * @return the binary view of the two participants of the interaction
+     */
+    protected abstract B createBinaryInteraction(T interaction, Participant participantA, Participant participantB);
+
+    /**
+     * Iterator over the pairs of the bait with each other participant
+     */
+    protected class SpokeBinaryIterator implements Iterator<B> {
+        private T interaction;
+        private List<Participant> participants;
+        private int baitIndex;
+        private int preyIndex = 0;
+
+        public SpokeBinaryIterator(T interaction, List<Participant> participants, int baitIndex) {
+            this.interaction = interaction;
+            this.participants = participants;
+            this.baitIndex = baitIndex;
+            skipBait();
+        }
+
+        public boolean hasNext() {
+            return this.preyIndex < this.participants.size();
+        }
+
+        public B next() {
+            if (!hasNext()){
+                throw new NoSuchElementException("Does not have any new elements");
+            }
+            B binary = createBinaryInteraction(this.interaction, this.participants.get(this.baitIndex), this.participants.get(this.preyIndex));
+            this.preyIndex++;
+            skipBait();
+            return binary;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A lazy binary expansion does not support the remove method");
+        }
+
+        private void skipBait() {
+            if (this.preyIndex == this.baitIndex){
+                this.preyIndex++;
+            }
+        }
+    }
+
+    /**
+     * Iterator over all the pairs of participants
+     */
+    protected class MatrixBinaryIterator implements Iterator<B> {
+        private T interaction;
+        private List<Participant> participants;
+        private int indexA = 0;
+        private int indexB = 1;
+
+        public MatrixBinaryIterator(T interaction, List<Participant> participants) {
+            this.interaction = interaction;
+            this.participants = participants;
+        }
+
+        public boolean hasNext() {
+            return this.indexB < this.participants.size();
+        }
+
+        public B next() {
+            if (!hasNext()){
+                throw new NoSuchElementException("Does not have any new elements");
+            }
+            B binary = createBinaryInteraction(this.interaction, this.participants.get(this.indexA), this.participants.get(this.indexB));
+            this.indexB++;
+            if (this.indexB == this.participants.size()){
+                this.indexA++;
+                this.indexB = this.indexA + 1;
+            }
+            return binary;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A lazy binary expansion does not support the remove method");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uk.ac.ebi.intact.jami.model.extension.binary.expansion;
+
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.binary.expansion.InteractionEvidenceMatrixExpansion;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.Participant;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.binary.IntactBinaryInteractionEvidenceWrapper;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Matrix expansion of IntAct interaction evidences creating the binary interactions lazily.
+ *
+ * The n-ary interactions are expanded lazily with IntactBinaryInteractionEvidenceWrapper views pairing each participant
+ * with the participants following it. The other interactions are expanded with InteractionEvidenceMatrixExpansion.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactLazyInteractionEvidenceMatrixExpansion extends AbstractIntactLazyExpansion<InteractionEvidence, BinaryInteractionEvidence> {
+
+    public IntactLazyInteractionEvidenceMatrixExpansion() {
+        super(new InteractionEvidenceMatrixExpansion());
+    }
+
+    @Override
+    protected Iterator<BinaryInteractionEvidence> createBinaryIterator(InteractionEvidence interaction, List<Participant> participants) {
+        if (!(interaction instanceof IntactInteractionEvidence)){
+            return null;
+        }
+        return new MatrixBinaryIterator(interaction, participants);
+    }
+
+    @Override
+    protected BinaryInteractionEvidence createBinaryInteraction(InteractionEvidence interaction, Participant participantA, Participant participantB) {
+        return new IntactBinaryInteractionEvidenceWrapper((IntactInteractionEvidence) interaction,
+                (ParticipantEvidence) participantA, (ParticipantEvidence) participantB, getMethod());
+    }
+}
@@ -0,0 +1,55 @@
+package uk.ac.ebi.intact.jami.model.extension.binary.expansion;
+
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.binary.expansion.InteractionEvidenceSpokeExpansion;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.Participant;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.utils.ParticipantUtils;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.binary.IntactBinaryInteractionEvidenceWrapper;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Spoke expansion of IntAct interaction evidences creating the binary interactions lazily.
+ *
+ * The n-ary interactions having one bait are expanded lazily with IntactBinaryInteractionEvidenceWrapper views pairing the bait
+ * with each other participant. The other interactions are expanded with InteractionEvidenceSpokeExpansion.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactLazyInteractionEvidenceSpokeExpansion extends AbstractIntactLazyExpansion<InteractionEvidence, BinaryInteractionEvidence> {
+
+    public IntactLazyInteractionEvidenceSpokeExpansion() {
+        super(new InteractionEvidenceSpokeExpansion());
+    }
+
+    @Override
+    protected Iterator<BinaryInteractionEvidence> createBinaryIterator(InteractionEvidence interaction, List<Participant> participants) {
+        if (!(interaction instanceof IntactInteractionEvidence)){
+            return null;
+        }
+        // the interactions without bait or with several baits are expanded by the delegate
+        int baitIndex = -1;
+        for (int i = 0; i < participants.size(); i++){
+            if (ParticipantUtils.doesParticipantHaveExperimentalRole((ParticipantEvidence) participants.get(i), Participant.BAIT_ROLE_MI, Participant.BAIT_ROLE)){
+                if (baitIndex != -1){
+                    return null;
+                }
+                baitIndex = i;
+            }
+        }
+        return baitIndex != -1 ? new SpokeBinaryIterator(interaction, participants, baitIndex) : null;
+    }
+
+    @Override
+    protected BinaryInteractionEvidence createBinaryInteraction(InteractionEvidence interaction, Participant participantA, Participant participantB) {
+        return new IntactBinaryInteractionEvidenceWrapper((IntactInteractionEvidence) interaction,
+                (ParticipantEvidence) participantA, (ParticipantEvidence) participantB, getMethod());
+    }
+}
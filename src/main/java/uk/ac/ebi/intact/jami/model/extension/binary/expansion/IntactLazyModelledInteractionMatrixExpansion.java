@@ -0,0 +1,45 @@
+package uk.ac.ebi.intact.jami.model.extension.binary.expansion;
+
+import psidev.psi.mi.jami.binary.ModelledBinaryInteraction;
+import psidev.psi.mi.jami.binary.expansion.ModelledInteractionMatrixExpansion;
+import psidev.psi.mi.jami.model.ModelledInteraction;
+import psidev.psi.mi.jami.model.ModelledParticipant;
+import psidev.psi.mi.jami.model.Participant;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
+import uk.ac.ebi.intact.jami.model.extension.binary.IntactModelledBinaryInteractionWrapper;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Matrix expansion of IntAct complexes creating the binary interactions lazily.
+ *
+ * The n-ary complexes are expanded lazily with IntactModelledBinaryInteractionWrapper views pairing each participant
+ * with the participants following it. The other interactions are expanded with ModelledInteractionMatrixExpansion.
+ * There is no lazy spoke expansion of complexes because their participants do not have any experimental role to select the bait.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactLazyModelledInteractionMatrixExpansion extends AbstractIntactLazyExpansion<ModelledInteraction, ModelledBinaryInteraction> {
+
+    public IntactLazyModelledInteractionMatrixExpansion() {
+        super(new ModelledInteractionMatrixExpansion());
+    }
+
+    @Override
+    protected Iterator<ModelledBinaryInteraction> createBinaryIterator(ModelledInteraction interaction, List<Participant> participants) {
+        if (!(interaction instanceof IntactComplex)){
+            return null;
+        }
+        return new MatrixBinaryIterator(interaction, participants);
+    }
+
+    @Override
+    protected ModelledBinaryInteraction createBinaryInteraction(ModelledInteraction interaction, Participant participantA, Participant participantB) {
+        return new IntactModelledBinaryInteractionWrapper((IntactComplex) interaction,
+                (ModelledParticipant) participantA, (ModelledParticipant) participantB, getMethod());
+    }
+}
@@ -7,6 +7,9 @@ package uk.ac.ebi.intact.jami.model.listener;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
 import uk.ac.ebi.intact.jami.model.audit.Auditable;
 import uk.ac.ebi.intact.jami.context.UserContext;
@@ -19,12 +22,22 @@ import java.util.Date;
  * This listeners automatically updates the audit information (user and dates modification columns) for any
  * object that contains these attributes.
  *
+ * The user is the local user context of the object, otherwise the user context of the running synchronization (see setCurrentUserContext),
+ * otherwise the jamiUserContext bean. The jamiUserContext bean is a prototype so, inside a Spring transaction, it is only looked up once per
+ * transaction and the upper case user is cached until the transaction completes. Outside a transaction, nothing is cached.
+ * Each object gets its own date of the current time because the dates are mutable.
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  */
 public class AuditableEventListener {
 
     private static final Log log = LogFactory.getLog( AuditableEventListener.class );
 
+    private static final String DEFAULT_USER = "INTACT";
+
+    private static final ThreadLocal<UserContext> SYNCHRONIZATION_USER_CONTEXT = new ThreadLocal<UserContext>();
+    private static final ThreadLocal<AuditState> AUDIT_STATE = new ThreadLocal<AuditState>();
+
     @PrePersist
     @PreUpdate
     public void prePersist(Auditable auditable) {
@@ -32,6 +45,7 @@ public class AuditableEventListener {
             log.trace( "Running @PrePersist/@PreUpdate on " + auditable );
         }
 
+        AuditState state = getAuditState();
         final Date now = new Date();
 
         if (auditable.getCreated() == null) {
@@ -39,19 +53,93 @@ public class AuditableEventListener {
         }
         auditable.setUpdated(now);
 
-        String currentUser = "INTACT";
         UserContext userContext = auditable.getLocalUserContext();
         if (userContext == null){
-            userContext = ApplicationContextProvider.getBean("jamiUserContext", UserContext.class);
+            userContext = SYNCHRONIZATION_USER_CONTEXT.get();
         }
-
-        if (userContext != null && userContext.getUserId() != null) {
-            currentUser = userContext.getUserId().toUpperCase();
+        if (userContext == null){
+            userContext = state.getDefaultUserContext();
         }
 
+        String currentUser = state.getCurrentUser(userContext);
+
         if (auditable.getCreator() == null) {
-            auditable.setCreator( currentUser.toUpperCase() );
+            auditable.setCreator( currentUser );
         }
         auditable.setUpdator( currentUser );
     }
+
+    /**
+     * Sets the user context of the objects persisted or updated by the current thread which do not have a local user context,
+     * for instance the children of a synchronized object persisted by cascade.
+     * @param userContext : the user context of the synchronization. Null to use the jamiUserContext bean
+     * @return the previous user context of the current thread, to be restored when the synchronization ends
+     */
+    public static UserContext setCurrentUserContext(UserContext userContext) {
+        UserContext previous = SYNCHRONIZATION_USER_CONTEXT.get();
+        if (userContext != null){
+            SYNCHRONIZATION_USER_CONTEXT.set(userContext);
+        }
+        else{
+            SYNCHRONIZATION_USER_CONTEXT.remove();
+        }
+        return previous;
+    }
+
+    /**
+     *
+     * @return the audit state of the current transaction, which is removed when the transaction completes. A new state if there is no
+     * transaction synchronization, so nothing stays attached to the thread
+     */
+    private static AuditState getAuditState() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()){
+            return new AuditState();
+        }
+        AuditState state = AUDIT_STATE.get();
+        if (state == null){
+            state = new AuditState();
+            AUDIT_STATE.set(state);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    AUDIT_STATE.remove();
+                }
+            });
+        }
+        return state;
+    }
+
+    private static class AuditState {
+        private ApplicationContext applicationContext;
+        private UserContext defaultUserContext;
+        private boolean defaultUserContextLoaded;
+
+        private UserContext lastUserContext;
+        private String lastUserId;
+        private String lastUser;
+
+        private UserContext getDefaultUserContext() {
+            ApplicationContext currentApplicationContext = ApplicationContextProvider.getApplicationContext();
+            if (!defaultUserContextLoaded || currentApplicationContext != applicationContext){
+                defaultUserContext = ApplicationContextProvider.getBean("jamiUserContext", UserContext.class);
+                applicationContext = currentApplicationContext;
+                defaultUserContextLoaded = true;
+            }
+            return defaultUserContext;
+        }
+
+        private String getCurrentUser(UserContext userContext) {
+            String userId = userContext != null ? userContext.getUserId() : null;
+            if (userId == null){
+                return DEFAULT_USER;
+            }
+            // the user id of a context can be changed so the cached user is checked against it
+            if (userContext != lastUserContext || !userId.equals(lastUserId)){
+                lastUserContext = userContext;
+                lastUserId = userId;
+                lastUser = userId.toUpperCase();
+            }
+            return lastUser;
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package uk.ac.ebi.intact.jami.service;
+
+import uk.ac.ebi.intact.jami.model.IntactPrimaryObject;
+import uk.ac.ebi.intact.jami.model.export.ExportedInteractionEvidence;
+
+/**
+ * Keyset sort key using the ac of IntAct primary objects or of exported interaction evidences.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class AcKeysetSortKey<T> implements KeysetSortKey<T> {
+
+    public static final String LAST_AC_PARAMETER = "lastAc";
+
+    public String getParameterName() {
+        return LAST_AC_PARAMETER;
+    }
+
+    public Object extractKey(T object) {
+        if (object instanceof ExportedInteractionEvidence){
+            return ((ExportedInteractionEvidence) object).getAc();
+        }
+        else if (!(object instanceof IntactPrimaryObject)){
+            throw new IllegalArgumentException("The keyset sort key on ac can only be used with IntAct primary objects or exported interaction evidences");
+        }
+        return ((IntactPrimaryObject) object).getAc();
+    }
+
+    /**
+     *
+     * @param entityName : the name of the entity to query
+     * @return the query selecting the first chunk of all the entities ordered by ac
+     */
+    public static String createFirstQuery(String entityName) {
+        return "select o from " + entityName + " o order by o.ac";
+    }
+
+    /**
+     *
+     * @param entityName : the name of the entity to query
+     * @return the query selecting the entities having an ac greater than the last ac, ordered by ac
+     */
+    public static String createKeysetQuery(String entityName) {
+        return "select o from " + entityName + " o where o.ac > :" + LAST_AC_PARAMETER + " order by o.ac";
+    }
+}
@@ -16,6 +16,7 @@ import uk.ac.ebi.intact.jami.synchronizer.FinderException;
 import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactParticipantSignatureFactory;
 
 import javax.persistence.EntityManager;
 import java.util.*;
@@ -180,6 +181,56 @@ public class ComplexService extends AbstractReleasableLifeCycleService<IntactCom
         getIntactDao().getSynchronizerContext().getComplexSynchronizer().flush();
     }
 
+    /**
+     * Computes the participant signature of the next complexes which do not have any signature.
+     * The signatures are updated with update queries so the audit properties of the complexes are not modified.
+     * @param max : the maximum number of complexes to update
+     * @return the number of complexes updated
+     */
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    public int computeMissingParticipantSignatures(int max) {
+        EntityManager em = getIntactDao().getEntityManager();
+        List<IntactComplex> complexes = em.createQuery("select c from IntactComplex c " +
+                "where c.participantSignature is null " +
+                "order by c.ac", IntactComplex.class)
+                .setMaxResults(max)
+                .getResultList();
+        IntactParticipantSignatureFactory signatureFactory = new IntactParticipantSignatureFactory();
+        for (IntactComplex complex : complexes) {
+            em.createQuery("update IntactComplex c " +
+                    "set c.participantSignature = :participantSignature " +
+                    "where c.ac = :complexAc")
+                    .setParameter("participantSignature", signatureFactory.createSignature(complex.getParticipants()))
+                    .setParameter("complexAc", complex.getAc())
+                    .executeUpdate();
+        }
+        return complexes.size();
+    }
+
+    /**
+     * Backfills the participant signatures of all the complexes which do not have any signature.
+     * Each batch of complexes is updated in its own transaction.
+     * The signature of a complex can be recomputed by setting it to null before running this job.
+     * @param batchSize : the number of complexes updated per transaction
+     * @return the total number of complexes updated
+     */
+    public long computeAllMissingParticipantSignatures(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        // use proxy and not this for transactional annotations to work
+        ComplexService service = (ComplexService) ApplicationContextProvider.getBean("complexService");
+        long total = 0;
+        int updated;
+        do {
+            updated = service.computeMissingParticipantSignatures(batchSize);
+            total += updated;
+            LOGGER.info("Computed the participant signatures of " + total + " complexes");
+        }
+        while (updated == batchSize);
+        return total;
+    }
+
     @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
     public String retrieveNextComplexAc() {
         EntityManager em = getIntactDao().getEntityManager();
@@ -0,0 +1,166 @@
+package uk.ac.ebi.intact.jami.service;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.export.ExportedInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.export.ExportedInteractionEvidenceLoader;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.*;
+
+/**
+ * Read only service for the export read model of interaction evidences.
+ *
+ * The queries given to this service select the acs of the interaction evidences to export and the exported interaction evidences
+ * are loaded with the ExportedInteractionEvidenceLoader. The iterators returned by iterateAll() and iterateAll(acQuery, acKeysetQuery, parameters, batch)
+ * use keyset pagination on the interaction ac so a full export does not use any offset.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@Service(value = "exportedInteractionEvidenceService")
+@Lazy
+@Scope( BeanDefinition.SCOPE_PROTOTYPE )
+public class ExportedInteractionEvidenceService implements IntactService<ExportedInteractionEvidence> {
+
+    /**
+     * Query selecting the acs of the first chunk of all the interaction evidences
+     */
+    public static final String AC_QUERY = "select i.ac from IntactInteractionEvidence i order by i.ac";
+    /**
+     * Query selecting the acs of the interaction evidences following the last exported ac
+     */
+    public static final String AC_KEYSET_QUERY = "select i.ac from IntactInteractionEvidence i where i.ac > :"
+            + AcKeysetSortKey.LAST_AC_PARAMETER + " order by i.ac";
+
+    @Resource(name = "intactDao")
+    private IntactDao intactDAO;
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public long countAll() {
+        return this.intactDAO.getInteractionDao().countAll();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public Iterator<ExportedInteractionEvidence> iterateAll() {
+        return iterateAll(AC_QUERY, AC_KEYSET_QUERY, null, 200);
+    }
+
+    /**
+     * Iterates over the exported interaction evidences with keyset pagination on the interaction ac
+     * @param acQuery : the query selecting the acs of the first chunk, ordered by ac
+     * @param acKeysetQuery : the query selecting the acs greater than the parameter lastAc, ordered by ac
+     * @param parameters : the query parameters. Can be null
+     * @param batch : the size of the chunks
+     * @return the iterator
+     */
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public Iterator<ExportedInteractionEvidence> iterateAll(String acQuery, String acKeysetQuery, Map<String, Object> parameters, int batch) {
+        // use proxy and not this for transactional annotations to work
+        return new IntactQueryResultIterator<ExportedInteractionEvidence>((ExportedInteractionEvidenceService)
+                ApplicationContextProvider.getBean("exportedInteractionEvidenceService"), batch, acQuery, acKeysetQuery, parameters,
+                new AcKeysetSortKey<ExportedInteractionEvidence>(), false);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public List<ExportedInteractionEvidence> fetchIntactObjects(int first, int max) {
+        return fetchIntactObjects(AC_QUERY, null, first, max);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public long countAll(String countQuery, Map<String, Object> parameters) {
+        return this.intactDAO.getInteractionDao().countByQuery(countQuery, parameters);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public Iterator<ExportedInteractionEvidence> iterateAll(String countQuery, String query, Map<String, Object> parameters) {
+        // use proxy and not this for transactional annotations to work
+        return new IntactQueryResultIterator<ExportedInteractionEvidence>((ExportedInteractionEvidenceService)
+                ApplicationContextProvider.getBean("exportedInteractionEvidenceService"), query, countQuery, parameters);
+    }
+
+    /**
+     *
+     * @param query : the HQL query selecting the acs of the interaction evidences to export
+     * @param parameters : the query parameters. Can be null
+     * @param first : the first result. It should be 0 and the next chunks selected with a keyset query
+     * @param max : the maximum number of results
+     * @return the exported interaction evidences in the order of the query
+     */
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public List<ExportedInteractionEvidence> fetchIntactObjects(String query, Map<String, Object> parameters, int first, int max) {
+        EntityManager em = this.intactDAO.getEntityManager();
+        Query acQuery = em.createQuery(query);
+        if (parameters != null){
+            for (Map.Entry<String, Object> entry : parameters.entrySet()){
+                acQuery.setParameter(entry.getKey(), entry.getValue());
+            }
+        }
+        if (first > 0){
+            acQuery.setFirstResult(first);
+        }
+        acQuery.setMaxResults(max);
+        List<String> acs = acQuery.getResultList();
+        return new ExportedInteractionEvidenceLoader(em).load(acs);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public List<ExportedInteractionEvidence> fetchIntactObjects(String query, Map<String, Object> parameters) {
+        return fetchIntactObjects(query, parameters, 0, Integer.MAX_VALUE);
+    }
+
+    // the export read model does not have lazy collections
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public Iterator<ExportedInteractionEvidence> iterateAll(boolean loadLazyCollections) {
+        return iterateAll();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public List<ExportedInteractionEvidence> fetchIntactObjects(int first, int max, boolean loadLazyCollections) {
+        return fetchIntactObjects(first, max);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public Iterator<ExportedInteractionEvidence> iterateAll(String countQuery, String query, Map<String, Object> parameters, boolean loadLazyCollections) {
+        return iterateAll(countQuery, query, parameters);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public List<ExportedInteractionEvidence> fetchIntactObjects(String query, Map<String, Object> parameters, int first, int max, boolean loadLazyCollections) {
+        return fetchIntactObjects(query, parameters, first, max);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager", readOnly = true)
+    public List<ExportedInteractionEvidence> fetchIntactObjects(String query, Map<String, Object> parameters, boolean loadLazyCollections) {
+        return fetchIntactObjects(query, parameters);
+    }
+
+    public void saveOrUpdate(ExportedInteractionEvidence object) {
+        throw new UnsupportedOperationException("The exported interaction evidences are read only");
+    }
+
+    public void saveOrUpdate(Collection<? extends ExportedInteractionEvidence> objects) {
+        throw new UnsupportedOperationException("The exported interaction evidences are read only");
+    }
+
+    public void delete(ExportedInteractionEvidence object) {
+        throw new UnsupportedOperationException("The exported interaction evidences are read only");
+    }
+
+    public void delete(Collection<? extends ExportedInteractionEvidence> objects) {
+        throw new UnsupportedOperationException("The exported interaction evidences are read only");
+    }
+
+    public IntactDao getIntactDao() {
+        return intactDAO;
+    }
+}
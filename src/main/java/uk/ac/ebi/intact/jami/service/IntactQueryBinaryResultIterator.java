@@ -5,6 +5,7 @@ import psidev.psi.mi.jami.binary.expansion.ComplexExpansionMethod;
 import psidev.psi.mi.jami.exception.ComplexExpansionException;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.Interaction;
+import uk.ac.ebi.intact.jami.model.extension.binary.expansion.AbstractIntactLazyExpansion;
 
 import java.util.Collection;
 import java.util.Iterator;
@@ -14,6 +15,9 @@ import java.util.NoSuchElementException;
 /**
  * Iterator for IntAct database binary results
  *
+ * When the complex expansion is an AbstractIntactLazyExpansion, the binary interactions of each n-ary interaction are created one by one
+ * instead of expanding the whole interaction at once.
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>21/02/14</pre>
@@ -105,6 +109,18 @@ public class IntactQueryBinaryResultIterator<T extends Interaction, B extends Bi
         prepareNextObject();
     }
 
+    public IntactQueryBinaryResultIterator(IntactQueryResultIterator<T> queryIterator, ComplexExpansionMethod<T,B> expansionMethod){
+        if (queryIterator == null){
+            throw new IllegalArgumentException("The query iterator is mandatory");
+        }
+        this.queryIterator = queryIterator;
+        if (expansionMethod == null){
+            throw new IllegalArgumentException("The complex expansion is mandatory");
+        }
+        this.expansionMethod = expansionMethod;
+        prepareNextObject();
+    }
+
     protected void prepareNextObject(){
 
         if (this.binaryIterator != null && this.binaryIterator.hasNext()){
@@ -121,11 +137,18 @@ public class IntactQueryBinaryResultIterator<T extends Interaction, B extends Bi
             }
             if (this.expansionMethod.isInteractionExpandable(intactObject)){
                 try {
-                    this.binaryInteractions = this.expansionMethod.expand(intactObject);
+                    // the lazy expansions create the binary interactions one by one
+                    if (this.expansionMethod instanceof AbstractIntactLazyExpansion){
+                        this.binaryInteractions = null;
+                        this.binaryIterator = ((AbstractIntactLazyExpansion<T,B>) this.expansionMethod).expandLazily(intactObject);
+                    }
+                    else{
+                        this.binaryInteractions = this.expansionMethod.expand(intactObject);
+                        this.binaryIterator = this.binaryInteractions.iterator();
+                    }
                 } catch (ComplexExpansionException e) {
                     throw new MIIOException("Impossible to expand n-ary interaction", e);
                 }
-                this.binaryIterator = this.binaryInteractions.iterator();
                 if (this.binaryIterator.hasNext()){
                     this.currentBinary = this.binaryIterator.next();
                 }
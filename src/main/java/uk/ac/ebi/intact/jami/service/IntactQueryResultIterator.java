@@ -1,13 +1,25 @@
 package uk.ac.ebi.intact.jami.service;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import psidev.psi.mi.jami.exception.MIIOException;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Iterator for IntAct database results
  *
+ * By default, the results are loaded chunk by chunk using an offset. In keyset mode, each chunk is loaded with
+ * the keyset query selecting the results having a key greater than the key of the last result of the previous chunk.
+ * The keyset mode does not need to count the results first.
+ *
+ * The next chunk can be prefetched on a background thread while the current chunk is consumed (see setPrefetch).
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>21/02/14</pre>
@@ -15,6 +27,8 @@ import java.util.NoSuchElementException;
 
 public class IntactQueryResultIterator<T> implements Iterator<T> {
 
+    private static final long PREFETCH_KEEP_ALIVE_SECONDS = 60;
+
     private IntactService<T> service;
     private long totalCount = 0;
     private T currentObject;
@@ -26,6 +40,15 @@ public class IntactQueryResultIterator<T> implements Iterator<T> {
     private Map<String, Object> queryParameters;
     private boolean loadLazyCollections = false;
 
+    private String keysetQuery;
+    private KeysetSortKey<T> keysetSortKey;
+    private Object lastKey;
+    private boolean isLastChunk = false;
+
+    private boolean prefetch = false;
+    private ExecutorService prefetchExecutor;
+    private Future<List<T>> nextChunk;
+
     public IntactQueryResultIterator(IntactService<T> service){
         if (service == null){
              throw new IllegalArgumentException("The IntAct service cannot be null");
@@ -147,31 +170,189 @@ public class IntactQueryResultIterator<T> implements Iterator<T> {
         prepareNextObject();
     }
 
+    /**
+     * Creates an iterator in keyset mode
+     * @param service : the IntAct service
+     * @param batch : the size of the chunks
+     * @param query : the query loading the first chunk. It must order the results by the sort key
+     * @param keysetQuery : the query loading the next chunks. It must select the results having a key greater than the parameter of the sort key and order them by this key
+     * @param parameters : the query parameters. Can be null
+     * @param keysetSortKey : the sort key
+     * @param loadLazyCollections : true if the lazy collections should be initialised
+     */
+    public IntactQueryResultIterator(IntactService<T> service, int batch, String query, String keysetQuery, Map<String, Object> parameters,
+                                     KeysetSortKey<T> keysetSortKey, boolean loadLazyCollections){
+        if (service == null){
+            throw new IllegalArgumentException("The IntAct service cannot be null");
+        }
+        if (query == null || keysetQuery == null || keysetSortKey == null){
+            throw new IllegalArgumentException("The first query, the keyset query and the sort key are required in keyset mode");
+        }
+        this.service = service;
+        this.batch = batch;
+        this.query = query;
+        this.keysetQuery = keysetQuery;
+        this.queryParameters = parameters;
+        this.keysetSortKey = keysetSortKey;
+        this.loadLazyCollections = loadLazyCollections;
+
+        prepareNextObject();
+    }
+
+    public IntactQueryResultIterator(IntactService<T> service, String query, String keysetQuery, Map<String, Object> parameters,
+                                     KeysetSortKey<T> keysetSortKey, boolean loadLazyCollections){
+        this(service, 200, query, keysetQuery, parameters, keysetSortKey, loadLazyCollections);
+    }
+
+    public boolean isKeysetMode() {
+        return this.keysetSortKey != null;
+    }
+
+    /**
+     * When the prefetch is enabled, the next chunk is loaded on a background thread while the current chunk is consumed.
+     * Each chunk is loaded with the IntAct service in its own read only transaction, including the lazy collections if required.
+     * Only one chunk is loaded in advance so at most two chunks are kept in memory.
+     * The prefetch is disabled by default.
+     * @param prefetch : true to enable the prefetch of the next chunk
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        if (prefetch && this.currentObject != null && this.nextChunk == null){
+            prefetchNextChunk();
+        }
+    }
+
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Cancels the chunk being prefetched and stops the prefetch thread. The iterator does not have any new elements after it is closed.
+     * It is called automatically after the last chunk
+     */
+    public void close() {
+        this.currentObject = null;
+        this.chunkIterator = null;
+        this.chunk = null;
+        if (this.nextChunk != null){
+            this.nextChunk.cancel(true);
+            this.nextChunk = null;
+        }
+        if (this.prefetchExecutor != null){
+            this.prefetchExecutor.shutdownNow();
+            this.prefetchExecutor = null;
+        }
+    }
+
     protected void prepareNextObject(){
 
         if (this.chunkIterator != null && this.chunkIterator.hasNext()){
             this.currentObject = this.chunkIterator.next();
+            return;
         }
-        else if (totalCount == currentCount){
-            this.currentObject = null;
+
+        List<T> loadedChunk = loadNextChunk();
+        if (loadedChunk == null){
+            close();
+            return;
         }
-        else{
-            long max = Math.min(batch, totalCount - currentCount);
-            if (this.query == null){
-                this.chunk = this.service.fetchIntactObjects((int)currentCount, (int)max, this.loadLazyCollections);
+        this.chunk = loadedChunk;
+        if (isKeysetMode()){
+            // a chunk smaller than the batch is the last one
+            this.isLastChunk = this.chunk.size() < batch;
+            if (!this.chunk.isEmpty()){
+                this.lastKey = this.keysetSortKey.extractKey(this.chunk.get(this.chunk.size() - 1));
+                this.currentCount += this.chunk.size();
+            }
+        }
+        this.chunkIterator = this.chunk.iterator();
+        if (this.chunkIterator.hasNext()){
+            this.currentObject = this.chunkIterator.next();
+            if (this.prefetch){
+                prefetchNextChunk();
             }
-            else{
-                this.chunk = this.service.fetchIntactObjects(this.query, this.queryParameters, (int)currentCount, (int)max, this.loadLazyCollections);
+        }
+        else{
+            close();
+        }
+    }
+
+    /**
+     *
+     * @return the next chunk, prefetched or loaded now. Null if there are no more chunks
+     */
+    protected List<T> loadNextChunk(){
+        if (this.nextChunk != null){
+            Future<List<T>> future = this.nextChunk;
+            this.nextChunk = null;
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MIIOException("Interrupted while waiting for the next chunk of IntAct results", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException){
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new MIIOException("Cannot load the next chunk of IntAct results", e.getCause());
             }
-            this.chunkIterator = this.chunk.iterator();
-            if (this.chunkIterator.hasNext()){
-                this.currentObject = this.chunkIterator.next();
+        }
+        Supplier<List<T>> chunkLoader = createNextChunkLoader();
+        return chunkLoader != null ? chunkLoader.get() : null;
+    }
+
+    /**
+     * Creates the loader of the next chunk and moves the offset to the following chunk.
+     * In keyset mode, the loader can only be created once the previous chunk is loaded.
+     * @return the loader of the next chunk. Null if there are no more chunks
+     */
+    protected Supplier<List<T>> createNextChunkLoader(){
+        if (isKeysetMode()){
+            if (this.isLastChunk){
+                return null;
             }
-            else{
-                this.currentObject = null;
+            else if (this.lastKey == null){
+                final String firstQuery = this.query;
+                final Map<String, Object> parameters = this.queryParameters;
+                return () -> this.service.fetchIntactObjects(firstQuery, parameters, 0, batch, this.loadLazyCollections);
             }
-            this.currentCount+=max;
+            final Map<String, Object> keysetParameters = this.queryParameters != null ?
+                    new HashMap<String, Object>(this.queryParameters) : new HashMap<String, Object>(1);
+            keysetParameters.put(this.keysetSortKey.getParameterName(), this.lastKey);
+            final String nextQuery = this.keysetQuery;
+            return () -> this.service.fetchIntactObjects(nextQuery, keysetParameters, 0, batch, this.loadLazyCollections);
+        }
+        else if (totalCount == currentCount){
+            return null;
+        }
+        final int first = (int)currentCount;
+        final int max = (int)Math.min(batch, totalCount - currentCount);
+        this.currentCount+=max;
+        if (this.query == null){
+            return () -> this.service.fetchIntactObjects(first, max, this.loadLazyCollections);
+        }
+        final String chunkQuery = this.query;
+        final Map<String, Object> parameters = this.queryParameters;
+        return () -> this.service.fetchIntactObjects(chunkQuery, parameters, first, max, this.loadLazyCollections);
+    }
+
+    private void prefetchNextChunk(){
+        Supplier<List<T>> chunkLoader = createNextChunkLoader();
+        if (chunkLoader == null){
+            return;
+        }
+        if (this.prefetchExecutor == null){
+            // the thread stops when it is idle so an iterator which is not consumed until the end does not keep it
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, PREFETCH_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), runnable -> {
+                        Thread thread = new Thread(runnable, "intact-query-prefetch");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            this.prefetchExecutor = executor;
         }
+        this.nextChunk = this.prefetchExecutor.submit(chunkLoader::get);
     }
 
     public boolean hasNext() {
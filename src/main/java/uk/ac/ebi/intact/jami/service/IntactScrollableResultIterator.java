@@ -0,0 +1,168 @@
+package uk.ac.ebi.intact.jami.service;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Iterator streaming IntAct database results with a server side cursor.
+ *
+ * The query is run once in its own read only session and transaction and the results are read with a forward only ScrollableResults
+ * and a fetch size, so there is no offset and no chunk loaded in memory.
+ * The session is cleared each time the iterator moves to the next result : the object returned by next is detached as soon as hasNext or next
+ * is called again and it must be processed before. The memory used by the iterator does not depend on the number of results.
+ *
+ * The session and the cursor are closed when the last result has been read or when close is called.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactScrollableResultIterator<T> implements Iterator<T>, AutoCloseable {
+
+    public static final int DEFAULT_FETCH_SIZE = 200;
+
+    private EntityManager entityManager;
+    private EntityTransaction transaction;
+    private Session session;
+    private ScrollableResults results;
+    private Consumer<T> lazyInitialiser;
+    private T currentObject;
+    private boolean isAdvanced = false;
+    private boolean isClosed = false;
+
+    /**
+     *
+     * @param entityManagerFactory : the factory used to open the read only session of this iterator
+     * @param query : the HQL query. It must select one entity per row
+     * @param parameters : the query parameters. Can be null
+     * @param fetchSize : the number of rows fetched from the cursor at once
+     * @param lazyInitialiser : initialises the lazy properties of each object before it is returned. Can be null
+     */
+    public IntactScrollableResultIterator(EntityManagerFactory entityManagerFactory, String query, Map<String, Object> parameters,
+                                          int fetchSize, Consumer<T> lazyInitialiser){
+        if (entityManagerFactory == null){
+            throw new IllegalArgumentException("The entity manager factory cannot be null");
+        }
+        if (query == null){
+            throw new IllegalArgumentException("The query cannot be null");
+        }
+        if (fetchSize < 1){
+            throw new IllegalArgumentException("The fetch size must be at least 1");
+        }
+        this.lazyInitialiser = lazyInitialiser;
+        this.entityManager = entityManagerFactory.createEntityManager();
+        try{
+            // the cursors are only kept open by the database inside a transaction
+            this.transaction = this.entityManager.getTransaction();
+            this.transaction.begin();
+            this.session = this.entityManager.unwrap(Session.class);
+            this.session.setDefaultReadOnly(true);
+            this.session.setFlushMode(FlushMode.MANUAL);
+
+            Query hibernateQuery = this.session.createQuery(query);
+            if (parameters != null){
+                for (Map.Entry<String, Object> entry : parameters.entrySet()){
+                    hibernateQuery.setParameter(entry.getKey(), entry.getValue());
+                }
+            }
+            hibernateQuery.setReadOnly(true);
+            hibernateQuery.setFetchSize(fetchSize);
+            hibernateQuery.setCacheMode(CacheMode.IGNORE);
+            this.results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+        }
+        catch (RuntimeException e){
+            close();
+            throw e;
+        }
+    }
+
+    public IntactScrollableResultIterator(EntityManagerFactory entityManagerFactory, String query, Map<String, Object> parameters,
+                                          Consumer<T> lazyInitialiser){
+        this(entityManagerFactory, query, parameters, DEFAULT_FETCH_SIZE, lazyInitialiser);
+    }
+
+    public boolean hasNext() {
+        if (!this.isAdvanced){
+            advance();
+        }
+        return this.currentObject != null;
+    }
+
+    public T next() {
+        if (!hasNext()){
+            throw new NoSuchElementException("Does not have any new elements");
+        }
+        T object = this.currentObject;
+        this.isAdvanced = false;
+        return object;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("An IntAct scrollable iterator does not support the remove method");
+    }
+
+    /**
+     * Closes the cursor and the session of this iterator. It is called automatically after the last result
+     */
+    public void close() {
+        if (this.isClosed){
+            return;
+        }
+        this.isClosed = true;
+        this.currentObject = null;
+        try{
+            if (this.results != null){
+                this.results.close();
+            }
+        }
+        finally {
+            try{
+                // nothing has been written in this read only transaction
+                if (this.transaction != null && this.transaction.isActive()){
+                    this.transaction.rollback();
+                }
+            }
+            finally {
+                this.entityManager.close();
+            }
+        }
+    }
+
+    protected void advance() {
+        this.isAdvanced = true;
+        if (this.isClosed){
+            this.currentObject = null;
+            return;
+        }
+        // the previous object has been processed, it can be evicted with all the objects loaded with it
+        this.session.clear();
+        try{
+            if (this.results.next()){
+                this.currentObject = (T) this.results.get(0);
+                if (this.lazyInitialiser != null){
+                    this.lazyInitialiser.accept(this.currentObject);
+                }
+            }
+            else{
+                close();
+            }
+        }
+        catch (RuntimeException e){
+            close();
+            throw e;
+        }
+    }
+}
@@ -120,7 +120,9 @@ public class InteractionEvidenceService implements IntactService<InteractionEvid
         return results;
     }
 
-    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    // an interaction which cannot be synchronized is rolled back so the writers can skip it
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager",
+            rollbackFor = {SynchronizerException.class, PersisterException.class, FinderException.class})
     public void saveOrUpdate(InteractionEvidence object) throws PersisterException, FinderException, SynchronizerException {
         afterCommitExecutor.registerDaoForSynchronization(intactDAO);
         saveInteraction(object);
@@ -128,6 +130,13 @@ public class InteractionEvidenceService implements IntactService<InteractionEvid
     }
 
     protected IntactInteractionEvidence saveInteraction(InteractionEvidence object) throws FinderException, PersisterException, SynchronizerException {
+        saveExperiment(object);
+
+        // we can synchronize the interaction with the database now
+        return intactDAO.getSynchronizerContext().getInteractionSynchronizer().synchronize(object, true);
+    }
+
+    protected void saveExperiment(InteractionEvidence object) throws FinderException, PersisterException, SynchronizerException {
         IntactExperiment curatedExperiment = null;
         // if the interaction has an experiment, we may have to persist the experiment first
         if (object.getExperiment() != null && (!(object.getExperiment() instanceof IntactExperiment)
@@ -158,17 +167,18 @@ public class InteractionEvidenceService implements IntactService<InteractionEvid
             // create experiment in database if not done
             object.setExperiment(intactDAO.getSynchronizerContext().getExperimentSynchronizer().synchronize(curatedExperiment, true));
         }
-
-        // we can synchronize the interaction with the database now
-       return intactDAO.getSynchronizerContext().getInteractionSynchronizer().synchronize(object, true);
     }
 
-    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    // a chunk of interactions which cannot be synchronized is fully rolled back
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager",
+            rollbackFor = {SynchronizerException.class, PersisterException.class, FinderException.class})
     public void saveOrUpdate(Collection<? extends InteractionEvidence> objects) throws SynchronizerException, PersisterException, FinderException {
         afterCommitExecutor.registerDaoForSynchronization(intactDAO);
         for (InteractionEvidence interaction : objects){
-            saveInteraction(interaction);
+            saveExperiment(interaction);
         }
+        // synchronize all the interactions in one batch
+        this.intactDAO.getSynchronizerContext().getInteractionSynchronizer().synchronizeAll(objects, true);
         this.intactDAO.getSynchronizerContext().getInteractionSynchronizer().flush();
     }
 
@@ -194,6 +204,8 @@ public class InteractionEvidenceService implements IntactService<InteractionEvid
 
     private void initialiseLazyInteraction(boolean loadLazyCollections, List<InteractionEvidence> results) {
         if (loadLazyCollections){
+            // load the collections of the whole chunk with batch queries first
+            IntactUtils.prefetchInteractionEvidenceCollections(results);
             for (InteractionEvidence interaction : results){
                 IntactUtils.initialiseInteractionEvidence((IntactInteractionEvidence) interaction, true);
             }
@@ -202,6 +214,8 @@ public class InteractionEvidenceService implements IntactService<InteractionEvid
 
     private void initialiseLazyInteraction(boolean loadLazyCollections, List<InteractionEvidence> results, boolean loadSiblingInteractionEvidences) {
         if (loadLazyCollections){
+            // load the collections of the whole chunk with batch queries first
+            IntactUtils.prefetchInteractionEvidenceCollections(results);
             for (InteractionEvidence interaction : results){
                 try {
                     System.out.println("Interaction: " + ((IntactInteractionEvidence) interaction).getAc());
@@ -8,15 +8,19 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import psidev.psi.mi.jami.model.Interactor;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.context.SequenceStorageMode;
 import uk.ac.ebi.intact.jami.dao.IntactDao;
 import uk.ac.ebi.intact.jami.interceptor.IntactTransactionSynchronization;
 import uk.ac.ebi.intact.jami.model.extension.IntactInteractor;
+import uk.ac.ebi.intact.jami.model.extension.IntactPolymer;
 import uk.ac.ebi.intact.jami.synchronizer.FinderException;
 import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.SequenceChecksumUtils;
 
 import javax.annotation.Resource;
+import javax.persistence.EntityManager;
 import java.util.*;
 
 /**
@@ -140,12 +144,109 @@ public class InteractorService implements IntactService<Interactor>{
         this.intactDAO.getSynchronizerContext().getInteractorSynchronizer().flush();
     }
 
+    /**
+     * Computes the sequence digest and the crc64 of the next polymers having a sequence but no sequence digest.
+     * The checksums are updated with update queries so the audit properties of the polymers are not modified.
+     * @param max : the maximum number of polymers to update
+     * @return the number of polymers updated
+     */
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    public int computeMissingSequenceChecksums(int max) {
+        EntityManager em = this.intactDAO.getEntityManager();
+        List<IntactPolymer> polymers = em.createQuery("select p from IntactPolymer p " +
+                "where p.sequenceDigest is null " +
+                "and (p.dbSequenceChunks is not empty or p.dbPolymerSequence is not null) " +
+                "order by p.ac", IntactPolymer.class)
+                .setMaxResults(max)
+                .getResultList();
+        for (IntactPolymer polymer : polymers) {
+            em.createQuery("update IntactPolymer p " +
+                    "set p.sequenceDigest = :digest, p.crc64 = :crc64 " +
+                    "where p.ac = :polymerAc")
+                    .setParameter("digest", SequenceChecksumUtils.computeSequenceDigest(polymer.getSequence()))
+                    .setParameter("crc64", SequenceChecksumUtils.computeCrc64(polymer.getSequence()))
+                    .setParameter("polymerAc", polymer.getAc())
+                    .executeUpdate();
+        }
+        return polymers.size();
+    }
+
+    /**
+     * Backfills the sequence digests and crc64 of all the polymers having a sequence but no sequence digest.
+     * Each batch of polymers is updated in its own transaction.
+     * @param batchSize : the number of polymers updated per transaction
+     * @return the total number of polymers updated
+     */
+    public long computeAllMissingSequenceChecksums(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        // use proxy and not this for transactional annotations to work
+        InteractorService service = (InteractorService) ApplicationContextProvider.getBean("interactorService");
+        long total = 0;
+        int updated;
+        do {
+            updated = service.computeMissingSequenceChecksums(batchSize);
+            total += updated;
+        }
+        while (updated == batchSize);
+        return total;
+    }
+
+    /**
+     * Rewrites the sequences of the next polymers which are not stored with the given storage mode.
+     * The sequence chunk table is kept so the polymers can be converted back to the CHUNKS storage mode.
+     * @param storageMode : the storage mode of the sequences
+     * @param max : the maximum number of polymers to convert
+     * @return the number of polymers converted
+     */
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    public int convertSequenceStorage(SequenceStorageMode storageMode, int max) {
+        EntityManager em = this.intactDAO.getEntityManager();
+        List<IntactPolymer> polymers = em.createQuery("select p from IntactPolymer p " +
+                (storageMode == SequenceStorageMode.LOB ? "where p.dbSequenceChunks is not empty " : "where p.dbPolymerSequence is not null ") +
+                "order by p.ac", IntactPolymer.class)
+                .setMaxResults(max)
+                .getResultList();
+        IntactUtils.prefetchSequences(em, polymers);
+        for (IntactPolymer polymer : polymers) {
+            polymer.convertSequenceStorage(storageMode);
+        }
+        em.flush();
+        return polymers.size();
+    }
+
+    /**
+     * Migrates the sequences of all the polymers to the given storage mode.
+     * Each batch of polymers is converted in its own transaction.
+     * @param storageMode : the storage mode of the sequences
+     * @param batchSize : the number of polymers converted per transaction
+     * @return the total number of polymers converted
+     */
+    public long convertAllSequenceStorage(SequenceStorageMode storageMode, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        // use proxy and not this for transactional annotations to work
+        InteractorService service = (InteractorService) ApplicationContextProvider.getBean("interactorService");
+        long total = 0;
+        int converted;
+        do {
+            converted = service.convertSequenceStorage(storageMode, batchSize);
+            total += converted;
+        }
+        while (converted == batchSize);
+        return total;
+    }
+
     public IntactDao getIntactDao() {
         return intactDAO;
     }
 
     private void initialiseLazyInteractor(boolean loadLazyCollections, List<Interactor> results) {
         if (loadLazyCollections){
+            // the sequences are lazy so they are loaded for the whole chunk first
+            IntactUtils.prefetchSequences(this.intactDAO.getEntityManager(), results);
             for (Interactor interactor : results){
                 IntactUtils.initialiseInteractor((IntactInteractor) interactor);
             }
@@ -0,0 +1,28 @@
+package uk.ac.ebi.intact.jami.service;
+
+/**
+ * Sort key used to iterate over query results chunk by chunk without offset (keyset pagination).
+ *
+ * The keyset query must select the objects having a key greater than the query parameter named getParameterName()
+ * and order them by this key.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface KeysetSortKey<T> {
+
+    /**
+     *
+     * @return the name of the query parameter which will contain the key of the last object of the previous chunk
+     */
+    public String getParameterName();
+
+    /**
+     *
+     * @param object : the last object of a chunk
+     * @return the key of this object
+     */
+    public Object extractKey(T object);
+}
@@ -108,7 +108,9 @@ public class ModelledInteractionService implements IntactService<ModelledInterac
         return results;
     }
 
-    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    // an interaction which cannot be synchronized is rolled back so the writers can skip it
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager",
+            rollbackFor = {SynchronizerException.class, PersisterException.class, FinderException.class})
     public void saveOrUpdate(ModelledInteraction object) throws PersisterException, FinderException, SynchronizerException {
         afterCommitExecutor.registerDaoForSynchronization(intactDAO);
 
@@ -129,7 +131,9 @@ public class ModelledInteractionService implements IntactService<ModelledInterac
         return intactDAO.getSynchronizerContext().getComplexSynchronizer().synchronize(complex, true);
     }
 
-    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager")
+    // a chunk of interactions which cannot be synchronized is fully rolled back
+    @Transactional(propagation = Propagation.REQUIRED, value = "jamiTransactionManager",
+            rollbackFor = {SynchronizerException.class, PersisterException.class, FinderException.class})
     public void saveOrUpdate(Collection<? extends ModelledInteraction> objects) throws SynchronizerException, PersisterException, FinderException {
         afterCommitExecutor.registerDaoForSynchronization(intactDAO);
 
@@ -1,16 +1,33 @@
 package uk.ac.ebi.intact.jami.synchronizer;
 
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
+import uk.ac.ebi.intact.jami.context.UserContext;
 import uk.ac.ebi.intact.jami.merger.IntactDbMerger;
 import uk.ac.ebi.intact.jami.merger.IntactDbMergerIgnoringLocalObject;
 import uk.ac.ebi.intact.jami.merger.IntactDbMergerIgnoringPersistentObject;
 import uk.ac.ebi.intact.jami.model.IntactPrimaryObject;
 import uk.ac.ebi.intact.jami.model.audit.Auditable;
+import uk.ac.ebi.intact.jami.model.listener.AuditableEventListener;
 import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
+import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerPerformanceListener;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerCache;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperationTimer;
+import uk.ac.ebi.intact.jami.utils.CreationRegistry;
 
 import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,6 +41,10 @@ import java.util.logging.Logger;
 
 public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> implements IntactDbSynchronizer<I,T> {
     private static final Logger LOGGER = Logger.getLogger("AbstractIntactDbSynchronizer");
+    /**
+     * Maximum number of values in a IN (...) query parameter
+     */
+    protected static final int MAX_QUERY_PARAMETERS = 500;
 
     private EntityManager entityManager;
     private SynchronizerContext context;
@@ -32,6 +53,8 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
     private IntactDbMerger<I,T> intactMerger;
 
     private DbSynchronizerListener listener;
+    // the listener is only timing the operations when it is a performance listener
+    private DbSynchronizerPerformanceListener performanceListener;
 
     public AbstractIntactDbSynchronizer(SynchronizerContext context, Class<? extends T> intactClass){
         if (context == null){
@@ -65,7 +88,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
             return object;
         }
         // check cache when possible
-        else if (isObjectStoredInCache((I) object)){
+        else if (checkPersistedObjectsCache((I) object)){
             // process object from cache
             return processCachedObject((I)object, object, mode, true);
         }
@@ -84,14 +107,61 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
         return object;
     }
 
+    public List<T> synchronizeAll(Collection<? extends I> objects, boolean persist) throws FinderException, PersisterException, SynchronizerException {
+        if (objects == null || objects.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        // resolve the existing objects of the whole batch first
+        prefetch(objects);
+
+        List<T> synchronizedObjects = new ArrayList<T>(objects.size());
+        for (I object : objects){
+            synchronizedObjects.add(synchronize(object, persist));
+        }
+        return synchronizedObjects;
+    }
+
+    public void prefetch(Collection<? extends I> objects) {
+        // nothing to prefetch by default
+    }
+
     public T synchronize(I object, boolean persist) throws FinderException, PersisterException, SynchronizerException {
+        // the children persisted by cascade are audited with the user of the synchronizer context
+        UserContext previousUserContext = AuditableEventListener.setCurrentUserContext(getContext().getUserContext());
+        try {
+            if (this.performanceListener == null){
+                return synchronizeObject(object, persist);
+            }
+            SynchronizerOperationTimer timer = startTimer(SynchronizerOperation.SYNCHRONIZE);
+            try {
+                return synchronizeObject(object, persist);
+            }
+            finally {
+                stopTimer(timer, SynchronizerOperation.SYNCHRONIZE);
+            }
+        }
+        finally {
+            AuditableEventListener.setCurrentUserContext(previousUserContext);
+        }
+    }
+
+    /**
+     * Synchronizes the object with the database
+     * @param object : the object to synchronize
+     * @param persist : true if the object should be persisted when it does not exist in the database
+     * @return the synchronized object
+     * @throws FinderException
+     * @throws PersisterException
+     * @throws SynchronizerException
+     */
+    protected T synchronizeObject(I object, boolean persist) throws FinderException, PersisterException, SynchronizerException {
 
         // set flush mode to commit so queries do not trigger flush
         FlushModeType mode = initialiseEntityManagerFlushType();
 
         // check identity cache when possible to avoid internal loops.
         // This can happen if an object refers to itself in one of its properties
-        if (containsObjectInstance(object)){
+        if (checkIdentityCache(object)){
             return processCachedObjectInstance(object, mode);
         }
         // check that the object to synchronize is a proper hibernate entity supported by this synchronizer. This allows to persist basic JAMI
@@ -111,7 +181,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
             }
 
             // check business cache when possible. Only objects that are not partially initialised for the synchronizer can go there
-            if (isObjectStoredInCache(object)){
+            if (checkPersistedObjectsCache(object)){
                 // retrieve object in cache and merge it with current object if necessary
                 return processCachedObject(object,newObject, mode, needToSynchronizeProperties);
             }
@@ -149,7 +219,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
 
             }
             // check normal cache when possible. Only objects that are not dirty for the synchronizer can go there
-            else if (isObjectStoredInCache(object)){
+            else if (checkPersistedObjectsCache(object)){
                 return processCachedObject(object, intactObject, mode, needToSynchronizeProperties);
             }
             // retrieve and/or persist transient instance
@@ -159,6 +229,10 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
             }
             // persisted instance attached to the session
             else{
+                // the persisted instance has been updated in the session
+                if (isModifiedInSession(intactObject)){
+                    invalidateReferenceData(intactObject);
+                }
                 // synchronize properties if needed
                 if (needToSynchronizeProperties){
                     synchronizePartiallyInitialisedProperties(object, intactObject);
@@ -260,6 +334,8 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
      * @param persistedObject : object to delete attached to the session
      */
     protected void processEntityToDelete(T persistedObject) {
+        // the deleted instance must not be reused from the reference data cache
+        invalidateReferenceData(persistedObject);
         // process related properties
         deleteRelatedProperties(persistedObject);
         // remove instance to be deleted
@@ -312,13 +388,22 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
         }
         // merge existing instance with whatever exists in the database
         else{
+            // the persisted instance is updated
+            invalidateReferenceData(reloaded);
             // synchronize properties first before merging
             if (synchronizeProperties){
                 // cache object to persist if allowed
                 synchronizePartiallyInitialisedProperties((I) intactObject, intactObject);
             }
             // merge or persist
-            T mergedObject = this.entityManager.merge(intactObject);
+            T mergedObject;
+            SynchronizerOperationTimer timer = startTimer(SynchronizerOperation.MERGE);
+            try {
+                mergedObject = this.entityManager.merge(intactObject);
+            }
+            finally {
+                stopTimer(timer, SynchronizerOperation.MERGE);
+            }
 
             if (listener != null
                     && intactObject instanceof IntactPrimaryObject){
@@ -333,6 +418,46 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
         }
     }
 
+    /**
+     * Checks if a persisted instance attached to the session has been modified since it was loaded : a property which is dirty
+     * for hibernate, a persistent collection which has been modified or a collection which has been replaced.
+     * @param intactObject : the persisted instance attached to the session
+     * @return true if the instance has been modified in the session. True if the state loaded by hibernate is not available
+     */
+    protected boolean isModifiedInSession(T intactObject) {
+        SessionImplementor session = this.entityManager.unwrap(SessionImplementor.class);
+        EntityEntry entry = session.getPersistenceContext().getEntry(intactObject);
+        if (entry == null || entry.getLoadedState() == null){
+            return true;
+        }
+        EntityPersister persister = entry.getPersister();
+        Object[] values = persister.getPropertyValues(intactObject);
+        if (persister.findDirty(values, entry.getLoadedState(), intactObject, session) != null){
+            return true;
+        }
+        // hibernate does not check the collections when looking for dirty properties
+        for (Object value : values){
+            if (value instanceof PersistentCollection){
+                if (((PersistentCollection) value).isDirty()){
+                    return true;
+                }
+            }
+            else if (value instanceof Collection || value instanceof Map){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the persisted instance from the reference data cache and the indexes of the synchronizer context when it is updated or deleted.
+     * Does nothing by default as only the synchronizers of reference data (cvs, sources, organisms) and of interactors use them
+     * @param intactObject : the persisted instance which is updated or deleted
+     */
+    protected void invalidateReferenceData(T intactObject) {
+        // nothing to invalidate by default
+    }
+
     /**
      * Reset object identity to null
      * @param intactObject
@@ -388,7 +513,11 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
     protected T findOrPersist(I originalObject, T persistentObject, boolean persist, boolean needToSynchronizeProperties)
             throws FinderException, PersisterException, SynchronizerException {
         // find existing instance in the database
-        T existingInstance = find((I)persistentObject);
+        T existingInstance = findExistingInstance(persistentObject);
+        // when synchronizer contexts write in parallel, only one of them can create the new object. The others wait for its transaction
+        if (existingInstance == null && persist){
+            existingInstance = claimCreation(persistentObject);
+        }
         // the existing instance has been found in the DB and we need to merge existing persistent instance with the other instance
         if (existingInstance != null){
             // we merge the existing instance with the new instance if possible
@@ -397,7 +526,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
                 registerObjectBeforeProcessing(originalObject, persistentObject, existingInstance);
 
                 // merge
-                T mergedObject = getIntactMerger().merge(persistentObject, existingInstance);
+                T mergedObject = mergeWithExistingInstance(persistentObject, existingInstance);
 
                 // remove object and intact object from identity cache as not dirty anymore
                 unregisterObjectAfterProcessing(originalObject, persistentObject, existingInstance);
@@ -443,7 +572,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
                 // (e.g. pubmed cv has an annotation with a xref that contains pubmed too and it gets saved),
                 // so we check if we find it again to avoid duplicates
                 //TODO review this code to remove the duplication and try to see if it can be organised in a better way
-                existingInstance = find((I)persistentObject);
+                existingInstance = findExistingInstance(persistentObject);
                 if(existingInstance!= null){
                     // we merge the existing instance with the new instance if possible
                     if (getIntactMerger() != null){
@@ -451,7 +580,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
                         registerObjectBeforeProcessing(originalObject, persistentObject, existingInstance);
 
                         // merge
-                        T mergedObject = getIntactMerger().merge(persistentObject, existingInstance);
+                        T mergedObject = mergeWithExistingInstance(persistentObject, existingInstance);
 
                         // remove object and intact object from identity cache as not dirty anymore
                         unregisterObjectAfterProcessing(originalObject, persistentObject, existingInstance);
@@ -493,6 +622,137 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
         }
     }
 
+    /**
+     * Claims the creation keys of a new object in the creation registry shared by the synchronizer contexts writing in parallel.
+     * When another context is creating the same object, waits for the end of its transaction and looks for the object in the database again.
+     * @param persistentObject : the object to create
+     * @return the instance created by another context, null if this context can create the object
+     * @throws FinderException
+     * @throws SynchronizerException if the context would wait for a context waiting for it
+     */
+    protected T claimCreation(T persistentObject) throws FinderException, SynchronizerException {
+        CreationRegistry registry = getContext().getReferenceDataCache().getCreationRegistry();
+        if (registry == null){
+            return null;
+        }
+        // the keys are always claimed in the same order
+        for (String key : new TreeSet<String>(extractCreationKeys(persistentObject))){
+            while (!claimCreationKey(registry, key, persistentObject)){
+                // the other context has committed or rolled back its transaction
+                forgetMissingInstances(persistentObject);
+                T existingInstance = findExistingInstance(persistentObject);
+                if (existingInstance != null){
+                    return existingInstance;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean claimCreationKey(CreationRegistry registry, String key, T persistentObject) throws SynchronizerException {
+        try {
+            return registry.claim(key, getContext());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SynchronizerException("Interrupted while waiting for another synchronizer context creating " + persistentObject, e);
+        } catch (IllegalStateException e) {
+            throw new SynchronizerException("Cannot create " + persistentObject + " while another synchronizer context is creating it", e);
+        }
+    }
+
+    /**
+     * The creation keys identify the objects shared by the synchronizer contexts writing in parallel (reference data and interactors) :
+     * two objects having a common creation key would be found by the same query and must not be created twice.
+     * Returns an empty collection by default as the other objects are not shared by several contexts
+     * @param persistentObject : the object to create
+     * @return the creation keys of this object
+     */
+    protected Collection<String> extractCreationKeys(T persistentObject) {
+        return Collections.EMPTY_LIST;
+    }
+
+    /**
+     * Forgets the objects which were not found in the database during this transaction (prefetched missing objects) and may have been
+     * created since by another synchronizer context. Does nothing by default
+     * @param persistentObject : the object to look up again in the database
+     */
+    protected void forgetMissingInstances(T persistentObject) {
+        // nothing to forget by default
+    }
+
+    /**
+     * Finds the existing instance in the database and reports the time of the query to the performance listener
+     * @param persistentObject : the object to find
+     * @return the existing instance in the database, null if it does not exist
+     * @throws FinderException
+     */
+    protected T findExistingInstance(T persistentObject) throws FinderException {
+        SynchronizerOperationTimer timer = startTimer(SynchronizerOperation.FIND);
+        try {
+            return find((I)persistentObject);
+        }
+        finally {
+            stopTimer(timer, SynchronizerOperation.FIND);
+        }
+    }
+
+    /**
+     * Merges the object with the existing instance using the intact merger and reports the time of the merge to the performance listener
+     * @param intactEntity : the object to merge
+     * @param existingInstance : the existing instance
+     * @return the merged object
+     */
+    protected T mergeWithExistingInstance(T intactEntity, T existingInstance) {
+        SynchronizerOperationTimer timer = startTimer(SynchronizerOperation.MERGE);
+        try {
+            return getIntactMerger().merge(intactEntity, existingInstance);
+        }
+        finally {
+            stopTimer(timer, SynchronizerOperation.MERGE);
+        }
+    }
+
+    /**
+     * Notifies the performance listener that the operation starts
+     * @param operation : the timed operation
+     * @return a new timer if the listener is a performance listener, null otherwise
+     */
+    protected SynchronizerOperationTimer startTimer(SynchronizerOperation operation) {
+        if (this.performanceListener == null){
+            return null;
+        }
+        this.performanceListener.onOperationStarted(getClass(), operation);
+        return SynchronizerOperationTimer.start();
+    }
+
+    /**
+     * Stops the timer and reports the time of the operation to the performance listener
+     * @param timer : the timer, null if the operations are not timed
+     * @param operation : the timed operation
+     */
+    protected void stopTimer(SynchronizerOperationTimer timer, SynchronizerOperation operation) {
+        if (timer != null){
+            timer.stop();
+            this.performanceListener.onOperationCompleted(getClass(), operation, timer.getTotalNanos(), timer.getSelfNanos());
+        }
+    }
+
+    private boolean checkIdentityCache(I object) {
+        boolean hit = containsObjectInstance(object);
+        if (this.performanceListener != null){
+            this.performanceListener.onCacheAccessed(getClass(), SynchronizerCache.IDENTITY, hit);
+        }
+        return hit;
+    }
+
+    private boolean checkPersistedObjectsCache(I object) {
+        boolean hit = isObjectStoredInCache(object);
+        if (this.performanceListener != null){
+            this.performanceListener.onCacheAccessed(getClass(), SynchronizerCache.PERSISTED_OBJECTS, hit);
+        }
+        return hit;
+    }
+
     private void unregisterObjectAfterProcessing(I originalObject, T persistentObject, T existingInstance) {
         removeObjectInstanceFromIdentityCache(originalObject);
         if (originalObject != existingInstance){
@@ -508,7 +768,15 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
      * @param existingInstance : instance to persist
      */
     protected void persistObject(T existingInstance) {
-        this.entityManager.persist(existingInstance);
+        // the inserts are batched when the session is configured with the write optimised profile
+        getContext().applyPersistenceProfile();
+        SynchronizerOperationTimer timer = startTimer(SynchronizerOperation.PERSIST);
+        try {
+            this.entityManager.persist(existingInstance);
+        }
+        finally {
+            stopTimer(timer, SynchronizerOperation.PERSIST);
+        }
 
         if (this.listener != null && existingInstance instanceof IntactPrimaryObject){
            this.listener.onPersisted((IntactPrimaryObject)existingInstance);
@@ -530,7 +798,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
             // merge cached instance with original object
             // store object and intact object in a identity cache so no lazy properties can be called before synchronization
             registerObjectBeforeProcessing(object, intactEntity, existingInstance);
-            T merged = getIntactMerger().merge(intactEntity, existingInstance);
+            T merged = mergeWithExistingInstance(intactEntity, existingInstance);
             // remove object and intact object from identity cache as not dirty anymore
             unregisterObjectAfterProcessing(object, intactEntity, existingInstance);
             // cache object to persist if allowed
@@ -571,6 +839,28 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
         unregisterObjectAfterProcessing(object, intactObject, intactObject);
     }
 
+    /**
+     * Splits the values of a IN (...) query parameter in chunks so the queries do not exceed the maximum number of
+     * parameters supported by the database
+     * @param values : the parameter values
+     * @return the chunks of values
+     */
+    protected <E> List<List<E>> partitionQueryParameters(Collection<E> values) {
+        List<List<E>> chunks = new ArrayList<List<E>>(values.size() / MAX_QUERY_PARAMETERS + 1);
+        List<E> chunk = new ArrayList<E>(Math.min(values.size(), MAX_QUERY_PARAMETERS));
+        for (E value : values){
+            if (chunk.size() == MAX_QUERY_PARAMETERS){
+                chunks.add(chunk);
+                chunk = new ArrayList<E>(MAX_QUERY_PARAMETERS);
+            }
+            chunk.add(value);
+        }
+        if (!chunk.isEmpty()){
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
     /**
      * If the flushmode of the entity manager is not null, it will set the mode to COMMIT to avoid flushing the changes when doing queries.
      * The objects need to be fully synchronized before the entity manager can be flushed
@@ -768,6 +1058,7 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
 
     @Override
     public void flush() {
+        getContext().applyPersistenceProfile();
         getEntityManager().flush();
         clearCache();
     }
@@ -780,5 +1071,6 @@ public abstract class AbstractIntactDbSynchronizer<I, T extends Auditable> imple
     @Override
     public void setListener(DbSynchronizerListener listener) {
         this.listener = listener;
+        this.performanceListener = listener instanceof DbSynchronizerPerformanceListener ? (DbSynchronizerPerformanceListener)listener : null;
     }
 }
@@ -5,6 +5,7 @@ import uk.ac.ebi.intact.jami.model.audit.Auditable;
 import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface for finders that can retrieve existing instances in the DB given an object
@@ -76,6 +77,27 @@ public interface IntactDbSynchronizer<I, T extends Auditable> {
      */
     public T synchronize(I object, boolean persist) throws FinderException,PersisterException,SynchronizerException;
 
+    /**
+     * Synchronize a batch of objects with the database.
+     * The existing objects matching the batch are first resolved with a few set-based queries (see prefetch) and then each object
+     * is synchronized as in synchronize(object, persist).
+     * @param objects : the objects to synchronize
+     * @param persist : if true, will persist the objects which are transient
+     * @return the objects synchronized and persisted, in the same order as the given objects
+     * @throws FinderException
+     * @throws PersisterException
+     * @throws SynchronizerException
+     */
+    public List<T> synchronizeAll(Collection<? extends I> objects, boolean persist) throws FinderException,PersisterException,SynchronizerException;
+
+    /**
+     * Resolves the existing objects matching this batch of objects with a few set-based queries and keeps them in memory
+     * so the finder methods do not need to query the database for each object.
+     * The prefetched objects are released when clearing the cache.
+     * @param objects : the objects which will be synchronized
+     */
+    public void prefetch(Collection<? extends I> objects);
+
     /**
      * Clear cached objects
      */
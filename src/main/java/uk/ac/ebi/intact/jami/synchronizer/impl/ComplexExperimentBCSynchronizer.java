@@ -14,6 +14,8 @@ import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbExperimentEnricherListener;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComplexExperimentComparator;
 
@@ -38,7 +40,7 @@ public class ComplexExperimentBCSynchronizer extends AbstractIntactDbSynchronize
 
     private IntactComparator<Experiment> experimentComparator;
 
-    private Set<String> persistedNames;
+    private ShortLabelAllocator labelAllocator;
 
     private DbExperimentEnricherListener enricherListener;
 
@@ -49,7 +51,7 @@ public class ComplexExperimentBCSynchronizer extends AbstractIntactDbSynchronize
 
         this.persistedObjects = new TreeMap<Experiment, IntactExperiment>(this.experimentComparator);
         this.convertedObjects = new IdentityMap();
-        persistedNames = new HashSet<String>();
+        labelAllocator = getContext().getShortLabelAllocator(ShortLabelSpace.EXPERIMENT, null);
         enricherListener = new DbExperimentEnricherListener(context, this);
     }
 
@@ -247,7 +249,7 @@ public class ComplexExperimentBCSynchronizer extends AbstractIntactDbSynchronize
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
-        this.persistedNames.clear();
+        this.labelAllocator.clear();
         this.enricherListener.getExperimentUpdates().clear();
     }
     @Override
@@ -397,14 +399,14 @@ public class ComplexExperimentBCSynchronizer extends AbstractIntactDbSynchronize
         String oldLabel = intactExperiment.getShortLabel();
 
         // then synchronize with database
-        IntactUtils.synchronizeExperimentComplexShortLabel(intactExperiment, getEntityManager(), this.persistedNames);
+        IntactUtils.synchronizeExperimentComplexShortLabel(intactExperiment, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactExperiment.getAc() == null){
-            this.persistedNames.add(intactExperiment.getShortLabel());
+            this.labelAllocator.reserve(intactExperiment.getShortLabel());
         }
         else if (!oldLabel.equals(intactExperiment.getShortLabel())){
-            this.persistedNames.add(intactExperiment.getShortLabel());
+            this.labelAllocator.reserve(intactExperiment.getShortLabel());
         }
     }
 
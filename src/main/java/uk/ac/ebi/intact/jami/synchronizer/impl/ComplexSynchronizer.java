@@ -23,6 +23,7 @@ import uk.ac.ebi.intact.jami.utils.IntactUtils;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComplexComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComplexGoXrefComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactModelledParticipantComparator;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactParticipantSignatureFactory;
 
 import javax.persistence.Query;
 import java.lang.reflect.InvocationTargetException;
@@ -42,16 +43,21 @@ import java.util.stream.Collectors;
 
 public class ComplexSynchronizer extends InteractorSynchronizerTemplate<Complex, IntactComplex> {
 
+    // ac used in the participant signatures for the interactors which do not exist in the database
+    private static final String TRANSIENT_INTERACTOR_AC = "transient";
+
     private CollectionComparator<ModelledParticipant> participantsComparator;
     private CollectionComparator<ModelledComparableParticipant> comparableParticipantsComparator;
     private ComplexExperimentBCSynchronizer experimentBCSynchronizer;
     private ComplexComparatorListener complexComparatorListener;
+    private IntactParticipantSignatureFactory signatureFactory;
 
     public ComplexSynchronizer(SynchronizerContext context) {
         super(context, IntactComplex.class);
         this.participantsComparator = new CollectionComparator<ModelledParticipant>(new IntactModelledParticipantComparator());
         this.comparableParticipantsComparator = new CollectionComparator<ModelledComparableParticipant>(new ModelledComparableParticipantComparator());
         this.experimentBCSynchronizer = new ComplexExperimentBCSynchronizer(context);
+        this.signatureFactory = new IntactParticipantSignatureFactory();
     }
 
     @Override
@@ -96,12 +102,14 @@ public class ComplexSynchronizer extends InteractorSynchronizerTemplate<Complex,
     @Override
     protected Collection<IntactComplex> findByOtherProperties(Complex term, IntactCvTerm existingType, IntactOrganism existingOrganism) {
         Query query;
+        String participantSignature = createParticipantSignature(term);
         if (existingOrganism == null) {
             query = getEntityManager().createQuery("select i from IntactComplex i " +
                     "join i.interactorType as t " +
                     "where i.organism is null " +
                     "and size(i.participants) =:participantSize " +
-                    "and t.ac = :typeAc");
+                    "and t.ac = :typeAc" +
+                    createParticipantSignatureClause(term, participantSignature));
             query.setParameter("typeAc", existingType.getAc());
             query.setParameter("participantSize", term.getParticipants().size());
         } else {
@@ -110,11 +118,13 @@ public class ComplexSynchronizer extends InteractorSynchronizerTemplate<Complex,
                     "join i.organism as o " +
                     "where o.ac = :orgAc " +
                     "and size(i.participants) =:participantSize " +
-                    "and t.ac = :typeAc");
+                    "and t.ac = :typeAc" +
+                    createParticipantSignatureClause(term, participantSignature));
             query.setParameter("orgAc", existingOrganism.getAc());
             query.setParameter("participantSize", term.getParticipants().size());
             query.setParameter("typeAc", existingType.getAc());
         }
+        setParticipantSignatureParameter(term, participantSignature, query);
         return query.getResultList();
     }
 
@@ -208,12 +218,14 @@ public class ComplexSynchronizer extends InteractorSynchronizerTemplate<Complex,
     @Override
     protected Collection<IntactComplex> findByOtherProperties(Complex term, Collection<String> existingTypes, Collection<String> existingOrganisms) {
         Query query;
+        String participantSignature = createParticipantSignature(term);
         if (existingOrganisms.isEmpty()) {
             query = getEntityManager().createQuery("select i from IntactComplex i " +
                     "join i.interactorType as t " +
                     "where i.organism is null " +
                     "and size(i.participants) =:participantSize " +
-                    "and t.ac in (:typeAc)");
+                    "and t.ac in (:typeAc)" +
+                    createParticipantSignatureClause(term, participantSignature));
             query.setParameter("typeAc", existingTypes);
             query.setParameter("participantSize", term.getParticipants().size());
         } else {
@@ -222,14 +234,76 @@ public class ComplexSynchronizer extends InteractorSynchronizerTemplate<Complex,
                     "join i.organism as o " +
                     "where o.ac in (:orgAc) " +
                     "and size(i.participants) =:participantSize " +
-                    "and t.ac in (:typeAc)");
+                    "and t.ac in (:typeAc)" +
+                    createParticipantSignatureClause(term, participantSignature));
             query.setParameter("orgAc", existingOrganisms);
             query.setParameter("participantSize", term.getParticipants().size());
             query.setParameter("typeAc", existingTypes);
         }
+        setParticipantSignatureParameter(term, participantSignature, query);
         return query.getResultList();
     }
 
+    /**
+     * Computes the signature of the participants of a complex which is not synchronized yet.
+     * The interactors of the participants are looked up in the database so the signature is based on the acs of the existing interactors.
+     * An interactor which does not exist in the database cannot be the interactor of an existing complex : the signature then only matches
+     * the complexes without signature.
+     * @param term : the complex to find
+     * @return the participant signature of the complex, null if it cannot be computed
+     */
+    protected String createParticipantSignature(Complex term) {
+        if (term.getParticipants().isEmpty()) {
+            return null;
+        }
+        Map<Interactor, String> interactorAcs = new IdentityHashMap<Interactor, String>();
+        for (ModelledParticipant participant : term.getParticipants()) {
+            Interactor interactor = participant.getInteractor();
+            if (interactor == null || participant instanceof ParticipantPool
+                    || (interactor instanceof IntactInteractor && ((IntactInteractor) interactor).getAc() != null)) {
+                continue;
+            }
+            try {
+                IntactInteractor existingInteractor = getContext().getInteractorSynchronizer().find(interactor);
+                interactorAcs.put(interactor, existingInteractor != null && existingInteractor.getAc() != null ?
+                        existingInteractor.getAc() : TRANSIENT_INTERACTOR_AC);
+            } catch (FinderException e) {
+                // the complexes are not filtered by signature and are all compared with the participant comparator
+                return null;
+            }
+        }
+        return this.signatureFactory.createSignature(term.getParticipants(), interactorAcs);
+    }
+
+    /**
+     * The complexes having a different participant signature cannot have the same participants.
+     * The complexes without signature (not synchronized or backfilled yet) are always compared with the participant comparator.
+     * We accept empty participants when finding complexes so the signature is ignored when the complex does not have any participants
+     * @param term : the complex to find
+     * @param participantSignature : the signature of the participants of the complex to find. If null, the complexes are not filtered by signature
+     * @return the clause filtering the complexes by participant signature
+     */
+    protected String createParticipantSignatureClause(Complex term, String participantSignature) {
+        if (term.getParticipants().isEmpty() || participantSignature == null) {
+            return "";
+        }
+        return " and (i.participantSignature = :participantSignature or i.participantSignature is null)";
+    }
+
+    protected void setParticipantSignatureParameter(Complex term, String participantSignature, Query query) {
+        if (!term.getParticipants().isEmpty() && participantSignature != null) {
+            query.setParameter("participantSignature", participantSignature);
+        }
+    }
+
+    /**
+     *
+     * @return the factory computing the participant signatures of the complexes
+     */
+    public IntactParticipantSignatureFactory getSignatureFactory() {
+        return signatureFactory;
+    }
+
     protected Collection<IntactComplex> findComplexesByProteins(Complex term) {
         Query query;
         if (term.getComparableParticipants() != null && !term.getComparableParticipants().isEmpty()) {
@@ -547,6 +621,8 @@ public class ComplexSynchronizer extends InteractorSynchronizerTemplate<Complex,
                     }
                 }
             }
+            // the signature is computed from the synchronized participants
+            intactInteraction.setParticipantSignature(this.signatureFactory.createSignature(intactInteraction.getParticipants()));
         }
     }
 
@@ -15,8 +15,10 @@ import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Default finder/synchronizer for cooperative effect
@@ -51,6 +53,18 @@ public class CompositeCooperativeEffectSynchronizer implements CooperativeEffect
         return Collections.EMPTY_LIST;
     }
 
+    public List<AbstractIntactCooperativeEffect> synchronizeAll(Collection<? extends CooperativeEffect> terms, boolean persist) throws FinderException, PersisterException, SynchronizerException {
+        List<AbstractIntactCooperativeEffect> synchronizedTerms = new ArrayList<AbstractIntactCooperativeEffect>(terms.size());
+        for (CooperativeEffect term : terms){
+            synchronizedTerms.add(synchronize(term, persist));
+        }
+        return synchronizedTerms;
+    }
+
+    public void prefetch(Collection<? extends CooperativeEffect> terms) {
+        // nothing to do
+    }
+
     public void synchronizeProperties(AbstractIntactCooperativeEffect object) throws FinderException, PersisterException, SynchronizerException {
         // preassembly
         if (object instanceof IntactPreassembly){
@@ -18,6 +18,7 @@ import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Synchronizer for features
@@ -100,6 +101,18 @@ public class CompositeFeatureSynchronizer implements IntactDbSynchronizer<Featur
         }
     }
 
+    public List<AbstractIntactFeature> synchronizeAll(Collection<? extends Feature> terms, boolean persist) throws FinderException, PersisterException, SynchronizerException {
+        List<AbstractIntactFeature> synchronizedTerms = new ArrayList<AbstractIntactFeature>(terms.size());
+        for (Feature term : terms){
+            synchronizedTerms.add(synchronize(term, persist));
+        }
+        return synchronizedTerms;
+    }
+
+    public void prefetch(Collection<? extends Feature> terms) {
+        // nothing to do
+    }
+
     public void synchronizeProperties(AbstractIntactFeature term) throws FinderException, PersisterException, SynchronizerException {
         if (term instanceof IntactFeatureEvidence){
             this.context.getFeatureEvidenceSynchronizer().synchronizeProperties((IntactFeatureEvidence)term);
@@ -12,8 +12,7 @@ import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
 
 /**
  * Synchronizer for interactors
@@ -207,6 +206,66 @@ public class CompositeInteractorSynchronizer implements InteractorFetcher<Intera
             }
     }
 
+    public List<IntactInteractor> synchronizeAll(Collection<? extends Interactor> terms, boolean persist) throws FinderException, PersisterException, SynchronizerException {
+        prefetch(terms);
+        List<IntactInteractor> synchronizedTerms = new ArrayList<IntactInteractor>(terms.size());
+        for (Interactor term : terms){
+            synchronizedTerms.add(synchronize(term, persist));
+        }
+        return synchronizedTerms;
+    }
+
+    public void prefetch(Collection<? extends Interactor> terms) {
+        // group the interactors per synchronizer
+        Map<InteractorSynchronizer, Collection<Interactor>> interactorsPerSynchronizer = new IdentityHashMap<InteractorSynchronizer, Collection<Interactor>>();
+        for (Interactor term : terms){
+            InteractorSynchronizer synchronizer = getInteractorSynchronizerFor(term);
+            Collection<Interactor> interactors = interactorsPerSynchronizer.get(synchronizer);
+            if (interactors == null){
+                interactors = new ArrayList<Interactor>();
+                interactorsPerSynchronizer.put(synchronizer, interactors);
+            }
+            interactors.add(term);
+        }
+        for (Map.Entry<InteractorSynchronizer, Collection<Interactor>> entry : interactorsPerSynchronizer.entrySet()){
+            entry.getKey().prefetch(entry.getValue());
+        }
+    }
+
+    private InteractorSynchronizer getInteractorSynchronizerFor(Interactor term) {
+        if (term instanceof Molecule){
+            if (term instanceof Polymer){
+                if (term instanceof Protein){
+                    return this.context.getProteinSynchronizer();
+                }
+                else if (term instanceof NucleicAcid){
+                    return this.context.getNucleicAcidSynchronizer();
+                }
+                else{
+                    return this.context.getPolymerSynchronizer();
+                }
+            }
+            else if (term instanceof BioactiveEntity){
+                return this.context.getBioactiveEntitySynchronizer();
+            }
+            else if (term instanceof Gene){
+                return this.context.getGeneSynchronizer();
+            }
+            else{
+                return this.context.getMoleculeSynchronizer();
+            }
+        }
+        else if (term instanceof Complex){
+            return this.context.getComplexSynchronizer();
+        }
+        else if (term instanceof InteractorPool){
+            return this.context.getInteractorPoolSynchronizer();
+        }
+        else {
+            return this.context.getInteractorBaseSynchronizer();
+        }
+    }
+
     public void synchronizeProperties(IntactInteractor term) throws FinderException, PersisterException, SynchronizerException {
         if (term instanceof IntactMolecule){
             if (term instanceof IntactPolymer){
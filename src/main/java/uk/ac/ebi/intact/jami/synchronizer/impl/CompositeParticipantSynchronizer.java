@@ -12,6 +12,7 @@ import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Synchronizer for all participants
@@ -89,6 +90,18 @@ public class CompositeParticipantSynchronizer implements ParticipantSynchronizer
         }
     }
 
+    public List<AbstractIntactParticipant> synchronizeAll(Collection<? extends Participant> terms, boolean persist) throws FinderException, PersisterException, SynchronizerException {
+        List<AbstractIntactParticipant> synchronizedTerms = new ArrayList<AbstractIntactParticipant>(terms.size());
+        for (Participant term : terms){
+            synchronizedTerms.add(synchronize(term, persist));
+        }
+        return synchronizedTerms;
+    }
+
+    public void prefetch(Collection<? extends Participant> terms) {
+        // nothing to do
+    }
+
     public void synchronizeProperties(AbstractIntactParticipant term) throws FinderException, PersisterException, SynchronizerException {
         // experimental
         if (term instanceof IntactParticipantEvidence){
@@ -10,7 +10,9 @@ import psidev.psi.mi.jami.enricher.CvTermEnricher;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.utils.clone.CvTermCloner;
 import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.context.CvTermIndex;
 import uk.ac.ebi.intact.jami.context.IntactContext;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.merger.CvTermMergerEnrichOnly;
 import uk.ac.ebi.intact.jami.merger.IntactDbMerger;
@@ -21,9 +23,13 @@ import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
 import uk.ac.ebi.intact.jami.sequence.SequenceManager;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbCvEnricherListener;
+import uk.ac.ebi.intact.jami.utils.CanonicalKeyMap;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactCvTermComparator;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactCvTermKeyFactory;
 
 import javax.persistence.Query;
 import java.lang.reflect.InvocationTargetException;
@@ -45,10 +51,14 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
     private String objClass;
     private Map<CvTerm, IntactCvTerm> persistedObjects;
     private Map<CvTerm, IntactCvTerm> convertedObjects;
+    // cvs matching a psi-mi/psi-mod/psi-par identifier resolved in batch
+    private Map<String, Collection<IntactCvTerm>> prefetchedTerms;
 
     private IntactComparator<CvTerm> cvComparator;
 
-    private Set<String> persistedNames;
+    private ShortLabelAllocator labelAllocator;
+    // short labels are unique per objclass. The general cv synchronizer changes its objclass for each call
+    private Map<String, ShortLabelAllocator> labelAllocators;
 
     private DbCvEnricherListener enricherListener;
 
@@ -60,16 +70,18 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
         this.objClass = null;
         cvComparator = new IntactCvTermComparator();
         // to keep track of persisted cvs
-        this.persistedObjects = new TreeMap<CvTerm, IntactCvTerm>(cvComparator);
+        this.persistedObjects = new CanonicalKeyMap<CvTerm, IntactCvTerm>(new IntactCvTermKeyFactory(), cvComparator);
         this.convertedObjects = new IdentityMap();
-        this.persistedNames = new HashSet<String>();
+        this.prefetchedTerms = new HashMap<String, Collection<IntactCvTerm>>();
+        this.labelAllocators = new HashMap<String, ShortLabelAllocator>();
+        this.labelAllocator = getLabelAllocator(this.objClass);
         this.enricherListener = new DbCvEnricherListener(getContext(), this);
     }
 
     public CvTermSynchronizer(SynchronizerContext context, String objClass){
         this(context);
         //If no objclass provided all new cv created will be annotation topic by default
-        this.objClass = objClass;
+        setObjClass(objClass);
     }
 
     public IntactCvTerm find(CvTerm term) throws FinderException {
@@ -77,8 +89,9 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
             if (term == null){
                 return null;
             }
-            else if (this.persistedObjects.containsKey(term)){
-                return this.persistedObjects.get(term);
+            IntactCvTerm cached = this.persistedObjects.get(term);
+            if (cached != null){
+                return cached;
             }
             else if (term.getMIIdentifier() != null){
                 return fetchByIdentifier(term.getMIIdentifier(), CvTerm.PSI_MI, false);
@@ -123,8 +136,9 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
         if (term == null){
             return Collections.EMPTY_LIST;
         }
-        else if (this.persistedObjects.containsKey(term)){
-            return Collections.singleton(this.persistedObjects.get(term));
+        IntactCvTerm cached = this.persistedObjects.get(term);
+        if (cached != null){
+            return Collections.singleton(cached);
         }
         else if (term.getMIIdentifier() != null){
             return fetchAllByIdentifier(term.getMIIdentifier(), CvTerm.PSI_MI, false);
@@ -218,6 +232,10 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
     public OntologyTerm fetchByName(String searchName, String miOntologyName) throws BridgeFailedException {
         if(searchName == null)
             throw new IllegalArgumentException("Can not search for a name without a value.");
+        Collection<IntactCvTerm> indexedTerms = fetchAllFromIndexByName(searchName);
+        if (indexedTerms != null){
+            return selectUniqueTerm(searchName, indexedTerms);
+        }
         Query query = getEntityManager().createQuery("select cv from IntactCvTerm cv " +
                 "where cv.shortName = :name" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
         query.setParameter("name", searchName.trim().toLowerCase());
@@ -237,6 +255,10 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
     public Collection<IntactCvTerm> fetchAllByName(String searchName, String miOntologyName)  {
         if(searchName == null)
             throw new IllegalArgumentException("Can not search for a name without a value.");
+        Collection<IntactCvTerm> indexedTerms = fetchAllFromIndexByName(searchName);
+        if (indexedTerms != null){
+            return indexedTerms;
+        }
         Query query = getEntityManager().createQuery("select cv from IntactCvTerm cv " +
                 "where cv.shortName = :name" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
         query.setParameter("name", searchName.trim().toLowerCase());
@@ -249,6 +271,13 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
     public Collection<String> fetchAllAcsByName(String searchName, String miOntologyName)  {
         if(searchName == null)
             throw new IllegalArgumentException("Can not search for a name without a value.");
+        CvTermIndex index = getContext().getCvTermIndex();
+        if (index != null){
+            Collection<String> indexedAcs = index.getAcsByShortName(this.objClass, searchName.trim().toLowerCase());
+            if (!indexedAcs.isEmpty()){
+                return new ArrayList<String>(indexedAcs);
+            }
+        }
         Query query = getEntityManager().createQuery("select distinct cv.ac from IntactCvTerm cv " +
                 "where cv.shortName = :name" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
         query.setParameter("name", searchName.trim().toLowerCase());
@@ -335,7 +364,10 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
-        this.persistedNames.clear();
+        this.prefetchedTerms.clear();
+        for (ShortLabelAllocator allocator : this.labelAllocators.values()){
+            allocator.clear();
+        }
         this.enricherListener.getCvUpdates().clear();
     }
 
@@ -345,6 +377,16 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
 
     public void setObjClass(String objClass) {
         this.objClass = objClass;
+        this.labelAllocator = getLabelAllocator(objClass);
+    }
+
+    private ShortLabelAllocator getLabelAllocator(String objClass) {
+        ShortLabelAllocator allocator = this.labelAllocators.get(objClass);
+        if (allocator == null){
+            allocator = getContext().getShortLabelAllocator(ShortLabelSpace.CV_TERM, objClass);
+            this.labelAllocators.put(objClass, allocator);
+        }
+        return allocator;
     }
 
     public void prepareAndSynchronizeShortLabel(IntactCvTerm intactCv) {
@@ -356,19 +398,190 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
 
         String oldLabel = intactCv.getShortName();
 
-        IntactUtils.synchronizeCvTermShortName(intactCv, getEntityManager(), this.objClass, this.persistedNames);
+        IntactUtils.synchronizeCvTermShortName(intactCv, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactCv.getAc() == null){
-            this.persistedNames.add(intactCv.getShortName());
+            this.labelAllocator.reserve(intactCv.getShortName());
         }
         else if (!oldLabel.equals(intactCv.getShortName())){
-            this.persistedNames.add(intactCv.getShortName());
+            this.labelAllocator.reserve(intactCv.getShortName());
+        }
+    }
+
+    @Override
+    public void prefetch(Collection<? extends CvTerm> terms) {
+        Map<String, Set<String>> identifiersPerOntology = new HashMap<String, Set<String>>();
+        for (CvTerm term : terms){
+            if (term == null || this.persistedObjects.containsKey(term)){
+                continue;
+            }
+            // same identifiers as the ones used in find
+            if (term.getMIIdentifier() != null){
+                addIdentifierToPrefetch(identifiersPerOntology, CvTerm.PSI_MI, term.getMIIdentifier());
+            }
+            else if (term.getMODIdentifier() != null){
+                addIdentifierToPrefetch(identifiersPerOntology, CvTerm.PSI_MOD, term.getMODIdentifier());
+            }
+            else if (term.getPARIdentifier() != null){
+                addIdentifierToPrefetch(identifiersPerOntology, CvTerm.PSI_PAR, term.getPARIdentifier());
+            }
+        }
+
+        for (Map.Entry<String, Set<String>> entry : identifiersPerOntology.entrySet()){
+            String ontologyName = entry.getKey();
+            for (List<String> chunk : partitionQueryParameters(entry.getValue())){
+                Query query = getEntityManager().createQuery("select distinct cv, x.id from IntactCvTerm cv " +
+                        "join cv.dbXrefs as x " +
+                        "join x.database as d " +
+                        "join x.qualifier as q " +
+                        "where (q.shortName = :identity or q.shortName = :secondaryAc) " +
+                        "and d.shortName = :psiName " +
+                        "and x.id in (:psiIds)" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
+                query.setParameter("identity", Xref.IDENTITY);
+                query.setParameter("secondaryAc", Xref.SECONDARY);
+                query.setParameter("psiName", ontologyName);
+                query.setParameter("psiIds", chunk);
+                if (objClass != null){
+                    query.setParameter("objclass", objClass);
+                }
+
+                // identifiers without any cvs in the database are kept with an empty collection
+                for (String id : chunk){
+                    this.prefetchedTerms.put(createPrefetchKey(id, ontologyName), new LinkedHashSet<IntactCvTerm>());
+                }
+                List<Object[]> results = query.getResultList();
+                for (Object[] result : results){
+                    String key = createPrefetchKey((String) result[1], ontologyName);
+                    Collection<IntactCvTerm> cvs = this.prefetchedTerms.get(key);
+                    if (cvs == null){
+                        cvs = new LinkedHashSet<IntactCvTerm>();
+                        this.prefetchedTerms.put(key, cvs);
+                    }
+                    cvs.add((IntactCvTerm) result[0]);
+                }
+                for (String id : chunk){
+                    String key = createPrefetchKey(id, ontologyName);
+                    storeInReferenceDataCache(key, this.prefetchedTerms.get(key));
+                }
+            }
+        }
+    }
+
+    private void addIdentifierToPrefetch(Map<String, Set<String>> identifiersPerOntology, String ontologyName, String identifier) {
+        String normalizedName = ontologyName.toLowerCase().trim();
+        String key = createPrefetchKey(identifier, normalizedName);
+        CvTermIndex index = getContext().getCvTermIndex();
+        if (this.prefetchedTerms.containsKey(key)
+                || getContext().getReferenceDataCache().get(IntactCvTerm.class, key) != null
+                || (index != null && !index.getAcsByIdentifier(this.objClass, normalizedName, identifier).isEmpty())){
+            return;
+        }
+        Set<String> identifiers = identifiersPerOntology.get(normalizedName);
+        if (identifiers == null){
+            identifiers = new HashSet<String>();
+            identifiersPerOntology.put(normalizedName, identifiers);
+        }
+        identifiers.add(identifier);
+    }
+
+    private String createPrefetchKey(String termIdentifier, String miOntologyName) {
+        return createPrefetchKey(this.objClass, termIdentifier, miOntologyName);
+    }
+
+    private String createPrefetchKey(String objClass, String termIdentifier, String miOntologyName) {
+        // the prefetched cvs depend on the objclass
+        return objClass + "|" + miOntologyName.toLowerCase().trim() + "|" + termIdentifier;
+    }
+
+    private IntactCvTerm fetchFromReferenceDataCache(String key) {
+        ReferenceDataCache.Snapshot snapshot = getContext().getReferenceDataCache().get(IntactCvTerm.class, key);
+        if (snapshot == null){
+            return null;
+        }
+        // reload the cv in the current transaction
+        IntactCvTerm cv = getEntityManager().find(IntactCvTerm.class, snapshot.getAc());
+        // the cv has been deleted
+        if (cv == null){
+            getContext().getReferenceDataCache().invalidate(snapshot.getAc());
+        }
+        return cv;
+    }
+
+    private void storeInReferenceDataCache(String key, Collection<IntactCvTerm> cvs) {
+        // only cvs which can be identified without ambiguity are kept between transactions
+        if (cvs != null && cvs.size() == 1){
+            IntactCvTerm cv = cvs.iterator().next();
+            getContext().getReferenceDataCache().put(IntactCvTerm.class, key, cv.getAc(), cv.getShortName());
+        }
+    }
+
+    private Collection<IntactCvTerm> fetchAllFromIndexByIdentifier(String termIdentifier, String miOntologyName) {
+        CvTermIndex index = getContext().getCvTermIndex();
+        if (index == null){
+            return null;
+        }
+        return loadIndexedTerms(index, index.getAcsByIdentifier(this.objClass, miOntologyName.toLowerCase().trim(), termIdentifier));
+    }
+
+    private Collection<IntactCvTerm> fetchAllFromIndexByName(String searchName) {
+        CvTermIndex index = getContext().getCvTermIndex();
+        if (index == null){
+            return null;
+        }
+        return loadIndexedTerms(index, index.getAcsByShortName(this.objClass, searchName.trim().toLowerCase()));
+    }
+
+    /**
+     *
+     * @param index : the cv term index
+     * @param acs : the acs found in the index
+     * @return the cvs having these acs, null if the database needs to be queried because the acs are not in the index
+     * or one of the cvs does not exist anymore
+     */
+    private Collection<IntactCvTerm> loadIndexedTerms(CvTermIndex index, Collection<String> acs) {
+        if (acs.isEmpty()){
+            return null;
+        }
+        List<IntactCvTerm> cvs = new ArrayList<IntactCvTerm>(acs.size());
+        for (String ac : new ArrayList<String>(acs)){
+            IntactCvTerm cv = getEntityManager().find(IntactCvTerm.class, ac);
+            // the cv has been deleted since the preload
+            if (cv == null){
+                index.remove(ac);
+                return null;
+            }
+            cvs.add(cv);
+        }
+        return cvs;
+    }
+
+    private void indexTerm(CvTermIndex index, IntactCvTerm intactCv) {
+        index.addTerm(intactCv.getAc(), intactCv.getObjClass(), intactCv.getShortName());
+        for (Xref ref : intactCv.getDbXrefs()){
+            if (ref.getQualifier() != null && ref.getDatabase() != null
+                    && (Xref.IDENTITY.equals(ref.getQualifier().getShortName()) || Xref.SECONDARY.equals(ref.getQualifier().getShortName()))){
+                index.addIdentifier(intactCv.getAc(), intactCv.getObjClass(), ref.getDatabase().getShortName(), ref.getId());
+            }
         }
     }
 
     protected IntactCvTerm fetchByIdentifier(String termIdentifier, String miOntologyName, boolean checkAc) throws BridgeFailedException {
         Query query;
+        if (!checkAc){
+            Collection<IntactCvTerm> prefetched = this.prefetchedTerms.get(createPrefetchKey(termIdentifier, miOntologyName));
+            if (prefetched != null){
+                return selectUniqueTerm(termIdentifier, prefetched);
+            }
+            Collection<IntactCvTerm> indexedTerms = fetchAllFromIndexByIdentifier(termIdentifier, miOntologyName);
+            if (indexedTerms != null){
+                return selectUniqueTerm(termIdentifier, indexedTerms);
+            }
+            IntactCvTerm referenceTerm = fetchFromReferenceDataCache(createPrefetchKey(termIdentifier, miOntologyName));
+            if (referenceTerm != null){
+                return referenceTerm;
+            }
+        }
         if (checkAc){
             query = getEntityManager().createQuery("select cv from IntactCvTerm cv " +
                     "where cv.ac = :id" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
@@ -398,6 +611,13 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
         }
 
         Collection<IntactCvTerm> cvs = query.getResultList();
+        if (!checkAc){
+            storeInReferenceDataCache(createPrefetchKey(termIdentifier, miOntologyName), cvs);
+        }
+        return selectUniqueTerm(termIdentifier, cvs);
+    }
+
+    private IntactCvTerm selectUniqueTerm(String termIdentifier, Collection<IntactCvTerm> cvs) throws BridgeFailedException {
         if (cvs.size() == 1){
             return cvs.iterator().next();
         }
@@ -409,6 +629,20 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
 
     protected Collection<IntactCvTerm> fetchAllByIdentifier(String termIdentifier, String miOntologyName, boolean checkAc) {
         Query query;
+        if (!checkAc){
+            Collection<IntactCvTerm> prefetched = this.prefetchedTerms.get(createPrefetchKey(termIdentifier, miOntologyName));
+            if (prefetched != null){
+                return new ArrayList<IntactCvTerm>(prefetched);
+            }
+            Collection<IntactCvTerm> indexedTerms = fetchAllFromIndexByIdentifier(termIdentifier, miOntologyName);
+            if (indexedTerms != null){
+                return indexedTerms;
+            }
+            IntactCvTerm referenceTerm = fetchFromReferenceDataCache(createPrefetchKey(termIdentifier, miOntologyName));
+            if (referenceTerm != null){
+                return Collections.singletonList(referenceTerm);
+            }
+        }
         if (checkAc){
             query = getEntityManager().createQuery("select cv from IntactCvTerm cv " +
                     "where cv.ac = :id" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
@@ -437,11 +671,29 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
             query.setParameter("objclass", objClass);
         }
 
-        return query.getResultList();
+        Collection<IntactCvTerm> cvs = query.getResultList();
+        if (!checkAc){
+            storeInReferenceDataCache(createPrefetchKey(termIdentifier, miOntologyName), cvs);
+        }
+        return cvs;
     }
 
     protected Collection<String> fetchAllAcsByIdentifier(String termIdentifier, String miOntologyName, boolean checkAc) {
         Query query;
+        if (!checkAc){
+            CvTermIndex index = getContext().getCvTermIndex();
+            if (index != null){
+                Collection<String> indexedAcs = index.getAcsByIdentifier(this.objClass, miOntologyName.toLowerCase().trim(), termIdentifier);
+                if (!indexedAcs.isEmpty()){
+                    return new ArrayList<String>(indexedAcs);
+                }
+            }
+            // the cached ac is checked because the cv may have been deleted or rolled back since it was cached
+            IntactCvTerm referenceTerm = fetchFromReferenceDataCache(createPrefetchKey(termIdentifier, miOntologyName));
+            if (referenceTerm != null){
+                return Collections.singletonList(referenceTerm.getAc());
+            }
+        }
         if (checkAc){
             query = getEntityManager().createQuery("select distinct cv.ac from IntactCvTerm cv " +
                     "where cv.ac = :id" + (this.objClass != null ? " and cv.objClass = :objclass" : ""));
@@ -470,7 +722,12 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
             query.setParameter("objclass", objClass);
         }
 
-        return query.getResultList();
+        Collection<String> acs = query.getResultList();
+        if (!checkAc && acs.size() == 1){
+            getContext().getReferenceDataCache().put(IntactCvTerm.class, createPrefetchKey(termIdentifier, miOntologyName),
+                    acs.iterator().next(), null);
+        }
+        return acs;
     }
 
     @Override
@@ -489,6 +746,52 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
     protected void storeInCache(CvTerm originalObject, IntactCvTerm persistentObject, IntactCvTerm existingInstance) {
         // put the synchronized object in the cache
         this.persistedObjects.put(originalObject, existingInstance != null ? existingInstance : persistentObject);
+        // a new cv is now matching its identifiers
+        if (existingInstance == null){
+            ReferenceDataCache referenceDataCache = getContext().getReferenceDataCache();
+            for (Xref ref : persistentObject.getIdentifiers()){
+                if (ref.getDatabase() != null){
+                    this.prefetchedTerms.remove(createPrefetchKey(ref.getId(), ref.getDatabase().getShortName()));
+                    // the cvs cached for this identifier may not be unique anymore
+                    referenceDataCache.invalidate(IntactCvTerm.class, createPrefetchKey(persistentObject.getObjClass(), ref.getId(), ref.getDatabase().getShortName()));
+                    referenceDataCache.invalidate(IntactCvTerm.class, createPrefetchKey(null, ref.getId(), ref.getDatabase().getShortName()));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Collection<String> extractCreationKeys(IntactCvTerm persistentObject) {
+        // same identifiers as the ones used in find
+        List<String> keys = new ArrayList<String>();
+        if (persistentObject.getMIIdentifier() != null){
+            keys.add("cv|" + createPrefetchKey(persistentObject.getMIIdentifier(), CvTerm.PSI_MI));
+        }
+        else if (persistentObject.getMODIdentifier() != null){
+            keys.add("cv|" + createPrefetchKey(persistentObject.getMODIdentifier(), CvTerm.PSI_MOD));
+        }
+        else if (persistentObject.getPARIdentifier() != null){
+            keys.add("cv|" + createPrefetchKey(persistentObject.getPARIdentifier(), CvTerm.PSI_PAR));
+        }
+        else {
+            for (Xref ref : persistentObject.getIdentifiers()){
+                if (ref.getDatabase() != null){
+                    keys.add("cv|" + createPrefetchKey(ref.getId(), ref.getDatabase().getShortName()));
+                }
+            }
+        }
+        // two new cvs cannot have the same shortlabel
+        keys.add("cv|" + this.objClass + "|name|" + persistentObject.getShortName().trim().toLowerCase());
+        return keys;
+    }
+
+    @Override
+    protected void forgetMissingInstances(IntactCvTerm persistentObject) {
+        for (Xref ref : persistentObject.getIdentifiers()){
+            if (ref.getDatabase() != null){
+                this.prefetchedTerms.remove(createPrefetchKey(ref.getId(), ref.getDatabase().getShortName()));
+            }
+        }
     }
 
     @Override
@@ -732,6 +1035,12 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
             existingInstance.getChildren().addAll(children);
             existingInstance.getParents().addAll(parents);
         }
+
+        // the new cv can be found in the cv term index
+        CvTermIndex index = getContext().getCvTermIndex();
+        if (index != null){
+            indexTerm(index, existingInstance);
+        }
     }
 
     @Override
@@ -747,6 +1056,16 @@ public class CvTermSynchronizer extends AbstractIntactDbSynchronizer<CvTerm, Int
         intactObject.getChildren().clear();
     }
 
+    @Override
+    protected void invalidateReferenceData(IntactCvTerm intactObject) {
+        getContext().getReferenceDataCache().invalidate(intactObject.getAc());
+        // the updated cv will be found in the database
+        CvTermIndex index = getContext().getCvTermIndex();
+        if (index != null){
+            index.remove(intactObject.getAc());
+        }
+    }
+
     @Override
     protected void resetObjectIdentifier(IntactCvTerm intactObject) {
         intactObject.setAc(null);
@@ -16,6 +16,8 @@ import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbExperimentEnricherListener;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactExperimentComparator;
 
 import javax.persistence.Query;
@@ -41,7 +43,7 @@ implements IntactExperimentSynchronizer{
 
     private IntactExperimentComparator experimentComparator;
 
-    private Set<String> persistedNames;
+    private ShortLabelAllocator labelAllocator;
 
     private DbExperimentEnricherListener enricherListener;
 
@@ -54,7 +56,7 @@ implements IntactExperimentSynchronizer{
 
         this.persistedObjects = new TreeMap<Experiment, IntactExperiment>(experimentComparator);
         this.convertedObjects = new IdentityMap();
-        persistedNames = new HashSet<String>();
+        labelAllocator = getContext().getShortLabelAllocator(ShortLabelSpace.EXPERIMENT, null);
 
         enricherListener = new DbExperimentEnricherListener(context, this);
     }
@@ -337,7 +339,7 @@ implements IntactExperimentSynchronizer{
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
-        this.persistedNames.clear();
+        this.labelAllocator.clear();
         this.enricherListener.getExperimentUpdates().clear();
     }
     @Override
@@ -538,14 +540,14 @@ implements IntactExperimentSynchronizer{
         String oldLabel = intactExperiment.getShortLabel();
 
         // then synchronize with database
-        IntactUtils.synchronizeExperimentShortLabel(intactExperiment, getEntityManager(), this.persistedNames);
+        IntactUtils.synchronizeExperimentShortLabel(intactExperiment, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactExperiment.getAc() == null){
-            this.persistedNames.add(intactExperiment.getShortLabel());
+            this.labelAllocator.reserve(intactExperiment.getShortLabel());
         }
         else if (!oldLabel.equals(intactExperiment.getShortLabel())){
-            this.persistedNames.add(intactExperiment.getShortLabel());
+            this.labelAllocator.reserve(intactExperiment.getShortLabel());
         }
     }
 
@@ -11,6 +11,8 @@ import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbInteractionEnricherListener;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
@@ -29,7 +31,7 @@ implements IntactInteractionSynchronizer{
     private Map<InteractionEvidence, IntactInteractionEvidence> persistedObjects;
     private Map<InteractionEvidence, IntactInteractionEvidence> convertedObjects;
 
-    private Set<String> persistedNames;
+    private ShortLabelAllocator labelAllocator;
 
     private DbInteractionEnricherListener enricherListener;
 
@@ -38,7 +40,7 @@ implements IntactInteractionSynchronizer{
         // to keep track of persisted cvs
         this.persistedObjects = new IdentityMap();
         this.convertedObjects = new IdentityMap();
-        this.persistedNames = new HashSet<String>();
+        this.labelAllocator = getContext().getShortLabelAllocator(ShortLabelSpace.INTERACTOR, null);
 
         enricherListener = new DbInteractionEnricherListener(getContext(), this);
     }
@@ -76,6 +78,47 @@ implements IntactInteractionSynchronizer{
         }
     }
 
+    @Override
+    public void prefetch(Collection<? extends InteractionEvidence> interactions) {
+        // the interactions are never looked up in the database but their participants and cvs are
+        Collection<CvTerm> interactionTypes = new ArrayList<CvTerm>();
+        Collection<CvTerm> experimentalRoles = new ArrayList<CvTerm>();
+        Collection<CvTerm> biologicalRoles = new ArrayList<CvTerm>();
+        Collection<CvTerm> experimentalPreparations = new ArrayList<CvTerm>();
+        Collection<Organism> expressedInOrganisms = new ArrayList<Organism>();
+        Collection<Interactor> interactors = new ArrayList<Interactor>();
+        for (InteractionEvidence interaction : interactions){
+            if (interaction == null || this.persistedObjects.containsKey(interaction)){
+                continue;
+            }
+            if (interaction.getInteractionType() != null){
+                interactionTypes.add(interaction.getInteractionType());
+            }
+            for (ParticipantEvidence participant : interaction.getParticipants()){
+                if (participant.getInteractor() != null){
+                    interactors.add(participant.getInteractor());
+                }
+                if (participant.getExperimentalRole() != null){
+                    experimentalRoles.add(participant.getExperimentalRole());
+                }
+                if (participant.getBiologicalRole() != null){
+                    biologicalRoles.add(participant.getBiologicalRole());
+                }
+                if (participant.getExpressedInOrganism() != null){
+                    expressedInOrganisms.add(participant.getExpressedInOrganism());
+                }
+                experimentalPreparations.addAll(participant.getExperimentalPreparations());
+            }
+        }
+
+        getContext().getInteractionTypeSynchronizer().prefetch(interactionTypes);
+        getContext().getExperimentalRoleSynchronizer().prefetch(experimentalRoles);
+        getContext().getBiologicalRoleSynchronizer().prefetch(biologicalRoles);
+        getContext().getExperimentalPreparationSynchronizer().prefetch(experimentalPreparations);
+        getContext().getOrganismSynchronizer().prefetch(expressedInOrganisms);
+        getContext().getInteractorSynchronizer().prefetch(interactors);
+    }
+
     public void synchronizeProperties(IntactInteractionEvidence intactInteraction) throws FinderException, PersisterException, SynchronizerException {
         // then check interaction detection method
         prepareInteractionType(intactInteraction, true);
@@ -100,7 +143,7 @@ implements IntactInteractionSynchronizer{
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
-        this.persistedNames.clear();
+        this.labelAllocator.clear();
         this.enricherListener.getInteractionUpdates().clear();
     }
 
@@ -315,14 +358,14 @@ implements IntactInteractionSynchronizer{
 
         String oldLabel = intactInteraction.getShortName();
 
-        IntactUtils.synchronizeInteractionEvidenceShortName(intactInteraction, getEntityManager(), this.persistedNames);
+        IntactUtils.synchronizeInteractionEvidenceShortName(intactInteraction, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactInteraction.getAc() == null){
-            this.persistedNames.add(intactInteraction.getShortName());
+            this.labelAllocator.reserve(intactInteraction.getShortName());
         }
         else if (!oldLabel.equals(intactInteraction.getShortName())){
-            this.persistedNames.add(intactInteraction.getShortName());
+            this.labelAllocator.reserve(intactInteraction.getShortName());
         }
     }
 
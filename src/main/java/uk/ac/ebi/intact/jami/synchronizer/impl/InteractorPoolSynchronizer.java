@@ -15,6 +15,7 @@ import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbInteractorEnricherListener;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbInteractorPoolEnricherListener;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactInteractorPoolComparator;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactInteractorPoolKeyFactory;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.Query;
@@ -206,7 +207,7 @@ public class InteractorPoolSynchronizer extends InteractorSynchronizerTemplate<I
 
     @Override
     protected void initialisePersistedObjectMap() {
-        super.initialisePersistedObjectMap(new IntactInteractorPoolComparator());
+        super.initialisePersistedObjectMap(new IntactInteractorPoolComparator(), new IntactInteractorPoolKeyFactory());
     }
 
     @Override
@@ -8,9 +8,12 @@ import psidev.psi.mi.jami.bridges.fetcher.InteractorFetcher;
 import psidev.psi.mi.jami.enricher.InteractorEnricher;
 import psidev.psi.mi.jami.model.Alias;
 import psidev.psi.mi.jami.model.Annotation;
+import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.model.Interactor;
+import psidev.psi.mi.jami.model.Organism;
 import psidev.psi.mi.jami.model.Xref;
 import psidev.psi.mi.jami.utils.clone.InteractorCloner;
+import uk.ac.ebi.intact.jami.context.InteractorIdentityIndex;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.merger.IntactDbMerger;
 import uk.ac.ebi.intact.jami.merger.InteractorBaseMergerEnrichOnly;
@@ -19,9 +22,14 @@ import uk.ac.ebi.intact.jami.model.extension.IntactInteractor;
 import uk.ac.ebi.intact.jami.model.extension.IntactOrganism;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbInteractorEnricherListener;
+import uk.ac.ebi.intact.jami.utils.CanonicalKeyMap;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
+import uk.ac.ebi.intact.jami.utils.comparator.CanonicalKeyFactory;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactExactInteractorBaseComparator;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactInteractorKeyFactory;
 
 import javax.persistence.Query;
 import java.lang.reflect.InvocationTargetException;
@@ -39,7 +47,9 @@ public class InteractorSynchronizerTemplate<T extends Interactor, I extends Inta
 implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
     private Map<T, I> persistedObjects;
     private Map<T, I> convertedObjects;
-    private Set<String> persistedNames;
+    // interactors matching an identifier (ac or identity/secondary xref) resolved in batch
+    private Map<String, Collection<PrefetchedInteractor<I>>> prefetchedInteractors;
+    private ShortLabelAllocator labelAllocator;
 
     private IntactComparator interactorComparator;
 
@@ -51,7 +61,8 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         super(context, intactClass);
         // to keep track of persisted cvs
         initialisePersistedObjectMap();
-        persistedNames = new HashSet<String>();
+        this.prefetchedInteractors = new HashMap<String, Collection<PrefetchedInteractor<I>>>();
+        labelAllocator = getContext().getShortLabelAllocator(ShortLabelSpace.INTERACTOR, null);
 
         enricherListener = initDefaultEnricherListener();
     }
@@ -307,19 +318,27 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
-        this.persistedNames.clear();
+        this.prefetchedInteractors.clear();
+        this.labelAllocator.clear();
         this.enricherListener.getInteractorUpdates().clear();
     }
 
     protected void initialisePersistedObjectMap() {
-        this.interactorComparator = new IntactExactInteractorBaseComparator();
-        this.persistedObjects = new TreeMap<T, I>(this.interactorComparator);
-        this.convertedObjects = new IdentityMap();
+        initialisePersistedObjectMap(new IntactExactInteractorBaseComparator());
     }
 
     protected void initialisePersistedObjectMap(IntactComparator comparator) {
+        initialisePersistedObjectMap(comparator, new IntactInteractorKeyFactory());
+    }
+
+    /**
+     *
+     * @param comparator : the comparator used to decide if two interactors having the same canonical key are equal
+     * @param keyFactory : the canonical key factory. It must give the same key to interactors which are equal for the comparator
+     */
+    protected void initialisePersistedObjectMap(IntactComparator comparator, CanonicalKeyFactory keyFactory) {
         this.interactorComparator = comparator;
-        this.persistedObjects = new TreeMap<T, I>(this.interactorComparator);
+        this.persistedObjects = new CanonicalKeyMap<T, I>(keyFactory, this.interactorComparator);
         this.convertedObjects = new IdentityMap();
     }
 
@@ -350,6 +369,38 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         }
         else{
             this.persistedObjects.put(originalObject, persistentObject);
+            // a new interactor is now matching its identifiers
+            if (!this.prefetchedInteractors.isEmpty()){
+                this.prefetchedInteractors.remove(persistentObject.getAc());
+                for (Xref ref : persistentObject.getIdentifiers()){
+                    this.prefetchedInteractors.remove(ref.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Collection<String> extractCreationKeys(I persistentObject) {
+        // same properties as the ones used in find
+        CvTerm type = persistentObject.getInteractorType();
+        String prefix = "interactor|" + (type != null ? (type.getMIIdentifier() != null ? type.getMIIdentifier() : type.getShortName().trim().toLowerCase()) : "")
+                + "|" + (persistentObject.getOrganism() != null ? Integer.toString(persistentObject.getOrganism().getTaxId()) : "-") + "|";
+        List<String> keys = new ArrayList<String>();
+        for (Xref ref : persistentObject.getIdentifiers()){
+            if (ref.getDatabase() != null){
+                keys.add(prefix + ref.getDatabase().getShortName().trim().toLowerCase() + "|" + ref.getId());
+            }
+        }
+        if (keys.isEmpty()){
+            keys.add(prefix + "name|" + persistentObject.getShortName().trim().toLowerCase());
+        }
+        return keys;
+    }
+
+    @Override
+    protected void forgetMissingInstances(I persistentObject) {
+        for (Xref ref : persistentObject.getIdentifiers()){
+            this.prefetchedInteractors.remove(ref.getId());
         }
     }
 
@@ -477,14 +528,163 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
 
         String oldLabel = intactInteractor.getShortName();
 
-        IntactUtils.synchronizeInteractorShortName(intactInteractor, getEntityManager(), persistedNames);
+        IntactUtils.synchronizeInteractorShortName(intactInteractor, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactInteractor.getAc() == null){
-            this.persistedNames.add(intactInteractor.getShortName());
+            this.labelAllocator.reserve(intactInteractor.getShortName());
         }
         else if (!oldLabel.equals(intactInteractor.getShortName())){
-            this.persistedNames.add(intactInteractor.getShortName());
+            this.labelAllocator.reserve(intactInteractor.getShortName());
+        }
+    }
+
+    @Override
+    public void prefetch(Collection<? extends T> terms) {
+        Set<String> identifiers = new HashSet<String>();
+        Collection<CvTerm> types = new ArrayList<CvTerm>();
+        Collection<Organism> organisms = new ArrayList<Organism>();
+        InteractorIdentityIndex index = getContext().getInteractorIdentityIndex();
+        for (T term : terms){
+            if (term == null || this.persistedObjects.containsKey(term)){
+                continue;
+            }
+            if (term.getInteractorType() != null){
+                types.add(term.getInteractorType());
+            }
+            if (term.getOrganism() != null){
+                organisms.add(term.getOrganism());
+            }
+            for (Xref ref : term.getIdentifiers()){
+                // the indexed identifiers do not need to be prefetched
+                if (!this.prefetchedInteractors.containsKey(ref.getId())
+                        && (index == null || (index.getInteractors(null, ref.getId()).isEmpty()
+                        && index.getInteractors(ref.getDatabase().getShortName(), ref.getId()).isEmpty()))){
+                    identifiers.add(ref.getId());
+                }
+            }
+        }
+
+        // the interactor types and organisms are needed to find the interactors
+        if (!types.isEmpty()){
+            getContext().getInteractorTypeSynchronizer().prefetch(types);
+        }
+        if (!organisms.isEmpty()){
+            getContext().getOrganismSynchronizer().prefetch(organisms);
+        }
+
+        for (List<String> chunk : partitionQueryParameters(identifiers)){
+            // identifiers without any interactors in the database are kept with an empty collection
+            for (String id : chunk){
+                this.prefetchedInteractors.put(id, new ArrayList<PrefetchedInteractor<I>>());
+            }
+
+            // interactors having one of these acs
+            Query query = getEntityManager().createQuery("select i, t.ac, o.ac from "+getIntactClass().getSimpleName()+" i " +
+                    "join i.interactorType as t " +
+                    "left join i.organism as o " +
+                    "where i.ac in (:ids)");
+            query.setParameter("ids", chunk);
+            List<Object[]> results = query.getResultList();
+            for (Object[] result : results){
+                I interactor = (I) result[0];
+                addPrefetchedInteractor(interactor.getAc(),
+                        new PrefetchedInteractor<I>(interactor, (String) result[1], (String) result[2], null));
+            }
+
+            // interactors having one of these identifiers
+            query = getEntityManager().createQuery("select distinct i, t.ac, o.ac, d.shortName, x.id from "+getIntactClass().getSimpleName()+" i " +
+                    "join i.dbXrefs as x " +
+                    "join x.database as d " +
+                    "join x.qualifier as q " +
+                    "join i.interactorType as t " +
+                    "left join i.organism as o " +
+                    "where (q.shortName = :identity or q.shortName = :secondaryAc) " +
+                    "and x.id in (:ids)");
+            query.setParameter("identity", Xref.IDENTITY);
+            query.setParameter("secondaryAc", Xref.SECONDARY);
+            query.setParameter("ids", chunk);
+            results = query.getResultList();
+            for (Object[] result : results){
+                addPrefetchedInteractor((String) result[4],
+                        new PrefetchedInteractor<I>((I) result[0], (String) result[1], (String) result[2], (String) result[3]));
+            }
+        }
+    }
+
+    private void addPrefetchedInteractor(String id, PrefetchedInteractor<I> prefetched) {
+        Collection<PrefetchedInteractor<I>> interactors = this.prefetchedInteractors.get(id);
+        if (interactors == null){
+            interactors = new ArrayList<PrefetchedInteractor<I>>();
+            this.prefetchedInteractors.put(id, interactors);
+        }
+        interactors.add(prefetched);
+    }
+
+    /**
+     *
+     * @param prefetched : the prefetched interactors matching an identifier
+     * @param database : the database of the identifier. If null, we look for the interactors having this identifier as ac
+     * @param existingType : the interactor type
+     * @param existingOrganism : the organism. Can be null
+     * @return the interactors matching the database, interactor type and organism
+     */
+    private Collection<I> filterPrefetchedInteractors(Collection<PrefetchedInteractor<I>> prefetched, String database,
+                                                      IntactCvTerm existingType, IntactOrganism existingOrganism) {
+        Collection<I> interactors = new LinkedHashSet<I>();
+        for (PrefetchedInteractor<I> candidate : prefetched){
+            if ((database == null ? candidate.database == null : database.equals(candidate.database))
+                    && existingType.getAc().equals(candidate.typeAc)
+                    && (existingOrganism == null ? candidate.organismAc == null : existingOrganism.getAc().equals(candidate.organismAc))){
+                interactors.add(candidate.interactor);
+            }
+        }
+        return interactors;
+    }
+
+    /**
+     *
+     * @param database : the database of the identifier. If null, we look for the interactors having this identifier as ac
+     * @param identifier : the identifier
+     * @param existingTypes : the acs of the interactor types
+     * @param existingOrganisms : the acs of the organisms. If empty, the interactors must not have any organism
+     * @return the interactors found in the interactor identity index and matching the interactor types and organisms,
+     * empty if the database needs to be queried because the identifier is not in the index
+     */
+    private Collection<I> findIndexedInteractors(String database, String identifier, Collection<String> existingTypes,
+                                                 Collection<String> existingOrganisms) {
+        InteractorIdentityIndex index = getContext().getInteractorIdentityIndex();
+        if (index == null){
+            return Collections.EMPTY_LIST;
+        }
+        Set<String> acs = new HashSet<String>();
+        for (InteractorIdentityIndex.Entry entry : index.getInteractors(database, identifier)){
+            if (existingTypes.contains(entry.getTypeAc())
+                    && (existingOrganisms.isEmpty() ? entry.getOrganismAc() == null : existingOrganisms.contains(entry.getOrganismAc()))){
+                acs.add(entry.getAc());
+            }
+        }
+        if (acs.isEmpty()){
+            return Collections.EMPTY_LIST;
+        }
+        // the index contains all the interactors so only the interactors of this class are loaded
+        Query query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
+                "where i.ac in (:acs)");
+        query.setParameter("acs", acs);
+        return new HashSet<I>(query.getResultList());
+    }
+
+    private void indexInteractor(InteractorIdentityIndex index, I intactInteractor) {
+        String typeAc = intactInteractor.getInteractorType() instanceof IntactCvTerm ?
+                ((IntactCvTerm) intactInteractor.getInteractorType()).getAc() : null;
+        String organismAc = intactInteractor.getOrganism() instanceof IntactOrganism ?
+                ((IntactOrganism) intactInteractor.getOrganism()).getAc() : null;
+        index.addInteractor(intactInteractor.getAc(), typeAc, organismAc);
+        for (Xref ref : intactInteractor.getDbXrefs()){
+            if (ref.getQualifier() != null && ref.getDatabase() != null
+                    && (Xref.IDENTITY.equals(ref.getQualifier().getShortName()) || Xref.SECONDARY.equals(ref.getQualifier().getShortName()))){
+                index.addIdentifier(intactInteractor.getAc(), typeAc, organismAc, ref.getDatabase().getShortName(), ref.getId());
+            }
         }
     }
 
@@ -497,6 +697,35 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         // no organism for this interactor.
         if (existingOrganism == null){
             for (Xref ref : term.getIdentifiers()){
+                Collection<PrefetchedInteractor<I>> prefetched = this.prefetchedInteractors.get(ref.getId());
+                if (prefetched != null){
+                    Collection<I> interactors = filterPrefetchedInteractors(prefetched, null, existingType, existingOrganism);
+                    if (!interactors.isEmpty()){
+                        return interactors;
+                    }
+                    interactors = filterPrefetchedInteractors(prefetched, ref.getDatabase().getShortName(), existingType, existingOrganism);
+                    if (interactors.size() == 1){
+                        return interactors;
+                    }
+                    else if (interactors.size() > 1){
+                        totalInteractors.addAll(interactors);
+                    }
+                    continue;
+                }
+                Collection<I> indexedInteractors = findIndexedInteractors(null, ref.getId(), Collections.singleton(existingType.getAc()),
+                        Collections.EMPTY_LIST);
+                if (!indexedInteractors.isEmpty()){
+                    return indexedInteractors;
+                }
+                indexedInteractors = findIndexedInteractors(ref.getDatabase().getShortName(), ref.getId(), Collections.singleton(existingType.getAc()),
+                        Collections.EMPTY_LIST);
+                if (indexedInteractors.size() == 1){
+                    return indexedInteractors;
+                }
+                else if (indexedInteractors.size() > 1){
+                    totalInteractors.addAll(indexedInteractors);
+                    continue;
+                }
                 query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
                         "join i.interactorType as t " +
                         "where i.ac = :id " +
@@ -538,6 +767,35 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         // organism for this interactor
         else{
             for (Xref ref : term.getIdentifiers()){
+                Collection<PrefetchedInteractor<I>> prefetched = this.prefetchedInteractors.get(ref.getId());
+                if (prefetched != null){
+                    Collection<I> interactors = filterPrefetchedInteractors(prefetched, null, existingType, existingOrganism);
+                    if (!interactors.isEmpty()){
+                        return interactors;
+                    }
+                    interactors = filterPrefetchedInteractors(prefetched, ref.getDatabase().getShortName(), existingType, existingOrganism);
+                    if (interactors.size() == 1){
+                        return interactors;
+                    }
+                    else if (interactors.size() > 1){
+                        totalInteractors.addAll(interactors);
+                    }
+                    continue;
+                }
+                Collection<I> indexedInteractors = findIndexedInteractors(null, ref.getId(), Collections.singleton(existingType.getAc()),
+                        Collections.singleton(existingOrganism.getAc()));
+                if (!indexedInteractors.isEmpty()){
+                    return indexedInteractors;
+                }
+                indexedInteractors = findIndexedInteractors(ref.getDatabase().getShortName(), ref.getId(), Collections.singleton(existingType.getAc()),
+                        Collections.singleton(existingOrganism.getAc()));
+                if (indexedInteractors.size() == 1){
+                    return indexedInteractors;
+                }
+                else if (indexedInteractors.size() > 1){
+                    totalInteractors.addAll(indexedInteractors);
+                    continue;
+                }
                 query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
                         "join i.organism as o " +
                         "join i.interactorType as t " +
@@ -593,6 +851,18 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         // no organism for this interactor.
         if (existingOrganisms.isEmpty()){
             for (Xref ref : term.getIdentifiers()){
+                Collection<I> indexedInteractors = findIndexedInteractors(null, ref.getId(), existingTypes, existingOrganisms);
+                if (!indexedInteractors.isEmpty()){
+                    return indexedInteractors;
+                }
+                indexedInteractors = findIndexedInteractors(ref.getDatabase().getShortName(), ref.getId(), existingTypes, existingOrganisms);
+                if (indexedInteractors.size() == 1){
+                    return indexedInteractors;
+                }
+                else if (indexedInteractors.size() > 1){
+                    totalInteractors.addAll(indexedInteractors);
+                    continue;
+                }
                 query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
                         "join i.interactorType as t " +
                         "where i.ac = :id " +
@@ -634,6 +904,18 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         // organism for this interactor
         else{
             for (Xref ref : term.getIdentifiers()){
+                Collection<I> indexedInteractors = findIndexedInteractors(null, ref.getId(), existingTypes, existingOrganisms);
+                if (!indexedInteractors.isEmpty()){
+                    return indexedInteractors;
+                }
+                indexedInteractors = findIndexedInteractors(ref.getDatabase().getShortName(), ref.getId(), existingTypes, existingOrganisms);
+                if (indexedInteractors.size() == 1){
+                    return indexedInteractors;
+                }
+                else if (indexedInteractors.size() > 1){
+                    totalInteractors.addAll(indexedInteractors);
+                    continue;
+                }
                 query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
                         "join i.organism as o " +
                         "join i.interactorType as t " +
@@ -738,8 +1020,43 @@ implements InteractorFetcher<T>, InteractorSynchronizer<T, I>{
         super.setIntactMerger(intactMerger);
     }
 
+    @Override
+    protected void persistObject(I existingInstance) {
+        super.persistObject(existingInstance);
+        // the new interactor can be found in the interactor identity index
+        InteractorIdentityIndex index = getContext().getInteractorIdentityIndex();
+        if (index != null){
+            indexInteractor(index, existingInstance);
+        }
+    }
+
+    @Override
+    protected void invalidateReferenceData(I intactObject) {
+        InteractorIdentityIndex index = getContext().getInteractorIdentityIndex();
+        if (index != null){
+            index.remove(intactObject.getAc());
+        }
+    }
+
     @Override
     protected void resetObjectIdentifier(I intactObject) {
         intactObject.setAc(null);
     }
+
+    /**
+     * Interactor resolved in batch with the acs of its interactor type and organism
+     */
+    private static class PrefetchedInteractor<I> {
+        private final I interactor;
+        private final String typeAc;
+        private final String organismAc;
+        private final String database;
+
+        private PrefetchedInteractor(I interactor, String typeAc, String organismAc, String database) {
+            this.interactor = interactor;
+            this.typeAc = typeAc;
+            this.organismAc = organismAc;
+            this.database = database;
+        }
+    }
 }
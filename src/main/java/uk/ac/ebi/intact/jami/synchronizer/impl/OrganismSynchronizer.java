@@ -7,9 +7,11 @@ import psidev.psi.mi.jami.bridges.exception.BridgeFailedException;
 import psidev.psi.mi.jami.bridges.fetcher.OrganismFetcher;
 import psidev.psi.mi.jami.enricher.OrganismEnricher;
 import psidev.psi.mi.jami.model.Alias;
+import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.model.Organism;
 import psidev.psi.mi.jami.model.Xref;
 import psidev.psi.mi.jami.utils.clone.OrganismCloner;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.merger.IntactDbMerger;
 import uk.ac.ebi.intact.jami.merger.OrganismMergerEnrichOnly;
@@ -17,9 +19,13 @@ import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
 import uk.ac.ebi.intact.jami.model.extension.IntactOrganism;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbOrganismEnricherListener;
+import uk.ac.ebi.intact.jami.utils.CanonicalKeyMap;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactOrganismComparator;
+import uk.ac.ebi.intact.jami.utils.comparator.IntactOrganismKeyFactory;
 
 import javax.persistence.Query;
 import java.lang.reflect.InvocationTargetException;
@@ -36,22 +42,25 @@ import java.util.*;
 public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism, IntactOrganism> implements OrganismFetcher, IntactOrganismSynchronizer{
     private Map<Organism, IntactOrganism> persistedObjects;
     private Map<Organism, IntactOrganism> convertedObjects;
+    // organisms without cell type and tissue resolved in batch, per taxid
+    private Map<String, Collection<IntactOrganism>> prefetchedOrganisms;
     private IntactComparator<Organism> organismComparator;
 
     private static final Log log = LogFactory.getLog(CvTermSynchronizer.class);
 
     private DbOrganismEnricherListener enricherListener;
 
-    private Set<String> persistedNames;
+    private ShortLabelAllocator labelAllocator;
 
     public OrganismSynchronizer(SynchronizerContext context){
         super(context, IntactOrganism.class);
         this.organismComparator = new IntactOrganismComparator();
         // to keep track of persisted cvs
-        this.persistedObjects = new TreeMap<Organism, IntactOrganism>(this.organismComparator);
+        this.persistedObjects = new CanonicalKeyMap<Organism, IntactOrganism>(new IntactOrganismKeyFactory(), this.organismComparator);
         this.convertedObjects = new IdentityMap();
+        this.prefetchedOrganisms = new HashMap<String, Collection<IntactOrganism>>();
         enricherListener = new DbOrganismEnricherListener(getContext(), this);
-        persistedNames = new HashSet<String>();
+        labelAllocator = getContext().getShortLabelAllocator(ShortLabelSpace.ORGANISM, null);
     }
 
     public IntactOrganism find(Organism term) throws FinderException {
@@ -64,11 +73,22 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
         }
         // we have a simple organism. Only check its taxid
         else if (term.getCellType() == null && term.getTissue() == null){
+            Collection<IntactOrganism> prefetched = this.prefetchedOrganisms.get(Integer.toString(term.getTaxId()));
+            if (prefetched != null){
+                return selectUniqueOrganism(term, prefetched);
+            }
+            IntactOrganism referenceOrganism = fetchFromReferenceDataCache(term.getTaxId());
+            if (referenceOrganism != null){
+                return referenceOrganism;
+            }
             query = getEntityManager().createQuery("select o from IntactOrganism o " +
                     "where o.cellType is null " +
                     "and o.tissue is null " +
                     "and o.dbTaxid = :taxid");
             query.setParameter("taxid", Integer.toString(term.getTaxId()));
+            Collection<IntactOrganism> organisms = query.getResultList();
+            storeInReferenceDataCache(term.getTaxId(), organisms);
+            return selectUniqueOrganism(term, organisms);
         }
         // we have a celltype/tissue to find first
         else {
@@ -123,6 +143,10 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
             }
         }
         Collection<IntactOrganism> organism = query.getResultList();
+        return selectUniqueOrganism(term, organism);
+    }
+
+    private IntactOrganism selectUniqueOrganism(Organism term, Collection<IntactOrganism> organism) throws FinderException {
         if (organism.size() == 1){
             return organism.iterator().next();
         }
@@ -132,6 +156,63 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
         return null;
     }
 
+    @Override
+    public void prefetch(Collection<? extends Organism> terms) {
+        Set<String> taxids = new HashSet<String>();
+        Collection<CvTerm> cellTypes = new ArrayList<CvTerm>();
+        Collection<CvTerm> tissues = new ArrayList<CvTerm>();
+        for (Organism term : terms){
+            if (term == null || this.persistedObjects.containsKey(term)){
+                continue;
+            }
+            else if (term.getCellType() == null && term.getTissue() == null){
+                String taxid = Integer.toString(term.getTaxId());
+                if (!this.prefetchedOrganisms.containsKey(taxid)
+                        && getContext().getReferenceDataCache().get(IntactOrganism.class, taxid) == null){
+                    taxids.add(taxid);
+                }
+            }
+            else {
+                if (term.getCellType() != null){
+                    cellTypes.add(term.getCellType());
+                }
+                if (term.getTissue() != null){
+                    tissues.add(term.getTissue());
+                }
+            }
+        }
+
+        if (!cellTypes.isEmpty()){
+            getContext().getCellTypeSynchronizer().prefetch(cellTypes);
+        }
+        if (!tissues.isEmpty()){
+            getContext().getTissueSynchronizer().prefetch(tissues);
+        }
+
+        for (List<String> chunk : partitionQueryParameters(taxids)){
+            Query query = getEntityManager().createQuery("select o from IntactOrganism o " +
+                    "where o.cellType is null " +
+                    "and o.tissue is null " +
+                    "and o.dbTaxid in (:taxids)");
+            query.setParameter("taxids", chunk);
+
+            // taxids without any organisms in the database are kept with an empty collection
+            for (String taxid : chunk){
+                this.prefetchedOrganisms.put(taxid, new ArrayList<IntactOrganism>());
+            }
+            List<IntactOrganism> results = query.getResultList();
+            for (IntactOrganism organism : results){
+                Collection<IntactOrganism> organisms = this.prefetchedOrganisms.get(Integer.toString(organism.getTaxId()));
+                if (organisms != null){
+                    organisms.add(organism);
+                }
+            }
+            for (String taxid : chunk){
+                storeInReferenceDataCache(Integer.parseInt(taxid), this.prefetchedOrganisms.get(taxid));
+            }
+        }
+    }
+
     @Override
     public Collection<IntactOrganism> findAll(Organism term) {
         Query query;
@@ -143,11 +224,18 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
         }
         // we have a simple organism. Only check its taxid
         else if (term.getCellType() == null && term.getTissue() == null){
+            IntactOrganism referenceOrganism = fetchFromReferenceDataCache(term.getTaxId());
+            if (referenceOrganism != null){
+                return Collections.singletonList(referenceOrganism);
+            }
             query = getEntityManager().createQuery("select o from IntactOrganism o " +
                     "where o.cellType is null " +
                     "and o.tissue is null " +
                     "and o.dbTaxid = :taxid");
             query.setParameter("taxid", Integer.toString(term.getTaxId()));
+            Collection<IntactOrganism> organisms = query.getResultList();
+            storeInReferenceDataCache(term.getTaxId(), organisms);
+            return organisms;
         }
         // we have a celltype/tissue to find first
         else {
@@ -219,11 +307,22 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
         }
         // we have a simple organism. Only check its taxid
         else if (term.getCellType() == null && term.getTissue() == null){
+            // the cached ac is checked because the organism may have been deleted or rolled back since it was cached
+            IntactOrganism referenceOrganism = fetchFromReferenceDataCache(term.getTaxId());
+            if (referenceOrganism != null){
+                return Collections.singletonList(referenceOrganism.getAc());
+            }
             query = getEntityManager().createQuery("select distinct o.ac from IntactOrganism o " +
                     "where o.cellType is null " +
                     "and o.tissue is null " +
                     "and o.dbTaxid = :taxid");
             query.setParameter("taxid", Integer.toString(term.getTaxId()));
+            Collection<String> acs = query.getResultList();
+            if (acs.size() == 1){
+                getContext().getReferenceDataCache().put(IntactOrganism.class, Integer.toString(term.getTaxId()),
+                        acs.iterator().next(), null);
+            }
+            return acs;
         }
         // we have a celltype/tissue to find first
         else {
@@ -294,8 +393,9 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
+        this.prefetchedOrganisms.clear();
         this.enricherListener.getOrganismUpdates().clear();
-        this.persistedNames.clear();
+        this.labelAllocator.clear();
     }
 
     public IntactOrganism fetchByTaxID(int taxID) throws BridgeFailedException {
@@ -390,14 +490,37 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
             intactOrganism.setCommonName(intactOrganism.getCommonName().substring(0, IntactUtils.MAX_SHORT_LABEL_LEN));
         }
 
-        IntactUtils.synchronizeOrganismShortName(intactOrganism, getEntityManager(), this.persistedNames);
+        IntactUtils.synchronizeOrganismShortName(intactOrganism, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactOrganism.getAc() == null){
-            this.persistedNames.add(intactOrganism.getCommonName());
+            this.labelAllocator.reserve(intactOrganism.getCommonName());
         }
         else if (!oldLabel.equals(intactOrganism.getCommonName())){
-            this.persistedNames.add(intactOrganism.getCommonName());
+            this.labelAllocator.reserve(intactOrganism.getCommonName());
+        }
+    }
+
+    private IntactOrganism fetchFromReferenceDataCache(int taxid) {
+        ReferenceDataCache.Snapshot snapshot = getContext().getReferenceDataCache().get(IntactOrganism.class, Integer.toString(taxid));
+        if (snapshot == null){
+            return null;
+        }
+        // reload the organism in the current transaction
+        IntactOrganism organism = getEntityManager().find(IntactOrganism.class, snapshot.getAc());
+        // the organism has been deleted
+        if (organism == null){
+            getContext().getReferenceDataCache().invalidate(snapshot.getAc());
+        }
+        return organism;
+    }
+
+    private void storeInReferenceDataCache(int taxid, Collection<IntactOrganism> organisms) {
+        // only organisms which can be identified without ambiguity are kept between transactions
+        if (organisms != null && organisms.size() == 1){
+            IntactOrganism organism = organisms.iterator().next();
+            getContext().getReferenceDataCache().put(IntactOrganism.class, Integer.toString(taxid),
+                    organism.getAc(), organism.getCommonName());
         }
     }
 
@@ -420,9 +543,27 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
         }
         else{
             this.persistedObjects.put(originalObject, persistentObject);
+            // a new organism is now matching this taxid
+            this.prefetchedOrganisms.remove(Integer.toString(persistentObject.getTaxId()));
+            if (persistentObject.getCellType() == null && persistentObject.getTissue() == null){
+                getContext().getReferenceDataCache().invalidate(IntactOrganism.class, Integer.toString(persistentObject.getTaxId()));
+            }
         }
     }
 
+    @Override
+    protected Collection<String> extractCreationKeys(IntactOrganism persistentObject) {
+        // an organism is identified by its taxid, cell type and tissue
+        return Collections.singletonList("organism|" + persistentObject.getTaxId()
+                + "|" + (persistentObject.getCellType() != null ? persistentObject.getCellType().getShortName().trim().toLowerCase() : "")
+                + "|" + (persistentObject.getTissue() != null ? persistentObject.getTissue().getShortName().trim().toLowerCase() : ""));
+    }
+
+    @Override
+    protected void forgetMissingInstances(IntactOrganism persistentObject) {
+        this.prefetchedOrganisms.remove(Integer.toString(persistentObject.getTaxId()));
+    }
+
     @Override
     protected IntactOrganism fetchObjectFromCache(Organism object) {
         return this.persistedObjects.get(object);
@@ -481,6 +622,11 @@ public class OrganismSynchronizer extends AbstractIntactDbSynchronizer<Organism,
         super.setIntactMerger(intactMerger);
     }
 
+    @Override
+    protected void invalidateReferenceData(IntactOrganism intactObject) {
+        getContext().getReferenceDataCache().invalidate(intactObject.getAc());
+    }
+
     @Override
     protected void resetObjectIdentifier(IntactOrganism intactObject) {
         intactObject.setAc(null);
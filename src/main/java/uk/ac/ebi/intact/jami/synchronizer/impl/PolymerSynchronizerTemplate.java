@@ -2,14 +2,23 @@ package uk.ac.ebi.intact.jami.synchronizer.impl;
 
 import psidev.psi.mi.jami.model.Polymer;
 import psidev.psi.mi.jami.utils.clone.InteractorCloner;
+import uk.ac.ebi.intact.jami.context.SequenceStorageMode;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.merger.PolymerMergerEnrichOnly;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.model.extension.IntactOrganism;
 import uk.ac.ebi.intact.jami.model.extension.IntactPolymer;
 import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.utils.SequenceChecksumUtils;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactPolymerComparator;
 
+import javax.persistence.Query;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 
 /**
@@ -85,34 +94,107 @@ public class PolymerSynchronizerTemplate<T extends Polymer, P extends IntactPoly
         return filteredResults;
     }
 
-    // TODO uncomment this method when intact-core is removed and the sequence property of a polymer is persisted as a lob
-    /*@Override
+    /**
+     * The polymers without identifiers are looked up with the indexed sequence digest instead of comparing the sequence chunks.
+     * If several polymers have the same sequence, only the polymers having the same short name are kept (see filterByShortName).
+     * The polymers which do not have a sequence digest yet are still found by short name.
+     */
+    @Override
     protected Collection<P> findByOtherProperties(T term, IntactCvTerm existingType, IntactOrganism existingOrganism) {
+        if (term.getSequence() == null){
+            return Collections.EMPTY_LIST;
+        }
         Query query;
         if (existingOrganism == null){
-            query = getEntityManager().createQuery("select i from "+getIntactClass()+" i " +
+            query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
                     "join i.interactorType as t " +
                     "where i.organism is null " +
-                    "and t.ac = :typeAc" + (term.getSequence() != null ? " and i.sequence = :seq" : ""));
+                    "and t.ac = :typeAc " +
+                    "and i.sequenceDigest = :digest");
             query.setParameter("typeAc", existingType.getAc());
-            if (term.getSequence() != null){
-                query.setParameter("seq", term.getSequence());
-            }
         }
         else{
-            query = getEntityManager().createQuery("select i from "+getIntactClass()+" i " +
+            query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
                     "join i.interactorType as t " +
                     "join i.organism as o " +
                     "where o.ac = :orgAc " +
-                    "and t.ac = :typeAc"+ (term.getSequence() != null ? " and i.sequence = :seq" : ""));
+                    "and t.ac = :typeAc " +
+                    "and i.sequenceDigest = :digest");
             query.setParameter("orgAc", existingOrganism.getAc());
             query.setParameter("typeAc", existingType.getAc());
-            if (term.getSequence() != null){
-                query.setParameter("seq", term.getSequence());
+        }
+        query.setParameter("digest", SequenceChecksumUtils.computeSequenceDigest(term.getSequence()));
+        return filterByShortName(term, query.getResultList());
+    }
+
+    @Override
+    protected Collection<P> findByOtherProperties(T term, Collection<String> existingTypes, Collection<String> existingOrganisms) {
+        if (term.getSequence() == null){
+            return Collections.EMPTY_LIST;
+        }
+        Query query;
+        if (existingOrganisms.isEmpty()){
+            query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
+                    "join i.interactorType as t " +
+                    "where i.organism is null " +
+                    "and t.ac in (:typeAc) " +
+                    "and i.sequenceDigest = :digest");
+            query.setParameter("typeAc", existingTypes);
+        }
+        else{
+            query = getEntityManager().createQuery("select i from "+getIntactClass().getSimpleName()+" i " +
+                    "join i.interactorType as t " +
+                    "join i.organism as o " +
+                    "where o.ac in (:orgAc) " +
+                    "and t.ac in (:typeAc) " +
+                    "and i.sequenceDigest = :digest");
+            query.setParameter("orgAc", existingOrganisms);
+            query.setParameter("typeAc", existingTypes);
+        }
+        query.setParameter("digest", SequenceChecksumUtils.computeSequenceDigest(term.getSequence()));
+        return filterByShortName(term, query.getResultList());
+    }
+
+    /**
+     * A polymer having the same sequence as only one polymer of the database is this polymer.
+     * When several polymers have the same sequence, the polymer is the one having the same short name. If none of them has the same short name,
+     * no polymer is selected by sequence so a polymer without identifiers does not match all the polymers with the same sequence.
+     * @param term : the polymer to find
+     * @param results : the polymers having the same sequence digest
+     * @return the polymers matching the term
+     */
+    protected Collection<P> filterByShortName(T term, Collection<P> results) {
+        if (results.size() <= 1 || term.getShortName() == null){
+            return results;
+        }
+        String name = term.getShortName().trim().toLowerCase();
+        Collection<P> filteredResults = new ArrayList<P>(results.size());
+        for (P interactor : results){
+            if (name.equals(interactor.getShortName())){
+                filteredResults.add(interactor);
             }
         }
-        return query.getResultList();
-    }*/
+        return filteredResults;
+    }
+
+    @Override
+    public void synchronizeProperties(P intactPolymer) throws FinderException, PersisterException, SynchronizerException {
+        super.synchronizeProperties(intactPolymer);
+        // then check the sequence storage
+        prepareSequenceStorage(intactPolymer);
+    }
+
+    /**
+     * Stores the sequence of a new polymer with the sequence storage mode of the context.
+     * The existing polymers keep the storage of their sequence
+     * @param intactPolymer : the polymer to synchronize
+     */
+    protected void prepareSequenceStorage(P intactPolymer) {
+        SequenceStorageMode storageMode = getContext().getSequenceStorageMode();
+        if (intactPolymer.getAc() == null && intactPolymer.getSequenceStorageMode() != storageMode){
+            intactPolymer.convertSequenceStorage(storageMode);
+        }
+    }
 
     @Override
     protected void initialisePersistedObjectMap() {
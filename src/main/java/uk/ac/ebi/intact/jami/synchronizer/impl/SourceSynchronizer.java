@@ -10,6 +10,7 @@ import psidev.psi.mi.jami.enricher.OrganismEnricher;
 import psidev.psi.mi.jami.enricher.SourceEnricher;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.utils.clone.CvTermCloner;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.merger.IntactDbMerger;
 import uk.ac.ebi.intact.jami.merger.OrganismMergerEnrichOnly;
@@ -19,6 +20,8 @@ import uk.ac.ebi.intact.jami.model.extension.IntactSource;
 import uk.ac.ebi.intact.jami.synchronizer.*;
 import uk.ac.ebi.intact.jami.synchronizer.listener.impl.DbSourceEnricherListener;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.ShortLabelAllocator;
+import uk.ac.ebi.intact.jami.utils.ShortLabelSpace;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactComparator;
 import uk.ac.ebi.intact.jami.utils.comparator.IntactSourceComparator;
 
@@ -37,7 +40,7 @@ import java.util.*;
 public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, IntactSource> implements SourceFetcher, IntactSourceSynchronizer {
     private Map<Source, IntactSource> persistedObjects;
     private Map<Source, IntactSource> convertedObjects;
-    private Set<String> persistedNames;
+    private ShortLabelAllocator labelAllocator;
 
     private IntactComparator<Source> sourceComparator;
 
@@ -51,7 +54,7 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
         // to keep track of persisted cvs
         this.persistedObjects = new TreeMap<Source, IntactSource>(this.sourceComparator);
         this.convertedObjects = new IdentityMap();
-        persistedNames = new HashSet<String>();
+        labelAllocator = getContext().getShortLabelAllocator(ShortLabelSpace.SOURCE, null);
         this.enricherListener = new DbSourceEnricherListener(getContext(), this);
     }
 
@@ -174,7 +177,7 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
     public void clearCache() {
         this.persistedObjects.clear();
         this.convertedObjects.clear();
-        this.persistedNames.clear();
+        this.labelAllocator.clear();
         this.enricherListener.getSourceUpdates().clear();
     }
 
@@ -301,6 +304,12 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
 
     protected IntactSource fetchByIdentifier(String termIdentifier, String miOntologyName, boolean checkAc) throws BridgeFailedException {
         Query query;
+        if (!checkAc){
+            IntactSource referenceSource = fetchFromReferenceDataCache(termIdentifier, miOntologyName);
+            if (referenceSource != null){
+                return referenceSource;
+            }
+        }
         if (checkAc){
             query = getEntityManager().createQuery("select s from IntactSource s " +
                     "where s.ac = :id");
@@ -324,6 +333,9 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
         query.setParameter("psiId", termIdentifier);
 
         Collection<IntactSource> cvs = query.getResultList();
+        if (!checkAc){
+            storeInReferenceDataCache(termIdentifier, miOntologyName, cvs);
+        }
         if (cvs.size() == 1){
             return cvs.iterator().next();
         }
@@ -335,6 +347,12 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
 
     protected Collection<IntactSource> fetchAllByIdentifier(String termIdentifier, String miOntologyName, boolean checkAc) {
         Query query;
+        if (!checkAc){
+            IntactSource referenceSource = fetchFromReferenceDataCache(termIdentifier, miOntologyName);
+            if (referenceSource != null){
+                return Collections.singletonList(referenceSource);
+            }
+        }
         if (checkAc){
             query = getEntityManager().createQuery("select s from IntactSource s " +
                     "where s.ac = :id");
@@ -357,11 +375,22 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
         query.setParameter("psiName", miOntologyName.toLowerCase().trim());
         query.setParameter("psiId", termIdentifier);
 
-        return query.getResultList();
+        Collection<IntactSource> sources = query.getResultList();
+        if (!checkAc){
+            storeInReferenceDataCache(termIdentifier, miOntologyName, sources);
+        }
+        return sources;
     }
 
     protected Collection<String> fetchAllAcsByIdentifier(String termIdentifier, String miOntologyName, boolean checkAc) {
         Query query;
+        if (!checkAc){
+            // the cached ac is checked because the source may have been deleted or rolled back since it was cached
+            IntactSource referenceSource = fetchFromReferenceDataCache(termIdentifier, miOntologyName);
+            if (referenceSource != null){
+                return Collections.singletonList(referenceSource.getAc());
+            }
+        }
         if (checkAc){
             query = getEntityManager().createQuery("select distinct s.ac from IntactSource s " +
                     "where s.ac = :id");
@@ -384,7 +413,40 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
         query.setParameter("psiName", miOntologyName.toLowerCase().trim());
         query.setParameter("psiId", termIdentifier);
 
-        return query.getResultList();
+        Collection<String> acs = query.getResultList();
+        if (!checkAc && acs.size() == 1){
+            getContext().getReferenceDataCache().put(IntactSource.class, createReferenceDataKey(termIdentifier, miOntologyName),
+                    acs.iterator().next(), null);
+        }
+        return acs;
+    }
+
+    private String createReferenceDataKey(String termIdentifier, String miOntologyName) {
+        return miOntologyName.toLowerCase().trim() + "|" + termIdentifier;
+    }
+
+    private IntactSource fetchFromReferenceDataCache(String termIdentifier, String miOntologyName) {
+        ReferenceDataCache.Snapshot snapshot = getContext().getReferenceDataCache().get(IntactSource.class,
+                createReferenceDataKey(termIdentifier, miOntologyName));
+        if (snapshot == null){
+            return null;
+        }
+        // reload the source in the current transaction
+        IntactSource source = getEntityManager().find(IntactSource.class, snapshot.getAc());
+        // the source has been deleted
+        if (source == null){
+            getContext().getReferenceDataCache().invalidate(snapshot.getAc());
+        }
+        return source;
+    }
+
+    private void storeInReferenceDataCache(String termIdentifier, String miOntologyName, Collection<IntactSource> sources) {
+        // only sources which can be identified without ambiguity are kept between transactions
+        if (sources.size() == 1){
+            IntactSource source = sources.iterator().next();
+            getContext().getReferenceDataCache().put(IntactSource.class, createReferenceDataKey(termIdentifier, miOntologyName),
+                    source.getAc(), source.getShortName());
+        }
     }
 
     @Override
@@ -408,9 +470,38 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
         else{
             this.persistedObjects.put(originalObject, persistentObject);
             this.convertedObjects.put(originalObject, persistentObject);
+            // the sources cached for these identifiers may not be unique anymore
+            for (Xref ref : persistentObject.getIdentifiers()){
+                if (ref.getDatabase() != null){
+                    getContext().getReferenceDataCache().invalidate(IntactSource.class,
+                            createReferenceDataKey(ref.getId(), ref.getDatabase().getShortName()));
+                }
+            }
         }
     }
 
+    @Override
+    protected Collection<String> extractCreationKeys(IntactSource persistentObject) {
+        // same identifiers as the ones used in find
+        List<String> keys = new ArrayList<String>();
+        if (persistentObject.getMIIdentifier() != null){
+            keys.add("source|" + createReferenceDataKey(persistentObject.getMIIdentifier(), CvTerm.PSI_MI));
+        }
+        else if (persistentObject.getPARIdentifier() != null){
+            keys.add("source|" + createReferenceDataKey(persistentObject.getPARIdentifier(), CvTerm.PSI_PAR));
+        }
+        else {
+            for (Xref ref : persistentObject.getIdentifiers()){
+                if (ref.getDatabase() != null){
+                    keys.add("source|" + createReferenceDataKey(ref.getId(), ref.getDatabase().getShortName()));
+                }
+            }
+        }
+        // two new sources cannot have the same shortlabel
+        keys.add("source|name|" + persistentObject.getShortName().trim().toLowerCase());
+        return keys;
+    }
+
     @Override
     protected IntactSource fetchObjectFromCache(Source object) {
         return this.persistedObjects.get(object);
@@ -532,14 +623,14 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
 
         String oldLabel = intactSource.getShortName();
 
-        IntactUtils.synchronizeSourceShortName(intactSource, getEntityManager(), this.persistedNames);
+        IntactUtils.synchronizeSourceShortName(intactSource, getEntityManager(), this.labelAllocator);
 
         // only add name as persisted name if new object persisted or update in shortlabel
         if (intactSource.getAc() == null){
-            this.persistedNames.add(intactSource.getShortName());
+            this.labelAllocator.reserve(intactSource.getShortName());
         }
         else if (!oldLabel.equals(intactSource.getShortName())){
-            this.persistedNames.add(intactSource.getShortName());
+            this.labelAllocator.reserve(intactSource.getShortName());
         }
     }
 
@@ -558,6 +649,11 @@ public class SourceSynchronizer extends AbstractIntactDbSynchronizer<Source, Int
         super.setIntactMerger(intactMerger);
     }
 
+    @Override
+    protected void invalidateReferenceData(IntactSource intactObject) {
+        getContext().getReferenceDataCache().invalidate(intactObject.getAc());
+    }
+
     @Override
     protected void resetObjectIdentifier(IntactSource intactObject) {
         intactObject.setAc(null);
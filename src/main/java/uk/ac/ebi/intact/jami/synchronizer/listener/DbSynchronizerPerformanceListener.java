@@ -0,0 +1,38 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener;
+
+/**
+ * Listener which listens to synchronization events and to the latencies and cache accesses of the synchronizers.
+ *
+ * The methods are called by the synchronizer threads so the implementations must be thread safe and cheap.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface DbSynchronizerPerformanceListener extends DbSynchronizerListener {
+
+    /**
+     *
+     * @param synchronizerClass : the class of the synchronizer
+     * @param operation : the operation which starts. It is always followed by onOperationCompleted, even if the operation fails
+     */
+    public void onOperationStarted(Class<?> synchronizerClass, SynchronizerOperation operation);
+
+    /**
+     *
+     * @param synchronizerClass : the class of the synchronizer
+     * @param operation : the operation
+     * @param totalNanos : the time spent in the operation, including the nested operations
+     * @param selfNanos : the time spent in the operation, excluding the nested operations of this synchronizer or of other synchronizers
+     */
+    public void onOperationCompleted(Class<?> synchronizerClass, SynchronizerOperation operation, long totalNanos, long selfNanos);
+
+    /**
+     *
+     * @param synchronizerClass : the class of the synchronizer
+     * @param cache : the cache
+     * @param hit : true if the object was found in the cache
+     */
+    public void onCacheAccessed(Class<?> synchronizerClass, SynchronizerCache cache, boolean hit);
+}
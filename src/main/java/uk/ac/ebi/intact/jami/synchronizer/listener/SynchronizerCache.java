@@ -0,0 +1,20 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener;
+
+/**
+ * The caches of a synchronizer which are checked before querying the database
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public enum SynchronizerCache {
+    /**
+     * Cache of the objects already synchronized, based on a business key
+     */
+    PERSISTED_OBJECTS,
+    /**
+     * Cache of the object instances being synchronized, based on the identity of the instances
+     */
+    IDENTITY
+}
@@ -0,0 +1,28 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener;
+
+/**
+ * The operations of a synchronizer which are timed and reported to a DbSynchronizerPerformanceListener
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public enum SynchronizerOperation {
+    /**
+     * Query of an existing instance in the database
+     */
+    FIND,
+    /**
+     * Synchronization of an object with the database, including the nested operations
+     */
+    SYNCHRONIZE,
+    /**
+     * Persist of a new instance in the entity manager
+     */
+    PERSIST,
+    /**
+     * Merge of an object with an existing instance
+     */
+    MERGE
+}
@@ -0,0 +1,70 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener;
+
+/**
+ * Measures the time spent in nested synchronizer operations.
+ *
+ * The timers started by a thread are stacked: the time of an operation is added to the nested time of the operation which started it,
+ * so the self time of an operation excludes the time spent in the other synchronizers.
+ * A timer must be stopped in a finally block by the thread which started it.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SynchronizerOperationTimer {
+
+    private static final ThreadLocal<SynchronizerOperationTimer> CURRENT_TIMER = new ThreadLocal<SynchronizerOperationTimer>();
+
+    private final SynchronizerOperationTimer parent;
+    private final long start;
+    private long nestedNanos;
+    private long totalNanos;
+
+    private SynchronizerOperationTimer(SynchronizerOperationTimer parent){
+        this.parent = parent;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     *
+     * @return a new timer nested in the current timer of the thread
+     */
+    public static SynchronizerOperationTimer start(){
+        SynchronizerOperationTimer timer = new SynchronizerOperationTimer(CURRENT_TIMER.get());
+        CURRENT_TIMER.set(timer);
+        return timer;
+    }
+
+    /**
+     * Stops the timer and restores the timer which started it as the current timer of the thread
+     * @return the time spent since the timer was started, in nanoseconds
+     */
+    public long stop(){
+        this.totalNanos = System.nanoTime() - this.start;
+        if (this.parent != null){
+            this.parent.nestedNanos += this.totalNanos;
+            CURRENT_TIMER.set(this.parent);
+        }
+        else{
+            CURRENT_TIMER.remove();
+        }
+        return this.totalNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     *
+     * @return the time spent in the timers started while this timer was running
+     */
+    public long getNestedNanos() {
+        return nestedNanos;
+    }
+
+    public long getSelfNanos() {
+        return Math.max(0, this.totalNanos - this.nestedNanos);
+    }
+}
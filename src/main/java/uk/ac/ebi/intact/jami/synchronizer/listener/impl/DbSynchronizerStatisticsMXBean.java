@@ -0,0 +1,38 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+/**
+ * JMX view of the statistics of one synchronizer class, registered by DbSynchronizerStatisticsReporter
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface DbSynchronizerStatisticsMXBean {
+
+    public String getSynchronizerClass();
+
+    public OperationStatistics getFind();
+
+    public OperationStatistics getSynchronize();
+
+    public OperationStatistics getPersist();
+
+    public OperationStatistics getMerge();
+
+    /**
+     *
+     * @return the self time of all the operations, in nanoseconds
+     */
+    public long getSelfNanos();
+
+    public long getPersistedObjectsCacheHits();
+
+    public long getPersistedObjectsCacheMisses();
+
+    public long getIdentityCacheHits();
+
+    public long getIdentityCacheMisses();
+
+    public void reset();
+}
@@ -1,107 +1,250 @@
 package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import uk.ac.ebi.intact.jami.model.IntactPrimaryObject;
-import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
-
+import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerPerformanceListener;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerCache;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * This listener will report statistics about each event
+ * This listener will report statistics about each event, the latencies of the find, synchronize, persist and merge operations
+ * and the cache hits and misses of each synchronizer class.
+ *
+ * The counters are lock free so the reporter can be shared by several synchronizer contexts and threads.
+ * The statistics can be read with getSynchronizerStatistics or exposed as JMX MBeans with registerMBeans.
  *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>17/11/14</pre>
  */
 
-public class DbSynchronizerStatisticsReporter implements DbSynchronizerListener{
+public class DbSynchronizerStatisticsReporter implements DbSynchronizerPerformanceListener{
+
+    public static final String JMX_DOMAIN = "uk.ac.ebi.intact.jami";
+
+    private static final Log log = LogFactory.getLog(DbSynchronizerStatisticsReporter.class);
 
-    private Map<Class, Integer> persistedCounts;
-    private Map<Class, Integer> mergedCounts;
-    private Map<Class, Integer> deletedCounts;
-    private Map<Class, Integer> mergedTransientCounts;
-    private Map<Class, Integer> transientReplacedCounts;
+    private ConcurrentMap<Class, LongAdder> persistedCounts;
+    private ConcurrentMap<Class, LongAdder> mergedCounts;
+    private ConcurrentMap<Class, LongAdder> deletedCounts;
+    private ConcurrentMap<Class, LongAdder> mergedTransientCounts;
+    private ConcurrentMap<Class, LongAdder> transientReplacedCounts;
+
+    private ConcurrentMap<Class<?>, SynchronizerMetrics> synchronizerMetrics;
+    private volatile String jmxName;
 
     public DbSynchronizerStatisticsReporter(){
-        persistedCounts = new HashMap<Class, Integer>();
-        mergedCounts = new HashMap<Class, Integer>();
-        deletedCounts = new HashMap<Class, Integer>();
-        mergedTransientCounts = new HashMap<Class, Integer>();
-        transientReplacedCounts = new HashMap<Class, Integer>();
+        persistedCounts = new ConcurrentHashMap<Class, LongAdder>();
+        mergedCounts = new ConcurrentHashMap<Class, LongAdder>();
+        deletedCounts = new ConcurrentHashMap<Class, LongAdder>();
+        mergedTransientCounts = new ConcurrentHashMap<Class, LongAdder>();
+        transientReplacedCounts = new ConcurrentHashMap<Class, LongAdder>();
+        synchronizerMetrics = new ConcurrentHashMap<Class<?>, SynchronizerMetrics>();
     }
 
     @Override
     public void onPersisted(IntactPrimaryObject object) {
-       if (persistedCounts.containsKey(object.getClass())){
-           int number = persistedCounts.get(object.getClass())+1;
-           persistedCounts.put(object.getClass(), number);
-       }
-        else{
-           persistedCounts.put(object.getClass(), 1);
-       }
+        increment(persistedCounts, object.getClass());
     }
 
     @Override
     public void onMerged(IntactPrimaryObject object, IntactPrimaryObject existingObject) {
-        if (mergedCounts.containsKey(object.getClass())){
-            int number = mergedCounts.get(object.getClass())+1;
-            mergedCounts.put(object.getClass(), number);
-        }
-        else{
-            mergedCounts.put(object.getClass(), 1);
-        }
+        increment(mergedCounts, object.getClass());
     }
 
     @Override
     public void onTransientMergedWithDbInstance(IntactPrimaryObject object, IntactPrimaryObject existingObject) {
-        if (mergedTransientCounts.containsKey(object.getClass())){
-            int number = mergedTransientCounts.get(object.getClass())+1;
-            mergedTransientCounts.put(object.getClass(), number);
-        }
-        else{
-            mergedTransientCounts.put(object.getClass(), 1);
-        }
+        increment(mergedTransientCounts, object.getClass());
     }
 
     @Override
     public void onReplacedWithDbInstance(IntactPrimaryObject object, IntactPrimaryObject existingObject) {
-        if (transientReplacedCounts.containsKey(object.getClass())){
-            int number = transientReplacedCounts.get(object.getClass())+1;
-            transientReplacedCounts.put(object.getClass(), number);
-        }
-        else{
-            transientReplacedCounts.put(object.getClass(), 1);
-        }
+        increment(transientReplacedCounts, object.getClass());
     }
 
     @Override
     public void onDeleted(IntactPrimaryObject object) {
-        if (deletedCounts.containsKey(object.getClass())){
-            int number = deletedCounts.get(object.getClass())+1;
-            deletedCounts.put(object.getClass(), number);
-        }
-        else{
-            deletedCounts.put(object.getClass(), 1);
-        }
+        increment(deletedCounts, object.getClass());
+    }
+
+    @Override
+    public void onOperationStarted(Class<?> synchronizerClass, SynchronizerOperation operation) {
+        // only the completed operations are recorded
+    }
+
+    @Override
+    public void onOperationCompleted(Class<?> synchronizerClass, SynchronizerOperation operation, long totalNanos, long selfNanos) {
+        getOrCreateMetrics(synchronizerClass).recordOperation(operation, totalNanos, selfNanos);
+    }
+
+    @Override
+    public void onCacheAccessed(Class<?> synchronizerClass, SynchronizerCache cache, boolean hit) {
+        getOrCreateMetrics(synchronizerClass).recordCacheAccess(cache, hit);
     }
 
     public Map<Class, Integer> getPersistedCounts() {
-        return persistedCounts;
+        return snapshot(persistedCounts);
     }
 
     public Map<Class, Integer> getDeletedCounts() {
-        return deletedCounts;
+        return snapshot(deletedCounts);
     }
 
     public Map<Class, Integer> getMergedCounts() {
-        return mergedCounts;
+        return snapshot(mergedCounts);
     }
 
     public Map<Class, Integer> getMergedTransientCounts() {
-        return mergedTransientCounts;
+        return snapshot(mergedTransientCounts);
     }
 
     public Map<Class, Integer> getTransientReplacedCounts() {
-        return transientReplacedCounts;
+        return snapshot(transientReplacedCounts);
+    }
+
+    /**
+     *
+     * @return a snapshot of the statistics of each synchronizer class, sorted by decreasing self time so the synchronizers which dominate
+     * the synchronization come first
+     */
+    public Map<Class<?>, SynchronizerStatistics> getSynchronizerStatistics() {
+        List<SynchronizerStatistics> statistics = new ArrayList<SynchronizerStatistics>(synchronizerMetrics.size());
+        for (SynchronizerMetrics metrics : synchronizerMetrics.values()){
+            statistics.add(metrics.snapshot());
+        }
+        Collections.sort(statistics, new Comparator<SynchronizerStatistics>() {
+            @Override
+            public int compare(SynchronizerStatistics s1, SynchronizerStatistics s2) {
+                return Long.compare(s2.getSelfNanos(), s1.getSelfNanos());
+            }
+        });
+        Map<Class<?>, SynchronizerStatistics> snapshot = new LinkedHashMap<Class<?>, SynchronizerStatistics>(statistics.size());
+        for (SynchronizerStatistics synchronizerStatistics : statistics){
+            snapshot.put(synchronizerStatistics.getSynchronizerClass(), synchronizerStatistics);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Resets all the counts and latencies
+     */
+    public void reset() {
+        persistedCounts.clear();
+        mergedCounts.clear();
+        deletedCounts.clear();
+        mergedTransientCounts.clear();
+        transientReplacedCounts.clear();
+        for (SynchronizerMetrics metrics : synchronizerMetrics.values()){
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Registers one MBean per synchronizer class in the platform MBean server, with the object name
+     * uk.ac.ebi.intact.jami:type=DbSynchronizerStatistics,reporter=name,synchronizer=class.
+     * The synchronizers used after this call are registered when they report their first event.
+     * @param name : the name of this reporter, which must be unique in the MBean server
+     */
+    public synchronized void registerMBeans(String name) {
+        if (name == null){
+            throw new IllegalArgumentException("The name of the statistics reporter cannot be null");
+        }
+        if (jmxName != null){
+            unregisterMBeans();
+        }
+        jmxName = name;
+        for (SynchronizerMetrics metrics : synchronizerMetrics.values()){
+            registerMBean(metrics);
+        }
+    }
+
+    /**
+     * Unregisters the MBeans of this reporter from the platform MBean server
+     */
+    public synchronized void unregisterMBeans() {
+        if (jmxName == null){
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (SynchronizerMetrics metrics : synchronizerMetrics.values()){
+            try {
+                ObjectName objectName = createObjectName(metrics);
+                if (server.isRegistered(objectName)){
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                log.warn("Cannot unregister the statistics MBean of " + metrics.getSynchronizerClass(), e);
+            }
+        }
+        jmxName = null;
+    }
+
+    private SynchronizerMetrics getOrCreateMetrics(Class<?> synchronizerClass) {
+        SynchronizerMetrics metrics = synchronizerMetrics.get(synchronizerClass);
+        if (metrics == null){
+            SynchronizerMetrics newMetrics = new SynchronizerMetrics(synchronizerClass);
+            metrics = synchronizerMetrics.putIfAbsent(synchronizerClass, newMetrics);
+            if (metrics == null){
+                metrics = newMetrics;
+                if (jmxName != null){
+                    synchronized (this){
+                        if (jmxName != null){
+                            registerMBean(metrics);
+                        }
+                    }
+                }
+            }
+        }
+        return metrics;
+    }
+
+    private void registerMBean(SynchronizerMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, createObjectName(metrics));
+        } catch (JMException e) {
+            // the statistics are still available with getSynchronizerStatistics
+            log.warn("Cannot register the statistics MBean of " + metrics.getSynchronizerClass(), e);
+        }
+    }
+
+    private ObjectName createObjectName(SynchronizerMetrics metrics) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=DbSynchronizerStatistics,reporter=" + ObjectName.quote(jmxName)
+                + ",synchronizer=" + ObjectName.quote(metrics.getSynchronizerClass()));
+    }
+
+    private void increment(ConcurrentMap<Class, LongAdder> counts, Class objectClass) {
+        LongAdder count = counts.get(objectClass);
+        if (count == null){
+            LongAdder newCount = new LongAdder();
+            count = counts.putIfAbsent(objectClass, newCount);
+            if (count == null){
+                count = newCount;
+            }
+        }
+        count.increment();
+    }
+
+    private Map<Class, Integer> snapshot(ConcurrentMap<Class, LongAdder> counts) {
+        Map<Class, Integer> snapshot = new HashMap<Class, Integer>(counts.size());
+        for (Map.Entry<Class, LongAdder> entry : counts.entrySet()){
+            snapshot.put(entry.getKey(), entry.getValue().intValue());
+        }
+        return snapshot;
     }
 }
@@ -0,0 +1,349 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import uk.ac.ebi.intact.jami.model.IntactPrimaryObject;
+import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerListener;
+import uk.ac.ebi.intact.jami.synchronizer.listener.DbSynchronizerPerformanceListener;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerCache;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This listener records the tree of the synchronize, find, persist and merge operations started by each root synchronizer call,
+ * with the time spent in each operation and the SQL statements it issued.
+ *
+ * The tree of a root call is written when the root call is slower than the threshold or when it is sampled (sampleRate), so the slow synchronizations
+ * are always traced while the normal ones are only traced from time to time.
+ * The trees are written in the folded stack format of the flame graph tools (one line 'frame;frame;frame selfMicroseconds' per path of the tree).
+ * Each tree starts with a comment line '# trace ...' and the SQL statements are written as comment lines '# sql path "statement"',
+ * which are ignored by flamegraph.pl and speedscope.
+ *
+ * The SQL statements are only recorded when the SynchronizerStatementInspector is configured in the entity manager factory
+ * (hibernate.session_factory.statement_inspector). They are the SQL sent to the database, not the HQL of the queries.
+ * Only one tracer should be used at a time by a thread.
+ *
+ * Another listener (for instance a DbSynchronizerStatisticsReporter) can receive all the events with setDelegate.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class DbSynchronizerTracer implements DbSynchronizerPerformanceListener, Closeable {
+
+    public static final int DEFAULT_MAX_NODES = 10000;
+    public static final int DEFAULT_MAX_STATEMENTS = 1000;
+
+    private static final Log log = LogFactory.getLog(DbSynchronizerTracer.class);
+
+    private static final ThreadLocal<TraceNode> CURRENT_NODE = new ThreadLocal<TraceNode>();
+
+    private final Writer output;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private int maxNodes = DEFAULT_MAX_NODES;
+    private int maxStatements = DEFAULT_MAX_STATEMENTS;
+
+    private DbSynchronizerListener delegate;
+    private DbSynchronizerPerformanceListener performanceDelegate;
+
+    /**
+     *
+     * @param output : the writer of the folded stacks
+     * @param thresholdMillis : the root calls which take longer are always traced
+     * @param sampleRate : the fraction of the other root calls which are traced, between 0 and 1
+     */
+    public DbSynchronizerTracer(Writer output, long thresholdMillis, double sampleRate){
+        if (output == null){
+            throw new IllegalArgumentException("The output of the synchronizer tracer cannot be null");
+        }
+        if (sampleRate < 0 || sampleRate > 1){
+            throw new IllegalArgumentException("The sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.output = output;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     *
+     * @param file : the file of the folded stacks. The traces are appended to the file
+     * @param thresholdMillis : the root calls which take longer are always traced
+     * @param sampleRate : the fraction of the other root calls which are traced, between 0 and 1
+     * @throws IOException if the file cannot be opened
+     */
+    public DbSynchronizerTracer(File file, long thresholdMillis, double sampleRate) throws IOException {
+        this(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)), thresholdMillis, sampleRate);
+    }
+
+    /**
+     * Attaches a SQL statement to the operation running in the current thread. Does nothing if no operation is traced.
+     * @param sql : the SQL statement
+     */
+    public static void recordStatement(String sql) {
+        TraceNode node = CURRENT_NODE.get();
+        if (node != null && sql != null){
+            node.addStatement(sql);
+        }
+    }
+
+    @Override
+    public void onOperationStarted(Class<?> synchronizerClass, SynchronizerOperation operation) {
+        TraceNode parent = CURRENT_NODE.get();
+        if (parent == null){
+            CURRENT_NODE.set(new TraceNode(null, new TraceRoot(), synchronizerClass, operation));
+        }
+        // beyond the maximum number of nodes, the operations are counted in the self time of the last recorded operation
+        else if (parent.root.nodes >= maxNodes){
+            parent.untracedDepth++;
+            parent.root.truncated = true;
+        }
+        else{
+            TraceNode node = new TraceNode(parent, parent.root, synchronizerClass, operation);
+            parent.children.add(node);
+            CURRENT_NODE.set(node);
+        }
+
+        if (performanceDelegate != null){
+            performanceDelegate.onOperationStarted(synchronizerClass, operation);
+        }
+    }
+
+    @Override
+    public void onOperationCompleted(Class<?> synchronizerClass, SynchronizerOperation operation, long totalNanos, long selfNanos) {
+        TraceNode node = CURRENT_NODE.get();
+        if (node != null){
+            if (node.untracedDepth > 0){
+                node.untracedDepth--;
+                // the total time of the outermost untraced operation already includes the time of the untraced operations it called
+                if (node.untracedDepth == 0){
+                    node.selfNanos += totalNanos;
+                }
+            }
+            else{
+                node.totalNanos = totalNanos;
+                node.selfNanos += selfNanos;
+                if (node.parent != null){
+                    CURRENT_NODE.set(node.parent);
+                }
+                else{
+                    CURRENT_NODE.remove();
+                    completeRoot(node);
+                }
+            }
+        }
+
+        if (performanceDelegate != null){
+            performanceDelegate.onOperationCompleted(synchronizerClass, operation, totalNanos, selfNanos);
+        }
+    }
+
+    @Override
+    public void onCacheAccessed(Class<?> synchronizerClass, SynchronizerCache cache, boolean hit) {
+        if (performanceDelegate != null){
+            performanceDelegate.onCacheAccessed(synchronizerClass, cache, hit);
+        }
+    }
+
+    @Override
+    public void onPersisted(IntactPrimaryObject object) {
+        if (delegate != null){
+            delegate.onPersisted(object);
+        }
+    }
+
+    @Override
+    public void onMerged(IntactPrimaryObject object, IntactPrimaryObject existingObject) {
+        if (delegate != null){
+            delegate.onMerged(object, existingObject);
+        }
+    }
+
+    @Override
+    public void onTransientMergedWithDbInstance(IntactPrimaryObject object, IntactPrimaryObject existingObject) {
+        if (delegate != null){
+            delegate.onTransientMergedWithDbInstance(object, existingObject);
+        }
+    }
+
+    @Override
+    public void onReplacedWithDbInstance(IntactPrimaryObject object, IntactPrimaryObject existingObject) {
+        if (delegate != null){
+            delegate.onReplacedWithDbInstance(object, existingObject);
+        }
+    }
+
+    @Override
+    public void onDeleted(IntactPrimaryObject object) {
+        if (delegate != null){
+            delegate.onDeleted(object);
+        }
+    }
+
+    public DbSynchronizerListener getDelegate() {
+        return delegate;
+    }
+
+    /**
+     *
+     * @param delegate : the listener which receives all the events received by this tracer. Can be null
+     */
+    public void setDelegate(DbSynchronizerListener delegate) {
+        this.delegate = delegate;
+        this.performanceDelegate = delegate instanceof DbSynchronizerPerformanceListener ? (DbSynchronizerPerformanceListener) delegate : null;
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     *
+     * @param maxNodes : the maximum number of operations recorded in the tree of a root call. The time of the other operations is
+     * added to the self time of their recorded ancestor
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    /**
+     *
+     * @param maxStatements : the maximum number of SQL statements recorded in the tree of a root call
+     */
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    /**
+     * Flushes the traces written so far
+     */
+    public void flush() {
+        synchronized (output){
+            try {
+                output.flush();
+            } catch (IOException e) {
+                log.error("Cannot flush the synchronizer traces", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (output){
+            output.close();
+        }
+    }
+
+    private void completeRoot(TraceNode root) {
+        String reason;
+        if (root.totalNanos >= thresholdNanos){
+            reason = "slow";
+        }
+        else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate){
+            reason = "sampled";
+        }
+        else{
+            return;
+        }
+
+        Map<String, Long> foldedStacks = new LinkedHashMap<String, Long>();
+        List<String> statements = new ArrayList<String>();
+        fold(root, root.frame, foldedStacks, statements);
+
+        StringBuilder trace = new StringBuilder(256 * foldedStacks.size());
+        trace.append("# trace thread=").append(Thread.currentThread().getName().replace(' ', '_'))
+                .append(" root=").append(root.frame)
+                .append(" totalMicros=").append(TimeUnit.NANOSECONDS.toMicros(root.totalNanos))
+                .append(" operations=").append(root.root.nodes)
+                .append(" statements=").append(root.root.statements)
+                .append(root.root.truncated ? " truncated=true" : "")
+                .append(" reason=").append(reason).append('\n');
+        for (Map.Entry<String, Long> stack : foldedStacks.entrySet()){
+            trace.append(stack.getKey()).append(' ').append(stack.getValue()).append('\n');
+        }
+        for (String statement : statements){
+            trace.append(statement).append('\n');
+        }
+
+        synchronized (output){
+            try {
+                output.write(trace.toString());
+            } catch (IOException e) {
+                log.error("Cannot write the trace of " + root.frame, e);
+            }
+        }
+    }
+
+    private void fold(TraceNode node, String path, Map<String, Long> foldedStacks, List<String> statements) {
+        long selfMicros = TimeUnit.NANOSECONDS.toMicros(node.selfNanos);
+        if (selfMicros > 0){
+            Long existingMicros = foldedStacks.get(path);
+            foldedStacks.put(path, existingMicros != null ? existingMicros + selfMicros : selfMicros);
+        }
+        if (node.statements != null){
+            for (String sql : node.statements){
+                // the statement is quoted so the line never ends with a number and is not read as a stack by the flame graph tools
+                statements.add("# sql " + path + " \"" + sql.replaceAll("\\s+", " ").trim() + "\"");
+            }
+        }
+        for (TraceNode child : node.children){
+            fold(child, path + ";" + child.frame, foldedStacks, statements);
+        }
+    }
+
+    private class TraceRoot {
+        private int nodes;
+        private int statements;
+        private boolean truncated;
+    }
+
+    private class TraceNode {
+        private final TraceNode parent;
+        private final TraceRoot root;
+        private final String frame;
+        private final List<TraceNode> children = new ArrayList<TraceNode>();
+        private List<String> statements;
+        private long totalNanos;
+        private long selfNanos;
+        private int untracedDepth;
+
+        private TraceNode(TraceNode parent, TraceRoot root, Class<?> synchronizerClass, SynchronizerOperation operation) {
+            this.parent = parent;
+            this.root = root;
+            this.frame = synchronizerClass.getSimpleName() + "." + operation.name().toLowerCase();
+            this.root.nodes++;
+        }
+
+        private void addStatement(String sql) {
+            if (root.statements < maxStatements){
+                if (statements == null){
+                    statements = new ArrayList<String>();
+                }
+                statements.add(sql);
+            }
+            else{
+                root.truncated = true;
+            }
+            root.statements++;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies in nanoseconds.
+ *
+ * As in HdrHistogram, the values are recorded in buckets growing by powers of two, each one split in SUB_BUCKETS linear sub-buckets,
+ * so the percentiles are known with a relative error below 1/SUB_BUCKETS whatever the latency.
+ * The values greater than 2^MAX_EXPONENT nanoseconds (about 18 minutes) are recorded in the last bucket.
+ *
+ * The histogram can be recorded and read concurrently. A read is not an atomic snapshot of the recordings in progress.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int NUMBER_OF_BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+
+    public LatencyHistogram(){
+        this.counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+        this.totalCount = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    public void record(long nanos){
+        long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(bucketIndex(value));
+        this.totalCount.increment();
+        this.totalNanos.add(value);
+        this.maxNanos.accumulate(value);
+    }
+
+    public long getCount(){
+        return this.totalCount.sum();
+    }
+
+    public long getTotalNanos(){
+        return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos(){
+        return this.maxNanos.get();
+    }
+
+    public double getMeanNanos(){
+        long count = getCount();
+        return count == 0 ? 0 : (double)getTotalNanos() / count;
+    }
+
+    /**
+     *
+     * @param percentile : between 0 and 100
+     * @return the highest value of the bucket containing the percentile, 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile){
+        long[] snapshot = new long[NUMBER_OF_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++){
+            snapshot[i] = this.counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long cumulated = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++){
+            cumulated += snapshot[i];
+            if (cumulated >= rank){
+                return Math.min(highestValueOfBucket(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    public void reset(){
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++){
+            this.counts.set(i, 0);
+        }
+        this.totalCount.reset();
+        this.totalNanos.reset();
+        this.maxNanos.reset();
+    }
+
+    static int bucketIndex(long value){
+        if (value < SUB_BUCKETS){
+            return (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT){
+            return NUMBER_OF_BUCKETS - 1;
+        }
+        // the SUB_BUCKET_BITS bits after the highest one bit
+        int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOfBucket(int index){
+        if (index < SUB_BUCKETS){
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
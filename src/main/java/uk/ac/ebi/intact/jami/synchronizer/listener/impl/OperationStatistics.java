@@ -0,0 +1,92 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+/**
+ * Snapshot of the latencies of one operation of a synchronizer, in nanoseconds.
+ *
+ * The total time of an operation includes the time spent in its nested operations, the self time excludes it.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class OperationStatistics {
+
+    private final long count;
+    private final long totalNanos;
+    private final long selfNanos;
+    private final double meanNanos;
+    private final double meanSelfNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+    private final long selfP99Nanos;
+
+    public OperationStatistics(LatencyHistogram totalHistogram, LatencyHistogram selfHistogram){
+        this.count = totalHistogram.getCount();
+        this.totalNanos = totalHistogram.getTotalNanos();
+        this.selfNanos = selfHistogram.getTotalNanos();
+        this.meanNanos = totalHistogram.getMeanNanos();
+        this.meanSelfNanos = selfHistogram.getMeanNanos();
+        this.p50Nanos = totalHistogram.getValueAtPercentile(50);
+        this.p90Nanos = totalHistogram.getValueAtPercentile(90);
+        this.p99Nanos = totalHistogram.getValueAtPercentile(99);
+        this.maxNanos = totalHistogram.getMaxNanos();
+        this.selfP99Nanos = selfHistogram.getValueAtPercentile(99);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getSelfNanos() {
+        return selfNanos;
+    }
+
+    /**
+     *
+     * @return the time spent in the nested operations
+     */
+    public long getNestedNanos() {
+        return Math.max(0, totalNanos - selfNanos);
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public double getMeanSelfNanos() {
+        return meanSelfNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getSelfP99Nanos() {
+        return selfP99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", total=" + totalNanos + "ns, self=" + selfNanos + "ns, mean=" + Math.round(meanNanos)
+                + "ns, p50=" + p50Nanos + "ns, p90=" + p90Nanos + "ns, p99=" + p99Nanos + "ns, max=" + maxNanos + "ns";
+    }
+}
@@ -0,0 +1,137 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerCache;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free recorder of the latencies and cache accesses of one synchronizer class
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+class SynchronizerMetrics implements DbSynchronizerStatisticsMXBean {
+
+    private final Class<?> synchronizerClass;
+    private final Map<SynchronizerOperation, LatencyHistogram> totalHistograms;
+    private final Map<SynchronizerOperation, LatencyHistogram> selfHistograms;
+    private final Map<SynchronizerCache, LongAdder> cacheHits;
+    private final Map<SynchronizerCache, LongAdder> cacheMisses;
+
+    SynchronizerMetrics(Class<?> synchronizerClass){
+        this.synchronizerClass = synchronizerClass;
+        // the maps are filled before being shared so they can be read without locking
+        this.totalHistograms = new EnumMap<SynchronizerOperation, LatencyHistogram>(SynchronizerOperation.class);
+        this.selfHistograms = new EnumMap<SynchronizerOperation, LatencyHistogram>(SynchronizerOperation.class);
+        for (SynchronizerOperation operation : SynchronizerOperation.values()){
+            this.totalHistograms.put(operation, new LatencyHistogram());
+            this.selfHistograms.put(operation, new LatencyHistogram());
+        }
+        this.cacheHits = new EnumMap<SynchronizerCache, LongAdder>(SynchronizerCache.class);
+        this.cacheMisses = new EnumMap<SynchronizerCache, LongAdder>(SynchronizerCache.class);
+        for (SynchronizerCache cache : SynchronizerCache.values()){
+            this.cacheHits.put(cache, new LongAdder());
+            this.cacheMisses.put(cache, new LongAdder());
+        }
+    }
+
+    void recordOperation(SynchronizerOperation operation, long totalNanos, long selfNanos){
+        this.totalHistograms.get(operation).record(totalNanos);
+        this.selfHistograms.get(operation).record(selfNanos);
+    }
+
+    void recordCacheAccess(SynchronizerCache cache, boolean hit){
+        if (hit){
+            this.cacheHits.get(cache).increment();
+        }
+        else{
+            this.cacheMisses.get(cache).increment();
+        }
+    }
+
+    SynchronizerStatistics snapshot(){
+        Map<SynchronizerOperation, OperationStatistics> operations =
+                new EnumMap<SynchronizerOperation, OperationStatistics>(SynchronizerOperation.class);
+        for (SynchronizerOperation operation : SynchronizerOperation.values()){
+            operations.put(operation, getOperationStatistics(operation));
+        }
+        return new SynchronizerStatistics(this.synchronizerClass, operations,
+                getPersistedObjectsCacheHits(), getPersistedObjectsCacheMisses(),
+                getIdentityCacheHits(), getIdentityCacheMisses());
+    }
+
+    private OperationStatistics getOperationStatistics(SynchronizerOperation operation){
+        return new OperationStatistics(this.totalHistograms.get(operation), this.selfHistograms.get(operation));
+    }
+
+    @Override
+    public String getSynchronizerClass() {
+        return this.synchronizerClass.getName();
+    }
+
+    @Override
+    public OperationStatistics getFind() {
+        return getOperationStatistics(SynchronizerOperation.FIND);
+    }
+
+    @Override
+    public OperationStatistics getSynchronize() {
+        return getOperationStatistics(SynchronizerOperation.SYNCHRONIZE);
+    }
+
+    @Override
+    public OperationStatistics getPersist() {
+        return getOperationStatistics(SynchronizerOperation.PERSIST);
+    }
+
+    @Override
+    public OperationStatistics getMerge() {
+        return getOperationStatistics(SynchronizerOperation.MERGE);
+    }
+
+    @Override
+    public long getSelfNanos() {
+        long self = 0;
+        for (LatencyHistogram histogram : this.selfHistograms.values()){
+            self += histogram.getTotalNanos();
+        }
+        return self;
+    }
+
+    @Override
+    public long getPersistedObjectsCacheHits() {
+        return this.cacheHits.get(SynchronizerCache.PERSISTED_OBJECTS).sum();
+    }
+
+    @Override
+    public long getPersistedObjectsCacheMisses() {
+        return this.cacheMisses.get(SynchronizerCache.PERSISTED_OBJECTS).sum();
+    }
+
+    @Override
+    public long getIdentityCacheHits() {
+        return this.cacheHits.get(SynchronizerCache.IDENTITY).sum();
+    }
+
+    @Override
+    public long getIdentityCacheMisses() {
+        return this.cacheMisses.get(SynchronizerCache.IDENTITY).sum();
+    }
+
+    @Override
+    public void reset() {
+        for (SynchronizerOperation operation : SynchronizerOperation.values()){
+            this.totalHistograms.get(operation).reset();
+            this.selfHistograms.get(operation).reset();
+        }
+        for (SynchronizerCache cache : SynchronizerCache.values()){
+            this.cacheHits.get(cache).reset();
+            this.cacheMisses.get(cache).reset();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the latencies and cache accesses of one synchronizer class
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SynchronizerStatistics {
+
+    private final Class<?> synchronizerClass;
+    private final Map<SynchronizerOperation, OperationStatistics> operations;
+    private final long persistedObjectsCacheHits;
+    private final long persistedObjectsCacheMisses;
+    private final long identityCacheHits;
+    private final long identityCacheMisses;
+
+    public SynchronizerStatistics(Class<?> synchronizerClass, Map<SynchronizerOperation, OperationStatistics> operations,
+                                  long persistedObjectsCacheHits, long persistedObjectsCacheMisses,
+                                  long identityCacheHits, long identityCacheMisses){
+        this.synchronizerClass = synchronizerClass;
+        this.operations = Collections.unmodifiableMap(new EnumMap<SynchronizerOperation, OperationStatistics>(operations));
+        this.persistedObjectsCacheHits = persistedObjectsCacheHits;
+        this.persistedObjectsCacheMisses = persistedObjectsCacheMisses;
+        this.identityCacheHits = identityCacheHits;
+        this.identityCacheMisses = identityCacheMisses;
+    }
+
+    public Class<?> getSynchronizerClass() {
+        return synchronizerClass;
+    }
+
+    public Map<SynchronizerOperation, OperationStatistics> getOperations() {
+        return operations;
+    }
+
+    public OperationStatistics getOperationStatistics(SynchronizerOperation operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     *
+     * @return the self time of all the operations of the synchronizer, in nanoseconds
+     */
+    public long getSelfNanos() {
+        long self = 0;
+        for (OperationStatistics statistics : operations.values()){
+            self += statistics.getSelfNanos();
+        }
+        return self;
+    }
+
+    public long getPersistedObjectsCacheHits() {
+        return persistedObjectsCacheHits;
+    }
+
+    public long getPersistedObjectsCacheMisses() {
+        return persistedObjectsCacheMisses;
+    }
+
+    public double getPersistedObjectsCacheHitRatio() {
+        return hitRatio(persistedObjectsCacheHits, persistedObjectsCacheMisses);
+    }
+
+    public long getIdentityCacheHits() {
+        return identityCacheHits;
+    }
+
+    public long getIdentityCacheMisses() {
+        return identityCacheMisses;
+    }
+
+    public double getIdentityCacheHitRatio() {
+        return hitRatio(identityCacheHits, identityCacheMisses);
+    }
+
+    private double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double)hits / (hits + misses);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder( 256 );
+        sb.append( synchronizerClass.getSimpleName() ).append( "{selfNanos=" ).append( getSelfNanos() );
+        for (Map.Entry<SynchronizerOperation, OperationStatistics> entry : operations.entrySet()){
+            sb.append( ", " ).append( entry.getKey() ).append( "=[" ).append( entry.getValue() ).append( ']' );
+        }
+        sb.append( ", persistedObjectsCacheHitRatio=" ).append( getPersistedObjectsCacheHitRatio() );
+        sb.append( ", identityCacheHitRatio=" ).append( getIdentityCacheHitRatio() );
+        sb.append( '}' );
+        return sb.toString();
+    }
+}
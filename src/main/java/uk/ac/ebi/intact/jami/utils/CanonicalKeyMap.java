@@ -0,0 +1,142 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import uk.ac.ebi.intact.jami.utils.comparator.CanonicalKeyFactory;
+
+import java.util.*;
+
+/**
+ * Map of objects indexed by their canonical key.
+ *
+ * The canonical key of an object is computed once with the key factory and used to find the objects sharing this key in a hash map.
+ * The comparator decides which object of the bucket is equal to the requested object.
+ *
+ * The canonical key is only a fast path : the objects are also kept in a TreeMap ordered by the comparator and an object which is not
+ * found with its canonical key is looked up in this TreeMap. The comparators of the IntAct objects are not transitive
+ * (for instance, the cv terms are compared by short name when one of them does not have identifiers) so objects equal for the comparator
+ * can have different canonical keys. A miss of the canonical key costs the same as the TreeMap the synchronizers used before.
+ *
+ * This map does not accept null keys.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CanonicalKeyMap<K, V> extends AbstractMap<K, V> {
+
+    private final CanonicalKeyFactory<K> keyFactory;
+    private final Comparator<K> comparator;
+    private final Map<Object, List<KeyedEntry<K, V>>> buckets;
+    private final TreeMap<K, KeyedEntry<K, V>> sortedEntries;
+
+    public CanonicalKeyMap(CanonicalKeyFactory<K> keyFactory, Comparator<K> comparator) {
+        if (keyFactory == null){
+            throw new IllegalArgumentException("The canonical key factory cannot be null");
+        }
+        if (comparator == null){
+            throw new IllegalArgumentException("The comparator cannot be null");
+        }
+        this.keyFactory = keyFactory;
+        this.comparator = comparator;
+        this.buckets = new HashMap<Object, List<KeyedEntry<K, V>>>();
+        this.sortedEntries = new TreeMap<K, KeyedEntry<K, V>>(comparator);
+    }
+
+    @Override
+    public V get(Object key) {
+        Map.Entry<K, V> entry = getEntry(key);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getEntry(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null){
+            throw new NullPointerException("The canonical key map does not accept null keys");
+        }
+        KeyedEntry<K, V> entry = getEntry(key);
+        if (entry != null){
+            return entry.setValue(value);
+        }
+        entry = new KeyedEntry<K, V>(keyFactory.createKey(key), key, value);
+        this.sortedEntries.put(key, entry);
+        List<KeyedEntry<K, V>> bucket = this.buckets.get(entry.canonicalKey);
+        if (bucket == null){
+            // most buckets contain a single object
+            bucket = new ArrayList<KeyedEntry<K, V>>(1);
+            this.buckets.put(entry.canonicalKey, bucket);
+        }
+        bucket.add(entry);
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null){
+            return null;
+        }
+        KeyedEntry<K, V> entry = getEntry(key);
+        if (entry == null){
+            return null;
+        }
+        this.sortedEntries.remove(entry.getKey());
+        // the canonical key computed when the object was added, the object may have been updated since
+        List<KeyedEntry<K, V>> bucket = this.buckets.get(entry.canonicalKey);
+        if (bucket != null){
+            for (Iterator<KeyedEntry<K, V>> iterator = bucket.iterator(); iterator.hasNext();){
+                if (iterator.next() == entry){
+                    iterator.remove();
+                }
+            }
+            if (bucket.isEmpty()){
+                this.buckets.remove(entry.canonicalKey);
+            }
+        }
+        return entry.getValue();
+    }
+
+    @Override
+    public void clear() {
+        this.buckets.clear();
+        this.sortedEntries.clear();
+    }
+
+    @Override
+    public int size() {
+        return this.sortedEntries.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return Collections.unmodifiableSet(new LinkedHashSet<Entry<K, V>>(this.sortedEntries.values()));
+    }
+
+    private KeyedEntry<K, V> getEntry(Object key) {
+        if (key == null){
+            return null;
+        }
+        List<KeyedEntry<K, V>> bucket = this.buckets.get(keyFactory.createKey((K) key));
+        if (bucket != null){
+            for (KeyedEntry<K, V> entry : bucket){
+                if (comparator.compare(entry.getKey(), (K) key) == 0){
+                    return entry;
+                }
+            }
+        }
+        // the canonical key is not the one of an equal object
+        return this.sortedEntries.get(key);
+    }
+
+    private static class KeyedEntry<K, V> extends SimpleEntry<K, V> {
+        private final Object canonicalKey;
+
+        private KeyedEntry(Object canonicalKey, K key, V value) {
+            super(key, value);
+            this.canonicalKey = canonicalKey;
+        }
+    }
+}
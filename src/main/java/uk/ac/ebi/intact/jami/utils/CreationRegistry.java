@@ -0,0 +1,117 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thread safe registry of the objects being created by several synchronizer contexts writing in parallel.
+ *
+ * Before creating a new shared object (cv, source, organism, interactor) which does not exist in the database, a synchronizer context
+ * claims the identity keys of this object. A context claiming a key already claimed by another context waits until the other context
+ * has committed or rolled back its transaction and releases its claims (see releaseAll). It must then look for the object in the database
+ * again before claiming the key again, so an object is never created twice by two contexts.
+ *
+ * A context waiting for a context which waits for it would never be released : the claim fails instead.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CreationRegistry {
+
+    private final Map<String, Object> claimedKeys;
+    private final Map<Object, Set<String>> keysPerOwner;
+    // owner waiting for the release of the keys of another owner
+    private final Map<Object, Object> waitingOwners;
+
+    public CreationRegistry() {
+        this.claimedKeys = new HashMap<String, Object>();
+        this.keysPerOwner = new HashMap<Object, Set<String>>();
+        this.waitingOwners = new HashMap<Object, Object>();
+    }
+
+    /**
+     * Claims an identity key for an owner. If the key is claimed by another owner, waits until this owner releases its claims
+     * @param key : the identity key of the object to create
+     * @param owner : the owner of the claim
+     * @return true if the key is now claimed by this owner, false if the key was claimed by another owner which has released it since.
+     * In this case, the object may have been created by the other owner and must be looked up again before claiming the key again
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws IllegalStateException if the other owner is waiting for this owner
+     */
+    public synchronized boolean claim(String key, Object owner) throws InterruptedException {
+        Object currentOwner = this.claimedKeys.get(key);
+        if (currentOwner == null){
+            this.claimedKeys.put(key, owner);
+            Set<String> keys = this.keysPerOwner.get(owner);
+            if (keys == null){
+                keys = new HashSet<String>();
+                this.keysPerOwner.put(owner, keys);
+            }
+            keys.add(key);
+            return true;
+        }
+        else if (currentOwner.equals(owner)){
+            return true;
+        }
+
+        // waiting for an owner which is waiting for this owner would never end
+        Object blockingOwner = currentOwner;
+        while (blockingOwner != null){
+            if (blockingOwner.equals(owner)){
+                throw new IllegalStateException("The key " + key + " is claimed by another synchronizer context which is waiting for this context");
+            }
+            blockingOwner = this.waitingOwners.get(blockingOwner);
+        }
+
+        this.waitingOwners.put(owner, currentOwner);
+        try {
+            while (currentOwner.equals(this.claimedKeys.get(key))){
+                wait();
+            }
+        }
+        finally {
+            this.waitingOwners.remove(owner);
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @param key : the identity key
+     * @param owner : the owner checking the key
+     * @return true if the key is claimed by another owner
+     */
+    public synchronized boolean isClaimedByOther(String key, Object owner) {
+        Object currentOwner = this.claimedKeys.get(key);
+        return currentOwner != null && !currentOwner.equals(owner);
+    }
+
+    /**
+     * Releases all the keys claimed by an owner and wakes up the owners waiting for them. Must be called when the transaction
+     * which created the objects has been committed or rolled back
+     * @param owner : the owner of the claims
+     */
+    public synchronized void releaseAll(Object owner) {
+        Set<String> keys = this.keysPerOwner.remove(owner);
+        if (keys != null){
+            for (String key : keys){
+                this.claimedKeys.remove(key);
+            }
+            notifyAll();
+        }
+    }
+
+    public synchronized int size() {
+        return this.claimedKeys.size();
+    }
+
+    public synchronized void clear() {
+        this.claimedKeys.clear();
+        this.keysPerOwner.clear();
+        notifyAll();
+    }
+}
@@ -45,6 +45,18 @@ public class IntactDataSourceOptions extends MIDataSourceOptions{
      */
     public static final String HQL_COUNT_QUERY_OPTION = "hql_count_query_key";
 
+    /**
+     * The HQL query to use when querying the next results of the interaction/complex services in keyset mode.
+     * It must select the results having a key greater than the parameter of the keyset sort key and order them by this key.
+     * If provided, the HQL query given with HQL_QUERY_OPTION is used for the first results and must order them by the same key.
+     */
+    public static final String HQL_KEYSET_QUERY_OPTION = "hql_keyset_query_key";
+
+    /**
+     * The KeysetSortKey to use with the HQL keyset query. If not provided, the results are sorted by ac (AcKeysetSortKey)
+     */
+    public static final String KEYSET_SORT_KEY_OPTION = "keyset_sort_key";
+
     /**
      * The Map<String, Object> which contains the HQL query parameters to apply when querying the interaction/complex service.
      * It is optional and no query parameters will be used by default if this map is not provided
@@ -55,4 +67,22 @@ public class IntactDataSourceOptions extends MIDataSourceOptions{
      * A boolean value to know if the properties will be lazy loaded (false) or fully initialised (true)
      */
     public static final String DB_INITIALISE_LAZY = "db_initialise_lazy";
+
+    /**
+     * A boolean value to know if the results are streamed with a server side cursor (true) or loaded chunk by chunk (false, default).
+     * In streaming mode, the query is run once in a read only session and each result is detached as soon as the next one is read,
+     * so a result must be processed before moving to the next one. The HQL count and keyset queries are not used in streaming mode.
+     */
+    public static final String DB_STREAMING_MODE = "db_streaming_mode";
+
+    /**
+     * An Integer value giving the number of rows fetched at once from the server side cursor in streaming mode. Default is 200
+     */
+    public static final String DB_STREAMING_FETCH_SIZE = "db_streaming_fetch_size";
+
+    /**
+     * A boolean value to know if the next chunk of results is loaded on a background thread while the current chunk is processed (true)
+     * or only when the current chunk has been processed (false, default). It is not used in streaming mode.
+     */
+    public static final String DB_PREFETCH_NEXT_CHUNK = "db_prefetch_next_chunk";
 }
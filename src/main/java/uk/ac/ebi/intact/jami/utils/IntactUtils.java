@@ -1,16 +1,22 @@
 package uk.ac.ebi.intact.jami.utils;
 
 import org.hibernate.Hibernate;
+import uk.ac.ebi.intact.jami.model.AbstractIntactPrimaryObject;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.utils.AliasUtils;
 import psidev.psi.mi.jami.utils.ExperimentUtils;
 import psidev.psi.mi.jami.utils.ParticipantUtils;
-import psidev.psi.mi.jami.utils.comparator.IntegerComparator;
 import uk.ac.ebi.intact.jami.model.extension.*;
 import uk.ac.ebi.intact.jami.model.lifecycle.LifeCycleEvent;
 
 import javax.persistence.EntityManager;
-import javax.persistence.Query;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -39,6 +45,14 @@ public class IntactUtils {
      * an array of strings of maximum length.
      */
     public static final int MAX_SEQ_LENGTH_PER_CHUNK = 1000;
+    /**
+     * Maximum number of polymers for which the sequences are loaded with one query
+     */
+    public static final int MAX_SEQUENCE_PREFETCH_SIZE = 500;
+    /**
+     * Maximum number of acs checked in the database with one query
+     */
+    public static final int MAX_AC_CHECK_SIZE = 500;
 
     public final static Pattern YEAR_FORMAT_REGEX = Pattern.compile("[0-9]{4}");
     public final static DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
@@ -256,401 +270,190 @@ public class IntactUtils {
         return label1 + (organismName != null ? "_" + organismName : "");
     }
 
-    public static void synchronizeExperimentShortLabel(IntactExperiment intactExperiment, EntityManager manager, Set<String> persistedNames) {
+    public static void synchronizeExperimentShortLabel(IntactExperiment intactExperiment, EntityManager manager, ShortLabelAllocator labelAllocator) {
         if (intactExperiment.getShortLabel() == null) {
             return;
         }
-        // then synchronize with database
-        String name;
-        Set<String> existingExperiments = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-
-        do {
-            name = intactExperiment.getShortLabel().trim().toLowerCase();
-            // we increments experiment label if matches simple automatically generated label
-            if (EXPERIMENT_LABEL_PATTERN.matcher(name).matches()) {
-                name = name + "-1";
-            }
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select e.shortLabel from IntactExperiment e " + "where (e.shortLabel = :name) " + (intactExperiment.getAc() != null ? "and e.ac <> :expAc" : ""));
-            query.setParameter("name", name);
-            if (intactExperiment.getAc() != null) {
-                query.setParameter("expAc", intactExperiment.getAc());
-            }
-            existingExperiments = new HashSet<String>(query.getResultList());
-            // check cached names
-            if (persistedNames.contains(name)) {
-                existingExperiments.add(name);
-                cachedLabels.add(name);
-            }
-            // if the experiment shortlabel is the same as another experiment shortlabel
-            if (!existingExperiments.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before
-                if (EXPERIMENT_SYNCHRONIZED_LABEL_PATTERN.matcher(name).matches()) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-
-                // check if short name already exist, if yes, synchronize with existing labels
-                query = manager.createQuery("select e.shortLabel from IntactExperiment e " + "where (e.shortLabel = :name or e.shortLabel like :nameWithSuffix) " + (intactExperiment.getAc() != null ? "and e.ac <> :expAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                if (intactExperiment.getAc() != null) {
-                    query.setParameter("expAc", intactExperiment.getAc());
-                }
-                existingExperiments.addAll(query.getResultList());
-                // check cached names
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingExperiments.addAll(cachedLabels);
-
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingExperiments, IntactUtils.MAX_SHORT_LABEL_LEN, true);
-                if (!nameInSync.equals(name)) {
-                    intactExperiment.setShortLabel(nameInSync);
-                }
-            } else {
-                intactExperiment.setShortLabel(name);
+        String name = intactExperiment.getShortLabel().trim().toLowerCase();
+        // we increments experiment label if matches simple automatically generated label
+        if (EXPERIMENT_LABEL_PATTERN.matcher(name).matches()) {
+            name = name + "-1";
+        }
+        // check if short name already exist, if yes, synchronize with existing labels
+        while (labelAllocator.isTaken(manager, name, intactExperiment.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before
+            if (EXPERIMENT_SYNCHRONIZED_LABEL_PATTERN.matcher(name).matches()) {
+                name = excludeLastNumberInShortLabel(name);
             }
-        } while (!existingExperiments.isEmpty());
+            name = labelAllocator.nextFreeLabel(manager, name, IntactUtils.MAX_SHORT_LABEL_LEN, true, intactExperiment.getAc());
+        }
+        intactExperiment.setShortLabel(name);
     }
 
-    public static void synchronizeExperimentComplexShortLabel(IntactExperiment intactExperiment, EntityManager manager, Set<String> persistedNames) {
+    public static void synchronizeExperimentComplexShortLabel(IntactExperiment intactExperiment, EntityManager manager, ShortLabelAllocator labelAllocator) {
         if (intactExperiment.getShortLabel() == null) {
             return;
         }
-        // then synchronize with database
-        String name;
-        Set<String> existingExperiments = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-        do {
-            name = intactExperiment.getShortLabel().trim().toLowerCase();
-
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select e.shortLabel from IntactExperiment e " + "where (e.shortLabel = :name) " + (intactExperiment.getAc() != null ? "and e.ac <> :expAc" : ""));
-            query.setParameter("name", name);
-            if (intactExperiment.getAc() != null) {
-                query.setParameter("expAc", intactExperiment.getAc());
-            }
-            existingExperiments = new HashSet<String>(query.getResultList());
-            // check cached names
-            if (persistedNames.contains(name)) {
-                existingExperiments.add(name);
-                cachedLabels.add(name);
-            }
-            // if the experiment shortlabel is the same as another experiment shortlabel
-            if (!existingExperiments.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before
-                if (EXPERIMENT_SYNCHRONIZED_LABEL_PATTERN.matcher(name).matches() || name.matches(".*-\\d+$")) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-                // check if short name already exist, if yes, synchronize with existing label
-                query = manager.createQuery("select e.shortLabel from IntactExperiment e " + "where (e.shortLabel = :name or e.shortLabel like :nameWithSuffix) " + (intactExperiment.getAc() != null ? "and e.ac <> :expAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                if (intactExperiment.getAc() != null) {
-                    query.setParameter("expAc", intactExperiment.getAc());
-                }
-                existingExperiments.addAll(query.getResultList());
-                // check cached names
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingExperiments.addAll(cachedLabels);
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingExperiments, IntactUtils.MAX_SHORT_LABEL_LEN, false);
-                if (!nameInSync.equals(name)) {
-                    intactExperiment.setShortLabel(nameInSync);
-                }
-            } else {
-                intactExperiment.setShortLabel(name);
+        String name = intactExperiment.getShortLabel().trim().toLowerCase();
+        // check if short name already exist, if yes, synchronize with existing labels
+        while (labelAllocator.isTaken(manager, name, intactExperiment.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before
+            if (EXPERIMENT_SYNCHRONIZED_LABEL_PATTERN.matcher(name).matches() || name.matches(".*-\\d+$")) {
+                name = excludeLastNumberInShortLabel(name);
             }
-        } while (!existingExperiments.isEmpty());
+            name = labelAllocator.nextFreeLabel(manager, name, IntactUtils.MAX_SHORT_LABEL_LEN, false, intactExperiment.getAc());
+        }
+        intactExperiment.setShortLabel(name);
     }
 
-    public static void synchronizeInteractionEvidenceShortName(IntactInteractionEvidence intactInteraction, EntityManager manager, Set<String> persistedNames) {
+    public static void synchronizeInteractionEvidenceShortName(IntactInteractionEvidence intactInteraction, EntityManager manager, ShortLabelAllocator labelAllocator) {
         if (intactInteraction.getShortName() == null) {
             return;
         }
-        String name = null;
-        Set<String> existingInteractions = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-        do {
-            // then synchronize with database
-            name = intactInteraction.getShortName().trim().toLowerCase();
-            if (!name.matches(".*-\\d+$")) {
-                name = name + "-1";
-            }
-
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select i.shortName from IntactInteractionEvidence i " + "where (i.shortName = :name) " + (intactInteraction.getAc() != null ? "and i.ac <> :interAc" : ""));
-            query.setParameter("name", name);
-            if (intactInteraction.getAc() != null) {
-                query.setParameter("interAc", intactInteraction.getAc());
-            }
-            existingInteractions = new HashSet<String>(query.getResultList());
-            // check also with interactors
-            Query query2 = manager.createQuery("select i.shortName from IntactInteractor i " + "where (i.shortName = :name) " + (intactInteraction.getAc() != null ? "and i.ac <> :interAc" : ""));
-            query2.setParameter("name", name);
-            if (intactInteraction.getAc() != null) {
-                query2.setParameter("interAc", intactInteraction.getAc());
-            }
-            existingInteractions.addAll(query2.getResultList());
-            // check cached names
-            if (persistedNames.contains(name)) {
-                existingInteractions.add(name);
-                cachedLabels.add(name);
-            }
-
-            if (!existingInteractions.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before (last -)
-                if (name.matches(".*-\\d+$")) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-                // check if short name already exist, if yes, synchronize with existing label
-                query = manager.createQuery("select i.shortName from IntactInteractionEvidence i " + "where (i.shortName = :name or i.shortName like :nameWithSuffix) " + (intactInteraction.getAc() != null ? "and i.ac <> :interAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                if (intactInteraction.getAc() != null) {
-                    query.setParameter("interAc", intactInteraction.getAc());
-                }
-                existingInteractions.addAll(query.getResultList());
-                // check also with interactors
-                query2 = manager.createQuery("select i.shortName from IntactInteractor i " + "where (i.shortName = :name or i.shortName like :nameWithSuffix) " + (intactInteraction.getAc() != null ? "and i.ac <> :interAc" : ""));
-                query2.setParameter("name", name);
-                query2.setParameter("nameWithSuffix", name + "-%");
-                if (intactInteraction.getAc() != null) {
-                    query2.setParameter("interAc", intactInteraction.getAc());
-                }
-                existingInteractions.addAll(query2.getResultList());
-                // check cached names
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingInteractions.addAll(cachedLabels);
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingInteractions, IntactUtils.MAX_SHORT_LABEL_LEN, true);
-                if (!nameInSync.equals(name)) {
-                    intactInteraction.setShortName(nameInSync);
-                }
-            } else {
-                intactInteraction.setShortName(name);
-            }
-        } while (!existingInteractions.isEmpty());
+        String name = intactInteraction.getShortName().trim().toLowerCase();
+        if (!name.matches(".*-\\d+$")) {
+            name = name + "-1";
+        }
+        // check if short name already exist in interactions and interactors, if yes, synchronize with existing labels
+        while (labelAllocator.isTaken(manager, name, intactInteraction.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before (last -)
+            name = excludeLastNumberInShortLabel(name);
+            name = labelAllocator.nextFreeLabel(manager, name, IntactUtils.MAX_SHORT_LABEL_LEN, true, intactInteraction.getAc());
+        }
+        intactInteraction.setShortName(name);
     }
 
-    public static void synchronizeInteractorShortName(IntactInteractor intactInteractor, EntityManager manager, Set<String> persistedNames) {
+    public static void synchronizeInteractorShortName(IntactInteractor intactInteractor, EntityManager manager, ShortLabelAllocator labelAllocator) {
         if (intactInteractor.getShortName() == null) {
             return;
         }
-        String name;
-        Set<String> existingInteractors = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-        do {
-            name = intactInteractor.getShortName().trim().toLowerCase();
-
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select i.shortName from IntactInteractor i " + "where (i.shortName = :name) " + (intactInteractor.getAc() != null ? "and i.ac <> :interactorAc" : ""));
-            query.setParameter("name", name);
-            if (intactInteractor.getAc() != null) {
-                query.setParameter("interactorAc", intactInteractor.getAc());
-            }
-            existingInteractors = new HashSet<String>(query.getResultList());
-            // check cached names
-            if (persistedNames.contains(name)) {
-                existingInteractors.add(name);
-                cachedLabels.add(name);
-            }
-
-            if (!existingInteractors.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before (last -)
-                if (name.matches(".*-\\d+$")) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-                // check if short name already exist, if yes, synchronize with existing label
-                query = manager.createQuery("select i.shortName from IntactInteractor i " + "where (i.shortName = :name or i.shortName like :nameWithSuffix) " + (intactInteractor.getAc() != null ? "and i.ac <> :interactorAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                if (intactInteractor.getAc() != null) {
-                    query.setParameter("interactorAc", intactInteractor.getAc());
-                }
-                existingInteractors.addAll(query.getResultList());
-
-                // check cached names
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingInteractors.addAll(cachedLabels);
-
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingInteractors, IntactUtils.MAX_SHORT_LABEL_LEN, false);
-                if (!nameInSync.equals(name)) {
-                    intactInteractor.setShortName(nameInSync);
-                } else {
-                    break;
-                }
-            } else {
-                intactInteractor.setShortName(name);
+        String name = intactInteractor.getShortName().trim().toLowerCase();
+        // check if short name already exist, if yes, synchronize with existing labels
+        while (labelAllocator.isTaken(manager, name, intactInteractor.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before (last -)
+            String originalName = excludeLastNumberInShortLabel(name);
+            String nameInSync = labelAllocator.nextFreeLabel(manager, originalName, IntactUtils.MAX_SHORT_LABEL_LEN, false, intactInteractor.getAc());
+            // the original label is free, the interactor keeps its current label
+            if (nameInSync.equals(originalName) && !originalName.equals(name)) {
+                return;
             }
-        } while (!existingInteractors.isEmpty());
+            name = nameInSync;
+        }
+        intactInteractor.setShortName(name);
     }
 
-    public static void synchronizeCvTermShortName(IntactCvTerm intactCv, EntityManager manager, String objClass, Set<String> persistedNames) {
+    public static void synchronizeCvTermShortName(IntactCvTerm intactCv, EntityManager manager, ShortLabelAllocator labelAllocator) {
         if (intactCv.getShortName() == null) {
             return;
         }
-        String name = null;
-        String originalName = null;
-        Set<String> existingCvs = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-        do {
-            name = intactCv.getShortName().trim().toLowerCase();
-            originalName = name;
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select cv.shortName from IntactCvTerm cv " + "where (cv.shortName = :name)" + (objClass != null ? " and cv.objClass = :objclass " : " ") + (intactCv.getAc() != null ? "and cv.ac <> :cvAc" : ""));
-            query.setParameter("name", name);
-            if (objClass != null) {
-                query.setParameter("objclass", objClass);
-            }
-            if (intactCv.getAc() != null) {
-                query.setParameter("cvAc", intactCv.getAc());
-            }
-            existingCvs = new HashSet<String>(query.getResultList());
+        String name = intactCv.getShortName().trim().toLowerCase();
+        // check if short name already exist for this objclass, if yes, synchronize with existing labels
+        while (labelAllocator.isTaken(manager, name, intactCv.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before (last -)
+            name = excludeLastNumberInShortLabel(name);
+            name = labelAllocator.nextFreeLabel(manager, name, IntactUtils.MAX_SHORT_LABEL_LEN, false, intactCv.getAc());
+        }
+        intactCv.setShortName(name);
+    }
 
-            if (persistedNames.contains(name)) {
-                existingCvs.add(name);
-                cachedLabels.add(name);
-            }
+    public static void synchronizeSourceShortName(IntactSource intactSource, EntityManager manager, ShortLabelAllocator labelAllocator) {
+        if (intactSource.getShortName() == null) {
+            return;
+        }
+        String name = intactSource.getShortName().trim();
+        // check if short name already exist, if yes, synchronize with existing labels
+        while (labelAllocator.isTaken(manager, name, intactSource.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before (last -)
+            name = excludeLastNumberInShortLabel(name);
+            name = labelAllocator.nextFreeLabel(manager, name, IntactUtils.MAX_SHORT_LABEL_LEN, false, intactSource.getAc());
+        }
+        intactSource.setShortName(name);
+    }
 
-            if (!existingCvs.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before (last -)
-                if (name.matches(".*-\\d+$")) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-                query = manager.createQuery("select cv.shortName from IntactCvTerm cv " + "where (cv.shortName = :name or cv.shortName like :nameWithSuffix)" + (objClass != null ? " and cv.objClass = :objclass " : " ") + (intactCv.getAc() != null ? "and cv.ac <> :cvAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                if (objClass != null) {
-                    query.setParameter("objclass", objClass);
-                }
-                if (intactCv.getAc() != null) {
-                    query.setParameter("cvAc", intactCv.getAc());
-                }
-                existingCvs.addAll(query.getResultList());
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingCvs.addAll(cachedLabels);
+    public static void synchronizeOrganismShortName(IntactOrganism intactOrganism, EntityManager manager, ShortLabelAllocator labelAllocator) {
+        if (intactOrganism.getCommonName() == null) {
+            return;
+        }
+        String name = intactOrganism.getCommonName().trim();
+        // check if common name already exist, if yes, synchronize with existing labels.
+        // Labels with cell type/tissue (name-cell-tissue) are not numeric suffixes and are ignored by the allocator
+        while (labelAllocator.isTaken(manager, name, intactOrganism.getAc())) {
+            // we have a synchronized label, so we need first to extract original label before (last -)
+            name = excludeLastNumberInShortLabel(name);
+            name = labelAllocator.nextFreeLabel(manager, name, IntactUtils.MAX_SHORT_LABEL_LEN, false, intactOrganism.getAc());
+        }
+        intactOrganism.setCommonName(name);
+    }
 
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingCvs, IntactUtils.MAX_SHORT_LABEL_LEN, false);
-                if (!nameInSync.equals(name)) {
-                    intactCv.setShortName(nameInSync);
-                }
+    /**
+     * @deprecated use synchronizeExperimentShortLabel(IntactExperiment, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
+    public static void synchronizeExperimentShortLabel(IntactExperiment intactExperiment, EntityManager manager, Set<String> persistedNames) {
+        synchronizeExperimentShortLabel(intactExperiment, manager,
+                createLabelAllocator(persistedNames, "shortLabel", null, "IntactExperiment"));
+    }
 
-                // clear existing sources from original name and synchronized name
-                existingCvs.remove(name);
-            } else {
-                intactCv.setShortName(name);
-            }
+    /**
+     * @deprecated use synchronizeExperimentComplexShortLabel(IntactExperiment, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
+    public static void synchronizeExperimentComplexShortLabel(IntactExperiment intactExperiment, EntityManager manager, Set<String> persistedNames) {
+        synchronizeExperimentComplexShortLabel(intactExperiment, manager,
+                createLabelAllocator(persistedNames, "shortLabel", null, "IntactExperiment"));
+    }
 
-            // clear existing sources from original name and synchronized name
-            existingCvs.remove(originalName);
-        } while (!existingCvs.isEmpty());
+    /**
+     * @deprecated use synchronizeInteractionEvidenceShortName(IntactInteractionEvidence, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
+    public static void synchronizeInteractionEvidenceShortName(IntactInteractionEvidence intactInteraction, EntityManager manager, Set<String> persistedNames) {
+        synchronizeInteractionEvidenceShortName(intactInteraction, manager,
+                createLabelAllocator(persistedNames, "shortName", null, "IntactInteractionEvidence", "IntactInteractor"));
     }
 
-    public static void synchronizeSourceShortName(IntactSource intactSource, EntityManager manager, Set<String> persistedNames) {
-        if (intactSource.getShortName() == null) {
-            return;
-        }
-        String name = null;
-        Set<String> existingSource = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-        do {
+    /**
+     * @deprecated use synchronizeInteractorShortName(IntactInteractor, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
+    public static void synchronizeInteractorShortName(IntactInteractor intactInteractor, EntityManager manager, Set<String> persistedNames) {
+        synchronizeInteractorShortName(intactInteractor, manager,
+                createLabelAllocator(persistedNames, "shortName", null, "IntactInteractor"));
+    }
 
-            name = intactSource.getShortName().trim();
+    /**
+     * @deprecated use synchronizeCvTermShortName(IntactCvTerm, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
+    public static void synchronizeCvTermShortName(IntactCvTerm intactCv, EntityManager manager, String objClass, Set<String> persistedNames) {
+        synchronizeCvTermShortName(intactCv, manager,
+                createLabelAllocator(persistedNames, "shortName", objClass, "IntactCvTerm"));
+    }
 
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select s.shortName from IntactSource s " + "where (s.shortName = :name) " + (intactSource.getAc() != null ? "and s.ac <> :sourceAc" : ""));
-            query.setParameter("name", name);
-            if (intactSource.getAc() != null) {
-                query.setParameter("sourceAc", intactSource.getAc());
-            }
-            existingSource = new HashSet<String>(query.getResultList());
-            if (persistedNames.contains(name)) {
-                existingSource.add(name);
-                cachedLabels.add(name);
-            }
-            if (!existingSource.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before (last -)
-                if (name.matches(".*-\\d+$")) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-                // check if short name already exist, if yes, synchronize with existing label
-                query = manager.createQuery("select s.shortName from IntactSource s " + "where (s.shortName = :name or s.shortName like :nameWithSuffix) " + (intactSource.getAc() != null ? "and s.ac <> :sourceAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                if (intactSource.getAc() != null) {
-                    query.setParameter("sourceAc", intactSource.getAc());
-                }
-                existingSource.addAll(query.getResultList());
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingSource.addAll(cachedLabels);
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingSource, IntactUtils.MAX_SHORT_LABEL_LEN, false);
-                if (!nameInSync.equals(name)) {
-                    intactSource.setShortName(nameInSync);
-                }
-            } else {
-                intactSource.setShortName(name);
-            }
-        } while (!existingSource.isEmpty());
+    /**
+     * @deprecated use synchronizeSourceShortName(IntactSource, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
+    public static void synchronizeSourceShortName(IntactSource intactSource, EntityManager manager, Set<String> persistedNames) {
+        synchronizeSourceShortName(intactSource, manager,
+                createLabelAllocator(persistedNames, "shortName", null, "IntactSource"));
     }
 
+    /**
+     * @deprecated use synchronizeOrganismShortName(IntactOrganism, EntityManager, ShortLabelAllocator)
+     */
+    @Deprecated
     public static void synchronizeOrganismShortName(IntactOrganism intactOrganism, EntityManager manager, Set<String> persistedNames) {
-        if (intactOrganism.getCommonName() == null) {
-            return;
-        }
-        String name = null;
-        Set<String> existingSource = Collections.EMPTY_SET;
-        Set<String> cachedLabels = new HashSet<String>();
-        do {
-
-            name = intactOrganism.getCommonName().trim();
+        synchronizeOrganismShortName(intactOrganism, manager,
+                createLabelAllocator(persistedNames, "commonName", null, "IntactOrganism"));
+    }
 
-            // check if short name already exist, if yes, synchronize with existing label
-            Query query = manager.createQuery("select o.commonName from IntactOrganism o " + "where (o.commonName = :name) " + (intactOrganism.getAc() != null ? "and o.ac <> :organismAc" : ""));
-            query.setParameter("name", name);
-            if (intactOrganism.getAc() != null) {
-                query.setParameter("organismAc", intactOrganism.getAc());
-            }
-            existingSource = new HashSet<String>(query.getResultList());
-            if (persistedNames.contains(name)) {
-                existingSource.add(name);
-                cachedLabels.add(name);
-            }
-            if (!existingSource.isEmpty()) {
-                // we have a synchronized label, so we need first to extract original label before (last -)
-                if (name.matches(".*-\\d+$")) {
-                    name = excludeLastNumberInShortLabel(name);
-                }
-                // check if short name already exist, if yes, synchronize with existing label
-                query = manager.createQuery("select o.commonName from IntactOrganism o " + "where (o.commonName = :name or (o.commonName like :nameWithSuffix and o.commonName not like :nameWithCellTissue) ) " + (intactOrganism.getAc() != null ? "and o.ac <> :organismAc" : ""));
-                query.setParameter("name", name);
-                query.setParameter("nameWithSuffix", name + "-%");
-                query.setParameter("nameWithCellTissue", name + "-%-%");
-                if (intactOrganism.getAc() != null) {
-                    query.setParameter("organismAc", intactOrganism.getAc());
-                }
-                existingSource.addAll(query.getResultList());
-                if (persistedNames.contains(name)) {
-                    cachedLabels.add(name);
-                }
-                existingSource.addAll(cachedLabels);
-                String nameInSync = IntactUtils.synchronizeShortlabel(name, existingSource, IntactUtils.MAX_SHORT_LABEL_LEN, false);
-                if (!nameInSync.equals(name)) {
-                    intactOrganism.setCommonName(nameInSync);
-                }
-            } else {
-                intactOrganism.setCommonName(name);
-            }
-        } while (!existingSource.isEmpty());
+    private static ShortLabelAllocator createLabelAllocator(Set<String> persistedNames, String labelProperty, String objClass, String... entityNames) {
+        ShortLabelAllocator allocator = new ShortLabelAllocator(labelProperty, objClass, entityNames);
+        for (String name : persistedNames) {
+            allocator.reserve(name);
+        }
+        return allocator;
     }
 
     public static String generateAutomaticExperimentShortlabelFor(IntactExperiment intactExperiment, int maxLength) {
@@ -699,48 +502,7 @@ public class IntactUtils {
     }
 
     public static String synchronizeShortlabel(String currentLabel, Collection<String> exitingLabels, int maxLength, boolean alwaysAppendSuffix) {
-        String nameInSync = currentLabel;
-        String indexAsString = "";
-        if (!exitingLabels.isEmpty()) {
-            IntegerComparator comparator = new IntegerComparator();
-            SortedSet<Integer> existingIndexes = new TreeSet<Integer>(comparator);
-            Iterator<String> iterator = exitingLabels.iterator();
-            while (iterator.hasNext()) {
-                String exitingLabel = iterator.next();
-                Integer suffix = extractLastNumberInShortLabel(exitingLabel, currentLabel);
-                if (suffix != null) {
-                    existingIndexes.add(suffix);
-                }
-                // invalid shortlabel
-                else {
-                    iterator.remove();
-                }
-            }
-
-            int freeIndex = alwaysAppendSuffix ? 1 : 0;
-            for (Integer existingLabel : existingIndexes) {
-                // index already exist, increment free index
-                if (freeIndex == existingLabel) {
-                    freeIndex++;
-                }
-                // even if the label without any suffix is available, we force to use a suffix here
-                else if (existingLabel == 0 && alwaysAppendSuffix) {
-                    // we skip
-                }
-                // index does not exist, break the loop
-                else {
-                    break;
-                }
-            }
-            indexAsString = freeIndex > 0 ? "-" + freeIndex : "";
-            nameInSync = currentLabel + indexAsString;
-        }
-        // retruncate if necessary
-        if (maxLength < nameInSync.length()) {
-            nameInSync = nameInSync.substring(0, Math.max(1, maxLength - (indexAsString.length()))) + indexAsString;
-        }
-
-        return nameInSync;
+        return ShortLabelAllocator.nextFreeLabel(currentLabel, exitingLabels, maxLength, alwaysAppendSuffix);
     }
 
     public static Integer extractLastNumberInShortLabel(String currentLabel, String prefixToIgnore) {
@@ -1408,6 +1170,7 @@ public class IntactUtils {
         // special cases
         if (interactor instanceof IntactPolymer) {
             IntactPolymer polymer = (IntactPolymer) interactor;
+            // loads the lazy compressed sequence so the sequence can be read after the polymer is detached
             polymer.getSequence();
         } else if (interactor instanceof IntactInteractorPool) {
             IntactInteractorPool pool = (IntactInteractorPool) interactor;
@@ -1516,4 +1279,190 @@ public class IntactUtils {
     public static void initialiseComplex(IntactComplex complex) {
         initialiseInteractor(complex);
     }
+
+    /**
+     * Loads the lazy collections of a chunk of interaction evidences level by level (interactions, participants, interactors, features, ranges)
+     * before the interaction evidences are initialised one by one with initialiseInteractionEvidence.
+     * Each collection of a level is initialised for all the objects of the chunk before going to the next level so hibernate batch fetching
+     * (hibernate.default_batch_fetch_size) loads the same collection of several objects with one IN query.
+     * The number of queries per chunk then depends on the depth of the object graph and not on the number of objects.
+     *
+     * @param interactions : the chunk of interaction evidences loaded in the same session
+     */
+    public static void prefetchInteractionEvidenceCollections(Collection<? extends InteractionEvidence> interactions) {
+        List<IntactParticipantEvidence> participants = new ArrayList<IntactParticipantEvidence>();
+        for (InteractionEvidence interaction : interactions) {
+            IntactInteractionEvidence intactInteraction = (IntactInteractionEvidence) interaction;
+            Hibernate.initialize(intactInteraction.getDbXrefs());
+            Hibernate.initialize(intactInteraction.getDbAnnotations());
+            Hibernate.initialize(intactInteraction.getConfidences());
+            Hibernate.initialize(intactInteraction.getParameters());
+            Hibernate.initialize(intactInteraction.getVariableParameterValues());
+            for (ParticipantEvidence participant : intactInteraction.getParticipants()) {
+                participants.add((IntactParticipantEvidence) participant);
+            }
+        }
+
+        Set<IntactInteractor> interactors = Collections.newSetFromMap(new IdentityHashMap<IntactInteractor, Boolean>());
+        List<IntactFeatureEvidence> features = new ArrayList<IntactFeatureEvidence>();
+        for (IntactParticipantEvidence participant : participants) {
+            Hibernate.initialize(participant.getXrefs());
+            Hibernate.initialize(participant.getAnnotations());
+            Hibernate.initialize(participant.getAliases());
+            Hibernate.initialize(participant.getCausalRelationships());
+            Hibernate.initialize(participant.getExperimentalPreparations());
+            Hibernate.initialize(participant.getIdentificationMethods());
+            Hibernate.initialize(participant.getConfidences());
+            Hibernate.initialize(participant.getParameters());
+            if (participant.getInteractor() instanceof IntactInteractor) {
+                interactors.add((IntactInteractor) participant.getInteractor());
+            }
+            for (FeatureEvidence feature : participant.getFeatures()) {
+                features.add((IntactFeatureEvidence) feature);
+            }
+        }
+
+        for (IntactInteractor interactor : interactors) {
+            Hibernate.initialize(interactor.getDbXrefs());
+            Hibernate.initialize(interactor.getDbAnnotations());
+            Hibernate.initialize(interactor.getDbAliases());
+        }
+
+        for (IntactFeatureEvidence feature : features) {
+            Hibernate.initialize(feature.getDbXrefs());
+            Hibernate.initialize(feature.getAnnotations());
+            Hibernate.initialize(feature.getAliases());
+            Hibernate.initialize(feature.getDetectionMethods());
+            Hibernate.initialize(feature.getParameters());
+            Hibernate.initialize(feature.getRanges());
+        }
+    }
+
+    /**
+     * Loads the sequences of a chunk of polymers with one query per batch of MAX_SEQUENCE_PREFETCH_SIZE polymers
+     * instead of one query per polymer.
+     * The sequence chunks are loaded with the polymers so only the sequences stored as a compressed polymer sequence are lazily loaded.
+     *
+     * @param manager : the entity manager where the polymers have been loaded
+     * @param interactors : the chunk of interactors. Only the polymers with a sequence not loaded yet are prefetched
+     */
+    public static void prefetchSequences(EntityManager manager, Collection<? extends Interactor> interactors) {
+        List<String> polymerAcs = new ArrayList<String>(interactors.size());
+        for (Interactor interactor : interactors) {
+            if (interactor instanceof IntactPolymer) {
+                IntactPolymer polymer = (IntactPolymer) interactor;
+                if (polymer.getAc() != null && !polymer.isSequenceInitialized()) {
+                    polymerAcs.add(polymer.getAc());
+                }
+            }
+        }
+        for (int i = 0; i < polymerAcs.size(); i += MAX_SEQUENCE_PREFETCH_SIZE) {
+            // the fetch join initialises the sequences of the polymers already loaded in the entity manager
+            manager.createQuery("select p from IntactPolymer p " +
+                    "left join fetch p.dbPolymerSequence " +
+                    "where p.ac in (:acs)")
+                    .setParameter("acs", polymerAcs.subList(i, Math.min(i + MAX_SEQUENCE_PREFETCH_SIZE, polymerAcs.size())))
+                    .getResultList();
+        }
+    }
+
+    /**
+     * Resets the acs which do not exist in the database in a graph of IntAct entities.
+     * When a transaction is rolled back, the entities persisted in this transaction keep the acs it generated and the synchronizers
+     * would consider them as deleted entities. The acs must be reset before synchronizing these entities again in another transaction.
+     * The lazy collections and proxies which are not initialised are not visited because they only contain entities loaded from the database.
+     *
+     * @param manager : the entity manager used to check the acs in the database
+     * @param objects : the roots of the graph, for instance the interactions synchronized in the rolled back transaction
+     */
+    public static void resetRolledBackAcs(EntityManager manager, Collection<?> objects) {
+        Metamodel metamodel = manager.getMetamodel();
+        Map<Class<?>, List<AbstractIntactPrimaryObject>> entitiesWithAc = new HashMap<Class<?>, List<AbstractIntactPrimaryObject>>();
+        // the entities are compared by identity because their hashcode may use lazy properties
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Deque<Object> toVisit = new ArrayDeque<Object>(objects);
+        while (!toVisit.isEmpty()) {
+            Object object = toVisit.pop();
+            if (!Hibernate.isInitialized(object) || !visited.add(object)) {
+                continue;
+            }
+            ManagedType<?> type;
+            try {
+                type = metamodel.managedType(Hibernate.getClass(object));
+            } catch (IllegalArgumentException e) {
+                // not an IntAct entity
+                continue;
+            }
+            if (object instanceof AbstractIntactPrimaryObject && ((AbstractIntactPrimaryObject) object).getAc() != null) {
+                Class<?> entityClass = Hibernate.getClass(object);
+                List<AbstractIntactPrimaryObject> entities = entitiesWithAc.get(entityClass);
+                if (entities == null) {
+                    entities = new ArrayList<AbstractIntactPrimaryObject>();
+                    entitiesWithAc.put(entityClass, entities);
+                }
+                entities.add((AbstractIntactPrimaryObject) object);
+            }
+            for (Attribute<?, ?> attribute : type.getAttributes()) {
+                if (attribute.isAssociation() || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                    Object value = readAttribute(object, attribute);
+                    if (value instanceof Map) {
+                        value = ((Map<?, ?>) value).values();
+                    }
+                    if (value instanceof Collection) {
+                        if (Hibernate.isInitialized(value)) {
+                            for (Object element : (Collection<?>) value) {
+                                if (element != null) {
+                                    toVisit.push(element);
+                                }
+                            }
+                        }
+                    } else if (value != null) {
+                        toVisit.push(value);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Class<?>, List<AbstractIntactPrimaryObject>> entry : entitiesWithAc.entrySet()) {
+            String entityName = metamodel.entity(entry.getKey()).getName();
+            List<AbstractIntactPrimaryObject> entities = entry.getValue();
+            for (int i = 0; i < entities.size(); i += MAX_AC_CHECK_SIZE) {
+                List<AbstractIntactPrimaryObject> chunk = entities.subList(i, Math.min(i + MAX_AC_CHECK_SIZE, entities.size()));
+                List<String> acs = new ArrayList<String>(chunk.size());
+                for (AbstractIntactPrimaryObject entity : chunk) {
+                    acs.add(entity.getAc());
+                }
+                Set<String> existingAcs = new HashSet<String>(manager.createQuery("select e.ac from " + entityName + " e " +
+                        "where e.ac in (:acs)", String.class)
+                        .setParameter("acs", acs)
+                        .getResultList());
+                for (AbstractIntactPrimaryObject entity : chunk) {
+                    if (!existingAcs.contains(entity.getAc())) {
+                        entity.setAc(null);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object readAttribute(Object object, Attribute<?, ?> attribute) {
+        Member member = attribute.getJavaMember();
+        try {
+            if (member instanceof Method) {
+                Method getter = (Method) member;
+                getter.setAccessible(true);
+                return getter.invoke(object);
+            } else if (member instanceof Field) {
+                Field field = (Field) member;
+                field.setAccessible(true);
+                return field.get(object);
+            }
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read the property " + attribute.getName() + " of " + object.getClass(), e);
+        } catch (InvocationTargetException e) {
+            // a lazy property of a detached entity which cannot be loaded only contains entities loaded from the database
+            return null;
+        }
+    }
 }
@@ -33,4 +33,38 @@ public class IntactWriterOptions extends InteractionWriterOptions{
      * The bean name of the interaction service to use. If not provided, will use the default interactionEvidenceService or complexService
      */
     public static final String INTERACTION_SERVICE_NAME_OPTION = "interaction_service_name_key";
+
+    /**
+     * The number of interactions (Integer) persisted together in one transaction. The interactions are buffered by the writer
+     * and persisted when the chunk is full or when the writer is flushed or closed.
+     * If not provided or lower than 2, each interaction is persisted in its own transaction.
+     */
+    public static final String CHUNK_SIZE_OPTION = "intact_chunk_size_key";
+
+    /**
+     * Boolean value to know if the interactions which cannot be persisted should be skipped (true) or if the writer should fail (false).
+     * When a chunk cannot be persisted, its interactions are persisted again one by one so only the invalid interactions are skipped.
+     * If not provided, the writer fails on the first interaction which cannot be persisted.
+     */
+    public static final String SKIP_FAILED_INTERACTIONS_OPTION = "intact_skip_failed_interactions_key";
+
+    /**
+     * The number of workers (Integer) of the IntAct parallel writers. Each worker persists the interactions of a partition of the publications
+     * in its own transactions, so this number should not exceed the size of the database connection pool.
+     * If not provided, the parallel writers use 4 workers.
+     */
+    public static final String NUMBER_OF_WORKERS_OPTION = "intact_number_of_workers_key";
+
+    /**
+     * The PersistenceProfile used by the synchronizers of the writer. With PersistenceProfile.WRITE_OPTIMISED, the inserts and updates
+     * are sent in JDBC batches.
+     * If not provided, the writer uses the persistence profile of the IntactConfiguration.
+     */
+    public static final String PERSISTENCE_PROFILE_OPTION = "intact_persistence_profile_key";
+
+    /**
+     * The number of statements (Integer) sent in one JDBC batch with the write optimised persistence profile.
+     * If not provided, the writer uses the JDBC batch size of the IntactConfiguration.
+     */
+    public static final String JDBC_BATCH_SIZE_OPTION = "intact_jdbc_batch_size_key";
 }
@@ -0,0 +1,89 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Utility class computing the checksums of polymer sequences.
+ *
+ * The sequences are upper cased before computing the checksums because the polymer sequences are compared ignoring the case.
+ * - the CRC64 is computed with the same algorithm as UniProt and can be compared with the crc64 of UniProt entries.
+ * - the sequence digest is the MD5 of the sequence. It is used to look up polymers by sequence as the CRC64 can have collisions.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SequenceChecksumUtils {
+
+    /**
+     * Length of a sequence digest (hexadecimal MD5)
+     */
+    public static final int SEQUENCE_DIGEST_LEN = 32;
+    /**
+     * Length of a crc64 (hexadecimal)
+     */
+    public static final int CRC64_LEN = 16;
+
+    private static final long POLY64REV = 0xd800000000000000L;
+    private static final long[] CRC64_TABLE = new long[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            long part = i;
+            for (int j = 0; j < 8; j++) {
+                if ((part & 1) != 0) {
+                    part = (part >>> 1) ^ POLY64REV;
+                } else {
+                    part >>>= 1;
+                }
+            }
+            CRC64_TABLE[i] = part;
+        }
+    }
+
+    /**
+     *
+     * @param sequence : the sequence
+     * @return the CRC64 of the upper cased sequence as an hexadecimal upper case string of 16 characters. Null if the sequence is null
+     */
+    public static String computeCrc64(String sequence) {
+        if (sequence == null) {
+            return null;
+        }
+        String normalizedSequence = sequence.toUpperCase(Locale.ROOT);
+        long crc = 0;
+        for (int i = 0; i < normalizedSequence.length(); i++) {
+            crc = CRC64_TABLE[(int) ((crc ^ normalizedSequence.charAt(i)) & 0xff)] ^ (crc >>> 8);
+        }
+        StringBuilder hexa = new StringBuilder(Long.toHexString(crc).toUpperCase(Locale.ROOT));
+        while (hexa.length() < CRC64_LEN) {
+            hexa.insert(0, '0');
+        }
+        return hexa.toString();
+    }
+
+    /**
+     *
+     * @param sequence : the sequence
+     * @return the MD5 of the upper cased sequence as an hexadecimal lower case string of 32 characters. Null if the sequence is null
+     */
+    public static String computeSequenceDigest(String sequence) {
+        if (sequence == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(sequence.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexa = new StringBuilder(SEQUENCE_DIGEST_LEN);
+            for (byte b : digest) {
+                hexa.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hexa.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The MD5 algorithm is not available", e);
+        }
+    }
+}
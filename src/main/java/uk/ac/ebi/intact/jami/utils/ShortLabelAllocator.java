@@ -0,0 +1,434 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.*;
+
+/**
+ * Allocates unique short labels for a family of IntAct entities (interactions, cvs, organisms, ...).
+ *
+ * For each base label, the labels already taken in the database ('base' and 'base-n') are loaded with a single query the first
+ * time the base label is needed. The labels reserved during the session are kept in memory so the next free suffix
+ * of a base label can be found without querying the database again.
+ *
+ * The allocator must be cleared at the end of each transaction (see clearCache of the synchronizers).
+ * The synchronizers of a context writing labels in the same label space share the same allocator (see SynchronizerContext.getShortLabelAllocator)
+ * so the labels reserved by one synchronizer are seen by the others before they are flushed.
+ *
+ * When several synchronizer contexts write at the same time, their allocators can share a ShortLabelRegistry : a free label is then
+ * claimed in the registry and the labels claimed by the other allocators of the same label space are considered as taken.
+ * The claims are released at the end of the transaction (see releaseClaims). When a label has been released by another allocator after
+ * the labels of its base label were loaded, these labels are reloaded from the database before the label is used.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ShortLabelAllocator {
+
+    private final String labelProperty;
+    private final String objClass;
+    private final String[] entityNames;
+    // label space of the labels which must be unique together in the shared registry
+    private final String family;
+    private final ShortLabelRegistry registry;
+
+    private Map<String, SuffixIndex> suffixIndexes;
+    private Set<String> reservedLabels;
+    // labels claimed in the shared registry during this transaction, with their owner
+    private Map<String, Object> claimedLabels;
+    private boolean isViewOpen = false;
+
+    /**
+     *
+     * @param labelProperty : the property of the entities containing the label (shortName, shortLabel, commonName)
+     * @param objClass : the objclass of the cvs. Can be null if the entities are not cvs
+     * @param entityNames : the names of the entities sharing the same labels
+     */
+    public ShortLabelAllocator(String labelProperty, String objClass, String... entityNames) {
+        this(null, null, labelProperty, objClass, entityNames);
+    }
+
+    /**
+     *
+     * @param registry : the registry of labels shared with the allocators of the other synchronizer contexts. Can be null
+     * @param labelSpace : the label space of the labels
+     * @param objClass : the objclass of the cvs. Can be null if the label space is not the one of the cvs
+     */
+    public ShortLabelAllocator(ShortLabelRegistry registry, ShortLabelSpace labelSpace, String objClass) {
+        this(registry, labelSpace.name() + "|" + objClass, labelSpace.getLabelProperty(), objClass, labelSpace.getEntityNames());
+    }
+
+    private ShortLabelAllocator(ShortLabelRegistry registry, String family, String labelProperty, String objClass, String... entityNames) {
+        if (labelProperty == null){
+            throw new IllegalArgumentException("The label property cannot be null");
+        }
+        if (entityNames == null || entityNames.length == 0){
+            throw new IllegalArgumentException("At least one entity name is required");
+        }
+        this.labelProperty = labelProperty;
+        this.objClass = objClass;
+        this.entityNames = entityNames;
+        this.registry = registry;
+        this.family = family;
+        this.suffixIndexes = new HashMap<String, SuffixIndex>();
+        this.reservedLabels = new HashSet<String>();
+        this.claimedLabels = new HashMap<String, Object>();
+    }
+
+    /**
+     *
+     * @param manager : the entity manager used to load the existing labels
+     * @param label : the label to check
+     * @param ownerAc : the ac of the object having this label. Can be null for new objects
+     * @return true if the label is already used by another object in the database or has been reserved in this session.
+     * If the label is free and the allocator shares a registry, the label is claimed by this allocator.
+     */
+    public boolean isTaken(EntityManager manager, String label, String ownerAc) {
+        if (isTakenInSession(manager, label, ownerAc)){
+            return true;
+        }
+        // the label may be used by another synchronizer context
+        else if (this.registry == null || isPersistedBy(label, ownerAc)){
+            return false;
+        }
+        String baseLabel = getIndexedBaseLabel(label);
+        SuffixIndex suffixIndex = suffixIndexes.get(baseLabel);
+        if (claim(label, ownerAc, suffixIndex)){
+            return false;
+        }
+        // the label has been committed by another context after the labels were loaded
+        else if (reloadIfReleasedByOther(manager, baseLabel, suffixIndex, label, ownerAc)){
+            return isTakenInSession(manager, label, ownerAc)
+                    || (!isPersistedBy(label, ownerAc) && !claim(label, ownerAc, suffixIndex));
+        }
+        return true;
+    }
+
+    private boolean claim(String label, String ownerAc, SuffixIndex suffixIndex) {
+        Object owner = getClaimOwner(ownerAc);
+        if (this.registry.claim(this.family, label, owner, suffixIndex.loadedGeneration)){
+            this.claimedLabels.put(label, owner);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean reloadIfReleasedByOther(EntityManager manager, String baseLabel, SuffixIndex suffixIndex, String label, String ownerAc) {
+        if (this.registry.isReleasedByOther(this.family, label, getClaimOwner(ownerAc), suffixIndex.loadedGeneration)){
+            suffixIndex.clearPersistedSuffixes();
+            loadPersistedSuffixes(manager, baseLabel, suffixIndex);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isPersistedBy(String label, String ownerAc) {
+        if (ownerAc == null){
+            return false;
+        }
+        // the suffix indexes have been loaded by isTakenInSession
+        String baseLabel = getIndexedBaseLabel(label);
+        SuffixIndex labelIndex = suffixIndexes.get(baseLabel);
+        return labelIndex != null && labelIndex.isPersistedBy(getSuffix(label, baseLabel), ownerAc);
+    }
+
+    /**
+     *
+     * @param label : the label
+     * @return the base label of the suffix index containing this label. A label with a numeric suffix is looked up in the index of
+     * its base label unless it has its own index
+     */
+    private String getIndexedBaseLabel(String label) {
+        SuffixIndex labelIndex = suffixIndexes.get(label);
+        if (labelIndex != null && labelIndex.isLoaded){
+            return label;
+        }
+        int index = label.lastIndexOf("-");
+        if (index >= 0 && parseSuffix(label.substring(index + 1)) != null){
+            return label.substring(0, index);
+        }
+        return label;
+    }
+
+    private int getSuffix(String label, String baseLabel) {
+        return label.equals(baseLabel) ? 0 : parseSuffix(label.substring(baseLabel.length() + 1));
+    }
+
+    private Object getClaimOwner(String ownerAc) {
+        // an existing object can claim its own label from any allocator
+        return ownerAc != null ? ownerAc : this;
+    }
+
+    private boolean isTakenInSession(EntityManager manager, String label, String ownerAc) {
+        // a label with a numeric suffix is looked up in the index of its base label which is loaded
+        // anyway if a new suffix has to be allocated
+        String baseLabel = getIndexedBaseLabel(label);
+        return getSuffixIndex(manager, baseLabel).isTaken(getSuffix(label, baseLabel), ownerAc);
+    }
+
+    /**
+     *
+     * @param label : the label to check
+     * @return true if the label has been reserved during this session
+     */
+    public boolean isReserved(String label) {
+        return reservedLabels.contains(label);
+    }
+
+    /**
+     * Finds the first free label for this base label and returns it. The label is not reserved but it is claimed in the shared registry if any.
+     * @param manager : the entity manager used to load the existing labels
+     * @param baseLabel : the label without any suffix
+     * @param maxLength : the maximum length of the label
+     * @param alwaysAppendSuffix : true if the base label cannot be used without suffix
+     * @param ownerAc : the ac of the object for what we allocate a label. Can be null for new objects
+     * @return the first free label
+     */
+    public String nextFreeLabel(EntityManager manager, String baseLabel, int maxLength, boolean alwaysAppendSuffix, String ownerAc) {
+        SuffixIndex suffixIndex = getSuffixIndex(manager, baseLabel);
+        int freeIndex = suffixIndex.findFreeSuffix(alwaysAppendSuffix ? 1 : 0, ownerAc);
+        String label = formatLabel(baseLabel, freeIndex, maxLength);
+        // skip the labels claimed by the other synchronizer contexts and reload the labels committed by the other contexts
+        while (this.registry != null && !suffixIndex.isPersistedBy(freeIndex, ownerAc)
+                && !claim(label, ownerAc, suffixIndex)){
+            if (!reloadIfReleasedByOther(manager, baseLabel, suffixIndex, label, ownerAc)){
+                suffixIndex.reserve(freeIndex);
+            }
+            freeIndex = suffixIndex.findFreeSuffix(alwaysAppendSuffix ? 1 : 0, ownerAc);
+            label = formatLabel(baseLabel, freeIndex, maxLength);
+        }
+        return label;
+    }
+
+    /**
+     * Finds the first free label for this base label given a collection of existing labels
+     * @param baseLabel : the label without any suffix
+     * @param existingLabels : the labels already used. The labels which are not the base label or the base label followed by a numeric suffix are ignored
+     * @param maxLength : the maximum length of the label
+     * @param alwaysAppendSuffix : true if the base label cannot be used without suffix
+     * @return the first free label. If there are no existing labels, the base label is returned unchanged
+     */
+    public static String nextFreeLabel(String baseLabel, Collection<String> existingLabels, int maxLength, boolean alwaysAppendSuffix) {
+        if (existingLabels.isEmpty()){
+            return formatLabel(baseLabel, 0, maxLength);
+        }
+        String prefix = baseLabel + "-";
+        SuffixIndex suffixIndex = new SuffixIndex();
+        for (String label : existingLabels){
+            if (baseLabel.equals(label)){
+                suffixIndex.reserve(0);
+            }
+            else if (label != null && label.startsWith(prefix)){
+                Integer suffix = parseSuffix(label.substring(prefix.length()));
+                if (suffix != null){
+                    suffixIndex.reserve(suffix);
+                }
+            }
+        }
+        return formatLabel(baseLabel, suffixIndex.findFreeSuffix(alwaysAppendSuffix ? 1 : 0, null), maxLength);
+    }
+
+    private static String formatLabel(String baseLabel, int freeIndex, int maxLength) {
+        String indexAsString = freeIndex > 0 ? "-" + freeIndex : "";
+        String nameInSync = baseLabel + indexAsString;
+        // retruncate if necessary
+        if (maxLength < nameInSync.length()) {
+            nameInSync = nameInSync.substring(0, Math.max(1, maxLength - (indexAsString.length()))) + indexAsString;
+        }
+        return nameInSync;
+    }
+
+    /**
+     * Reserves this label for the rest of the session
+     * @param label : the label to reserve
+     */
+    public void reserve(String label) {
+        if (label == null || !reservedLabels.add(label)){
+            return;
+        }
+        getOrCreateSuffixIndex(label).reserve(0);
+
+        int index = label.lastIndexOf("-");
+        if (index >= 0){
+            Integer suffix = parseSuffix(label.substring(index + 1));
+            if (suffix != null){
+                getOrCreateSuffixIndex(label.substring(0, index)).reserve(suffix);
+            }
+        }
+    }
+
+    public void clear() {
+        this.suffixIndexes.clear();
+        this.reservedLabels.clear();
+        // the labels loaded from the database are forgotten
+        if (this.isViewOpen){
+            this.registry.closeView(this);
+            this.isViewOpen = false;
+        }
+    }
+
+    /**
+     * Releases the labels claimed in the shared registry. Must be called when the transaction which used the labels
+     * has been committed or rolled back (see SynchronizerContext.clearCache), not when the synchronizers are flushed
+     */
+    public void releaseClaims() {
+        if (this.registry != null){
+            for (Map.Entry<String, Object> claim : this.claimedLabels.entrySet()){
+                this.registry.release(this.family, claim.getKey(), claim.getValue());
+            }
+        }
+        this.claimedLabels.clear();
+    }
+
+    private SuffixIndex getOrCreateSuffixIndex(String baseLabel) {
+        SuffixIndex suffixIndex = suffixIndexes.get(baseLabel);
+        if (suffixIndex == null){
+            suffixIndex = new SuffixIndex();
+            suffixIndexes.put(baseLabel, suffixIndex);
+        }
+        return suffixIndex;
+    }
+
+    private SuffixIndex getSuffixIndex(EntityManager manager, String baseLabel) {
+        SuffixIndex suffixIndex = getOrCreateSuffixIndex(baseLabel);
+        if (!suffixIndex.isLoaded){
+            loadPersistedSuffixes(manager, baseLabel, suffixIndex);
+        }
+        return suffixIndex;
+    }
+
+    private void loadPersistedSuffixes(EntityManager manager, String baseLabel, SuffixIndex suffixIndex) {
+        if (this.registry != null){
+            // the view and the generation are read before loading so the labels released later are detected
+            if (!this.isViewOpen){
+                this.registry.openView(this);
+                this.isViewOpen = true;
+            }
+            suffixIndex.loadedGeneration = this.registry.getGeneration();
+        }
+        String prefix = baseLabel + "-";
+        for (String entityName : entityNames){
+            // prefix query on the label index
+            Query query = manager.createQuery("select e." + labelProperty + ", e.ac from " + entityName + " e " +
+                    "where (e." + labelProperty + " = :name or e." + labelProperty + " like :nameWithSuffix)" +
+                    (objClass != null ? " and e.objClass = :objclass" : ""));
+            query.setParameter("name", baseLabel);
+            query.setParameter("nameWithSuffix", prefix + "%");
+            if (objClass != null) {
+                query.setParameter("objclass", objClass);
+            }
+            List<Object[]> results = query.getResultList();
+            for (Object[] result : results){
+                String label = (String) result[0];
+                String ac = (String) result[1];
+                if (baseLabel.equals(label)){
+                    suffixIndex.addPersistedSuffix(0, ac);
+                }
+                else if (label != null && label.startsWith(prefix)){
+                    Integer suffix = parseSuffix(label.substring(prefix.length()));
+                    if (suffix != null){
+                        suffixIndex.addPersistedSuffix(suffix, ac);
+                    }
+                }
+            }
+        }
+        suffixIndex.isLoaded = true;
+    }
+
+    private static Integer parseSuffix(String suffix) {
+        if (suffix.isEmpty() || suffix.length() > 9){
+            return null;
+        }
+        for (int i = 0; i < suffix.length(); i++){
+            if (!Character.isDigit(suffix.charAt(i))){
+                return null;
+            }
+        }
+        return Integer.parseInt(suffix);
+    }
+
+    /**
+     * Suffixes already taken for a base label.
+     * The next free suffix is found with a path-compressed 'next candidate' map so repeated allocations
+     * on the same base label do not rescan the taken suffixes.
+     */
+    private static class SuffixIndex {
+        private boolean isLoaded = false;
+        // generation of the shared registry when the persisted suffixes were loaded
+        private long loadedGeneration = 0;
+        private final Set<Integer> takenSuffixes = new HashSet<Integer>();
+        private final Set<Integer> reservedSuffixes = new HashSet<Integer>();
+        private final Map<Integer, Set<String>> persistedOwners = new HashMap<Integer, Set<String>>();
+        private final Map<Integer, Integer> nextCandidates = new HashMap<Integer, Integer>();
+
+        private void addPersistedSuffix(int suffix, String ac) {
+            takenSuffixes.add(suffix);
+            Set<String> owners = persistedOwners.get(suffix);
+            if (owners == null){
+                owners = new HashSet<String>();
+                persistedOwners.put(suffix, owners);
+            }
+            owners.add(ac);
+        }
+
+        private void reserve(int suffix) {
+            takenSuffixes.add(suffix);
+            reservedSuffixes.add(suffix);
+        }
+
+        private void clearPersistedSuffixes() {
+            takenSuffixes.retainAll(reservedSuffixes);
+            persistedOwners.clear();
+            nextCandidates.clear();
+            isLoaded = false;
+        }
+
+        private boolean isPersistedBy(int suffix, String ownerAc) {
+            Set<String> owners = persistedOwners.get(suffix);
+            return ownerAc != null && owners != null && owners.contains(ownerAc);
+        }
+
+        private boolean isTaken(int suffix, String ownerAc) {
+            if (!takenSuffixes.contains(suffix)){
+                return false;
+            }
+            else if (ownerAc == null || reservedSuffixes.contains(suffix)){
+                return true;
+            }
+            // the label is only used by the object itself in the database
+            Set<String> owners = persistedOwners.get(suffix);
+            return owners == null || owners.size() != 1 || !owners.contains(ownerAc);
+        }
+
+        private int findFreeSuffix(int firstSuffix, String ownerAc) {
+            int freeSuffix = findFirstNotTaken(firstSuffix);
+            // an existing object can keep a suffix it already uses in the database
+            if (ownerAc != null){
+                for (Map.Entry<Integer, Set<String>> entry : persistedOwners.entrySet()){
+                    int suffix = entry.getKey();
+                    if (suffix >= firstSuffix && suffix < freeSuffix && !isTaken(suffix, ownerAc)){
+                        freeSuffix = suffix;
+                    }
+                }
+            }
+            return freeSuffix;
+        }
+
+        private int findFirstNotTaken(int firstSuffix) {
+            int candidate = firstSuffix;
+            while (takenSuffixes.contains(candidate)){
+                Integer next = nextCandidates.get(candidate);
+                candidate = next != null ? next : candidate + 1;
+            }
+            // path compression
+            int current = firstSuffix;
+            while (current != candidate && takenSuffixes.contains(current)){
+                Integer next = nextCandidates.put(current, candidate);
+                current = next != null ? next : current + 1;
+            }
+            return candidate;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe registry of the short labels claimed by several short label allocators.
+ *
+ * When several synchronizer contexts write in the database at the same time, their short label allocators cannot see the labels
+ * allocated by the other contexts before these are committed. An allocator sharing this registry claims each label it wants to use
+ * so a label is never allocated twice by two different allocators of the same family.
+ *
+ * The labels are released by the allocators at the end of each transaction (committed or rolled back, see ShortLabelAllocator.releaseClaims).
+ * A committed label is found in the database by the allocators loading their labels after the commit but the other allocators may still
+ * use labels loaded before the commit. Each release is therefore numbered with a generation and a released label is kept in the registry
+ * until all the allocators which opened a view before its release have closed their view (see openView and closeView). An allocator
+ * which loaded its labels before the release of a label claimed by another owner must reload them from the database before using this label.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ShortLabelRegistry {
+
+    private final ConcurrentMap<String, Object> claimedLabels;
+    // labels released since the oldest open view
+    private final ConcurrentMap<String, ReleasedLabel> releasedLabels;
+    // generation of the registry when each view has been opened
+    private final ConcurrentMap<Object, Long> openViews;
+    private final AtomicLong generation;
+
+    public ShortLabelRegistry() {
+        this.claimedLabels = new ConcurrentHashMap<String, Object>();
+        this.releasedLabels = new ConcurrentHashMap<String, ReleasedLabel>();
+        this.openViews = new ConcurrentHashMap<Object, Long>();
+        this.generation = new AtomicLong();
+    }
+
+    /**
+     *
+     * @return the generation of the last release. The labels loaded from the database after reading this generation
+     * contain all the labels released up to this generation
+     */
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
+    /**
+     * Opens the view of an allocator before it loads labels from the database. The labels released after the view is opened are kept
+     * in the registry until the view is closed. Does nothing if the view is already open
+     * @param viewOwner : the allocator loading the labels
+     */
+    public void openView(Object viewOwner) {
+        this.openViews.putIfAbsent(viewOwner, this.generation.get());
+    }
+
+    /**
+     * Closes the view of an allocator when it forgets the labels it loaded from the database.
+     * The released labels which are not needed by the other open views are removed
+     * @param viewOwner : the allocator
+     */
+    public void closeView(Object viewOwner) {
+        this.openViews.remove(viewOwner);
+        long oldestView = this.generation.get();
+        for (Long viewGeneration : this.openViews.values()){
+            oldestView = Math.min(oldestView, viewGeneration);
+        }
+        Iterator<ReleasedLabel> releasedIterator = this.releasedLabels.values().iterator();
+        while (releasedIterator.hasNext()){
+            if (releasedIterator.next().generation <= oldestView){
+                releasedIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Claims a label for an owner
+     * @param family : the family of labels (labels which must be unique together)
+     * @param label : the label to claim
+     * @param owner : the owner of the claim
+     * @return true if the label is now claimed by this owner, false if it was already claimed by another owner
+     */
+    public boolean claim(String family, String label, Object owner) {
+        return claim(family, label, owner, Long.MAX_VALUE);
+    }
+
+    /**
+     * Claims a label for an owner which loaded the labels from the database at a given generation
+     * @param family : the family of labels (labels which must be unique together)
+     * @param label : the label to claim
+     * @param owner : the owner of the claim
+     * @param loadedGeneration : the generation of the registry when the labels have been loaded from the database
+     * @return true if the label is now claimed by this owner, false if it is claimed by another owner or has been released by
+     * another owner after the given generation
+     */
+    public boolean claim(String family, String label, Object owner, long loadedGeneration) {
+        String key = createKey(family, label);
+        Object previousOwner = this.claimedLabels.putIfAbsent(key, owner);
+        if (previousOwner != null && !previousOwner.equals(owner)){
+            return false;
+        }
+        // the release is recorded before the claim is removed so a label released at the same time is seen here
+        if (isReleasedByOther(key, owner, loadedGeneration)){
+            if (previousOwner == null){
+                this.claimedLabels.remove(key, owner);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @param family : the family of labels (labels which must be unique together)
+     * @param label : the label to check
+     * @param owner : the owner checking the label
+     * @param loadedGeneration : the generation of the registry when the labels have been loaded from the database
+     * @return true if the label has been released by another owner after the given generation and may not be in the loaded labels
+     */
+    public boolean isReleasedByOther(String family, String label, Object owner, long loadedGeneration) {
+        return isReleasedByOther(createKey(family, label), owner, loadedGeneration);
+    }
+
+    /**
+     *
+     * @param family : the family of labels (labels which must be unique together)
+     * @param label : the label to check
+     * @param owner : the owner checking the label
+     * @return true if the label is claimed by another owner
+     */
+    public boolean isClaimedByOther(String family, String label, Object owner) {
+        Object currentOwner = this.claimedLabels.get(createKey(family, label));
+        return currentOwner != null && !currentOwner.equals(owner);
+    }
+
+    /**
+     * Releases a label claimed by an owner. Does nothing if the label is claimed by another owner
+     * @param family : the family of labels (labels which must be unique together)
+     * @param label : the label to release
+     * @param owner : the owner of the claim
+     */
+    public void release(String family, String label, Object owner) {
+        String key = createKey(family, label);
+        if (owner.equals(this.claimedLabels.get(key))){
+            this.releasedLabels.put(key, new ReleasedLabel(owner, this.generation.incrementAndGet()));
+            this.claimedLabels.remove(key, owner);
+        }
+    }
+
+    public int size() {
+        return this.claimedLabels.size();
+    }
+
+    /**
+     *
+     * @return the number of released labels kept for the open views
+     */
+    public int releasedSize() {
+        return this.releasedLabels.size();
+    }
+
+    public void clear() {
+        this.claimedLabels.clear();
+        this.releasedLabels.clear();
+        this.openViews.clear();
+    }
+
+    private boolean isReleasedByOther(String key, Object owner, long loadedGeneration) {
+        ReleasedLabel released = this.releasedLabels.get(key);
+        return released != null && released.generation > loadedGeneration && !released.owner.equals(owner);
+    }
+
+    private String createKey(String family, String label) {
+        return family + "|" + label;
+    }
+
+    private static class ReleasedLabel {
+        private final Object owner;
+        private final long generation;
+
+        private ReleasedLabel(Object owner, long generation) {
+            this.owner = owner;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package uk.ac.ebi.intact.jami.utils;
+
+/**
+ * The spaces of short labels which must be unique together.
+ *
+ * A label space is a label column of the database. All the entities stored in this column share the same labels,
+ * so all the synchronizers writing labels in a label space must use the same short label allocator.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public enum ShortLabelSpace {
+
+    /**
+     * Short labels of the cv terms. They are unique per objclass
+     */
+    CV_TERM("shortName", "IntactCvTerm"),
+    SOURCE("shortName", "IntactSource"),
+    ORGANISM("commonName", "IntactOrganism"),
+    EXPERIMENT("shortLabel", "IntactExperiment"),
+    /**
+     * Short labels of the interactors and interaction evidences which are both stored in the ia_interactor table
+     */
+    INTERACTOR("shortName", "IntactInteractor", "IntactInteractionEvidence");
+
+    private final String labelProperty;
+    private final String[] entityNames;
+
+    ShortLabelSpace(String labelProperty, String... entityNames) {
+        this.labelProperty = labelProperty;
+        this.entityNames = entityNames;
+    }
+
+    /**
+     *
+     * @return the property of the entities containing the label
+     */
+    public String getLabelProperty() {
+        return labelProperty;
+    }
+
+    /**
+     *
+     * @return the names of the entities sharing the labels
+     */
+    public String[] getEntityNames() {
+        return entityNames.clone();
+    }
+}
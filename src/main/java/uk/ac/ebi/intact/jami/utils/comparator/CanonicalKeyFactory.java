@@ -0,0 +1,25 @@
+package uk.ac.ebi.intact.jami.utils.comparator;
+
+/**
+ * Computes an immutable canonical key for an object.
+ *
+ * Two objects which are equal for the comparator associated with this factory should have equal keys.
+ * Two objects having the same key are not necessarily equal : the key is only used to index the objects in hash maps,
+ * the comparator decides if two objects with the same key are equal.
+ * As the comparators are not always transitive, the maps using these keys must fall back to the comparator when the key is not found
+ * (see CanonicalKeyMap).
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface CanonicalKeyFactory<T> {
+
+    /**
+     *
+     * @param object : the object for what we want a key. It is not null
+     * @return the canonical key of this object. It must implement equals and hashCode and cannot be null
+     */
+    public Object createKey(T object);
+}
@@ -0,0 +1,83 @@
+package uk.ac.ebi.intact.jami.utils.comparator;
+
+import psidev.psi.mi.jami.model.CvTerm;
+import psidev.psi.mi.jami.model.Xref;
+import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.context.IntactContext;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Canonical key factory for cv terms used with IntactCvTermComparator.
+ *
+ * The key is built from the normalized identifiers (MI/MOD/PAR and other identifiers) of the cv term.
+ * The objClass is not part of the key because the comparator ignores it and a cv synchronizer can change its objClass
+ * (see the general cv synchronizer).
+ * As for IntactCvIdentifiersComparator, the identifiers generated by IntAct (local cv prefix and ac prefix) are ignored.
+ * The shortlabel is only used when the cv term does not have any identifiers.
+ * The comparator also matches cv terms sharing their MI/MOD/PAR identifier but not their other identifiers, or a cv term with identifiers
+ * and a cv term without identifiers having the same short label : these cv terms are found by the comparator lookup of CanonicalKeyMap.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactCvTermKeyFactory implements CanonicalKeyFactory<CvTerm> {
+
+    private String cvPrefix;
+    private String acPrefix;
+
+    public IntactCvTermKeyFactory() {
+        final IntactContext context = ApplicationContextProvider.getBean("intactJamiContext");
+        this.cvPrefix = "IA:";
+        this.acPrefix = "EBI-";
+        if (context != null){
+            String prefix = context.getIntactConfiguration().getLocalCvPrefix();
+            this.cvPrefix = prefix != null ? prefix+":" : "IA:";
+            this.acPrefix = context.getIntactConfiguration().getAcPrefix() != null? context.getIntactConfiguration().getAcPrefix() : "EBI-";
+        }
+    }
+
+    public Object createKey(CvTerm object) {
+        StringBuilder key = new StringBuilder();
+        if (!appendIdentifiers(key, object.getIdentifiers())){
+            key.append("name:").append(object.getShortName() != null ? object.getShortName().trim().toLowerCase() : "");
+        }
+        return key.toString();
+    }
+
+    /**
+     * Appends the normalized identifiers to the key. The identifiers are sorted so the key
+     * does not depend on the order of the identifiers in the collection
+     * @param key : the key to build
+     * @param identifiers : the identifiers to normalize
+     * @return true if at least one identifier has been appended
+     */
+    public boolean appendIdentifiers(StringBuilder key, Collection<? extends Xref> identifiers) {
+        if (identifiers == null || identifiers.isEmpty()){
+            return false;
+        }
+        TreeSet<String> normalizedIds = new TreeSet<String>();
+        for (Xref ref : identifiers){
+            String id = ref.getId();
+            // ignore identifiers generated by intact
+            if (id != null && !id.startsWith(cvPrefix) && !id.startsWith(acPrefix)){
+                normalizedIds.add(id.trim().toLowerCase());
+            }
+        }
+        if (normalizedIds.isEmpty()){
+            return false;
+        }
+        Iterator<String> idIterator = normalizedIds.iterator();
+        while (idIterator.hasNext()){
+            key.append(idIterator.next());
+            if (idIterator.hasNext()){
+                key.append(',');
+            }
+        }
+        return true;
+    }
+}
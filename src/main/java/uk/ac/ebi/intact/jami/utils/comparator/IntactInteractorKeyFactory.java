@@ -0,0 +1,38 @@
+package uk.ac.ebi.intact.jami.utils.comparator;
+
+import psidev.psi.mi.jami.model.Interactor;
+
+/**
+ * Canonical key factory for interactors used with IntactExactInteractorBaseComparator and the comparators
+ * delegating to it (polymers, complexes).
+ *
+ * The key is built from the interactor type, the organism taxid and the normalized identifiers of the interactor.
+ * The identifiers generated by IntAct are ignored.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactInteractorKeyFactory implements CanonicalKeyFactory<Interactor> {
+
+    private IntactCvTermKeyFactory cvKeyFactory;
+
+    public IntactInteractorKeyFactory() {
+        this.cvKeyFactory = new IntactCvTermKeyFactory();
+    }
+
+    public Object createKey(Interactor object) {
+        StringBuilder key = new StringBuilder();
+        if (object.getInteractorType() != null){
+            key.append(cvKeyFactory.createKey(object.getInteractorType()));
+        }
+        key.append('|');
+        if (object.getOrganism() != null){
+            key.append(object.getOrganism().getTaxId());
+        }
+        key.append('|');
+        cvKeyFactory.appendIdentifiers(key, object.getIdentifiers());
+        return key.toString();
+    }
+}
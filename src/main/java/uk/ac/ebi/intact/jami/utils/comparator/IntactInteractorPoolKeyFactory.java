@@ -0,0 +1,20 @@
+package uk.ac.ebi.intact.jami.utils.comparator;
+
+import psidev.psi.mi.jami.model.InteractorPool;
+
+/**
+ * Canonical key factory for interactor pools compatible with IntactInteractorPoolComparator.
+ *
+ * Two pools can only be equal if they have the same number of interactors so the key is the size of the pool.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactInteractorPoolKeyFactory implements CanonicalKeyFactory<InteractorPool> {
+
+    public Object createKey(InteractorPool object) {
+        return object.size();
+    }
+}
@@ -0,0 +1,38 @@
+package uk.ac.ebi.intact.jami.utils.comparator;
+
+import psidev.psi.mi.jami.model.CvTerm;
+import psidev.psi.mi.jami.model.Organism;
+
+/**
+ * Canonical key factory for organisms used with IntactOrganismComparator.
+ *
+ * The key is built from the taxid, the cell type and the tissue of the organism.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactOrganismKeyFactory implements CanonicalKeyFactory<Organism> {
+
+    private IntactCvTermKeyFactory cvKeyFactory;
+
+    public IntactOrganismKeyFactory() {
+        this.cvKeyFactory = new IntactCvTermKeyFactory();
+    }
+
+    public Object createKey(Organism object) {
+        StringBuilder key = new StringBuilder();
+        key.append(object.getTaxId());
+        appendCvKey(key, object.getCellType());
+        appendCvKey(key, object.getTissue());
+        return key.toString();
+    }
+
+    private void appendCvKey(StringBuilder key, CvTerm cv) {
+        key.append('|');
+        if (cv != null){
+            key.append(cvKeyFactory.createKey(cv));
+        }
+    }
+}
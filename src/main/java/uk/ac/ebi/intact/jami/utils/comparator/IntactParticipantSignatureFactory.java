@@ -0,0 +1,116 @@
+package uk.ac.ebi.intact.jami.utils.comparator;
+
+import psidev.psi.mi.jami.model.*;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the participant signature of a complex, compatible with IntactModelledParticipantComparator.
+ *
+ * The signature is the SHA-1 hash of the sorted (interactor ac, stoichiometry) pairs of the participants. The participant pools are only represented
+ * by their size. The interactors are represented by their ac and not by their identifiers so the signature of a complex does not change
+ * when the xrefs of its interactors are enriched.
+ * Two complexes having equal participants for the participant comparator have the same signature when their interactors have been
+ * synchronized with the same interactors of the database.
+ * Two complexes having the same signature do not necessarily have equal participants : the signature is only used to select the complexes
+ * to compare in the database.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class IntactParticipantSignatureFactory {
+
+    /**
+     * Length of a participant signature (hexadecimal SHA-1)
+     */
+    public static final int SIGNATURE_LEN = 40;
+
+    /**
+     *
+     * @param participants : the participants of the complex, with persistent interactors
+     * @return the signature of the participants. Null if the collection of participants is null or if an interactor does not have any ac
+     */
+    public String createSignature(Collection<? extends ModelledParticipant> participants) {
+        return createSignature(participants, Collections.<Interactor, String>emptyMap());
+    }
+
+    /**
+     *
+     * @param participants : the participants of the complex
+     * @param interactorAcs : the acs of the interactors which are not persistent IntAct interactors, for instance found with the interactor synchronizer.
+     * The map should compare the interactors by identity
+     * @return the signature of the participants. Null if the collection of participants is null or if the ac of an interactor is unknown
+     */
+    public String createSignature(Collection<? extends ModelledParticipant> participants, Map<Interactor, String> interactorAcs) {
+        if (participants == null){
+            return null;
+        }
+        List<String> participantKeys = new ArrayList<String>(participants.size());
+        for (ModelledParticipant participant : participants){
+            String key = createParticipantKey(participant, interactorAcs);
+            if (key == null){
+                return null;
+            }
+            participantKeys.add(key);
+        }
+        Collections.sort(participantKeys);
+
+        StringBuilder signature = new StringBuilder();
+        for (String key : participantKeys){
+            signature.append(key).append('\n');
+        }
+        return hash(signature.toString());
+    }
+
+    private String createParticipantKey(ModelledParticipant participant, Map<Interactor, String> interactorAcs) {
+        StringBuilder key = new StringBuilder();
+        Interactor interactor = participant.getInteractor();
+        // the participant pools are compared with their candidates
+        if (participant instanceof ParticipantPool){
+            key.append("pool:").append(((ParticipantPool) participant).size());
+        }
+        else if (interactor != null){
+            String ac = interactor instanceof IntactInteractor ? ((IntactInteractor) interactor).getAc() : null;
+            if (ac == null){
+                ac = interactorAcs.get(interactor);
+            }
+            if (ac == null){
+                return null;
+            }
+            key.append(ac);
+        }
+        key.append('@');
+        // a missing stoichiometry has the same signature as a stoichiometry of 0
+        Stoichiometry stoichiometry = participant.getStoichiometry();
+        if (stoichiometry != null){
+            key.append(stoichiometry.getMinValue()).append('-').append(stoichiometry.getMaxValue());
+        }
+        else {
+            key.append("0-0");
+        }
+        return key.toString();
+    }
+
+    private String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexa = new StringBuilder(SIGNATURE_LEN);
+            for (byte b : digest){
+                hexa.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hexa.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-1 algorithm is not available", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.ebi.intact.jami;
+
+import org.junit.Assert;
+import org.junit.rules.ExternalResource;
+import uk.ac.ebi.intact.jami.context.QueryStatistics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * JUnit rule counting the SQL statements and the lazy loads issued by a test, so N+1 regressions fail the build.
+ *
+ * The counting starts with start(entityManager), for instance after the test data has been persisted and flushed.
+ * The inserts, updates and deletes are only counted once flushed.
+ *
+ * <pre>
+ * &#64;Rule
+ * public QueryStatisticsRule queryStatistics = new QueryStatisticsRule();
+ *
+ * queryStatistics.start(entityManager);
+ * synchronizer.synchronize(publication, true);
+ * entityManager.flush();
+ * queryStatistics.assertStatementsAtMost(20);
+ * </pre>
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class QueryStatisticsRule extends ExternalResource {
+
+    private EntityManagerFactory entityManagerFactory;
+    private QueryStatistics start;
+
+    /**
+     * Starts or restarts the counting
+     * @param entityManager : the entity manager of the test. The hibernate statistics of its factory must be enabled
+     */
+    public void start(EntityManager entityManager) {
+        this.entityManagerFactory = entityManager.getEntityManagerFactory();
+        Assert.assertNotNull("The hibernate statistics are not enabled", QueryStatistics.getStatistics(this.entityManagerFactory));
+        this.start = QueryStatistics.snapshot(this.entityManagerFactory);
+    }
+
+    /**
+     *
+     * @return the statistics since the counting started
+     */
+    public QueryStatistics getStatistics() {
+        Assert.assertNotNull("The counting of the statements has not been started", this.start);
+        return QueryStatistics.snapshot(this.entityManagerFactory).minus(this.start);
+    }
+
+    public void assertStatementsAtMost(long maxStatements) {
+        QueryStatistics statistics = getStatistics();
+        Assert.assertTrue("Expected at most " + maxStatements + " statements: " + statistics,
+                statistics.getStatementCount() <= maxStatements);
+    }
+
+    public void assertEntityFetchesAtMost(long maxFetches) {
+        QueryStatistics statistics = getStatistics();
+        Assert.assertTrue("Expected at most " + maxFetches + " entity fetches: " + statistics,
+                statistics.getEntityFetchCount() <= maxFetches);
+    }
+
+    public void assertCollectionFetchesAtMost(long maxFetches) {
+        QueryStatistics statistics = getStatistics();
+        Assert.assertTrue("Expected at most " + maxFetches + " collection fetches: " + statistics,
+                statistics.getCollectionFetchCount() <= maxFetches);
+    }
+
+    @Override
+    protected void after() {
+        this.entityManagerFactory = null;
+        this.start = null;
+    }
+}
@@ -0,0 +1,127 @@
+package uk.ac.ebi.intact.jami.context;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Unit tester for the persistence profiles of the synchronizer context
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@Transactional(value = "jamiTransactionManager")
+@Rollback
+@DirtiesContext
+public class PersistenceProfileTest {
+
+    @PersistenceContext(unitName = "intact-jami")
+    private EntityManager entityManager;
+
+    @Test
+    public void test_default_profile() {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        Assert.assertEquals(PersistenceProfile.DEFAULT, context.getPersistenceProfile());
+        Assert.assertEquals(IntactConfiguration.DEFAULT_JDBC_BATCH_SIZE, context.getJdbcBatchSize());
+
+        context.setPersistenceProfile(PersistenceProfile.WRITE_OPTIMISED, 20);
+        Assert.assertEquals(PersistenceProfile.WRITE_OPTIMISED, context.getPersistenceProfile());
+        Assert.assertEquals(20, context.getJdbcBatchSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_write_optimised_profile_invalid_batch_size() {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        context.setPersistenceProfile(PersistenceProfile.WRITE_OPTIMISED, 1);
+    }
+
+    @Test
+    public void test_flush_batches_inserts_with_write_optimised_profile() throws PersisterException, FinderException, SynchronizerException {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        Statistics statistics = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // the first topic is flushed before so the counts only include the topics
+        context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("topic", null), true);
+        context.getTopicSynchronizer().flush();
+
+        // one statement per insert
+        for (int i = 0; i < 20; i++){
+            context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("default topic " + i, null), true);
+        }
+        long inserts = statistics.getEntityInsertCount();
+        long statements = statistics.getPrepareStatementCount();
+        context.getTopicSynchronizer().flush();
+        long defaultInserts = statistics.getEntityInsertCount() - inserts;
+        long defaultStatements = statistics.getPrepareStatementCount() - statements;
+        Assert.assertEquals(20, defaultInserts);
+        Assert.assertTrue(defaultStatements >= 20);
+
+        // the inserts are sent in one batch
+        context.setPersistenceProfile(PersistenceProfile.WRITE_OPTIMISED, 50);
+        for (int i = 0; i < 20; i++){
+            context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("batched topic " + i, null), true);
+        }
+        inserts = statistics.getEntityInsertCount();
+        statements = statistics.getPrepareStatementCount();
+        context.getTopicSynchronizer().flush();
+        long batchedInserts = statistics.getEntityInsertCount() - inserts;
+        long batchedStatements = statistics.getPrepareStatementCount() - statements;
+        Assert.assertEquals(20, batchedInserts);
+        Assert.assertTrue(batchedStatements < defaultStatements);
+        Assert.assertTrue(batchedStatements <= 2);
+
+        // the batched topics have been persisted
+        this.entityManager.clear();
+        Assert.assertEquals(41L, this.entityManager.createQuery("select count(cv) from IntactCvTerm cv where cv.shortName like '%topic%'")
+                .getSingleResult());
+    }
+
+    @Test
+    public void test_flush_publication_with_write_optimised_profile() throws PersisterException, FinderException, SynchronizerException {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        context.setPersistenceProfile(PersistenceProfile.WRITE_OPTIMISED, 50);
+        Statistics statistics = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setMinInteractionsPerExperiment(5);
+        config.setHugeInteractionProbability(0);
+        IntactPublication publication = new SyntheticDatasetGenerator(config).generatePublication(0);
+
+        // the synchronizers only persist the objects, the inserts are sent when flushing
+        publication = context.getPublicationSynchronizer().synchronize(publication, true);
+        long inserts = statistics.getEntityInsertCount();
+        long statements = statistics.getPrepareStatementCount();
+        context.getPublicationSynchronizer().flush();
+        long batchedInserts = statistics.getEntityInsertCount() - inserts;
+        long batchedStatements = statistics.getPrepareStatementCount() - statements;
+
+        // the inserts ordered by entity type do not break the foreign keys of the publication graph
+        Assert.assertNotNull(publication.getAc());
+        this.entityManager.clear();
+        IntactPublication reloaded = this.entityManager.find(IntactPublication.class, publication.getAc());
+        Assert.assertEquals(publication.getExperiments().size(), reloaded.getExperiments().size());
+        // the inserts of a same entity type share one statement
+        Assert.assertTrue(batchedInserts > 0);
+        Assert.assertTrue(batchedStatements < batchedInserts);
+    }
+}
@@ -0,0 +1,54 @@
+package uk.ac.ebi.intact.jami.context;
+
+import org.junit.Assert;
+import org.junit.Test;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.model.extension.IntactSource;
+
+/**
+ * Unit tester for ReferenceDataCache
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ReferenceDataCacheTest {
+
+    @Test
+    public void test_put_get() {
+        ReferenceDataCache cache = new ReferenceDataCache();
+        cache.put(IntactCvTerm.class, "psi-mi|MI:0018", "EBI-1", "two hybrid");
+        // transient reference data are not cached
+        cache.put(IntactCvTerm.class, "psi-mi|MI:0019", null, "coip");
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("EBI-1", cache.get(IntactCvTerm.class, "psi-mi|MI:0018").getAc());
+        Assert.assertEquals("two hybrid", cache.get(IntactCvTerm.class, "psi-mi|MI:0018").getLabel());
+        Assert.assertNull(cache.get(IntactCvTerm.class, "psi-mi|MI:0019"));
+        // the business keys depend on the type of reference data
+        Assert.assertNull(cache.get(IntactSource.class, "psi-mi|MI:0018"));
+    }
+
+    @Test
+    public void test_invalidate() {
+        ReferenceDataCache cache = new ReferenceDataCache();
+        cache.put(IntactCvTerm.class, "psi-mi|MI:0018", "EBI-1", "two hybrid");
+        cache.put(IntactCvTerm.class, "null|psi-mi|MI:0018", "EBI-1", "two hybrid");
+        cache.put(IntactSource.class, "psi-mi|MI:0469", "EBI-2", "intact");
+
+        // all the business keys of an ac are invalidated
+        cache.invalidate("EBI-1");
+        Assert.assertNull(cache.get(IntactCvTerm.class, "psi-mi|MI:0018"));
+        Assert.assertNull(cache.get(IntactCvTerm.class, "null|psi-mi|MI:0018"));
+        Assert.assertNotNull(cache.get(IntactSource.class, "psi-mi|MI:0469"));
+
+        cache.invalidate(IntactSource.class, "psi-mi|MI:0469");
+        Assert.assertEquals(0, cache.size());
+
+        // a business key can be cached again after invalidation
+        cache.put(IntactCvTerm.class, "psi-mi|MI:0018", "EBI-3", "two hybrid");
+        cache.invalidate("EBI-1");
+        Assert.assertEquals("EBI-3", cache.get(IntactCvTerm.class, "psi-mi|MI:0018").getAc());
+    }
+}
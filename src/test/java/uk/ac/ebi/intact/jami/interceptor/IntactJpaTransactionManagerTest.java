@@ -0,0 +1,61 @@
+package uk.ac.ebi.intact.jami.interceptor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.context.QueryStatistics;
+import uk.ac.ebi.intact.jami.service.CvTermService;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+/**
+ * Unit tester for IntactJpaTransactionManager.
+ * The test is not transactional so each service call starts its own transaction
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@DirtiesContext
+public class IntactJpaTransactionManagerTest {
+
+    @Autowired
+    @Qualifier("jamiTransactionManager")
+    private IntactJpaTransactionManager transactionManager;
+
+    @Test
+    public void test_statistics_per_service_call() throws PersisterException, FinderException, SynchronizerException {
+        CvTermService cvTermService = ApplicationContextProvider.getBean("cvTermService");
+        this.transactionManager.resetTransactionStatistics();
+
+        cvTermService.saveOrUpdate(IntactUtils.createMITopic("transaction topic", null));
+
+        // the cv term has been inserted by the transaction of the service call
+        QueryStatistics statistics = this.transactionManager.getLastTransactionStatistics();
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(1, statistics.getEntityInsertCount());
+        Assert.assertTrue(statistics.getStatementCount() >= 1);
+
+        String serviceCall = CvTermService.class.getName() + ".saveOrUpdate";
+        Assert.assertEquals(Long.valueOf(1), this.transactionManager.getTransactionCounts().get(serviceCall));
+        Assert.assertEquals(1, this.transactionManager.getTransactionStatistics().get(serviceCall).getEntityInsertCount());
+
+        // the counts of the same service are summed
+        cvTermService.saveOrUpdate(IntactUtils.createMITopic("transaction topic 2", null));
+        Assert.assertEquals(Long.valueOf(2), this.transactionManager.getTransactionCounts().get(serviceCall));
+        Assert.assertEquals(2, this.transactionManager.getTransactionStatistics().get(serviceCall).getEntityInsertCount());
+
+        this.transactionManager.resetTransactionStatistics();
+        Assert.assertTrue(this.transactionManager.getTransactionCounts().isEmpty());
+    }
+}
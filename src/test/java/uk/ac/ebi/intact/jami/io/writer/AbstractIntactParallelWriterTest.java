@@ -0,0 +1,287 @@
+package uk.ac.ebi.intact.jami.io.writer;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import psidev.psi.mi.jami.exception.MIIOException;
+import psidev.psi.mi.jami.model.Experiment;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.Xref;
+import uk.ac.ebi.intact.jami.context.ReferenceDataCache;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.model.extension.InteractionXref;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.IntactWriterOptions;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.Query;
+import java.util.*;
+
+/**
+ * Unit tester for AbstractIntactParallelWriter.
+ * The test is not transactional because each worker commits its interactions in its own transactions
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AbstractIntactParallelWriterTest {
+
+    @PersistenceUnit(unitName = "intact-jami")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void test_write_publications_sharing_interactors_and_labels() {
+        // few proteins and many label collisions so the publications of the two workers share interactors and label bases
+        SyntheticDatasetConfig config = createConfig(6, 2, 4);
+        config.setMaxExperimentsPerPublication(2);
+        config.setNumberOfProteins(8);
+        config.setNumberOfOrganisms(3);
+        config.setLabelCollisionRate(0.5);
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(config);
+
+        List<List<InteractionEvidence>> publications = new ArrayList<List<InteractionEvidence>>();
+        int total = 0;
+        int longest = 0;
+        for (int i = 0; i < config.getNumberOfPublications(); i++){
+            publications.add(extractInteractions(generator.generatePublication(i)));
+            total += publications.get(i).size();
+            longest = Math.max(longest, publications.get(i).size());
+        }
+
+        RecordingParallelWriter writer = new RecordingParallelWriter();
+        writer.initialiseContext(createOptions(2, 2, false));
+        // the interactions of the publications are interleaved
+        for (int i = 0; i < longest; i++){
+            for (List<InteractionEvidence> interactions : publications){
+                if (i < interactions.size()){
+                    writer.write(interactions.get(i));
+                }
+            }
+        }
+        writer.close();
+
+        // all the interactions of a publication are written by the same worker, in the order they have been written
+        Assert.assertEquals(2, writer.recordingWorkers.size());
+        for (List<InteractionEvidence> interactions : publications){
+            Set<InteractionEvidence> publicationInteractions = Collections.newSetFromMap(new IdentityHashMap<InteractionEvidence, Boolean>());
+            publicationInteractions.addAll(interactions);
+            int writingWorkers = 0;
+            for (RecordingEvidenceWriter worker : writer.recordingWorkers){
+                List<InteractionEvidence> written = new ArrayList<InteractionEvidence>();
+                for (InteractionEvidence interaction : worker.written){
+                    if (publicationInteractions.contains(interaction)){
+                        written.add(interaction);
+                    }
+                }
+                if (!written.isEmpty()){
+                    writingWorkers++;
+                    Assert.assertEquals(interactions, written);
+                }
+            }
+            Assert.assertEquals(1, writingWorkers);
+        }
+
+        Assert.assertEquals(Long.valueOf(total), count("select count(i.ac) from IntactInteractionEvidence i"));
+        Assert.assertEquals(Long.valueOf(6), count("select count(p.ac) from IntactPublication p"));
+        // the shared interactors and reference data have been created once
+        Assert.assertEquals(count("select count(distinct x.id) from IntactProtein p join p.dbXrefs as x join x.qualifier as q where q.shortName = '"
+                + Xref.IDENTITY + "'"), count("select count(p.ac) from IntactProtein p"));
+        Assert.assertTrue(select("select o.dbTaxid from IntactOrganism o where o.cellType is null and o.tissue is null " +
+                "group by o.dbTaxid having count(o.ac) > 1").isEmpty());
+        Assert.assertTrue(select("select cv.objClass, x.id from IntactCvTerm cv join cv.dbXrefs as x join x.qualifier as q " +
+                "where q.shortName = '" + Xref.IDENTITY + "' group by cv.objClass, x.id having count(cv.ac) > 1").isEmpty());
+        Assert.assertTrue(select("select cv.objClass, cv.shortName from IntactCvTerm cv " +
+                "group by cv.objClass, cv.shortName having count(cv.ac) > 1").isEmpty());
+        // the labels allocated by the two workers are unique
+        Assert.assertTrue(select("select e.shortLabel from IntactExperiment e group by e.shortLabel having count(e.ac) > 1").isEmpty());
+        List<Object> labels = select("select i.shortName from IntactInteractor i");
+        labels.addAll(select("select i.shortName from IntactInteractionEvidence i"));
+        Assert.assertEquals(labels.size(), new HashSet<Object>(labels).size());
+        // the objects created by the workers have been released
+        Assert.assertEquals(0, writer.getReferenceDataCache().getCreationRegistry().size());
+    }
+
+    @Test
+    public void test_interactions_without_publication_distributed() {
+        IntactParallelEvidenceWriter writer = new IntactParallelEvidenceWriter();
+        writer.initialiseContext(createOptions(2, 1, false));
+
+        Assert.assertEquals(0, writer.selectWorker(new IntactInteractionEvidence("interaction 0")));
+        Assert.assertEquals(1, writer.selectWorker(new IntactInteractionEvidence("interaction 1")));
+        Assert.assertEquals(0, writer.selectWorker(new IntactInteractionEvidence("interaction 2")));
+        writer.close();
+    }
+
+    @Test
+    public void test_flush_and_close() {
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(createConfig(4, 1, 1));
+        IntactParallelEvidenceWriter writer = new IntactParallelEvidenceWriter();
+        // the workers write chunks of 10 interactions
+        writer.initialiseContext(createOptions(2, 10, false));
+
+        writer.write(extractInteractions(generator.generatePublication(0)));
+        writer.write(extractInteractions(generator.generatePublication(1)));
+        writer.flush();
+        Assert.assertEquals(Long.valueOf(2), count("select count(i.ac) from IntactInteractionEvidence i"));
+
+        writer.write(extractInteractions(generator.generatePublication(2)));
+        writer.write(extractInteractions(generator.generatePublication(3)));
+        writer.close();
+        Assert.assertEquals(Long.valueOf(4), count("select count(i.ac) from IntactInteractionEvidence i"));
+
+        // the writer must be initialised again after close
+        try {
+            writer.write(extractInteractions(generator.generatePublication(0)));
+            Assert.fail("The writer should not write interactions after close");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(Long.valueOf(4), count("select count(i.ac) from IntactInteractionEvidence i"));
+        }
+    }
+
+    @Test
+    public void test_worker_failure() {
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(createConfig(2, 1, 1));
+        IntactParallelEvidenceWriter writer = new IntactParallelEvidenceWriter();
+        writer.initialiseContext(createOptions(2, 1, false));
+
+        writer.write(createInvalidInteraction(generator.generatePublication(0)));
+        try {
+            writer.flush();
+            Assert.fail("The failure of a worker should be propagated");
+        } catch (MIIOException e) {
+            Assert.assertNotNull(e.getCause());
+        }
+        Assert.assertEquals(Long.valueOf(0), count("select count(i.ac) from IntactInteractionEvidence i"));
+
+        try {
+            writer.write(extractInteractions(generator.generatePublication(1)));
+            Assert.fail("The failure of a worker should be propagated");
+        } catch (MIIOException e) {
+            Assert.assertEquals(Long.valueOf(0), count("select count(i.ac) from IntactInteractionEvidence i"));
+        }
+
+        // the errors are discarded when resetting the writer
+        writer.reset();
+        writer.initialiseContext(createOptions(2, 1, false));
+        List<InteractionEvidence> interactions = extractInteractions(generator.generatePublication(1));
+        writer.write(interactions);
+        writer.close();
+        Assert.assertEquals(Long.valueOf(1), count("select count(i.ac) from IntactInteractionEvidence i"));
+        Assert.assertNotNull(((IntactInteractionEvidence) interactions.get(0)).getAc());
+    }
+
+    @Test
+    public void test_shared_reference_data_cache() {
+        Assert.assertNotNull(new IntactParallelEvidenceWriter().getReferenceDataCache().getShortLabelRegistry());
+        Assert.assertNotNull(new IntactParallelEvidenceWriter().getReferenceDataCache().getCreationRegistry());
+
+        ReferenceDataCache cache = new ReferenceDataCache(true);
+        Assert.assertSame(cache, new IntactParallelEvidenceWriter(cache).getReferenceDataCache());
+        try {
+            new IntactParallelEvidenceWriter(new ReferenceDataCache());
+            Assert.fail("The workers cannot share a reference data cache without short label registry");
+        } catch (IllegalArgumentException e) {
+            Assert.assertNull(new ReferenceDataCache().getShortLabelRegistry());
+        }
+    }
+
+    private SyntheticDatasetConfig createConfig(int numberOfPublications, int minInteractions, int maxInteractions) {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(numberOfPublications);
+        config.setMinExperimentsPerPublication(1);
+        config.setMaxExperimentsPerPublication(1);
+        config.setMinInteractionsPerExperiment(minInteractions);
+        config.setMaxInteractionsPerExperiment(maxInteractions);
+        config.setMaxParticipantsPerInteraction(4);
+        config.setHugeInteractionProbability(0);
+        config.setMaxFeaturesPerParticipant(0);
+        config.setLabelCollisionRate(0);
+        return config;
+    }
+
+    private Map<String, Object> createOptions(int numberOfWorkers, int chunkSize, boolean skipFailedInteractions) {
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(IntactWriterOptions.NUMBER_OF_WORKERS_OPTION, numberOfWorkers);
+        options.put(IntactWriterOptions.CHUNK_SIZE_OPTION, chunkSize);
+        options.put(IntactWriterOptions.SKIP_FAILED_INTERACTIONS_OPTION, skipFailedInteractions);
+        return options;
+    }
+
+    /**
+     *
+     * @param publication : the generated publication
+     * @return the interaction evidences of the publication in the order of its experiments
+     */
+    private List<InteractionEvidence> extractInteractions(IntactPublication publication) {
+        List<InteractionEvidence> interactions = new ArrayList<InteractionEvidence>();
+        for (Experiment experiment : publication.getExperiments()){
+            interactions.addAll(experiment.getInteractionEvidences());
+        }
+        return interactions;
+    }
+
+    /**
+     *
+     * @param publication : the generated publication
+     * @return the first interaction of the publication with an identifier too long for the database
+     */
+    private InteractionEvidence createInvalidInteraction(IntactPublication publication) {
+        InteractionEvidence interaction = extractInteractions(publication).get(0);
+        interaction.getXrefs().add(new InteractionXref(IntactUtils.createMIDatabase("test database", null),
+                StringUtils.repeat("x", IntactUtils.MAX_ID_LEN + 10)));
+        return interaction;
+    }
+
+    private Long count(String query) {
+        return (Long) select(query).get(0);
+    }
+
+    private List<Object> select(String hql) {
+        EntityManager manager = this.entityManagerFactory.createEntityManager();
+        try {
+            Query query = manager.createQuery(hql);
+            return new ArrayList<Object>(query.getResultList());
+        }
+        finally {
+            manager.close();
+        }
+    }
+
+    private static class RecordingParallelWriter extends IntactParallelEvidenceWriter {
+        // workers in the order they have been created
+        private List<RecordingEvidenceWriter> recordingWorkers = new ArrayList<RecordingEvidenceWriter>();
+
+        @Override
+        protected AbstractIntactWriter<InteractionEvidence> createWorker() {
+            RecordingEvidenceWriter worker = new RecordingEvidenceWriter();
+            this.recordingWorkers.add(worker);
+            return worker;
+        }
+    }
+
+    /**
+     * Evidence writer keeping the interactions it has written, in the order they have been written
+     */
+    private static class RecordingEvidenceWriter extends IntactEvidenceWriter {
+        private List<InteractionEvidence> written = Collections.synchronizedList(new ArrayList<InteractionEvidence>());
+
+        @Override
+        public void write(InteractionEvidence interaction) throws MIIOException {
+            super.write(interaction);
+            this.written.add(interaction);
+        }
+    }
+}
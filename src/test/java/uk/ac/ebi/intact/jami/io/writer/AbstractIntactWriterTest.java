@@ -0,0 +1,259 @@
+package uk.ac.ebi.intact.jami.io.writer;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.model.Xref;
+import uk.ac.ebi.intact.jami.model.extension.IntactExperiment;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactParticipantEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.model.extension.InteractionXref;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.IntactWriterOptions;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.*;
+
+/**
+ * Unit tester for AbstractIntactWriter.
+ * The test is not transactional because the writer commits each chunk of interactions in its own transaction
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AbstractIntactWriterTest {
+
+    @PersistenceUnit(unitName = "intact-jami")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void test_write_chunk() {
+        SyntheticDatasetGenerator generator = createGenerator();
+        RecordingEvidenceWriter writer = createWriter(2, false);
+
+        writer.write(generateInteraction(generator, 0));
+        Assert.assertEquals(0, countInteractions());
+        writer.write(generateInteraction(generator, 1));
+        Assert.assertEquals(2, countInteractions());
+
+        // the last chunk is written when flushing the writer
+        writer.write(generateInteraction(generator, 2));
+        Assert.assertEquals(2, countInteractions());
+        writer.flush();
+        Assert.assertEquals(3, countInteractions());
+        Assert.assertTrue(writer.rolledBackAcs.isEmpty());
+    }
+
+    @Test
+    public void test_close_writes_last_chunk() {
+        SyntheticDatasetGenerator generator = createGenerator();
+        RecordingEvidenceWriter writer = createWriter(10, false);
+
+        writer.write(Arrays.asList(generateInteraction(generator, 0), generateInteraction(generator, 1)));
+        Assert.assertEquals(0, countInteractions());
+        writer.close();
+        Assert.assertEquals(2, countInteractions());
+    }
+
+    @Test
+    public void test_chunk_rollback_retry_and_skip() {
+        SyntheticDatasetGenerator generator = createGenerator();
+        RecordingEvidenceWriter writer = createWriter(3, true);
+
+        IntactInteractionEvidence first = generateInteraction(generator, 0);
+        IntactInteractionEvidence invalid = generateInvalidInteraction(generator, 1);
+        IntactInteractionEvidence last = generateInteraction(generator, 2);
+        writer.write(first);
+        writer.write(invalid);
+        writer.write(last);
+
+        // the chunk is rolled back and each interaction is written again in its own transaction
+        Assert.assertEquals(Arrays.<InteractionEvidence>asList(invalid), writer.getSkippedInteractions());
+        Assert.assertEquals(2, countInteractions());
+        Assert.assertNotNull(first.getAc());
+        Assert.assertNotNull(last.getAc());
+        Assert.assertNull(invalid.getAc());
+
+        // the next chunks are written together again
+        writer.write(generateInteraction(generator, 3));
+        writer.flush();
+        Assert.assertEquals(3, countInteractions());
+
+        writer.reset();
+        Assert.assertTrue(writer.getSkippedInteractions().isEmpty());
+    }
+
+    @Test
+    public void test_chunk_rollback_fails_writer() {
+        SyntheticDatasetGenerator generator = createGenerator();
+        RecordingEvidenceWriter writer = createWriter(2, false);
+
+        IntactInteractionEvidence valid = generateInteraction(generator, 0);
+        writer.write(valid);
+        try {
+            writer.write(generateInvalidInteraction(generator, 1));
+            Assert.fail("The writer should fail when an interaction cannot be persisted and cannot be skipped");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(writer.getSkippedInteractions().isEmpty());
+        }
+        // the valid interaction of the chunk has been written in its own transaction
+        Assert.assertEquals(1, countInteractions());
+        Assert.assertNotNull(valid.getAc());
+    }
+
+    @Test
+    public void test_chunk_rollback_persists_fresh_acs() {
+        // the interactions of the chunk share their proteins
+        SyntheticDatasetGenerator generator = createGenerator();
+        RecordingEvidenceWriter writer = createWriter(3, true);
+
+        List<IntactInteractionEvidence> valids = Arrays.asList(generateInteraction(generator, 0), generateInteraction(generator, 2));
+        writer.write(valids.get(0));
+        writer.write(generateInvalidInteraction(generator, 1));
+        writer.write(valids.get(1));
+
+        // the first interaction had been persisted in the rolled back transaction
+        Assert.assertTrue(writer.rolledBackAcs.containsKey(valids.get(0)));
+        EntityManager manager = this.entityManagerFactory.createEntityManager();
+        try {
+            for (IntactInteractionEvidence interaction : valids){
+                // the acs generated in the rolled back transaction have been replaced by acs of committed rows
+                String rolledBackAc = writer.rolledBackAcs.get(interaction);
+                if (rolledBackAc != null){
+                    Assert.assertNotEquals(rolledBackAc, interaction.getAc());
+                    Assert.assertNull(manager.find(IntactInteractionEvidence.class, rolledBackAc));
+                }
+                Assert.assertNotNull(manager.find(IntactInteractionEvidence.class, interaction.getAc()));
+                IntactExperiment experiment = (IntactExperiment) interaction.getExperiment();
+                Assert.assertNotNull(manager.find(IntactExperiment.class, experiment.getAc()));
+                Assert.assertNotNull(manager.find(IntactPublication.class, ((IntactPublication) experiment.getPublication()).getAc()));
+                for (ParticipantEvidence participant : interaction.getParticipants()){
+                    Assert.assertNotNull(manager.find(IntactParticipantEvidence.class, ((IntactParticipantEvidence) participant).getAc()));
+                    Assert.assertNotNull(manager.find(IntactProtein.class, ((IntactProtein) participant.getInteractor()).getAc()));
+                }
+            }
+        }
+        finally {
+            manager.close();
+        }
+        Assert.assertEquals(2, countInteractions());
+        Assert.assertEquals(countProteinIdentifiers(), countProteins());
+
+        // the synchronizers do not keep any entities of the rolled back transaction : the next chunk reuses the committed proteins
+        IntactInteractionEvidence next = generateInteraction(generator, 3);
+        writer.write(next);
+        writer.flush();
+        Assert.assertEquals(3, countInteractions());
+        Assert.assertEquals(countProteinIdentifiers(), countProteins());
+        for (ParticipantEvidence participant : next.getParticipants()){
+            Assert.assertNotNull(((IntactProtein) participant.getInteractor()).getAc());
+        }
+        Assert.assertEquals(1, writer.getSkippedInteractions().size());
+    }
+
+    /**
+     *
+     * @return a generator of publications having one interaction, sharing a few proteins
+     */
+    private SyntheticDatasetGenerator createGenerator() {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setMinExperimentsPerPublication(1);
+        config.setMaxExperimentsPerPublication(1);
+        config.setMinInteractionsPerExperiment(1);
+        config.setMaxInteractionsPerExperiment(1);
+        config.setMaxParticipantsPerInteraction(3);
+        config.setHugeInteractionProbability(0);
+        config.setMaxFeaturesPerParticipant(0);
+        config.setNumberOfProteins(3);
+        config.setLabelCollisionRate(0);
+        return new SyntheticDatasetGenerator(config);
+    }
+
+    private RecordingEvidenceWriter createWriter(int chunkSize, boolean skipFailedInteractions) {
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(IntactWriterOptions.CHUNK_SIZE_OPTION, chunkSize);
+        options.put(IntactWriterOptions.SKIP_FAILED_INTERACTIONS_OPTION, skipFailedInteractions);
+        RecordingEvidenceWriter writer = new RecordingEvidenceWriter();
+        writer.initialiseContext(options);
+        return writer;
+    }
+
+    /**
+     *
+     * @param generator : the generator
+     * @param index : the index of the publication
+     * @return the interaction of the generated publication. Each publication is written with its first interaction
+     */
+    private IntactInteractionEvidence generateInteraction(SyntheticDatasetGenerator generator, int index) {
+        IntactPublication publication = generator.generatePublication(index);
+        IntactExperiment experiment = (IntactExperiment) publication.getExperiments().iterator().next();
+        return (IntactInteractionEvidence) experiment.getInteractionEvidences().iterator().next();
+    }
+
+    /**
+     *
+     * @return an interaction having an identifier too long for the database
+     */
+    private IntactInteractionEvidence generateInvalidInteraction(SyntheticDatasetGenerator generator, int index) {
+        IntactInteractionEvidence interaction = generateInteraction(generator, index);
+        interaction.getXrefs().add(new InteractionXref(IntactUtils.createMIDatabase("test database", null),
+                StringUtils.repeat("x", IntactUtils.MAX_ID_LEN + 10)));
+        return interaction;
+    }
+
+    private long countInteractions() {
+        return count("select count(i.ac) from IntactInteractionEvidence i");
+    }
+
+    private long countProteins() {
+        return count("select count(p.ac) from IntactProtein p");
+    }
+
+    private long countProteinIdentifiers() {
+        return count("select count(distinct x.id) from IntactProtein p join p.dbXrefs as x join x.qualifier as q " +
+                "where q.shortName = '" + Xref.IDENTITY + "'");
+    }
+
+    private long count(String query) {
+        EntityManager manager = this.entityManagerFactory.createEntityManager();
+        try {
+            return (Long) manager.createQuery(query).getSingleResult();
+        }
+        finally {
+            manager.close();
+        }
+    }
+
+    /**
+     * Evidence writer keeping the acs of the interactions when the transaction of a chunk has been rolled back
+     */
+    private static class RecordingEvidenceWriter extends IntactEvidenceWriter {
+        private Map<InteractionEvidence, String> rolledBackAcs = new IdentityHashMap<InteractionEvidence, String>();
+
+        @Override
+        protected void resetRolledBackAcs(Collection<InteractionEvidence> interactions) {
+            for (InteractionEvidence interaction : interactions){
+                if (((IntactInteractionEvidence) interaction).getAc() != null){
+                    this.rolledBackAcs.put(interaction, ((IntactInteractionEvidence) interaction).getAc());
+                }
+            }
+            super.resetRolledBackAcs(interactions);
+        }
+    }
+}
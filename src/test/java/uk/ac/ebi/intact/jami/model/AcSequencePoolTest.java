@@ -0,0 +1,81 @@
+package uk.ac.ebi.intact.jami.model;
+
+import org.hibernate.HibernateException;
+import org.hibernate.id.IdentifierGenerationException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit tester for AcSequencePool
+ *
+ */
+public class AcSequencePoolTest {
+
+    private Connection connection;
+
+    @Before
+    public void openConnection() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:acpool;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement st = connection.createStatement()) {
+            st.execute("create sequence if not exists pooled_seq start with 1 increment by 10");
+            st.execute("create sequence if not exists single_seq start with 1 increment by 1");
+        }
+    }
+
+    @After
+    public void closeConnection() throws Exception {
+        try (Statement st = connection.createStatement()) {
+            st.execute("drop sequence pooled_seq");
+            st.execute("drop sequence single_seq");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void test_single_value_per_call() throws Exception {
+        AcSequencePool pool = new AcSequencePool("call next value for single_seq", 1);
+
+        Assert.assertEquals(1L, pool.nextValue(connection));
+        Assert.assertEquals(2L, pool.nextValue(connection));
+        Assert.assertEquals(3L, pool.nextValue(connection));
+    }
+
+    @Test
+    public void test_pooled_values_are_unique_across_pools() throws Exception {
+        AcSequencePool pool1 = new AcSequencePool("call next value for pooled_seq", 10);
+        AcSequencePool pool2 = new AcSequencePool("call next value for pooled_seq", 10);
+
+        Set<Long> values = new HashSet<Long>();
+        for (int i = 0; i < 55; i++){
+            Assert.assertTrue(values.add(pool1.nextValue(connection)));
+            Assert.assertTrue(values.add(pool2.nextValue(connection)));
+        }
+        Assert.assertEquals(110, values.size());
+    }
+
+    @Test(expected = HibernateException.class)
+    public void test_sequence_not_incremented_by_block_size() throws Exception {
+        AcSequencePool pool = new AcSequencePool("call next value for single_seq", 10);
+        pool.nextValue(connection);
+    }
+
+    @Test
+    public void test_sequence_failure() {
+        AcSequencePool pool = new AcSequencePool("call next value for unknown_seq", 1);
+        try {
+            pool.nextValue(connection);
+            Assert.fail("The failure of the sequence call should be thrown");
+        } catch (IdentifierGenerationException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package uk.ac.ebi.intact.jami.model.export;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import psidev.psi.mi.jami.model.Experiment;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.Interactor;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.model.impl.DefaultCvTerm;
+import psidev.psi.mi.jami.tab.io.writer.Mitab27EvidenceWriter;
+import uk.ac.ebi.intact.jami.ApplicationContextProvider;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.extension.IntactExperiment;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractor;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.service.AcKeysetSortKey;
+import uk.ac.ebi.intact.jami.service.ExportedInteractionEvidenceService;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tester for ExportedInteractionEvidenceLoader and ExportedInteractionEvidenceConverter
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@Transactional(value = "jamiTransactionManager")
+@Rollback
+@DirtiesContext
+public class ExportedInteractionEvidenceLoaderTest {
+
+    @PersistenceContext(unitName = "intact-jami")
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("intactDao")
+    private IntactDao intactDao;
+
+    @Test
+    public void test_load() throws PersisterException, FinderException, SynchronizerException {
+        List<String> acs = populateInteractions(1);
+        Assert.assertEquals(2, acs.size());
+
+        // the unknown acs are ignored and the interactions are returned in the order of the acs
+        List<String> requestedAcs = Arrays.asList(acs.get(1), "unknown", acs.get(0));
+        List<ExportedInteractionEvidence> exported = new ExportedInteractionEvidenceLoader(this.entityManager).load(requestedAcs);
+        Assert.assertEquals(2, exported.size());
+        Assert.assertEquals(acs.get(1), exported.get(0).getAc());
+        Assert.assertEquals(acs.get(0), exported.get(1).getAc());
+
+        for (ExportedInteractionEvidence interaction : exported){
+            IntactInteractionEvidence entity = this.entityManager.find(IntactInteractionEvidence.class, interaction.getAc());
+            Assert.assertEquals(entity.getShortName(), interaction.getShortName());
+            Assert.assertEquals(entity.getInteractionType().getMIIdentifier(), interaction.getInteractionType().getMiIdentifier());
+            Experiment experiment = entity.getExperiment();
+            Assert.assertEquals(experiment.getInteractionDetectionMethod().getMIIdentifier(), interaction.getDetectionMethod().getMiIdentifier());
+            Assert.assertEquals(((IntactPublication) experiment.getPublication()).getShortLabel(), interaction.getPublicationId());
+            Assert.assertEquals(experiment.getHostOrganism().getTaxId(), Integer.parseInt(interaction.getHostTaxId()));
+
+            Assert.assertEquals(entity.getParticipants().size(), interaction.getParticipants().size());
+            List<String> interactorAcs = new ArrayList<String>();
+            for (ParticipantEvidence participant : entity.getParticipants()){
+                interactorAcs.add(((IntactInteractor) participant.getInteractor()).getAc());
+            }
+            List<String> exportedInteractorAcs = new ArrayList<String>();
+            for (ExportedParticipant participant : interaction.getParticipants()){
+                exportedInteractorAcs.add(participant.getInteractor().getAc());
+                Assert.assertEquals(1, participant.getExperimentalRoles().size());
+                Assert.assertNotNull(participant.getInteractor().getTaxId());
+            }
+            Collections.sort(interactorAcs);
+            Collections.sort(exportedInteractorAcs);
+            Assert.assertEquals(interactorAcs, exportedInteractorAcs);
+        }
+    }
+
+    @Test
+    public void test_load_empty_acs() {
+        ExportedInteractionEvidenceLoader loader = new ExportedInteractionEvidenceLoader(this.entityManager);
+        Assert.assertTrue(loader.load(Collections.<String>emptyList()).isEmpty());
+        Assert.assertTrue(loader.load(null).isEmpty());
+    }
+
+    @Test
+    public void test_load_exports_experiment_with_lowest_ac() throws PersisterException, FinderException, SynchronizerException {
+        populateInteractions(2);
+        List<Object[]> experiments = this.entityManager.createQuery("select e.ac, d.identifier " +
+                "from IntactExperiment e join e.interactionDetectionMethod as d order by e.ac").getResultList();
+        Assert.assertEquals(2, experiments.size());
+        Assert.assertFalse(experiments.get(0)[1].equals(experiments.get(1)[1]));
+
+        // the interaction of the second experiment is also linked to the first experiment
+        String interactionAc = (String) this.entityManager.createQuery("select i.ac from IntactInteractionEvidence i " +
+                "join i.dbExperiments as e where e.ac = :ac").setParameter("ac", experiments.get(1)[0]).getSingleResult();
+        this.entityManager.createNativeQuery("insert into ia_int2exp (interaction_ac, experiment_ac) values (:interaction, :experiment)")
+                .setParameter("interaction", interactionAc).setParameter("experiment", experiments.get(0)[0]).executeUpdate();
+
+        for (int i = 0; i < 3; i++){
+            List<ExportedInteractionEvidence> exported = new ExportedInteractionEvidenceLoader(this.entityManager)
+                    .load(Collections.singletonList(interactionAc));
+            Assert.assertEquals(1, exported.size());
+            Assert.assertEquals(experiments.get(0)[1], exported.get(0).getDetectionMethod().getMiIdentifier());
+        }
+    }
+
+    @Test
+    public void test_iterate_exported_interaction_evidences() throws PersisterException, FinderException, SynchronizerException {
+        List<String> acs = populateInteractions(2);
+        Collections.sort(acs);
+        ExportedInteractionEvidenceService service = ApplicationContextProvider.getBean("exportedInteractionEvidenceService");
+
+        // all the interactions by ac, in chunks of 3 loaded with the keyset query
+        Assert.assertEquals(acs, collectAcs(service.iterateAll(ExportedInteractionEvidenceService.AC_QUERY,
+                ExportedInteractionEvidenceService.AC_KEYSET_QUERY, null, 3)));
+        Assert.assertEquals(acs, collectAcs(service.iterateAll()));
+
+        // a chunk following the last exported ac
+        Assert.assertEquals(acs.subList(1, 3), collectAcs(service.fetchIntactObjects(ExportedInteractionEvidenceService.AC_KEYSET_QUERY,
+                Collections.<String, Object>singletonMap(AcKeysetSortKey.LAST_AC_PARAMETER, acs.get(0)), 0, 2)));
+
+        // the interactions selected by a query
+        Map<String, Object> parameters = Collections.<String, Object>singletonMap("ac", acs.get(1));
+        List<String> selectedAcs = collectAcs(service.iterateAll(
+                "select i.ac from IntactInteractionEvidence i where i.ac <> :ac order by i.ac",
+                "select i.ac from IntactInteractionEvidence i where i.ac <> :ac and i.ac > :lastAc order by i.ac",
+                parameters, 2));
+        List<String> expectedAcs = new ArrayList<String>(acs);
+        expectedAcs.remove(1);
+        Assert.assertEquals(expectedAcs, selectedAcs);
+    }
+
+    @Test
+    public void test_write_mitab() throws PersisterException, FinderException, SynchronizerException {
+        List<String> acs = populateInteractions(1);
+        Collections.sort(acs);
+        List<ExportedInteractionEvidence> exported = new ExportedInteractionEvidenceLoader(this.entityManager).load(acs);
+
+        List<InteractionEvidence> interactions = new ExportedInteractionEvidenceConverter(new DefaultCvTerm("intact", "MI:0469"))
+                .toInteractionEvidences(exported);
+        Assert.assertEquals(2, interactions.size());
+        // the interactors shared by several participants are converted once
+        Map<String, Interactor> interactors = new HashMap<String, Interactor>();
+        for (int i = 0; i < exported.size(); i++){
+            Assert.assertEquals(3, interactions.get(i).getParticipants().size());
+            Iterator<ParticipantEvidence> participants = interactions.get(i).getParticipants().iterator();
+            for (ExportedParticipant participant : exported.get(i).getParticipants()){
+                Interactor interactor = participants.next().getInteractor();
+                Interactor previous = interactors.put(participant.getInteractor().getAc(), interactor);
+                Assert.assertTrue(previous == null || previous == interactor);
+            }
+        }
+
+        StringWriter output = new StringWriter();
+        Mitab27EvidenceWriter writer = new Mitab27EvidenceWriter(output);
+        writer.start();
+        writer.write(interactions);
+        writer.end();
+        writer.close();
+
+        List<String> lines = new ArrayList<String>();
+        for (String line : output.toString().split("\n")){
+            if (!line.isEmpty() && !line.startsWith("#")){
+                lines.add(line);
+            }
+        }
+        // spoke expansion of the interactions of 3 participants
+        Assert.assertEquals(4, lines.size());
+        for (ExportedInteractionEvidence interaction : exported){
+            int interactionLines = 0;
+            for (String line : lines){
+                if (containsIdentifier(line, interaction.getAc())){
+                    interactionLines++;
+                    Assert.assertTrue(line.contains(interaction.getDetectionMethod().getMiIdentifier()));
+                    Assert.assertTrue(line.contains("pubmed:" + interaction.getPublicationId()));
+                }
+            }
+            Assert.assertEquals(2, interactionLines);
+            for (ExportedParticipant participant : interaction.getParticipants()){
+                boolean found = false;
+                for (String line : lines){
+                    found = found || containsIdentifier(line, participant.getInteractor().getAc());
+                }
+                Assert.assertTrue(found);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param numberOfExperiments : the number of experiments of the publication, each one having a different detection method
+     *                            and two interactions of three participants
+     * @return the acs of the interactions
+     */
+    private List<String> populateInteractions(int numberOfExperiments) throws PersisterException, FinderException, SynchronizerException {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(1);
+        config.setMinExperimentsPerPublication(numberOfExperiments);
+        config.setMaxExperimentsPerPublication(numberOfExperiments);
+        config.setMinInteractionsPerExperiment(2);
+        config.setMaxInteractionsPerExperiment(2);
+        config.setMinParticipantsPerInteraction(3);
+        config.setMaxParticipantsPerInteraction(3);
+        config.setHugeInteractionProbability(0);
+        config.setMaxFeaturesPerParticipant(0);
+        config.setLabelCollisionRate(0);
+        config.setNumberOfProteins(4);
+        IntactPublication publication = new SyntheticDatasetGenerator(config).generatePublication(0);
+
+        String[][] methods = {{"two hybrid", "MI:0018"}, {"tandem affinity purification", "MI:0676"}};
+        int index = 0;
+        for (Experiment experiment : publication.getExperiments()){
+            ((IntactExperiment) experiment).setInteractionDetectionMethod(
+                    IntactUtils.createMIInteractionDetectionMethod(methods[index][0], methods[index][1]));
+            index++;
+        }
+        this.intactDao.getSynchronizerContext().getPublicationSynchronizer().synchronize(publication, true);
+        this.entityManager.flush();
+
+        return this.entityManager.createQuery("select i.ac from IntactInteractionEvidence i order by i.ac", String.class).getResultList();
+    }
+
+    private boolean containsIdentifier(String line, String ac) {
+        return line.contains("intact:" + ac + "\t") || line.contains("intact:" + ac + "|");
+    }
+
+    private List<String> collectAcs(List<ExportedInteractionEvidence> interactions) {
+        List<String> acs = new ArrayList<String>(interactions.size());
+        for (ExportedInteractionEvidence interaction : interactions){
+            acs.add(interaction.getAc());
+        }
+        return acs;
+    }
+
+    private List<String> collectAcs(Iterator<ExportedInteractionEvidence> interactions) {
+        List<String> acs = new ArrayList<String>();
+        while (interactions.hasNext()){
+            acs.add(interactions.next().getAc());
+        }
+        return acs;
+    }
+}
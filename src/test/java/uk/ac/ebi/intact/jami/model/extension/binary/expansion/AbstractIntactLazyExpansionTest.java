@@ -0,0 +1,179 @@
+package uk.ac.ebi.intact.jami.model.extension.binary.expansion;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.binary.BinaryInteraction;
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.binary.ModelledBinaryInteraction;
+import psidev.psi.mi.jami.binary.expansion.InteractionEvidenceMatrixExpansion;
+import psidev.psi.mi.jami.binary.expansion.InteractionEvidenceSpokeExpansion;
+import psidev.psi.mi.jami.binary.expansion.ModelledInteractionMatrixExpansion;
+import psidev.psi.mi.jami.exception.ComplexExpansionException;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.ModelledInteraction;
+import psidev.psi.mi.jami.model.Participant;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactModelledParticipant;
+import uk.ac.ebi.intact.jami.model.extension.IntactParticipantEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.binary.IntactBinaryInteractionEvidenceWrapper;
+import uk.ac.ebi.intact.jami.model.extension.binary.IntactModelledBinaryInteractionWrapper;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Unit tester for the lazy expansions extending AbstractIntactLazyExpansion.
+ * The lazy expansions must create the same pairs of participants as the JAMI expansions
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class AbstractIntactLazyExpansionTest {
+
+    @Test
+    public void test_spoke_expansion_with_one_bait() throws ComplexExpansionException {
+        IntactLazyInteractionEvidenceSpokeExpansion lazyExpansion = new IntactLazyInteractionEvidenceSpokeExpansion();
+        Iterator<BinaryInteractionEvidence> binaryIterator = lazyExpansion.expandLazily(createInteractionEvidence(5, 2));
+
+        List<BinaryInteractionEvidence> lazyBinaries = new ArrayList<BinaryInteractionEvidence>();
+        while (binaryIterator.hasNext()){
+            BinaryInteractionEvidence binary = binaryIterator.next();
+            Assert.assertTrue(binary instanceof IntactBinaryInteractionEvidenceWrapper);
+            lazyBinaries.add(binary);
+        }
+        Collection<BinaryInteractionEvidence> eagerBinaries = new InteractionEvidenceSpokeExpansion().expand(createInteractionEvidence(5, 2));
+
+        Assert.assertEquals(4, lazyBinaries.size());
+        Assert.assertEquals(collectPairs(eagerBinaries), collectPairs(lazyBinaries));
+        Assert.assertEquals(collectExpansionMethods(eagerBinaries), collectExpansionMethods(lazyBinaries));
+        // the bait is paired with each prey
+        for (BinaryInteractionEvidence binary : lazyBinaries){
+            Assert.assertEquals("p2", binary.getParticipantA().getInteractor().getShortName());
+        }
+    }
+
+    @Test
+    public void test_spoke_expansion_without_bait() throws ComplexExpansionException {
+        IntactLazyInteractionEvidenceSpokeExpansion lazyExpansion = new IntactLazyInteractionEvidenceSpokeExpansion();
+        // the interactions without bait are expanded by the JAMI expansion
+        Collection<BinaryInteractionEvidence> lazyBinaries = lazyExpansion.expand(createInteractionEvidence(4, -1));
+        Collection<BinaryInteractionEvidence> eagerBinaries = new InteractionEvidenceSpokeExpansion().expand(createInteractionEvidence(4, -1));
+
+        Assert.assertEquals(collectPairs(eagerBinaries), collectPairs(lazyBinaries));
+        for (BinaryInteractionEvidence binary : lazyBinaries){
+            Assert.assertFalse(binary instanceof IntactBinaryInteractionEvidenceWrapper);
+        }
+    }
+
+    @Test
+    public void test_matrix_expansion() throws ComplexExpansionException {
+        IntactLazyInteractionEvidenceMatrixExpansion lazyExpansion = new IntactLazyInteractionEvidenceMatrixExpansion();
+        Collection<BinaryInteractionEvidence> lazyBinaries = lazyExpansion.expand(createInteractionEvidence(5, 0));
+        Collection<BinaryInteractionEvidence> eagerBinaries = new InteractionEvidenceMatrixExpansion().expand(createInteractionEvidence(5, 0));
+
+        // all the pairs of participants
+        Assert.assertEquals(10, lazyBinaries.size());
+        Assert.assertEquals(collectPairs(eagerBinaries), collectPairs(lazyBinaries));
+        Assert.assertEquals(collectExpansionMethods(eagerBinaries), collectExpansionMethods(lazyBinaries));
+    }
+
+    @Test
+    public void test_binary_interaction_not_expanded_lazily() throws ComplexExpansionException {
+        IntactLazyInteractionEvidenceMatrixExpansion lazyExpansion = new IntactLazyInteractionEvidenceMatrixExpansion();
+        Collection<BinaryInteractionEvidence> lazyBinaries = lazyExpansion.expand(createInteractionEvidence(2, 0));
+        Collection<BinaryInteractionEvidence> eagerBinaries = new InteractionEvidenceMatrixExpansion().expand(createInteractionEvidence(2, 0));
+
+        Assert.assertEquals(1, lazyBinaries.size());
+        Assert.assertEquals(collectPairs(eagerBinaries), collectPairs(lazyBinaries));
+        Assert.assertFalse(lazyBinaries.iterator().next() instanceof IntactBinaryInteractionEvidenceWrapper);
+    }
+
+    @Test
+    public void test_modelled_matrix_expansion() throws ComplexExpansionException {
+        IntactLazyModelledInteractionMatrixExpansion lazyExpansion = new IntactLazyModelledInteractionMatrixExpansion();
+        Iterator<ModelledBinaryInteraction> binaryIterator = lazyExpansion.expandLazily(createComplex(4));
+
+        List<ModelledBinaryInteraction> lazyBinaries = new ArrayList<ModelledBinaryInteraction>();
+        while (binaryIterator.hasNext()){
+            ModelledBinaryInteraction binary = binaryIterator.next();
+            Assert.assertTrue(binary instanceof IntactModelledBinaryInteractionWrapper);
+            lazyBinaries.add(binary);
+        }
+        Collection<ModelledBinaryInteraction> eagerBinaries = new ModelledInteractionMatrixExpansion().expand(createComplex(4));
+
+        Assert.assertEquals(6, lazyBinaries.size());
+        Assert.assertEquals(collectPairs(eagerBinaries), collectPairs(lazyBinaries));
+        Assert.assertEquals(collectExpansionMethods(eagerBinaries), collectExpansionMethods(lazyBinaries));
+        // the binary views share the properties of the complex
+        Assert.assertEquals("complex", lazyBinaries.get(0).getShortName());
+    }
+
+    @Test
+    public void test_binary_view_participants_cannot_be_changed() throws ComplexExpansionException {
+        ModelledBinaryInteraction binary = new IntactLazyModelledInteractionMatrixExpansion().expandLazily(createComplex(3)).next();
+        Assert.assertEquals(2, binary.getParticipants().size());
+        try {
+            binary.removeParticipant(binary.getParticipantA());
+            Assert.fail("The participants of a binary view cannot be changed");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(2, binary.getParticipants().size());
+        }
+    }
+
+    /**
+     *
+     * @param size : the number of participants
+     * @param baitIndex : the index of the bait, -1 if there is no bait
+     * @return the interaction evidence
+     */
+    private InteractionEvidence createInteractionEvidence(int size, int baitIndex) {
+        IntactInteractionEvidence interaction = new IntactInteractionEvidence("interaction");
+        for (int i = 0; i < size; i++){
+            IntactParticipantEvidence participant = new IntactParticipantEvidence(new IntactProtein("p" + i));
+            participant.setExperimentalRole(i == baitIndex ?
+                    IntactUtils.createMIExperimentalRole(Participant.BAIT_ROLE, Participant.BAIT_ROLE_MI) :
+                    IntactUtils.createMIExperimentalRole(Participant.PREY, Participant.PREY_MI));
+            interaction.addParticipant(participant);
+        }
+        return interaction;
+    }
+
+    private ModelledInteraction createComplex(int size) {
+        IntactComplex complex = new IntactComplex("complex");
+        for (int i = 0; i < size; i++){
+            complex.addParticipant(new IntactModelledParticipant(new IntactProtein("p" + i)));
+        }
+        return complex;
+    }
+
+    /**
+     *
+     * @param binaries : the binary interactions
+     * @return the sorted pairs of interactor names, the names of a pair being sorted as well
+     */
+    private List<String> collectPairs(Collection<? extends BinaryInteraction> binaries) {
+        List<String> pairs = new ArrayList<String>(binaries.size());
+        for (BinaryInteraction binary : binaries){
+            String nameA = binary.getParticipantA() != null ? binary.getParticipantA().getInteractor().getShortName() : "";
+            String nameB = binary.getParticipantB() != null ? binary.getParticipantB().getInteractor().getShortName() : "";
+            pairs.add(nameA.compareTo(nameB) <= 0 ? nameA + "-" + nameB : nameB + "-" + nameA);
+        }
+        Collections.sort(pairs);
+        return pairs;
+    }
+
+    private List<String> collectExpansionMethods(Collection<? extends BinaryInteraction> binaries) {
+        List<String> methods = new ArrayList<String>(binaries.size());
+        for (BinaryInteraction binary : binaries){
+            methods.add(binary.getComplexExpansion() != null ? binary.getComplexExpansion().getMIIdentifier() : null);
+        }
+        return methods;
+    }
+}
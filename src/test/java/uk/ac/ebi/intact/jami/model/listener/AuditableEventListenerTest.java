@@ -0,0 +1,134 @@
+package uk.ac.ebi.intact.jami.model.listener;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import uk.ac.ebi.intact.jami.context.UserContext;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+/**
+ * Unit tester for AuditableEventListener
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@DirtiesContext
+public class AuditableEventListenerTest {
+
+    private AuditableEventListener listener = new AuditableEventListener();
+
+    @Autowired
+    @Qualifier("jamiTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @After
+    public void clearUserContext() {
+        AuditableEventListener.setCurrentUserContext(null);
+    }
+
+    @Test
+    public void test_default_user_context() {
+        IntactCvTerm topic = IntactUtils.createMITopic("test topic", null);
+        this.listener.prePersist(topic);
+
+        Assert.assertEquals("INTACT_TESTER", topic.getCreator());
+        Assert.assertEquals("INTACT_TESTER", topic.getUpdator());
+        Assert.assertNotNull(topic.getCreated());
+        Assert.assertEquals(topic.getCreated(), topic.getUpdated());
+    }
+
+    @Test
+    public void test_user_cached_in_transaction() {
+        AuditableEventListener.setCurrentUserContext(new UserContext("curator", ""));
+        IntactCvTerm topic = IntactUtils.createMITopic("test topic", null);
+        IntactCvTerm topic2 = IntactUtils.createMITopic("test topic 2", null);
+
+        TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            this.listener.prePersist(topic);
+            this.listener.prePersist(topic2);
+            // the upper case user is cached in the transaction
+            Assert.assertEquals("CURATOR", topic.getCreator());
+            Assert.assertSame(topic.getCreator(), topic2.getCreator());
+            // the dates are not shared by the objects
+            Assert.assertNotSame(topic.getUpdated(), topic2.getUpdated());
+        }
+        finally {
+            this.transactionManager.rollback(status);
+        }
+
+        // the cache is cleared when the transaction completes
+        IntactCvTerm topic3 = IntactUtils.createMITopic("test topic 3", null);
+        status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            this.listener.prePersist(topic3);
+            Assert.assertEquals("CURATOR", topic3.getCreator());
+            Assert.assertNotSame(topic.getCreator(), topic3.getCreator());
+        }
+        finally {
+            this.transactionManager.rollback(status);
+        }
+    }
+
+    @Test
+    public void test_user_not_cached_without_transaction() {
+        AuditableEventListener.setCurrentUserContext(new UserContext("curator", ""));
+        IntactCvTerm topic = IntactUtils.createMITopic("test topic", null);
+        this.listener.prePersist(topic);
+        IntactCvTerm topic2 = IntactUtils.createMITopic("test topic 2", null);
+        this.listener.prePersist(topic2);
+
+        // nothing is attached to the thread outside a transaction
+        Assert.assertEquals("CURATOR", topic2.getCreator());
+        Assert.assertNotSame(topic.getCreator(), topic2.getCreator());
+    }
+
+    @Test
+    public void test_synchronization_user_context() {
+        Assert.assertNull(AuditableEventListener.setCurrentUserContext(new UserContext("curator", "")));
+
+        IntactCvTerm topic = IntactUtils.createMITopic("test topic", null);
+        this.listener.prePersist(topic);
+        Assert.assertEquals("CURATOR", topic.getCreator());
+        Assert.assertEquals("CURATOR", topic.getUpdator());
+
+        // the local user context has priority
+        IntactCvTerm topic2 = IntactUtils.createMITopic("test topic 2", null);
+        topic2.setLocalUserContext(new UserContext("reviewer", ""));
+        this.listener.prePersist(topic2);
+        Assert.assertEquals("REVIEWER", topic2.getCreator());
+
+        // the creator is kept on update
+        AuditableEventListener.setCurrentUserContext(null);
+        this.listener.prePersist(topic);
+        Assert.assertEquals("CURATOR", topic.getCreator());
+        Assert.assertEquals("INTACT_TESTER", topic.getUpdator());
+    }
+
+    @Test
+    public void test_user_id_changed() {
+        UserContext userContext = new UserContext("curator", "");
+        AuditableEventListener.setCurrentUserContext(userContext);
+
+        IntactCvTerm topic = IntactUtils.createMITopic("test topic", null);
+        this.listener.prePersist(topic);
+        Assert.assertEquals("CURATOR", topic.getUpdator());
+
+        userContext.setUserId("reviewer");
+        this.listener.prePersist(topic);
+        Assert.assertEquals("REVIEWER", topic.getUpdator());
+    }
+}
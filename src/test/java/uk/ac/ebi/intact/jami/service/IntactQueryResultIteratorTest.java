@@ -0,0 +1,271 @@
+package uk.ac.ebi.intact.jami.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tester for IntactQueryResultIterator
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class IntactQueryResultIteratorTest {
+
+    private static final String FIRST_QUERY = "first";
+    private static final String KEYSET_QUERY = "keyset";
+
+    @Test
+    public void test_iterate_until_exhausted() {
+        ListService service = new ListService("a", "b", "c", "d", "e");
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, false);
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d", "e"), consume(iterator));
+        // the chunks are loaded with an offset and the last chunk only loads the remaining results
+        Assert.assertEquals(Arrays.asList("0-2", "2-2", "4-1"), service.loads);
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("The iterator does not have any results left");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals(3, service.loads.size());
+        }
+    }
+
+    @Test
+    public void test_iterate_empty_results() {
+        ListService service = new ListService();
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, false);
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertTrue(service.loads.isEmpty());
+    }
+
+    @Test
+    public void test_keyset_mode() {
+        ListService service = new ListService("a", "b", "c", "d");
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, FIRST_QUERY, KEYSET_QUERY,
+                null, new StringSortKey(), false);
+        Assert.assertTrue(iterator.isKeysetMode());
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), consume(iterator));
+        // each chunk starts after the key of the last result of the previous chunk. The last chunk is empty because the previous
+        // one is full
+        Assert.assertEquals(Arrays.asList("first", "keyset>b", "keyset>d"), service.loads);
+        Assert.assertEquals(0, service.counts);
+    }
+
+    @Test
+    public void test_keyset_mode_last_chunk_not_full() {
+        ListService service = new ListService("a", "b", "c");
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, FIRST_QUERY, KEYSET_QUERY,
+                null, new StringSortKey(), false);
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), consume(iterator));
+        // a chunk smaller than the batch is the last one
+        Assert.assertEquals(Arrays.asList("first", "keyset>b"), service.loads);
+    }
+
+    @Test
+    public void test_prefetch() {
+        ListService service = new ListService("a", "b", "c", "d", "e");
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, FIRST_QUERY, KEYSET_QUERY,
+                null, new StringSortKey(), false);
+        iterator.setPrefetch(true);
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d", "e"), consume(iterator));
+        Assert.assertEquals(Arrays.asList("first", "keyset>b", "keyset>d"), service.loads);
+        // the first chunk is loaded when creating the iterator, the next chunks are prefetched
+        Assert.assertEquals(Thread.currentThread().getName(), service.threads.get(0));
+        Assert.assertEquals("intact-query-prefetch", service.threads.get(1));
+        Assert.assertEquals("intact-query-prefetch", service.threads.get(2));
+    }
+
+    @Test
+    public void test_prefetch_failure() {
+        ListService service = new ListService("a", "b", "c", "d");
+        service.failingLoad = "2-2";
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, false);
+        iterator.setPrefetch(true);
+
+        Assert.assertEquals("a", iterator.next());
+        // the failure of the prefetched chunk is thrown when the iterator moves to this chunk
+        try {
+            iterator.next();
+            Assert.fail("The failure of the prefetched chunk should be propagated");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Cannot load 2-2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_close_mid_stream() throws InterruptedException {
+        ListService service = new ListService("a", "b", "c", "d");
+        service.blockedLoad = "2-2";
+        IntactQueryResultIterator<String> iterator = new IntactQueryResultIterator<String>(service, 2, false);
+        iterator.setPrefetch(true);
+        Assert.assertEquals("a", iterator.next());
+        Assert.assertTrue(service.blockedLoadStarted.await(10, TimeUnit.SECONDS));
+
+        // the chunk being prefetched is cancelled
+        iterator.close();
+        Assert.assertTrue(service.blockedLoadInterrupted.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("The iterator does not have any results after it is closed");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals(Arrays.asList("0-2", "2-2"), service.loads);
+        }
+        // closing the iterator again does nothing
+        iterator.close();
+    }
+
+    private List<String> consume(Iterator<String> iterator) {
+        List<String> results = new ArrayList<String>();
+        while (iterator.hasNext()){
+            results.add(iterator.next());
+        }
+        return results;
+    }
+
+    private static class StringSortKey implements KeysetSortKey<String> {
+
+        public String getParameterName() {
+            return "lastKey";
+        }
+
+        public Object extractKey(String object) {
+            return object;
+        }
+    }
+
+    /**
+     * Service returning sorted strings, which records the chunks it loads
+     */
+    private static class ListService implements IntactService<String> {
+        private List<String> results;
+        private List<String> loads = Collections.synchronizedList(new ArrayList<String>());
+        private List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        private int counts = 0;
+        private volatile String failingLoad;
+        private volatile String blockedLoad;
+        private CountDownLatch blockedLoadStarted = new CountDownLatch(1);
+        private CountDownLatch blockedLoadInterrupted = new CountDownLatch(1);
+
+        private ListService(String... results) {
+            this.results = Arrays.asList(results);
+        }
+
+        private List<String> load(String load, int first, int max) {
+            this.loads.add(load);
+            this.threads.add(Thread.currentThread().getName());
+            if (load.equals(this.failingLoad)){
+                throw new IllegalStateException("Cannot load " + load);
+            }
+            if (load.equals(this.blockedLoad)){
+                this.blockedLoadStarted.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    this.blockedLoadInterrupted.countDown();
+                    Thread.currentThread().interrupt();
+                    return Collections.emptyList();
+                }
+            }
+            return new ArrayList<String>(this.results.subList(Math.min(first, this.results.size()),
+                    Math.min(first + max, this.results.size())));
+        }
+
+        public long countAll() {
+            this.counts++;
+            return this.results.size();
+        }
+
+        public List<String> fetchIntactObjects(int first, int max, boolean loadLazyCollections) {
+            return load(first + "-" + max, first, max);
+        }
+
+        public List<String> fetchIntactObjects(String query, Map<String, Object> parameters, int first, int max, boolean loadLazyCollections) {
+            if (FIRST_QUERY.equals(query)){
+                return load(FIRST_QUERY, first, max);
+            }
+            String lastKey = (String) parameters.get("lastKey");
+            int start = 0;
+            while (start < this.results.size() && this.results.get(start).compareTo(lastKey) <= 0){
+                start++;
+            }
+            return load(KEYSET_QUERY + ">" + lastKey, start + first, max);
+        }
+
+        public IntactDao getIntactDao() {
+            return null;
+        }
+
+        public Iterator<String> iterateAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        public List<String> fetchIntactObjects(int first, int max) {
+            throw new UnsupportedOperationException();
+        }
+
+        public long countAll(String countQuery, Map<String, Object> parameters) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Iterator<String> iterateAll(String countQuery, String query, Map<String, Object> parameters) {
+            throw new UnsupportedOperationException();
+        }
+
+        public List<String> fetchIntactObjects(String query, Map<String, Object> parameters, int first, int max) {
+            throw new UnsupportedOperationException();
+        }
+
+        public List<String> fetchIntactObjects(String query, Map<String, Object> parameters) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Iterator<String> iterateAll(boolean loadLazyCollections) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Iterator<String> iterateAll(String countQuery, String query, Map<String, Object> parameters, boolean loadLazyCollections) {
+            throw new UnsupportedOperationException();
+        }
+
+        public List<String> fetchIntactObjects(String query, Map<String, Object> parameters, boolean loadLazyCollections) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void saveOrUpdate(String object) throws PersisterException, FinderException, SynchronizerException {
+            throw new UnsupportedOperationException();
+        }
+
+        public void saveOrUpdate(Collection<? extends String> objects) throws SynchronizerException, PersisterException, FinderException {
+            throw new UnsupportedOperationException();
+        }
+
+        public void delete(String object) throws PersisterException, FinderException, SynchronizerException {
+            throw new UnsupportedOperationException();
+        }
+
+        public void delete(Collection<? extends String> objects) throws SynchronizerException, PersisterException, FinderException {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package uk.ac.ebi.intact.jami.service;
+
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import psidev.psi.mi.jami.model.Complex;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.io.reader.IntactComplexStream;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatabasePopulator;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Unit tester for IntactScrollableResultIterator.
+ * The test is not transactional because the iterator reads the committed complexes in its own session and transaction
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class IntactScrollableResultIteratorTest {
+
+    private static final String QUERY = "select c from IntactComplex c order by c.ac";
+
+    @PersistenceUnit(unitName = "intact-jami")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("intactDao")
+    private IntactDao intactDao;
+
+    @Autowired
+    @Qualifier("jamiTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    private List<String> complexAcs;
+
+    @Before
+    public void populateComplexes() throws Exception {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(0);
+        config.setNumberOfComplexes(3);
+        config.setMinComplexSize(2);
+        config.setMaxComplexSize(3);
+        config.setHugeComplexProbability(0);
+        config.setSubComplexProbability(0);
+        config.setNumberOfProteins(10);
+        new SyntheticDatabasePopulator(this.intactDao, this.transactionManager).populateComplexes(new SyntheticDatasetGenerator(config));
+
+        EntityManager manager = this.entityManagerFactory.createEntityManager();
+        try {
+            this.complexAcs = manager.createQuery("select c.ac from IntactComplex c order by c.ac", String.class).getResultList();
+        }
+        finally {
+            manager.close();
+        }
+        Assert.assertEquals(3, this.complexAcs.size());
+    }
+
+    @Test
+    public void test_iterate_and_close_after_last_result() {
+        Statistics statistics = getStatistics();
+        long closedSessions = statistics.getSessionCloseCount();
+
+        // the fetch size is smaller than the number of results
+        IntactScrollableResultIterator<IntactComplex> iterator = new IntactScrollableResultIterator<IntactComplex>(this.entityManagerFactory,
+                QUERY, null, 2, null);
+        List<String> acs = new ArrayList<String>();
+        while (iterator.hasNext()){
+            acs.add(iterator.next().getAc());
+            Assert.assertEquals(closedSessions, statistics.getSessionCloseCount());
+        }
+        Assert.assertEquals(this.complexAcs, acs);
+
+        // the session is closed after the last result
+        Assert.assertEquals(closedSessions + 1, statistics.getSessionCloseCount());
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("The iterator does not have any results left");
+        } catch (NoSuchElementException e) {
+            // closing the iterator again does nothing
+            iterator.close();
+            Assert.assertEquals(closedSessions + 1, statistics.getSessionCloseCount());
+        }
+    }
+
+    @Test
+    public void test_session_cleared_for_each_result() {
+        IntactScrollableResultIterator<IntactComplex> iterator = new IntactScrollableResultIterator<IntactComplex>(this.entityManagerFactory,
+                QUERY, null, null);
+        IntactComplex first = iterator.next();
+        Assert.assertFalse(Hibernate.isInitialized(first.getParticipants()));
+
+        // the previous result is detached when moving to the next result
+        IntactComplex second = iterator.next();
+        try {
+            first.getParticipants().size();
+            Assert.fail("The previous result should have been detached");
+        } catch (LazyInitializationException e) {
+            // the current result can still load its lazy properties
+            Assert.assertFalse(second.getParticipants().isEmpty());
+        }
+        iterator.close();
+    }
+
+    @Test
+    public void test_close_mid_stream() {
+        Statistics statistics = getStatistics();
+        long closedSessions = statistics.getSessionCloseCount();
+
+        IntactScrollableResultIterator<IntactComplex> iterator = new IntactScrollableResultIterator<IntactComplex>(this.entityManagerFactory,
+                QUERY, null, null);
+        Assert.assertEquals(this.complexAcs.get(0), iterator.next().getAc());
+
+        iterator.close();
+        Assert.assertEquals(closedSessions + 1, statistics.getSessionCloseCount());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void test_lazy_initialiser() {
+        final List<IntactComplex> initialised = new ArrayList<IntactComplex>();
+        IntactScrollableResultIterator<IntactComplex> iterator = new IntactScrollableResultIterator<IntactComplex>(this.entityManagerFactory,
+                QUERY, null, 1, new Consumer<IntactComplex>() {
+            @Override
+            public void accept(IntactComplex complex) {
+                IntactUtils.initialiseComplex(complex);
+                initialised.add(complex);
+            }
+        });
+        List<IntactComplex> complexes = new ArrayList<IntactComplex>();
+        while (iterator.hasNext()){
+            complexes.add(iterator.next());
+        }
+        // each result is initialised before it is returned and can be read once detached
+        Assert.assertEquals(initialised, complexes);
+        for (IntactComplex complex : complexes){
+            Assert.assertTrue(Hibernate.isInitialized(complex.getParticipants()));
+            Assert.assertFalse(complex.getParticipants().isEmpty());
+        }
+    }
+
+    @Test
+    public void test_stream_closes_iterator() {
+        Statistics statistics = getStatistics();
+        long closedSessions = statistics.getSessionCloseCount();
+
+        IntactComplexStream stream = new IntactComplexStream();
+        stream.setStreamingMode(true);
+        Iterator<Complex> iterator = stream.getInteractionsIterator();
+        Assert.assertTrue(iterator instanceof IntactScrollableResultIterator);
+        Assert.assertEquals(this.complexAcs.get(0), ((IntactComplex) iterator.next()).getAc());
+
+        // a new iterator of the stream closes the previous one
+        Iterator<Complex> iterator2 = stream.getInteractionsIterator();
+        Assert.assertEquals(closedSessions + 1, statistics.getSessionCloseCount());
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(this.complexAcs.get(0), ((IntactComplex) iterator2.next()).getAc());
+
+        // resetting the stream closes the current iterator
+        stream.reset();
+        Assert.assertEquals(closedSessions + 2, statistics.getSessionCloseCount());
+        Assert.assertFalse(iterator2.hasNext());
+
+        // closing the stream closes the current iterator
+        Iterator<Complex> iterator3 = stream.getInteractionsIterator();
+        Assert.assertTrue(iterator3.hasNext());
+        stream.close();
+        Assert.assertEquals(closedSessions + 3, statistics.getSessionCloseCount());
+        Assert.assertFalse(iterator3.hasNext());
+    }
+
+    private Statistics getStatistics() {
+        return this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -2,12 +2,14 @@ package uk.ac.ebi.intact.jami.synchronizer.impl;
 
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.runner.RunWith;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
+import uk.ac.ebi.intact.jami.QueryStatisticsRule;
 import uk.ac.ebi.intact.jami.context.DefaultSynchronizerContext;
 import uk.ac.ebi.intact.jami.context.SynchronizerContext;
 import uk.ac.ebi.intact.jami.model.audit.Auditable;
@@ -39,6 +41,9 @@ public abstract class AbstractDbSynchronizerTest<I, T extends Auditable> {
     protected IntactDbSynchronizer synchronizer;
     protected SynchronizerContext context;
 
+    @Rule
+    public QueryStatisticsRule queryStatistics = new QueryStatisticsRule();
+
     @Before
     public void init(){
         this.context = new DefaultSynchronizerContext(this.entityManager);
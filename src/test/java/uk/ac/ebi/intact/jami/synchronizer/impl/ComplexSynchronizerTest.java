@@ -9,6 +9,7 @@ import psidev.psi.mi.jami.listener.comparator.event.ComplexComparisonEvent;
 import psidev.psi.mi.jami.listener.comparator.impl.ComplexComparatorListenerImpl;
 import psidev.psi.mi.jami.listener.comparator.observer.ComplexComparatorObserver;
 import psidev.psi.mi.jami.model.Complex;
+import psidev.psi.mi.jami.model.Xref;
 import psidev.psi.mi.jami.model.impl.*;
 import psidev.psi.mi.jami.utils.XrefUtils;
 import uk.ac.ebi.intact.jami.IntactTestUtils;
@@ -17,10 +18,12 @@ import uk.ac.ebi.intact.jami.model.extension.*;
 import uk.ac.ebi.intact.jami.synchronizer.FinderException;
 import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class ComplexSynchronizerTest extends InteractorSynchronizerTemplateTest {
@@ -194,6 +197,100 @@ public class ComplexSynchronizerTest extends InteractorSynchronizerTemplateTest
         Assert.assertEquals(1,complexSynchronizer.findAllMatchingComplexAcs(newObject1).size());
     }
 
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_participant_signature() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        ComplexSynchronizer complexSynchronizer = (ComplexSynchronizer) this.synchronizer;
+
+        IntactModelledParticipant intactModelledParticipant1 = IntactTestUtils.createIntactModelledParticipant();
+        intactModelledParticipant1.setStoichiometry(new IntactStoichiometry(2));
+        intactModelledParticipant1.setInteractor(new IntactProtein("test protein",
+                IntactTestUtils.createUniprotXref(InteractorXref.class,"UNIPROT_ID_1")));
+        List<IntactModelledParticipant> intactModelledParticipantList1 = new ArrayList<>();
+        intactModelledParticipantList1.add(intactModelledParticipant1);
+        IntactComplex objectToTest1 = createComplexWithParticipants(intactModelledParticipantList1);
+        objectToTest1.setShortName("persistable complex");
+
+        this.synchronizer.persist(objectToTest1);
+        this.entityManager.flush();
+        this.synchronizer.clearCache();
+
+        IntactComplex persistedComplex = this.entityManager.find(IntactComplex.class, objectToTest1.getAc());
+        Assert.assertNotNull(persistedComplex.getParticipantSignature());
+
+        // the signature is based on the acs of the interactors
+        Assert.assertEquals(persistedComplex.getParticipantSignature(),
+                complexSynchronizer.getSignatureFactory().createSignature(persistedComplex.getParticipants()));
+
+        // same participants and stoichiometry
+        Assert.assertEquals(persistedComplex.getParticipantSignature(),
+                complexSynchronizer.createParticipantSignature(createComplexWithProtein("UNIPROT_ID_1", 2)));
+
+        // different stoichiometry
+        Assert.assertNotEquals(persistedComplex.getParticipantSignature(),
+                complexSynchronizer.createParticipantSignature(createComplexWithProtein("UNIPROT_ID_1", 3)));
+
+        // different interactor which does not exist in the database
+        Assert.assertNotEquals(persistedComplex.getParticipantSignature(),
+                complexSynchronizer.createParticipantSignature(createComplexWithProtein("UNIPROT_ID_2", 2)));
+        // the signature cannot be computed without the acs of the interactors
+        Assert.assertNull(complexSynchronizer.getSignatureFactory().createSignature(
+                createComplexWithProtein("UNIPROT_ID_1", 2).getParticipants()));
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_participant_signature_after_interactor_enrichment() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        ComplexSynchronizer complexSynchronizer = (ComplexSynchronizer) this.synchronizer;
+
+        IntactModelledParticipant intactModelledParticipant1 = IntactTestUtils.createIntactModelledParticipant();
+        intactModelledParticipant1.setStoichiometry(new IntactStoichiometry(2));
+        intactModelledParticipant1.setInteractor(new IntactProtein("test protein",
+                IntactTestUtils.createUniprotXref(InteractorXref.class,"UNIPROT_ID_1")));
+        List<IntactModelledParticipant> intactModelledParticipantList1 = new ArrayList<>();
+        intactModelledParticipantList1.add(intactModelledParticipant1);
+        IntactComplex objectToTest1 = createComplexWithParticipants(intactModelledParticipantList1);
+        objectToTest1.setShortName("persistable complex");
+
+        this.synchronizer.persist(objectToTest1);
+        this.entityManager.flush();
+        this.context.clearCache();
+
+        IntactComplex persistedComplex = this.entityManager.find(IntactComplex.class, objectToTest1.getAc());
+        String signature = persistedComplex.getParticipantSignature();
+        Assert.assertNotNull(signature);
+
+        // the interactor is enriched with a new identifier after the complex has been persisted
+        IntactProtein persistedProtein = (IntactProtein) persistedComplex.getParticipants().iterator().next().getInteractor();
+        InteractorXref refseqXref = new InteractorXref(
+                this.context.getDatabaseSynchronizer().synchronize(IntactUtils.createMIDatabase(Xref.REFSEQ, Xref.REFSEQ_MI), true),
+                "NP_12345");
+        refseqXref.setQualifier(this.context.getQualifierSynchronizer().synchronize(IntactUtils.createMIQualifier(Xref.IDENTITY, Xref.IDENTITY_MI), true));
+        persistedProtein.getIdentifiers().add(refseqXref);
+        this.entityManager.flush();
+        this.context.clearCache();
+
+        // the signature of the complex is still valid
+        Assert.assertEquals(signature, complexSynchronizer.getSignatureFactory().createSignature(persistedComplex.getParticipants()));
+
+        // the same complex is found
+        IntactComplex sameComplex = createComplexWithProtein("UNIPROT_ID_1", 2);
+        Assert.assertEquals(signature, complexSynchronizer.createParticipantSignature(sameComplex));
+        Collection<IntactComplex> results = complexSynchronizer.findByOtherProperties(sameComplex,
+                (IntactCvTerm) persistedComplex.getInteractorType(), (IntactOrganism) persistedComplex.getOrganism());
+        Assert.assertTrue(results.contains(persistedComplex));
+    }
+
+    private IntactComplex createComplexWithProtein(String uniprotId, int stoichiometry) throws NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        IntactModelledParticipant intactModelledParticipant = IntactTestUtils.createIntactModelledParticipant();
+        intactModelledParticipant.setStoichiometry(new IntactStoichiometry(stoichiometry));
+        intactModelledParticipant.setInteractor(new DefaultProtein("test protein",
+                XrefUtils.createUniprotIdentity(uniprotId)));
+        return createComplexWithParticipants(Collections.singletonList(intactModelledParticipant));
+    }
+
     @Transactional
     @Test
     @DirtiesContext
@@ -22,6 +22,8 @@ import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 import uk.ac.ebi.intact.jami.utils.IntactUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collections;
 
 /**
  * Unit test for CvTermSynchronizerTemplate
@@ -71,6 +73,157 @@ public class CvTermSynchronizerTemplateTest extends AbstractDbSynchronizerTest<C
 
     }
 
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_synchronize_cached_cv_without_statement() throws PersisterException, FinderException, SynchronizerException {
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        IntactCvTerm topic = (IntactCvTerm)this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", null), true);
+        this.entityManager.flush();
+
+        // the cv is already synchronized, it does not need to be queried or persisted again
+        this.queryStatistics.start(this.entityManager);
+        Assert.assertSame(topic, this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", null), true));
+        this.entityManager.flush();
+        this.queryStatistics.assertStatementsAtMost(0);
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_synchronize_cached_cv_with_different_canonical_key() throws PersisterException, FinderException, SynchronizerException {
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        IntactCvTerm topic = (IntactCvTerm)this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", "MI:1234"), true);
+
+        // the comparator compares the short names when one cv does not have identifiers
+        Assert.assertSame(topic, this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", null), true));
+
+        // the comparator only compares the MI identifiers when both cvs have one
+        IntactCvTerm topicWithModIdentifier = IntactUtils.createMITopic("test topic 2", "MI:1234");
+        topicWithModIdentifier.getIdentifiers().add(new CvTermXref(IntactUtils.createMIDatabase(CvTerm.PSI_MOD, CvTerm.PSI_MOD_MI), "MOD:00001",
+                IntactUtils.createMIQualifier(Xref.IDENTITY, Xref.IDENTITY_MI)));
+        Assert.assertSame(topic, this.synchronizer.synchronize(topicWithModIdentifier, true));
+
+        // no duplicate has been persisted
+        this.entityManager.flush();
+        Assert.assertEquals(1L, this.entityManager.createQuery("select count(cv) from IntactCvTerm cv where cv.shortName like :name")
+                .setParameter("name", "test topic%").getSingleResult());
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_preloaded_cv() throws PersisterException, FinderException, SynchronizerException {
+        IntactCvTerm existingType = createExistingType();
+
+        this.context.preload();
+        Assert.assertNotNull(this.context.getCvTermIndex());
+        Assert.assertEquals(3, this.context.getCvTermIndex().size());
+
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.ALIAS_TYPE_OBJCLASS);
+        Assert.assertEquals(existingType.getAc(), ((IntactCvTerm)this.synchronizer.find(CvTermUtils.createGeneNameAliasType())).getAc());
+        Assert.assertEquals(1, this.synchronizer.findAllMatchingAcs(CvTermUtils.createGeneNameAliasType()).size());
+        // the preloaded cvs are indexed per objclass
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        Assert.assertNull(this.synchronizer.find(CvTermUtils.createGeneNameAliasType()));
+
+        // a deleted cv is removed from the index
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.ALIAS_TYPE_OBJCLASS);
+        this.synchronizer.delete(existingType);
+        Assert.assertEquals(2, this.context.getCvTermIndex().size());
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_prefetched_cv() throws PersisterException, FinderException, SynchronizerException {
+        IntactCvTerm existingType = createExistingType();
+        CvTerm unknownType = CvTermUtils.createMICvTerm("unknown alias type", "MI:9999");
+
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.ALIAS_TYPE_OBJCLASS);
+        this.synchronizer.prefetch(Arrays.asList(CvTermUtils.createGeneNameAliasType(), unknownType));
+
+        // the prefetched cvs and the identifiers without cvs are resolved without querying the database
+        this.queryStatistics.start(this.entityManager);
+        Assert.assertEquals(existingType.getAc(), ((IntactCvTerm)this.synchronizer.find(CvTermUtils.createGeneNameAliasType())).getAc());
+        Assert.assertEquals(1, this.synchronizer.findAll(CvTermUtils.createGeneNameAliasType()).size());
+        Assert.assertNull(this.synchronizer.find(unknownType));
+        this.queryStatistics.assertStatementsAtMost(0);
+
+        // the prefetched cvs are indexed per objclass
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        Assert.assertNull(this.synchronizer.find(CvTermUtils.createGeneNameAliasType()));
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_cv_from_reference_data_cache() throws PersisterException, FinderException, SynchronizerException {
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        IntactCvTerm topic = (IntactCvTerm)this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", "MI:1234"), true);
+        this.entityManager.flush();
+
+        // next transaction : the cv is resolved by identifier and kept in the reference data cache
+        this.context.clearCache();
+        this.entityManager.clear();
+        Assert.assertEquals(topic.getAc(), ((IntactCvTerm)this.synchronizer.find(IntactUtils.createMITopic("test topic", "MI:1234"))).getAc());
+        Assert.assertNotNull(this.context.getReferenceDataCache().get(IntactCvTerm.class, IntactUtils.TOPIC_OBJCLASS + "|" + CvTerm.PSI_MI + "|MI:1234"));
+
+        // next transaction : the cv is reloaded by ac
+        this.context.clearCache();
+        this.entityManager.clear();
+        this.queryStatistics.start(this.entityManager);
+        Assert.assertEquals(topic.getAc(), ((IntactCvTerm)this.synchronizer.find(IntactUtils.createMITopic("test topic", "MI:1234"))).getAc());
+        Assert.assertEquals(Collections.singletonList(topic.getAc()),
+                this.synchronizer.findAllMatchingAcs(IntactUtils.createMITopic("test topic", "MI:1234")));
+        this.queryStatistics.assertStatementsAtMost(1);
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_reference_data_cache_invalidated_when_modified() throws PersisterException, FinderException, SynchronizerException {
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", "MI:1234"), true);
+        this.entityManager.flush();
+        this.context.clearCache();
+        this.entityManager.clear();
+        String key = IntactUtils.TOPIC_OBJCLASS + "|" + CvTerm.PSI_MI + "|MI:1234";
+
+        IntactCvTerm topic = (IntactCvTerm)this.synchronizer.find(IntactUtils.createMITopic("test topic", "MI:1234"));
+        Assert.assertNotNull(this.context.getReferenceDataCache().get(IntactCvTerm.class, key));
+
+        // the attached cv is synchronized again without any changes
+        this.context.clearCache();
+        this.synchronizer.synchronize(topic, true);
+        Assert.assertNotNull(this.context.getReferenceDataCache().get(IntactCvTerm.class, key));
+
+        // the attached cv is updated
+        this.context.clearCache();
+        topic.setFullName("updated topic");
+        this.synchronizer.synchronize(topic, true);
+        Assert.assertNull(this.context.getReferenceDataCache().get(IntactCvTerm.class, key));
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_stale_reference_data_cache() throws PersisterException, FinderException, SynchronizerException {
+        ((CvTermSynchronizer)this.synchronizer).setObjClass(IntactUtils.TOPIC_OBJCLASS);
+        IntactCvTerm topic = (IntactCvTerm)this.synchronizer.synchronize(IntactUtils.createMITopic("test topic", "MI:1234"), true);
+        this.entityManager.flush();
+        this.context.clearCache();
+
+        // ac cached by a transaction which has been rolled back
+        this.context.getReferenceDataCache().put(IntactCvTerm.class, IntactUtils.TOPIC_OBJCLASS + "|" + CvTerm.PSI_MI + "|MI:1234",
+                "EBI-rolled-back", "test topic");
+
+        Assert.assertEquals(Collections.singletonList(topic.getAc()),
+                this.synchronizer.findAllMatchingAcs(IntactUtils.createMITopic("test topic", "MI:1234")));
+        this.context.clearCache();
+        Assert.assertEquals(topic.getAc(), ((IntactCvTerm)this.synchronizer.find(IntactUtils.createMITopic("test topic", "MI:1234"))).getAc());
+    }
+
     @Transactional
     @Test
     @DirtiesContext
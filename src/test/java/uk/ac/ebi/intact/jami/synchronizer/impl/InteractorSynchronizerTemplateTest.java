@@ -15,6 +15,7 @@ import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 
 /**
  * Unit test for InteractorSynchronizerTemplate
@@ -103,6 +104,60 @@ public class InteractorSynchronizerTemplateTest extends AbstractDbSynchronizerTe
         Assert.assertEquals("test interactor-1", sameLabel.getShortName());
     }
 
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_preloaded_interactor() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        Interactor interactor = IntactTestUtils.createDefaultInteractor();
+        interactor.getIdentifiers().add(XrefUtils.createUniprotIdentity("P12345"));
+        IntactInteractor persisted = ((InteractorSynchronizerTemplate<Interactor, IntactInteractor>) this.synchronizer).synchronize(interactor, true);
+        this.entityManager.flush();
+        this.synchronizer.clearCache();
+
+        this.context.preloadInteractorIdentities();
+        Assert.assertNotNull(this.context.getInteractorIdentityIndex());
+        Assert.assertEquals(1, this.context.getInteractorIdentityIndex().size());
+
+        Interactor sameInteractor = IntactTestUtils.createDefaultInteractor();
+        sameInteractor.getIdentifiers().add(XrefUtils.createUniprotIdentity("P12345"));
+        Assert.assertEquals(persisted.getAc(), ((IntactInteractor)this.synchronizer.find(sameInteractor)).getAc());
+        Assert.assertEquals(1, this.synchronizer.findAllMatchingAcs(sameInteractor).size());
+        // an interactor of another organism does not match
+        sameInteractor.getOrganism().setTaxId(9055);
+        Assert.assertNull(this.synchronizer.find(sameInteractor));
+
+        // a deleted interactor is removed from the index
+        this.synchronizer.delete(persisted);
+        Assert.assertEquals(0, this.context.getInteractorIdentityIndex().size());
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_prefetched_interactor() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        Interactor interactor = IntactTestUtils.createDefaultInteractor();
+        interactor.getIdentifiers().add(XrefUtils.createUniprotIdentity("P12345"));
+        IntactInteractor persisted = ((InteractorSynchronizerTemplate<Interactor, IntactInteractor>) this.synchronizer).synchronize(interactor, true);
+        this.entityManager.flush();
+        this.context.clearCache();
+
+        Interactor sameInteractor = IntactTestUtils.createDefaultInteractor();
+        sameInteractor.getIdentifiers().add(XrefUtils.createUniprotIdentity("P12345"));
+        Interactor unknownInteractor = IntactTestUtils.createDefaultInteractor();
+        unknownInteractor.getIdentifiers().add(XrefUtils.createUniprotIdentity("P67890"));
+        this.synchronizer.prefetch(Arrays.asList(sameInteractor, unknownInteractor));
+
+        // the interactor type, the organism and the interactors are resolved without querying the database
+        this.queryStatistics.start(this.entityManager);
+        Assert.assertEquals(persisted.getAc(), ((IntactInteractor)this.synchronizer.find(sameInteractor)).getAc());
+        Assert.assertNull(this.synchronizer.find(unknownInteractor));
+        this.queryStatistics.assertStatementsAtMost(0);
+
+        // an interactor of another organism does not match
+        sameInteractor.getOrganism().setTaxId(9055);
+        Assert.assertNull(this.synchronizer.find(sameInteractor));
+    }
+
     @Override
     protected void initPropertiesBeforeDetaching(IntactInteractor reloadedObject){
         Hibernate.initialize(reloadedObject.getDbAnnotations());
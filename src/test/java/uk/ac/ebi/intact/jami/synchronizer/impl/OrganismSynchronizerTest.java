@@ -16,6 +16,9 @@ import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Unit test for OrganismSynchronizerTemplate
@@ -103,6 +106,50 @@ public class OrganismSynchronizerTest extends AbstractDbSynchronizerTest<Organis
         Assert.assertEquals("human-1", sameLabel.getCommonName());
     }
 
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_synchronize_all() throws PersisterException, FinderException, SynchronizerException {
+        IntactOrganism human = ((OrganismSynchronizer) this.synchronizer).synchronize(new DefaultOrganism(9606, "human"), true);
+        this.entityManager.flush();
+        this.synchronizer.clearCache();
+
+        List<IntactOrganism> organisms = ((OrganismSynchronizer) this.synchronizer).synchronizeAll(
+                Arrays.<Organism>asList(new DefaultOrganism(9606, "human"), new DefaultOrganism(10090, "mouse")), true);
+        this.entityManager.flush();
+
+        Assert.assertEquals(2, organisms.size());
+        Assert.assertEquals(human.getAc(), organisms.get(0).getAc());
+        Assert.assertNotNull(organisms.get(1).getAc());
+        Assert.assertEquals(10090, organisms.get(1).getTaxId());
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_organism_from_reference_data_cache() throws PersisterException, FinderException, SynchronizerException {
+        IntactOrganism human = ((OrganismSynchronizer) this.synchronizer).synchronize(new DefaultOrganism(9606, "human"), true);
+        this.entityManager.flush();
+
+        // next transaction : the organism is resolved by taxid and kept in the reference data cache
+        this.context.clearCache();
+        this.entityManager.clear();
+        Assert.assertEquals(human.getAc(), ((IntactOrganism)this.synchronizer.find(new DefaultOrganism(9606, "human"))).getAc());
+
+        // next transaction : the organism is reloaded by ac
+        this.context.clearCache();
+        this.entityManager.clear();
+        this.queryStatistics.start(this.entityManager);
+        Assert.assertEquals(human.getAc(), ((IntactOrganism)this.synchronizer.find(new DefaultOrganism(9606, "human"))).getAc());
+        Assert.assertEquals(Collections.singletonList(human.getAc()), this.synchronizer.findAllMatchingAcs(new DefaultOrganism(9606, "human")));
+        this.queryStatistics.assertStatementsAtMost(1);
+
+        // ac cached by a transaction which has been rolled back
+        this.context.clearCache();
+        this.context.getReferenceDataCache().put(IntactOrganism.class, "9606", "EBI-rolled-back", "human");
+        Assert.assertEquals(Collections.singletonList(human.getAc()), this.synchronizer.findAllMatchingAcs(new DefaultOrganism(9606, "human")));
+    }
+
     @Override
     protected void testDeleteOtherProperties(IntactOrganism objectToTest) {
         Assert.assertNull(entityManager.find(IntactOrganism.class, ((OrganismAlias)objectToTest.getAliases().iterator().next()).getAc()));
@@ -9,12 +9,17 @@ import psidev.psi.mi.jami.model.Polymer;
 import psidev.psi.mi.jami.model.impl.DefaultCvTerm;
 import psidev.psi.mi.jami.utils.XrefUtils;
 import uk.ac.ebi.intact.jami.IntactTestUtils;
+import uk.ac.ebi.intact.jami.context.SequenceStorageMode;
 import uk.ac.ebi.intact.jami.model.extension.*;
 import uk.ac.ebi.intact.jami.synchronizer.FinderException;
 import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+import uk.ac.ebi.intact.jami.utils.SequenceChecksumUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Unit test for PolymerSynchronizerTemplate
@@ -103,6 +108,131 @@ public class PolymerSynchronizerTemplateTest extends AbstractDbSynchronizerTest<
         Assert.assertEquals("test interactor-1", sameLabel.getShortName());
     }
 
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_by_sequence_digest() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        IntactPolymer objectToTest = createDefaultObject();
+        objectToTest = (IntactPolymer) this.synchronizer.persist(objectToTest);
+        this.synchronizer.clearCache();
+        this.entityManager.flush();
+
+        Assert.assertEquals(SequenceChecksumUtils.computeSequenceDigest("AAAMGGCA"), objectToTest.getSequenceDigest());
+
+        // same sequence with a different short name
+        Polymer sameSequence = createDefaultJamiObject();
+        sameSequence.setShortName("other name");
+        IntactPolymer found = (IntactPolymer) this.synchronizer.find(sameSequence);
+        Assert.assertNotNull(found);
+        Assert.assertEquals(objectToTest.getAc(), found.getAc());
+
+        // different sequence
+        Polymer otherSequence = createDefaultJamiObject();
+        otherSequence.setShortName("other name");
+        otherSequence.setSequence("AAAMGGCC");
+        Assert.assertNull(this.synchronizer.find(otherSequence));
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_polymers_sharing_sequence() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        IntactPolymer polymer1 = (IntactPolymer) this.synchronizer.persist(createDefaultObject());
+        IntactPolymer polymer2 = createDefaultObject();
+        polymer2.setShortName("test interactor 2");
+        polymer2 = (IntactPolymer) this.synchronizer.persist(polymer2);
+        this.synchronizer.clearCache();
+        this.entityManager.flush();
+        Assert.assertEquals(polymer1.getSequenceDigest(), polymer2.getSequenceDigest());
+
+        // the polymer having the same short name is selected
+        Polymer sameName = createDefaultJamiObject();
+        sameName.setShortName("test interactor 2");
+        Assert.assertEquals(polymer2.getAc(), ((IntactPolymer) this.synchronizer.find(sameName)).getAc());
+        Collection<IntactPolymer> allMatching = this.synchronizer.findAll(sameName);
+        Assert.assertEquals(1, allMatching.size());
+        Assert.assertEquals(polymer2.getAc(), allMatching.iterator().next().getAc());
+        Assert.assertEquals(Collections.singleton(polymer2.getAc()), this.synchronizer.findAllMatchingAcs(sameName));
+
+        // no polymer has the same short name so the sequence alone cannot select one of them
+        Polymer otherName = createDefaultJamiObject();
+        otherName.setShortName("other name");
+        Assert.assertNull(this.synchronizer.find(otherName));
+        Assert.assertTrue(this.synchronizer.findAll(otherName).isEmpty());
+        Assert.assertTrue(this.synchronizer.findAllMatchingAcs(otherName).isEmpty());
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_convert_sequence_storage() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        IntactPolymer objectToTest = createDefaultObject();
+        objectToTest = (IntactPolymer) this.synchronizer.persist(objectToTest);
+        this.entityManager.flush();
+        Assert.assertEquals(1L, this.entityManager.createQuery("select count(c) from SequenceChunk c").getSingleResult());
+
+        // lob storage
+        objectToTest.convertSequenceStorage(SequenceStorageMode.LOB);
+        this.entityManager.flush();
+        this.entityManager.clear();
+        Assert.assertEquals(0L, this.entityManager.createQuery("select count(c) from SequenceChunk c").getSingleResult());
+        Assert.assertEquals(1L, this.entityManager.createQuery("select count(s) from PolymerSequence s").getSingleResult());
+
+        IntactPolymer reloaded = this.entityManager.find(IntactPolymer.class, objectToTest.getAc());
+        Assert.assertFalse(reloaded.isSequenceInitialized());
+        IntactUtils.prefetchSequences(this.entityManager, Collections.singletonList(reloaded));
+        Assert.assertTrue(reloaded.isSequenceInitialized());
+        Assert.assertEquals("AAAMGGCA", reloaded.getSequence());
+
+        // back to the sequence chunks
+        reloaded.convertSequenceStorage(SequenceStorageMode.CHUNKS);
+        this.entityManager.flush();
+        this.entityManager.clear();
+        Assert.assertEquals(1L, this.entityManager.createQuery("select count(c) from SequenceChunk c").getSingleResult());
+        Assert.assertEquals(0L, this.entityManager.createQuery("select count(s) from PolymerSequence s").getSingleResult());
+        Assert.assertEquals("AAAMGGCA", this.entityManager.find(IntactPolymer.class, objectToTest.getAc()).getSequence());
+    }
+
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_persist_with_sequence_storage_mode() throws PersisterException, FinderException, SynchronizerException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        this.context.setSequenceStorageMode(SequenceStorageMode.LOB);
+        IntactPolymer objectToTest = createDefaultObject();
+        Assert.assertEquals(SequenceStorageMode.CHUNKS, objectToTest.getSequenceStorageMode());
+        objectToTest = (IntactPolymer) this.synchronizer.persist(objectToTest);
+        Assert.assertEquals(SequenceStorageMode.LOB, objectToTest.getSequenceStorageMode());
+        this.entityManager.flush();
+        Assert.assertEquals(0L, this.entityManager.createQuery("select count(c) from SequenceChunk c").getSingleResult());
+        Assert.assertEquals(1L, this.entityManager.createQuery("select count(s) from PolymerSequence s").getSingleResult());
+
+        // setting the sequence of an existing polymer keeps its storage
+        objectToTest.setSequence("AAAMGGCAA");
+        Assert.assertEquals(SequenceStorageMode.LOB, objectToTest.getSequenceStorageMode());
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        // the initialised polymer can read its compressed sequence once detached
+        IntactPolymer reloaded = this.entityManager.find(IntactPolymer.class, objectToTest.getAc());
+        IntactUtils.initialiseInteractor(reloaded);
+        this.entityManager.detach(reloaded);
+        Assert.assertEquals("AAAMGGCAA", reloaded.getSequence());
+
+        // the sequence chunks are loaded with the polymer
+        this.context.setSequenceStorageMode(SequenceStorageMode.CHUNKS);
+        IntactPolymer chunks = createDefaultObject();
+        chunks.setShortName("chunks polymer");
+        chunks.setSequence("MGGCA");
+        chunks = (IntactPolymer) this.synchronizer.persist(chunks);
+        Assert.assertEquals(SequenceStorageMode.CHUNKS, chunks.getSequenceStorageMode());
+        this.entityManager.flush();
+        this.entityManager.clear();
+        IntactPolymer reloadedChunks = this.entityManager.find(IntactPolymer.class, chunks.getAc());
+        Assert.assertTrue(reloadedChunks.isSequenceInitialized());
+        this.entityManager.detach(reloadedChunks);
+        Assert.assertEquals("MGGCA", reloadedChunks.getSequence());
+    }
+
     @Override
     protected void initPropertiesBeforeDetaching(IntactPolymer reloadedObject){
         Hibernate.initialize(reloadedObject.getDbAnnotations());
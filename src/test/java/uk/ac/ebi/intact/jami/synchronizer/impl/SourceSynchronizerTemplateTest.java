@@ -17,6 +17,7 @@ import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
 import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 
 /**
  * Unit test for SourceSynchronizerTemplate
@@ -76,6 +77,35 @@ public class SourceSynchronizerTemplateTest extends AbstractDbSynchronizerTest<S
         persist_jami();
     }
 
+    @Transactional
+    @Test
+    @DirtiesContext
+    public void test_find_source_from_reference_data_cache() throws PersisterException, FinderException, SynchronizerException {
+        IntactSource source = (IntactSource)this.synchronizer.synchronize(IntactTestUtils.createSource(), true);
+        this.entityManager.flush();
+
+        // next transaction : the source is resolved by identifier and kept in the reference data cache
+        this.context.clearCache();
+        this.entityManager.clear();
+        Assert.assertEquals(source.getAc(), ((IntactSource)this.synchronizer.find(IntactTestUtils.createSource())).getAc());
+
+        // next transaction : the source is reloaded by ac
+        this.context.clearCache();
+        this.entityManager.clear();
+        this.queryStatistics.start(this.entityManager);
+        Assert.assertEquals(source.getAc(), ((IntactSource)this.synchronizer.find(IntactTestUtils.createSource())).getAc());
+        Assert.assertEquals(Collections.singletonList(source.getAc()),
+                this.synchronizer.findAllMatchingAcs(IntactTestUtils.createSource()));
+        this.queryStatistics.assertStatementsAtMost(1);
+
+        // a deleted source is not returned from the cache
+        this.synchronizer.delete(this.entityManager.find(IntactSource.class, source.getAc()));
+        this.entityManager.flush();
+        this.context.clearCache();
+        Assert.assertNull(this.synchronizer.find(IntactTestUtils.createSource()));
+        Assert.assertTrue(this.synchronizer.findAllMatchingAcs(IntactTestUtils.createSource()).isEmpty());
+    }
+
     @Transactional
     @Test
     @DirtiesContext
@@ -0,0 +1,127 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.ebi.intact.jami.context.DefaultSynchronizerContext;
+import uk.ac.ebi.intact.jami.context.SynchronizerContext;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.model.extension.IntactExperiment;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.synchronizer.impl.CvTermSynchronizer;
+import uk.ac.ebi.intact.jami.synchronizer.impl.ExperimentSynchronizer;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * Unit tester for DbSynchronizerStatisticsReporter
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@Transactional(value = "jamiTransactionManager")
+@Rollback
+@DirtiesContext
+public class DbSynchronizerStatisticsReporterTest {
+
+    @PersistenceContext(unitName = "intact-jami")
+    private EntityManager entityManager;
+
+    @Test
+    public void test_cv_statistics() throws PersisterException, FinderException, SynchronizerException {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        DbSynchronizerStatisticsReporter reporter = new DbSynchronizerStatisticsReporter();
+        context.initialiseDbSynchronizerListener(reporter);
+
+        IntactCvTerm topic = context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("test topic", null), true);
+        // the second topic is found in the cache of the persisted objects
+        Assert.assertSame(topic, context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("test topic", null), true));
+
+        Assert.assertEquals(Integer.valueOf(1), reporter.getPersistedCounts().get(IntactCvTerm.class));
+        SynchronizerStatistics statistics = reporter.getSynchronizerStatistics().get(CvTermSynchronizer.class);
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(2, statistics.getOperationStatistics(SynchronizerOperation.SYNCHRONIZE).getCount());
+        Assert.assertEquals(1, statistics.getOperationStatistics(SynchronizerOperation.PERSIST).getCount());
+        Assert.assertTrue(statistics.getOperationStatistics(SynchronizerOperation.FIND).getCount() >= 1);
+        Assert.assertEquals(1, statistics.getPersistedObjectsCacheHits());
+        Assert.assertEquals(1, statistics.getPersistedObjectsCacheMisses());
+        Assert.assertEquals(0.5, statistics.getPersistedObjectsCacheHitRatio(), 0);
+        Assert.assertEquals(2, statistics.getIdentityCacheMisses());
+
+        reporter.reset();
+        Assert.assertTrue(reporter.getPersistedCounts().isEmpty());
+        Assert.assertEquals(0, reporter.getSynchronizerStatistics().get(CvTermSynchronizer.class)
+                .getOperationStatistics(SynchronizerOperation.SYNCHRONIZE).getCount());
+    }
+
+    @Test
+    public void test_nested_synchronizers() throws PersisterException, FinderException, SynchronizerException {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        DbSynchronizerStatisticsReporter reporter = new DbSynchronizerStatisticsReporter();
+        context.initialiseDbSynchronizerListener(reporter);
+
+        IntactPublication publication = new IntactPublication("12345");
+        context.getExperimentSynchronizer().synchronize(new IntactExperiment(publication, IntactUtils.createMIInteractionDetectionMethod("test", null)), true);
+
+        Map<Class<?>, SynchronizerStatistics> statistics = reporter.getSynchronizerStatistics();
+        OperationStatistics experiment = statistics.get(ExperimentSynchronizer.class).getOperationStatistics(SynchronizerOperation.SYNCHRONIZE);
+        Assert.assertEquals(1, experiment.getCount());
+        // the time spent in the publication and cv synchronizers is nested in the experiment synchronization
+        Assert.assertTrue(experiment.getNestedNanos() > 0);
+        Assert.assertTrue(experiment.getSelfNanos() < experiment.getTotalNanos());
+        Assert.assertEquals(experiment.getTotalNanos(), experiment.getSelfNanos() + experiment.getNestedNanos());
+        Assert.assertTrue(statistics.containsKey(CvTermSynchronizer.class));
+
+        // sorted by decreasing self time
+        long previous = Long.MAX_VALUE;
+        for (SynchronizerStatistics synchronizerStatistics : statistics.values()){
+            Assert.assertTrue(synchronizerStatistics.getSelfNanos() <= previous);
+            previous = synchronizerStatistics.getSelfNanos();
+        }
+    }
+
+    @Test
+    public void test_register_mbeans() throws Exception {
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        DbSynchronizerStatisticsReporter reporter = new DbSynchronizerStatisticsReporter();
+        context.initialiseDbSynchronizerListener(reporter);
+        reporter.registerMBeans("test");
+
+        try {
+            context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("test topic", null), true);
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DbSynchronizerStatisticsReporter.JMX_DOMAIN + ":type=DbSynchronizerStatistics,reporter="
+                    + ObjectName.quote("test") + ",synchronizer=" + ObjectName.quote(CvTermSynchronizer.class.getName()));
+            Assert.assertTrue(server.isRegistered(name));
+            CompositeData synchronize = (CompositeData) server.getAttribute(name, "Synchronize");
+            Assert.assertEquals(1L, synchronize.get("count"));
+            Assert.assertEquals(1L, server.getAttribute(name, "PersistedObjectsCacheMisses"));
+
+            reporter.unregisterMBeans();
+            Assert.assertFalse(server.isRegistered(name));
+        }
+        finally {
+            reporter.unregisterMBeans();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.ebi.intact.jami.context.DefaultSynchronizerContext;
+import uk.ac.ebi.intact.jami.context.SynchronizerContext;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.synchronizer.impl.CvTermSynchronizer;
+import uk.ac.ebi.intact.jami.synchronizer.listener.SynchronizerOperation;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.StringWriter;
+
+/**
+ * Unit tester for DbSynchronizerTracer
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@Transactional(value = "jamiTransactionManager")
+@Rollback
+@DirtiesContext
+public class DbSynchronizerTracerTest {
+
+    @PersistenceContext(unitName = "intact-jami")
+    private EntityManager entityManager;
+
+    @Test
+    public void test_trace_slow_synchronization() throws PersisterException, FinderException, SynchronizerException {
+        StringWriter output = new StringWriter();
+        // all the root calls are slower than 0 ms
+        DbSynchronizerTracer tracer = new DbSynchronizerTracer(output, 0, 0);
+        DbSynchronizerStatisticsReporter reporter = new DbSynchronizerStatisticsReporter();
+        tracer.setDelegate(reporter);
+
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        context.initialiseDbSynchronizerListener(tracer);
+        IntactCvTerm topic = context.getTopicSynchronizer().synchronize(IntactUtils.createMITopic("test topic", null), true);
+        Assert.assertNotNull(topic);
+        tracer.flush();
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertTrue(lines[0].startsWith("# trace "));
+        Assert.assertTrue(lines[0].contains("root=CvTermSynchronizer.synchronize"));
+        Assert.assertTrue(lines[0].endsWith("reason=slow"));
+        boolean foundStack = false;
+        boolean foundStatement = false;
+        for (String line : lines){
+            if (line.startsWith("CvTermSynchronizer.synchronize")){
+                foundStack = true;
+                Assert.assertTrue(line.matches("[^ ]+( [^ ]+)* \\d+"));
+            }
+            else if (line.startsWith("# sql CvTermSynchronizer.synchronize")){
+                foundStatement = true;
+                Assert.assertTrue(line.endsWith("\""));
+            }
+        }
+        Assert.assertTrue(foundStack);
+        Assert.assertTrue(foundStatement);
+
+        // the delegate receives the events
+        Assert.assertEquals(Integer.valueOf(1), reporter.getPersistedCounts().get(IntactCvTerm.class));
+        Assert.assertEquals(1, reporter.getSynchronizerStatistics().get(CvTermSynchronizer.class)
+                .getOperationStatistics(SynchronizerOperation.SYNCHRONIZE).getCount());
+    }
+
+    @Test
+    public void test_fast_synchronization_not_traced() {
+        StringWriter output = new StringWriter();
+        DbSynchronizerTracer tracer = new DbSynchronizerTracer(output, 60000, 0);
+
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.FIND);
+        DbSynchronizerTracer.recordStatement("select * from ia_controlledvocab");
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.FIND, 1000000, 1000000);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE, 3000000, 2000000);
+        tracer.flush();
+
+        Assert.assertEquals("", output.toString());
+    }
+
+    @Test
+    public void test_sampled_synchronization_folded_stacks() {
+        StringWriter output = new StringWriter();
+        DbSynchronizerTracer tracer = new DbSynchronizerTracer(output, 60000, 1);
+
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.FIND);
+        DbSynchronizerTracer.recordStatement("select *\n from ia_controlledvocab where shortlabel = 1");
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.FIND, 1000000, 1000000);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.FIND);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.FIND, 500000, 500000);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE, 3500000, 2000000);
+        tracer.flush();
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertEquals(4, lines.length);
+        Assert.assertTrue(lines[0].contains("operations=3 statements=1 reason=sampled"));
+        Assert.assertEquals("CvTermSynchronizer.synchronize 2000", lines[1]);
+        // the identical paths are merged
+        Assert.assertEquals("CvTermSynchronizer.synchronize;CvTermSynchronizer.find 1500", lines[2]);
+        Assert.assertEquals("# sql CvTermSynchronizer.synchronize;CvTermSynchronizer.find \"select * from ia_controlledvocab where shortlabel = 1\"", lines[3]);
+
+        // no operation is traced anymore
+        DbSynchronizerTracer.recordStatement("select 1");
+        tracer.flush();
+        Assert.assertEquals(4, output.toString().split("\n").length);
+    }
+
+    @Test
+    public void test_truncated_trace() {
+        StringWriter output = new StringWriter();
+        DbSynchronizerTracer tracer = new DbSynchronizerTracer(output, 0, 0);
+        tracer.setMaxNodes(1);
+
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.FIND);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.FIND, 1000000, 1000000);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE, 3000000, 2000000);
+        tracer.flush();
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[0].contains("truncated=true"));
+        // the time of the untraced find is counted in the self time of the synchronize
+        Assert.assertEquals("CvTermSynchronizer.synchronize 3000", lines[1]);
+    }
+
+    @Test
+    public void test_truncated_trace_nested_untraced_operations() {
+        StringWriter output = new StringWriter();
+        DbSynchronizerTracer tracer = new DbSynchronizerTracer(output, 0, 0);
+        tracer.setMaxNodes(1);
+
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.PERSIST);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.FIND);
+        tracer.onOperationStarted(CvTermSynchronizer.class, SynchronizerOperation.FIND);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.FIND, 500000, 500000);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.FIND, 1000000, 500000);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.PERSIST, 1500000, 500000);
+        tracer.onOperationCompleted(CvTermSynchronizer.class, SynchronizerOperation.SYNCHRONIZE, 3500000, 2000000);
+        tracer.flush();
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[0].contains("totalMicros=3500 operations=1"));
+        // only the total time of the outermost untraced operation is counted so the self time is the total time of the synchronize
+        Assert.assertEquals("CvTermSynchronizer.synchronize 3500", lines[1]);
+    }
+}
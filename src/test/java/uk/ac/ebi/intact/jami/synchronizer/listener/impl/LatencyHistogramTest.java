@@ -0,0 +1,57 @@
+package uk.ac.ebi.intact.jami.synchronizer.listener.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tester for LatencyHistogram
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void test_empty_histogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(0, histogram.getMeanNanos(), 0);
+    }
+
+    @Test
+    public void test_bucket_boundaries() {
+        for (long value = 0; value < 100000; value++){
+            int index = LatencyHistogram.bucketIndex(value);
+            Assert.assertTrue(value <= LatencyHistogram.highestValueOfBucket(index));
+            if (index > 0){
+                Assert.assertTrue(value > LatencyHistogram.highestValueOfBucket(index - 1));
+            }
+        }
+        // values out of range go in the last bucket
+        Assert.assertEquals(LatencyHistogram.bucketIndex(Long.MAX_VALUE), LatencyHistogram.bucketIndex(1L << 50));
+    }
+
+    @Test
+    public void test_percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++){
+            histogram.record(i * 1000);
+        }
+        histogram.record(-5);
+
+        Assert.assertEquals(1001, histogram.getCount());
+        Assert.assertEquals(1000000, histogram.getMaxNanos());
+        Assert.assertEquals(500500000, histogram.getTotalNanos());
+        // relative error below 1/16
+        Assert.assertEquals(500000, histogram.getValueAtPercentile(50), 500000 / 16);
+        Assert.assertEquals(990000, histogram.getValueAtPercentile(99), 990000 / 16);
+        Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMaxNanos());
+    }
+}
@@ -0,0 +1,113 @@
+package uk.ac.ebi.intact.jami.synthetic;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import uk.ac.ebi.intact.jami.dao.IntactDao;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+
+/**
+ * Populates an IntAct database with a synthetic dataset, for instance the embedded H2 database of intact-jami-test-spring.xml
+ * before running reader benchmarks.
+ *
+ * The publications and complexes are generated one by one and synchronized with the synchronizers of the IntactDao.
+ * The transaction is committed every batchSize publications or complexes and the synchronizer caches and the persistence context
+ * are cleared after each commit so the memory used does not depend on the size of the dataset.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SyntheticDatabasePopulator {
+
+    public static final int DEFAULT_BATCH_SIZE = 10;
+
+    private IntactDao intactDao;
+    private PlatformTransactionManager transactionManager;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public SyntheticDatabasePopulator(IntactDao intactDao, PlatformTransactionManager transactionManager) {
+        if (intactDao == null){
+            throw new IllegalArgumentException("The IntAct dao cannot be null");
+        }
+        if (transactionManager == null){
+            throw new IllegalArgumentException("The transaction manager cannot be null");
+        }
+        this.intactDao = intactDao;
+        this.transactionManager = transactionManager;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     *
+     * @param batchSize : the number of publications or complexes synchronized in each transaction
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1){
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Synchronizes all the publications and complexes of the dataset
+     * @param generator : the generator of the dataset
+     * @throws Exception
+     */
+    public void populate(SyntheticDatasetGenerator generator) throws Exception {
+        populatePublications(generator);
+        populateComplexes(generator);
+    }
+
+    public void populatePublications(SyntheticDatasetGenerator generator) throws Exception {
+        int total = generator.getConfig().getNumberOfPublications();
+        for (int first = 0; first < total; first += this.batchSize){
+            TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                for (int i = first; i < Math.min(first + this.batchSize, total); i++){
+                    IntactPublication publication = generator.generatePublication(i);
+                    // the experiments and interaction evidences are synchronized with the publication
+                    this.intactDao.getSynchronizerContext().getPublicationSynchronizer().synchronize(publication, true);
+                }
+                commit(status);
+            }
+            finally {
+                clear(status);
+            }
+        }
+    }
+
+    public void populateComplexes(SyntheticDatasetGenerator generator) throws Exception {
+        int total = generator.getConfig().getNumberOfComplexes();
+        for (int first = 0; first < total; first += this.batchSize){
+            TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                for (int i = first; i < Math.min(first + this.batchSize, total); i++){
+                    IntactComplex complex = generator.generateComplex(i);
+                    this.intactDao.getSynchronizerContext().getComplexSynchronizer().synchronize(complex, true);
+                }
+                commit(status);
+            }
+            finally {
+                clear(status);
+            }
+        }
+    }
+
+    private void commit(TransactionStatus status) {
+        this.intactDao.getEntityManager().flush();
+        this.transactionManager.commit(status);
+    }
+
+    private void clear(TransactionStatus status) {
+        this.intactDao.getSynchronizerContext().clearCache();
+        if (!status.isCompleted()){
+            this.transactionManager.rollback(status);
+        }
+    }
+}
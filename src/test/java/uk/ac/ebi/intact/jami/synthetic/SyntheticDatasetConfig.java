@@ -0,0 +1,275 @@
+package uk.ac.ebi.intact.jami.synthetic;
+
+/**
+ * Configuration of the SyntheticDatasetGenerator.
+ *
+ * The numbers of experiments, interactions, participants, features and ranges are drawn between a minimum and a maximum.
+ * The sizes of the interactions and complexes are skewed towards their minimum with a long tail, and a few of them
+ * can be huge (see hugeInteractionProbability and hugeComplexProbability).
+ * The default values generate a small dataset which can be used in unit tests.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SyntheticDatasetConfig {
+
+    private long seed = 42;
+
+    // publications -> experiments -> interaction evidences
+    private int numberOfPublications = 10;
+    private int minExperimentsPerPublication = 1;
+    private int maxExperimentsPerPublication = 3;
+    private int minInteractionsPerExperiment = 1;
+    private int maxInteractionsPerExperiment = 20;
+    private int minParticipantsPerInteraction = 2;
+    private int maxParticipantsPerInteraction = 10;
+    private double hugeInteractionProbability = 0.01;
+    private int hugeInteractionSize = 200;
+
+    // features of the participants
+    private int maxFeaturesPerParticipant = 2;
+    private int maxRangesPerFeature = 2;
+    private int maxLinkedFeatureDepth = 3;
+
+    // interactors
+    private int numberOfProteins = 500;
+    private int numberOfOrganisms = 5;
+    private int minSequenceLength = 50;
+    private int maxSequenceLength = 1000;
+
+    // complexes
+    private int numberOfComplexes = 10;
+    private int minComplexSize = 2;
+    private int maxComplexSize = 10;
+    private double hugeComplexProbability = 0.05;
+    private int hugeComplexSize = 300;
+    private double subComplexProbability = 0.2;
+    private int maxSubComplexDepth = 2;
+
+    // fraction of the publications and interactions sharing the same labels
+    private double labelCollisionRate = 0.2;
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     *
+     * @param seed : two generators having the same configuration and seed generate the same dataset
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getNumberOfPublications() {
+        return numberOfPublications;
+    }
+
+    public void setNumberOfPublications(int numberOfPublications) {
+        this.numberOfPublications = numberOfPublications;
+    }
+
+    public int getMinExperimentsPerPublication() {
+        return minExperimentsPerPublication;
+    }
+
+    public void setMinExperimentsPerPublication(int minExperimentsPerPublication) {
+        this.minExperimentsPerPublication = minExperimentsPerPublication;
+    }
+
+    public int getMaxExperimentsPerPublication() {
+        return maxExperimentsPerPublication;
+    }
+
+    public void setMaxExperimentsPerPublication(int maxExperimentsPerPublication) {
+        this.maxExperimentsPerPublication = maxExperimentsPerPublication;
+    }
+
+    public int getMinInteractionsPerExperiment() {
+        return minInteractionsPerExperiment;
+    }
+
+    public void setMinInteractionsPerExperiment(int minInteractionsPerExperiment) {
+        this.minInteractionsPerExperiment = minInteractionsPerExperiment;
+    }
+
+    public int getMaxInteractionsPerExperiment() {
+        return maxInteractionsPerExperiment;
+    }
+
+    public void setMaxInteractionsPerExperiment(int maxInteractionsPerExperiment) {
+        this.maxInteractionsPerExperiment = maxInteractionsPerExperiment;
+    }
+
+    public int getMinParticipantsPerInteraction() {
+        return minParticipantsPerInteraction;
+    }
+
+    public void setMinParticipantsPerInteraction(int minParticipantsPerInteraction) {
+        this.minParticipantsPerInteraction = minParticipantsPerInteraction;
+    }
+
+    public int getMaxParticipantsPerInteraction() {
+        return maxParticipantsPerInteraction;
+    }
+
+    public void setMaxParticipantsPerInteraction(int maxParticipantsPerInteraction) {
+        this.maxParticipantsPerInteraction = maxParticipantsPerInteraction;
+    }
+
+    public double getHugeInteractionProbability() {
+        return hugeInteractionProbability;
+    }
+
+    public void setHugeInteractionProbability(double hugeInteractionProbability) {
+        this.hugeInteractionProbability = hugeInteractionProbability;
+    }
+
+    public int getHugeInteractionSize() {
+        return hugeInteractionSize;
+    }
+
+    public void setHugeInteractionSize(int hugeInteractionSize) {
+        this.hugeInteractionSize = hugeInteractionSize;
+    }
+
+    public int getMaxFeaturesPerParticipant() {
+        return maxFeaturesPerParticipant;
+    }
+
+    public void setMaxFeaturesPerParticipant(int maxFeaturesPerParticipant) {
+        this.maxFeaturesPerParticipant = maxFeaturesPerParticipant;
+    }
+
+    public int getMaxRangesPerFeature() {
+        return maxRangesPerFeature;
+    }
+
+    public void setMaxRangesPerFeature(int maxRangesPerFeature) {
+        this.maxRangesPerFeature = maxRangesPerFeature;
+    }
+
+    public int getMaxLinkedFeatureDepth() {
+        return maxLinkedFeatureDepth;
+    }
+
+    /**
+     *
+     * @param maxLinkedFeatureDepth : the maximum length of the chains of linked features across the participants of an interaction.
+     * 0 if the features should not be linked
+     */
+    public void setMaxLinkedFeatureDepth(int maxLinkedFeatureDepth) {
+        this.maxLinkedFeatureDepth = maxLinkedFeatureDepth;
+    }
+
+    public int getNumberOfProteins() {
+        return numberOfProteins;
+    }
+
+    /**
+     *
+     * @param numberOfProteins : the number of distinct proteins shared by the participants of the interactions and complexes
+     */
+    public void setNumberOfProteins(int numberOfProteins) {
+        this.numberOfProteins = numberOfProteins;
+    }
+
+    public int getNumberOfOrganisms() {
+        return numberOfOrganisms;
+    }
+
+    public void setNumberOfOrganisms(int numberOfOrganisms) {
+        this.numberOfOrganisms = numberOfOrganisms;
+    }
+
+    public int getMinSequenceLength() {
+        return minSequenceLength;
+    }
+
+    public void setMinSequenceLength(int minSequenceLength) {
+        this.minSequenceLength = minSequenceLength;
+    }
+
+    public int getMaxSequenceLength() {
+        return maxSequenceLength;
+    }
+
+    public void setMaxSequenceLength(int maxSequenceLength) {
+        this.maxSequenceLength = maxSequenceLength;
+    }
+
+    public int getNumberOfComplexes() {
+        return numberOfComplexes;
+    }
+
+    public void setNumberOfComplexes(int numberOfComplexes) {
+        this.numberOfComplexes = numberOfComplexes;
+    }
+
+    public int getMinComplexSize() {
+        return minComplexSize;
+    }
+
+    public void setMinComplexSize(int minComplexSize) {
+        this.minComplexSize = minComplexSize;
+    }
+
+    public int getMaxComplexSize() {
+        return maxComplexSize;
+    }
+
+    public void setMaxComplexSize(int maxComplexSize) {
+        this.maxComplexSize = maxComplexSize;
+    }
+
+    public double getHugeComplexProbability() {
+        return hugeComplexProbability;
+    }
+
+    public void setHugeComplexProbability(double hugeComplexProbability) {
+        this.hugeComplexProbability = hugeComplexProbability;
+    }
+
+    public int getHugeComplexSize() {
+        return hugeComplexSize;
+    }
+
+    public void setHugeComplexSize(int hugeComplexSize) {
+        this.hugeComplexSize = hugeComplexSize;
+    }
+
+    public double getSubComplexProbability() {
+        return subComplexProbability;
+    }
+
+    /**
+     *
+     * @param subComplexProbability : the probability for a participant of a complex to be a sub-complex
+     */
+    public void setSubComplexProbability(double subComplexProbability) {
+        this.subComplexProbability = subComplexProbability;
+    }
+
+    public int getMaxSubComplexDepth() {
+        return maxSubComplexDepth;
+    }
+
+    public void setMaxSubComplexDepth(int maxSubComplexDepth) {
+        this.maxSubComplexDepth = maxSubComplexDepth;
+    }
+
+    public double getLabelCollisionRate() {
+        return labelCollisionRate;
+    }
+
+    /**
+     *
+     * @param labelCollisionRate : the fraction of the publications sharing the same first author and year, so the same experiment label,
+     * and of the interactions sharing the same short name
+     */
+    public void setLabelCollisionRate(double labelCollisionRate) {
+        this.labelCollisionRate = labelCollisionRate;
+    }
+}
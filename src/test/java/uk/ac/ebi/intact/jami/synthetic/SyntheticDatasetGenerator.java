@@ -0,0 +1,288 @@
+package uk.ac.ebi.intact.jami.synthetic;
+
+import psidev.psi.mi.jami.model.Feature;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.model.Participant;
+import uk.ac.ebi.intact.jami.model.extension.*;
+import uk.ac.ebi.intact.jami.utils.IntactUtils;
+
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of synthetic IntAct datasets for load and scaling tests.
+ *
+ * It builds new publications with their experiments, interaction evidences, participants, features and ranges,
+ * and new complexes with their sub-complexes. The proteins and organisms are drawn from pools so they are shared
+ * between the interactions and the complexes. The most used proteins are the first ones of the pool.
+ *
+ * The generator is deterministic : each object is generated from its own random generator seeded from the seed of the configuration
+ * and the index of the object. A publication, complex or protein can then be generated again independently of the others,
+ * which allows to populate a database publication by publication. Each call creates new transient objects and the shared
+ * proteins, organisms and cv terms are new instances having the same identity.
+ *
+ * The generated datasets contain the cases stressing the synchronizers : short label collisions, huge interactions
+ * and complexes, chains of linked features and nested sub-complexes.
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SyntheticDatasetGenerator {
+
+    public static final String COLLISION_LABEL = "collision";
+    public static final int COLLISION_YEAR = 2000;
+
+    private static final String AMINO_ACIDS = "ACDEFGHIKLMNPQRSTVWY";
+    private static final int[] TAX_IDS = new int[]{9606, 10090, 559292, 7227, 6239};
+    private static final String[] ORGANISM_NAMES = new String[]{"human", "mouse", "yeast", "drosophila", "c. elegans"};
+    private static final String[][] DETECTION_METHODS = new String[][]{{"two hybrid", "MI:0018"},
+            {"anti bait coimmunoprecipitation", "MI:0006"}, {"tandem affinity purification", "MI:0676"}};
+    private static final String[][] FEATURE_TYPES = new String[][]{{"binding site", "MI:0117"}, {"mutation", "MI:0118"}};
+
+    private static final long PUBLICATION_SEED = 1;
+    private static final long COMPLEX_SEED = 2;
+    private static final long PROTEIN_SEED = 3;
+
+    private SyntheticDatasetConfig config;
+
+    public SyntheticDatasetGenerator(SyntheticDatasetConfig config) {
+        if (config == null){
+            throw new IllegalArgumentException("The configuration of the synthetic dataset cannot be null");
+        }
+        this.config = config;
+    }
+
+    public SyntheticDatasetConfig getConfig() {
+        return config;
+    }
+
+    /**
+     *
+     * @return all the publications of the dataset with their experiments and interaction evidences
+     */
+    public List<IntactPublication> generatePublications() {
+        List<IntactPublication> publications = new ArrayList<IntactPublication>(this.config.getNumberOfPublications());
+        for (int i = 0; i < this.config.getNumberOfPublications(); i++){
+            publications.add(generatePublication(i));
+        }
+        return publications;
+    }
+
+    /**
+     *
+     * @return all the complexes of the dataset with their sub-complexes
+     */
+    public List<IntactComplex> generateComplexes() {
+        List<IntactComplex> complexes = new ArrayList<IntactComplex>(this.config.getNumberOfComplexes());
+        for (int i = 0; i < this.config.getNumberOfComplexes(); i++){
+            complexes.add(generateComplex(i));
+        }
+        return complexes;
+    }
+
+    /**
+     *
+     * @param index : the index of the publication in the dataset
+     * @return the publication with its experiments, interaction evidences, participants and features
+     */
+    public IntactPublication generatePublication(int index) {
+        Random random = createRandom(PUBLICATION_SEED, index);
+        boolean collision = random.nextDouble() < this.config.getLabelCollisionRate();
+
+        IntactPublication publication = new IntactPublication(Integer.toString(10000000 + index));
+        // the experiments of publications having the same first author and year have the same label
+        publication.getAuthors().add(collision ? COLLISION_LABEL : "author" + index);
+        publication.getAuthors().add("coauthor" + random.nextInt(100));
+        publication.setPublicationDate(new GregorianCalendar(collision ? COLLISION_YEAR : 1990 + index % 30, 0, 1).getTime());
+
+        int numberOfExperiments = between(random, this.config.getMinExperimentsPerPublication(), this.config.getMaxExperimentsPerPublication());
+        for (int e = 0; e < numberOfExperiments; e++){
+            String[] method = DETECTION_METHODS[random.nextInt(DETECTION_METHODS.length)];
+            IntactExperiment experiment = new IntactExperiment(publication,
+                    IntactUtils.createMIInteractionDetectionMethod(method[0], method[1]), createOrganism(random.nextInt(this.config.getNumberOfOrganisms())));
+            experiment.setParticipantIdentificationMethod(IntactUtils.createMIParticipantIdentificationMethod(Participant.PREDETERMINED, Participant.PREDETERMINED_MI));
+            publication.addExperiment(experiment);
+
+            int numberOfInteractions = between(random, this.config.getMinInteractionsPerExperiment(), this.config.getMaxInteractionsPerExperiment());
+            for (int i = 0; i < numberOfInteractions; i++){
+                String name = random.nextDouble() < this.config.getLabelCollisionRate() ? COLLISION_LABEL : "interaction-" + index + "-" + e + "-" + i;
+                experiment.addInteractionEvidence(generateInteractionEvidence(random, name));
+            }
+        }
+        return publication;
+    }
+
+    /**
+     *
+     * @param index : the index of the complex in the dataset
+     * @return the complex with its participants, features and sub-complexes
+     */
+    public IntactComplex generateComplex(int index) {
+        Random random = createRandom(COMPLEX_SEED, index);
+        int size = random.nextDouble() < this.config.getHugeComplexProbability() ?
+                this.config.getHugeComplexSize() : skewed(random, this.config.getMinComplexSize(), this.config.getMaxComplexSize());
+        return generateComplex(random, "complex-" + index, size, 0);
+    }
+
+    /**
+     *
+     * @param index : the index of the protein in the pool of proteins
+     * @return the protein with its uniprot identifier and sequence
+     */
+    public IntactProtein generateProtein(int index) {
+        Random random = createRandom(PROTEIN_SEED, index);
+        IntactProtein protein = new IntactProtein("protein-" + index, createOrganism(index % this.config.getNumberOfOrganisms()));
+        protein.setUniprotkb(String.format("S%05d", index));
+
+        int length = between(random, this.config.getMinSequenceLength(), this.config.getMaxSequenceLength());
+        StringBuilder sequence = new StringBuilder(length);
+        for (int i = 0; i < length; i++){
+            sequence.append(AMINO_ACIDS.charAt(random.nextInt(AMINO_ACIDS.length())));
+        }
+        protein.setSequence(sequence.toString());
+        return protein;
+    }
+
+    protected IntactInteractionEvidence generateInteractionEvidence(Random random, String name) {
+        IntactInteractionEvidence interaction = new IntactInteractionEvidence(name);
+        interaction.setInteractionType(IntactUtils.createMIInteractionType("association", "MI:0914"));
+
+        int size = random.nextDouble() < this.config.getHugeInteractionProbability() ?
+                this.config.getHugeInteractionSize() :
+                skewed(random, this.config.getMinParticipantsPerInteraction(), this.config.getMaxParticipantsPerInteraction());
+        for (int i = 0; i < size; i++){
+            IntactProtein protein = generateProtein(skewed(random, 0, this.config.getNumberOfProteins() - 1));
+            IntactParticipantEvidence participant = new IntactParticipantEvidence(protein);
+            // the first participant is the bait of the interaction
+            participant.setExperimentalRole(i == 0 ?
+                    IntactUtils.createMIExperimentalRole(Participant.BAIT_ROLE, Participant.BAIT_ROLE_MI) :
+                    IntactUtils.createMIExperimentalRole(Participant.PREY, Participant.PREY_MI));
+
+            int numberOfFeatures = random.nextInt(this.config.getMaxFeaturesPerParticipant() + 1);
+            for (int f = 0; f < numberOfFeatures; f++){
+                IntactFeatureEvidence feature = new IntactFeatureEvidence(name + "-f" + i + "-" + f, null);
+                feature.setType(createFeatureType(random));
+                addRanges(random, protein, new ExperimentalRangeFactory(), feature);
+                participant.addFeature(feature);
+            }
+            interaction.addParticipant(participant);
+        }
+        linkFeatures(random, interaction);
+        return interaction;
+    }
+
+    protected IntactComplex generateComplex(Random random, String name, int size, int depth) {
+        IntactComplex complex = new IntactComplex(name, createOrganism(random.nextInt(this.config.getNumberOfOrganisms())));
+        for (int i = 0; i < size; i++){
+            IntactModelledParticipant participant;
+            if (depth < this.config.getMaxSubComplexDepth() && random.nextDouble() < this.config.getSubComplexProbability()){
+                participant = new IntactModelledParticipant(generateComplex(random, name + "-sub" + i,
+                        skewed(random, this.config.getMinComplexSize(), this.config.getMaxComplexSize()), depth + 1));
+            }
+            else{
+                IntactProtein protein = generateProtein(skewed(random, 0, this.config.getNumberOfProteins() - 1));
+                participant = new IntactModelledParticipant(protein);
+
+                int numberOfFeatures = random.nextInt(this.config.getMaxFeaturesPerParticipant() + 1);
+                for (int f = 0; f < numberOfFeatures; f++){
+                    IntactModelledFeature feature = new IntactModelledFeature(name + "-f" + i + "-" + f, null);
+                    feature.setType(createFeatureType(random));
+                    addRanges(random, protein, new ModelledRangeFactory(), feature);
+                    participant.addFeature(feature);
+                }
+            }
+            complex.addParticipant(participant);
+        }
+        linkFeatures(random, complex);
+        return complex;
+    }
+
+    /**
+     * Links the features of consecutive participants in a chain which can be as long as the maximum linked feature depth
+     */
+    protected void linkFeatures(Random random, Interaction<? extends Participant> interaction) {
+        List<Feature> features = new ArrayList<Feature>();
+        for (Participant participant : interaction.getParticipants()){
+            if (!participant.getFeatures().isEmpty()){
+                features.add((Feature) participant.getFeatures().iterator().next());
+            }
+        }
+        int depth = Math.min(random.nextInt(this.config.getMaxLinkedFeatureDepth() + 1), features.size() - 1);
+        if (depth <= 0){
+            return;
+        }
+        int start = random.nextInt(features.size() - depth);
+        for (int i = start; i < start + depth; i++){
+            features.get(i).getLinkedFeatures().add(features.get(i + 1));
+        }
+    }
+
+    protected <R extends AbstractIntactRange> void addRanges(Random random, IntactProtein protein, RangeFactory<R> factory, AbstractIntactFeature feature) {
+        int length = protein.getSequence().length();
+        int numberOfRanges = between(random, 1, Math.max(1, this.config.getMaxRangesPerFeature()));
+        for (int r = 0; r < numberOfRanges; r++){
+            int start = 1 + random.nextInt(length);
+            int end = Math.min(length, start + random.nextInt(50));
+            feature.getRanges().add(factory.createRange(new IntactPosition(start), new IntactPosition(end)));
+        }
+    }
+
+    protected IntactOrganism createOrganism(int index) {
+        if (index < TAX_IDS.length){
+            return new IntactOrganism(TAX_IDS[index], ORGANISM_NAMES[index]);
+        }
+        return new IntactOrganism(100000 + index, "organism-" + index);
+    }
+
+    protected IntactCvTerm createFeatureType(Random random) {
+        String[] type = FEATURE_TYPES[random.nextInt(FEATURE_TYPES.length)];
+        return IntactUtils.createMIFeatureType(type[0], type[1]);
+    }
+
+    protected Random createRandom(long type, int index) {
+        return new Random((this.config.getSeed() * 31 + type) * 1000003L + index);
+    }
+
+    /**
+     *
+     * @return a number drawn uniformly between min and max (both included)
+     */
+    protected int between(Random random, int min, int max) {
+        return max <= min ? min : min + random.nextInt(max - min + 1);
+    }
+
+    /**
+     *
+     * @return a number between min and max (both included) skewed towards min, with a long tail up to max
+     */
+    protected int skewed(Random random, int min, int max) {
+        if (max <= min){
+            return min;
+        }
+        double value = random.nextDouble();
+        return min + (int) (value * value * value * (max - min + 1));
+    }
+
+    /**
+     * Creates the ranges of the features evidences or modelled features
+     */
+    protected interface RangeFactory<R extends AbstractIntactRange> {
+        R createRange(IntactPosition start, IntactPosition end);
+    }
+
+    private static class ExperimentalRangeFactory implements RangeFactory<ExperimentalRange> {
+        public ExperimentalRange createRange(IntactPosition start, IntactPosition end) {
+            return new ExperimentalRange(start, end);
+        }
+    }
+
+    private static class ModelledRangeFactory implements RangeFactory<ModelledRange> {
+        public ModelledRange createRange(IntactPosition start, IntactPosition end) {
+            return new ModelledRange(start, end);
+        }
+    }
+}
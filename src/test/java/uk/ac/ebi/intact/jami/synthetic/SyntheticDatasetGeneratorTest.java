@@ -0,0 +1,171 @@
+package uk.ac.ebi.intact.jami.synthetic;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.model.Experiment;
+import psidev.psi.mi.jami.model.FeatureEvidence;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.model.ModelledParticipant;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactComplex;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tester for SyntheticDatasetGenerator
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SyntheticDatasetGeneratorTest {
+
+    @Test
+    public void test_same_seed_generates_same_dataset() {
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(new SyntheticDatasetConfig());
+        SyntheticDatasetGenerator generator2 = new SyntheticDatasetGenerator(new SyntheticDatasetConfig());
+
+        Assert.assertEquals(describe(generator.generatePublications()), describe(generator2.generatePublications()));
+        Assert.assertEquals(generator.generateProtein(3).getSequence(), generator2.generateProtein(3).getSequence());
+        Assert.assertEquals(generator.generateComplex(1).getParticipants().size(), generator2.generateComplex(1).getParticipants().size());
+
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setSeed(7);
+        Assert.assertNotEquals(describe(generator.generatePublications()),
+                describe(new SyntheticDatasetGenerator(config).generatePublications()));
+    }
+
+    @Test
+    public void test_generate_publications() {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(5);
+        config.setMinExperimentsPerPublication(2);
+        config.setMaxExperimentsPerPublication(2);
+        config.setMinInteractionsPerExperiment(3);
+        config.setMaxInteractionsPerExperiment(3);
+        config.setHugeInteractionProbability(0);
+        config.setMaxParticipantsPerInteraction(4);
+
+        List<IntactPublication> publications = new SyntheticDatasetGenerator(config).generatePublications();
+        Assert.assertEquals(5, publications.size());
+        for (IntactPublication publication : publications){
+            Assert.assertEquals(2, publication.getExperiments().size());
+            for (Experiment experiment : publication.getExperiments()){
+                Assert.assertTrue(experiment.getPublication() == publication);
+                Assert.assertEquals(3, experiment.getInteractionEvidences().size());
+                for (InteractionEvidence interaction : experiment.getInteractionEvidences()){
+                    Assert.assertTrue(interaction.getExperiment() == experiment);
+                    Assert.assertTrue(interaction.getParticipants().size() >= 2);
+                    Assert.assertTrue(interaction.getParticipants().size() <= 4);
+                    for (ParticipantEvidence participant : interaction.getParticipants()){
+                        Assert.assertNotNull(((IntactProtein) participant.getInteractor()).getSequence());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_generate_label_collisions_and_huge_interactions() {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(2);
+        config.setLabelCollisionRate(1);
+        config.setHugeInteractionProbability(1);
+        config.setHugeInteractionSize(50);
+
+        for (IntactPublication publication : new SyntheticDatasetGenerator(config).generatePublications()){
+            Assert.assertEquals(SyntheticDatasetGenerator.COLLISION_LABEL, publication.getAuthors().get(0));
+            for (Experiment experiment : publication.getExperiments()){
+                for (InteractionEvidence interaction : experiment.getInteractionEvidences()){
+                    Assert.assertEquals(SyntheticDatasetGenerator.COLLISION_LABEL, interaction.getShortName());
+                    Assert.assertEquals(50, interaction.getParticipants().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_generate_linked_features() {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfPublications(1);
+        config.setMinParticipantsPerInteraction(5);
+        config.setMaxParticipantsPerInteraction(5);
+        config.setMaxFeaturesPerParticipant(0);
+        config.setMaxLinkedFeatureDepth(4);
+
+        // no features, no links
+        for (Experiment experiment : new SyntheticDatasetGenerator(config).generatePublication(0).getExperiments()){
+            for (InteractionEvidence interaction : experiment.getInteractionEvidences()){
+                for (ParticipantEvidence participant : interaction.getParticipants()){
+                    Assert.assertTrue(participant.getFeatures().isEmpty());
+                }
+            }
+        }
+
+        config.setMaxFeaturesPerParticipant(1);
+        int maxDepth = 0;
+        for (Experiment experiment : new SyntheticDatasetGenerator(config).generatePublication(0).getExperiments()){
+            for (InteractionEvidence interaction : experiment.getInteractionEvidences()){
+                int depth = 0;
+                for (ParticipantEvidence participant : interaction.getParticipants()){
+                    for (FeatureEvidence feature : participant.getFeatures()){
+                        Assert.assertFalse(feature.getRanges().isEmpty());
+                        depth += feature.getLinkedFeatures().size();
+                    }
+                }
+                Assert.assertTrue(depth <= 4);
+                maxDepth = Math.max(maxDepth, depth);
+            }
+        }
+        Assert.assertTrue(maxDepth > 0);
+    }
+
+    @Test
+    public void test_generate_huge_complexes_with_sub_complexes() {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setNumberOfComplexes(3);
+        config.setHugeComplexProbability(1);
+        config.setHugeComplexSize(100);
+        config.setSubComplexProbability(0.5);
+        config.setMaxSubComplexDepth(2);
+
+        List<IntactComplex> complexes = new SyntheticDatasetGenerator(config).generateComplexes();
+        Assert.assertEquals(3, complexes.size());
+        for (IntactComplex complex : complexes){
+            Assert.assertEquals(100, complex.getParticipants().size());
+            Assert.assertTrue(maxSubComplexDepth(complex) > 0);
+            Assert.assertTrue(maxSubComplexDepth(complex) <= 2);
+        }
+    }
+
+    private int maxSubComplexDepth(IntactComplex complex) {
+        int depth = 0;
+        for (ModelledParticipant participant : complex.getParticipants()){
+            if (participant.getInteractor() instanceof IntactComplex){
+                depth = Math.max(depth, 1 + maxSubComplexDepth((IntactComplex) participant.getInteractor()));
+            }
+        }
+        return depth;
+    }
+
+    private List<String> describe(List<IntactPublication> publications) {
+        List<String> description = new ArrayList<String>();
+        for (IntactPublication publication : publications){
+            description.add(publication.getPubmedId() + " " + publication.getAuthors());
+            for (Experiment experiment : publication.getExperiments()){
+                description.add(experiment.getInteractionDetectionMethod().getShortName());
+                for (InteractionEvidence interaction : experiment.getInteractionEvidences()){
+                    description.add(interaction.getShortName() + " " + interaction.getParticipants().size());
+                    for (ParticipantEvidence participant : interaction.getParticipants()){
+                        description.add(participant.getInteractor().getShortName() + " " + participant.getFeatures().size());
+                    }
+                }
+            }
+        }
+        return description;
+    }
+}
@@ -0,0 +1,83 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import uk.ac.ebi.intact.jami.utils.comparator.CanonicalKeyFactory;
+
+/**
+ * Unit tester for CanonicalKeyMap
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CanonicalKeyMapTest {
+
+    // first letter of the string : several strings share the same key
+    private CanonicalKeyFactory<String> keyFactory = new CanonicalKeyFactory<String>() {
+        public Object createKey(String object) {
+            return object.isEmpty() ? "" : object.substring(0, 1).toLowerCase();
+        }
+    };
+
+    @Test
+    public void test_put_get_with_key_collisions() {
+        CanonicalKeyMap<String, Integer> map = new CanonicalKeyMap<String, Integer>(keyFactory, String.CASE_INSENSITIVE_ORDER);
+
+        Assert.assertNull(map.put("test", 1));
+        Assert.assertNull(map.put("tissue", 2));
+        Assert.assertNull(map.put("cell", 3));
+        Assert.assertEquals(3, map.size());
+
+        // the comparator decides between objects with the same canonical key
+        Assert.assertEquals(Integer.valueOf(1), map.get("TEST"));
+        Assert.assertEquals(Integer.valueOf(2), map.get("tissue"));
+        Assert.assertEquals(Integer.valueOf(3), map.get("Cell"));
+        Assert.assertFalse(map.containsKey("tax"));
+        Assert.assertNull(map.get("cellType"));
+
+        Assert.assertEquals(Integer.valueOf(1), map.put("Test", 4));
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(Integer.valueOf(4), map.get("test"));
+        Assert.assertEquals(3, map.entrySet().size());
+    }
+
+    @Test
+    public void test_remove_clear() {
+        CanonicalKeyMap<String, Integer> map = new CanonicalKeyMap<String, Integer>(keyFactory, String.CASE_INSENSITIVE_ORDER);
+        map.put("test", 1);
+        map.put("tissue", 2);
+        map.put("cell", 3);
+
+        Assert.assertNull(map.remove("tax"));
+        Assert.assertEquals(Integer.valueOf(1), map.remove("test"));
+        Assert.assertFalse(map.containsKey("test"));
+        Assert.assertTrue(map.containsKey("tissue"));
+        Assert.assertEquals(Integer.valueOf(3), map.remove("cell"));
+        Assert.assertEquals(1, map.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("tissue"));
+    }
+
+    @Test
+    public void test_get_equal_object_with_other_key() {
+        // the key is case sensitive but the comparator is not
+        CanonicalKeyMap<String, Integer> map = new CanonicalKeyMap<String, Integer>(new CanonicalKeyFactory<String>() {
+            public Object createKey(String object) {
+                return object;
+            }
+        }, String.CASE_INSENSITIVE_ORDER);
+        map.put("test", 1);
+
+        Assert.assertEquals(Integer.valueOf(1), map.get("TEST"));
+        Assert.assertEquals(Integer.valueOf(1), map.put("Test", 2));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(Integer.valueOf(2), map.get("test"));
+        Assert.assertEquals(Integer.valueOf(2), map.remove("TEST"));
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("test"));
+    }
+}
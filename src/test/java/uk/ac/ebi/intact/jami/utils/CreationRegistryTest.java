@@ -0,0 +1,111 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tester for CreationRegistry
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CreationRegistryTest {
+
+    @Test
+    public void test_claim() throws InterruptedException {
+        CreationRegistry registry = new CreationRegistry();
+        Object worker1 = new Object();
+        Object worker2 = new Object();
+
+        Assert.assertTrue(registry.claim("cv|null|psi-mi|MI:0326", worker1));
+        // the same owner can claim its key again
+        Assert.assertTrue(registry.claim("cv|null|psi-mi|MI:0326", worker1));
+        Assert.assertTrue(registry.isClaimedByOther("cv|null|psi-mi|MI:0326", worker2));
+        Assert.assertFalse(registry.isClaimedByOther("cv|null|psi-mi|MI:0326", worker1));
+        Assert.assertTrue(registry.claim("organism|9606||", worker2));
+        Assert.assertEquals(2, registry.size());
+
+        // only the keys of the owner are released
+        registry.releaseAll(worker1);
+        Assert.assertFalse(registry.isClaimedByOther("cv|null|psi-mi|MI:0326", worker2));
+        Assert.assertTrue(registry.isClaimedByOther("organism|9606||", worker1));
+        Assert.assertEquals(1, registry.size());
+
+        registry.clear();
+        Assert.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void test_claim_waits_for_release() throws InterruptedException {
+        final CreationRegistry registry = new CreationRegistry();
+        Object worker1 = new Object();
+        final Object worker2 = new Object();
+        final AtomicReference<Boolean> claimed = new AtomicReference<Boolean>();
+
+        Assert.assertTrue(registry.claim("organism|9606||", worker1));
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    claimed.set(registry.claim("organism|9606||", worker2));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.start();
+        waitUntilWaiting(thread);
+        Assert.assertNull(claimed.get());
+
+        registry.releaseAll(worker1);
+        thread.join(10000);
+        // the key has been released by the other owner so the object must be looked up again before claiming the key
+        Assert.assertEquals(Boolean.FALSE, claimed.get());
+        Assert.assertEquals(0, registry.size());
+        Assert.assertTrue(registry.claim("organism|9606||", worker2));
+    }
+
+    @Test
+    public void test_claim_fails_when_owners_wait_for_each_other() throws InterruptedException {
+        final CreationRegistry registry = new CreationRegistry();
+        Object worker1 = new Object();
+        final Object worker2 = new Object();
+
+        Assert.assertTrue(registry.claim("cv|null|psi-mi|MI:0326", worker1));
+        Assert.assertTrue(registry.claim("organism|9606||", worker2));
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    registry.claim("cv|null|psi-mi|MI:0326", worker2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.start();
+        waitUntilWaiting(thread);
+
+        try {
+            registry.claim("organism|9606||", worker1);
+            Assert.fail("worker1 cannot wait for worker2 which is waiting for worker1");
+        }
+        catch (IllegalStateException e){
+            // the claim of worker1 fails so its transaction can be rolled back
+        }
+
+        registry.releaseAll(worker1);
+        thread.join(10000);
+        Assert.assertFalse(thread.isAlive());
+    }
+
+    private void waitUntilWaiting(Thread thread) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < timeout){
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
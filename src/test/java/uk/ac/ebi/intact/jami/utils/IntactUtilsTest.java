@@ -0,0 +1,118 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import psidev.psi.mi.jami.model.Interactor;
+import uk.ac.ebi.intact.jami.QueryStatisticsRule;
+import uk.ac.ebi.intact.jami.context.DefaultSynchronizerContext;
+import uk.ac.ebi.intact.jami.context.SynchronizerContext;
+import uk.ac.ebi.intact.jami.model.extension.IntactCvTerm;
+import uk.ac.ebi.intact.jami.model.extension.IntactInteractionEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactParticipantEvidence;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.IntactPublication;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetConfig;
+import uk.ac.ebi.intact.jami.synthetic.SyntheticDatasetGenerator;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+
+/**
+ * Unit tester for IntactUtils
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@Transactional(value = "jamiTransactionManager")
+@Rollback
+@DirtiesContext
+public class IntactUtilsTest {
+
+    @PersistenceContext(unitName = "intact-jami")
+    private EntityManager entityManager;
+
+    @Rule
+    public QueryStatisticsRule queryStatistics = new QueryStatisticsRule();
+
+    @Test
+    public void test_initialise_publication_without_n_plus_one_selects() throws PersisterException, FinderException, SynchronizerException {
+        String smallPublication = persistPublication(0, 10);
+        String largePublication = persistPublication(1, 40);
+
+        long smallStatements = countInitialisationStatements(smallPublication);
+        long largeStatements = countInitialisationStatements(largePublication);
+
+        // the lazy collections and proxies are loaded in batches (hibernate.default_batch_fetch_size) so the number of selects
+        // does not grow with the number of interactions. One select per interaction and lazy property would add more than
+        // 5 selects per additional interaction
+        Assert.assertTrue("10 interactions: " + smallStatements + " statements, 40 interactions: " + largeStatements + " statements",
+                largeStatements - smallStatements <= 5 * 30);
+    }
+
+    @Test
+    public void test_reset_rolled_back_acs() {
+        IntactCvTerm proteinType = new IntactCvTerm(Interactor.PROTEIN);
+        proteinType.setObjClass(IntactUtils.INTERACTOR_TYPE_OBJCLASS);
+        this.entityManager.persist(proteinType);
+        this.entityManager.flush();
+        String typeAc = proteinType.getAc();
+
+        // interaction persisted in a transaction which has been rolled back, with an interactor type which exists in the database
+        IntactProtein protein = new IntactProtein("rolled back protein", proteinType);
+        protein.setAc("EBI-rolled-back-1");
+        IntactParticipantEvidence participant = new IntactParticipantEvidence(protein);
+        participant.setAc("EBI-rolled-back-2");
+        IntactInteractionEvidence interaction = new IntactInteractionEvidence("rolled back interaction");
+        interaction.setAc("EBI-rolled-back-3");
+        interaction.addParticipant(participant);
+
+        IntactUtils.resetRolledBackAcs(this.entityManager, Collections.singletonList(interaction));
+
+        Assert.assertNull(interaction.getAc());
+        Assert.assertNull(participant.getAc());
+        Assert.assertNull(protein.getAc());
+        Assert.assertEquals(typeAc, proteinType.getAc());
+    }
+
+    private String persistPublication(int index, int numberOfInteractions) throws PersisterException, FinderException, SynchronizerException {
+        SyntheticDatasetConfig config = new SyntheticDatasetConfig();
+        config.setMinExperimentsPerPublication(1);
+        config.setMaxExperimentsPerPublication(1);
+        config.setMinInteractionsPerExperiment(numberOfInteractions);
+        config.setMaxInteractionsPerExperiment(numberOfInteractions);
+        config.setMaxParticipantsPerInteraction(2);
+        config.setHugeInteractionProbability(0);
+        config.setLabelCollisionRate(0);
+
+        SynchronizerContext context = new DefaultSynchronizerContext(this.entityManager);
+        IntactPublication publication = context.getPublicationSynchronizer()
+                .synchronize(new SyntheticDatasetGenerator(config).generatePublication(index), true);
+        this.entityManager.flush();
+        context.clearCache();
+        this.entityManager.clear();
+        return publication.getAc();
+    }
+
+    private long countInitialisationStatements(String ac) {
+        IntactPublication publication = this.entityManager.find(IntactPublication.class, ac);
+        this.queryStatistics.start(this.entityManager);
+        IntactUtils.initialisePublication(publication, true);
+        long statements = this.queryStatistics.getStatistics().getStatementCount();
+        this.entityManager.clear();
+        return statements;
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tester for SequenceChecksumUtils
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SequenceChecksumUtilsTest {
+
+    @Test
+    public void test_crc64() {
+        Assert.assertNull(SequenceChecksumUtils.computeCrc64(null));
+
+        String crc64 = SequenceChecksumUtils.computeCrc64("AAAMGGCA");
+        Assert.assertEquals(SequenceChecksumUtils.CRC64_LEN, crc64.length());
+        Assert.assertEquals(crc64.toUpperCase(), crc64);
+        // the sequences are compared ignoring the case
+        Assert.assertEquals(crc64, SequenceChecksumUtils.computeCrc64("aaamggca"));
+        Assert.assertNotEquals(crc64, SequenceChecksumUtils.computeCrc64("AAAMGGCC"));
+        Assert.assertEquals("0000000000000000", SequenceChecksumUtils.computeCrc64(""));
+    }
+
+    @Test
+    public void test_sequence_digest() {
+        Assert.assertNull(SequenceChecksumUtils.computeSequenceDigest(null));
+
+        String digest = SequenceChecksumUtils.computeSequenceDigest("AAAMGGCA");
+        Assert.assertEquals(SequenceChecksumUtils.SEQUENCE_DIGEST_LEN, digest.length());
+        // the sequences are compared ignoring the case
+        Assert.assertEquals(digest, SequenceChecksumUtils.computeSequenceDigest("aaamggca"));
+        Assert.assertNotEquals(digest, SequenceChecksumUtils.computeSequenceDigest("AAAMGGCC"));
+        Assert.assertEquals("d41d8cd98f00b204e9800998ecf8427e", SequenceChecksumUtils.computeSequenceDigest(""));
+    }
+}
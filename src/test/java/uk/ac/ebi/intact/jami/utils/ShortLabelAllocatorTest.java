@@ -0,0 +1,151 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import uk.ac.ebi.intact.jami.context.DefaultSynchronizerContext;
+import uk.ac.ebi.intact.jami.context.SynchronizerContext;
+import uk.ac.ebi.intact.jami.model.extension.IntactNucleicAcid;
+import uk.ac.ebi.intact.jami.model.extension.IntactProtein;
+import uk.ac.ebi.intact.jami.model.extension.IntactSource;
+import uk.ac.ebi.intact.jami.synchronizer.FinderException;
+import uk.ac.ebi.intact.jami.synchronizer.PersisterException;
+import uk.ac.ebi.intact.jami.synchronizer.SynchronizerException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tester for ShortLabelAllocator
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath*:/META-INF/intact-jami-test-spring.xml"})
+@Transactional(value = "jamiTransactionManager")
+@Rollback
+@DirtiesContext
+public class ShortLabelAllocatorTest {
+
+    @PersistenceContext(unitName = "intact-jami")
+    private EntityManager entityManager;
+
+    @Test
+    public void test_next_free_label_from_existing_labels() {
+        Assert.assertEquals("test", ShortLabelAllocator.nextFreeLabel("test", Collections.<String>emptyList(), 255, true));
+        Assert.assertEquals("test-2", ShortLabelAllocator.nextFreeLabel("test", Arrays.asList("test", "test-1", "test-3", "test-x"), 255, false));
+        Assert.assertEquals("test-1", ShortLabelAllocator.nextFreeLabel("test", Arrays.asList("test", "test-2"), 255, true));
+        Assert.assertEquals("test", ShortLabelAllocator.nextFreeLabel("test", Arrays.asList("test-1", "test-2"), 255, false));
+    }
+
+    @Test
+    public void test_allocate_labels_with_persisted_and_reserved_labels() {
+        IntactSource source = new IntactSource("test");
+        IntactSource source2 = new IntactSource("test-1");
+        entityManager.persist(source);
+        entityManager.persist(source2);
+        entityManager.flush();
+
+        ShortLabelAllocator allocator = new ShortLabelAllocator("shortName", null, "IntactSource");
+
+        Assert.assertTrue(allocator.isTaken(entityManager, "test", null));
+        Assert.assertTrue(allocator.isTaken(entityManager, "test-1", null));
+        Assert.assertFalse(allocator.isTaken(entityManager, "test-2", null));
+        // the label used by the object itself is not taken
+        Assert.assertFalse(allocator.isTaken(entityManager, "test", source.getAc()));
+
+        Assert.assertEquals("test-2", allocator.nextFreeLabel(entityManager, "test", 255, false, null));
+        allocator.reserve("test-2");
+        Assert.assertTrue(allocator.isReserved("test-2"));
+        Assert.assertTrue(allocator.isTaken(entityManager, "test-2", null));
+        Assert.assertEquals("test-3", allocator.nextFreeLabel(entityManager, "test", 255, false, null));
+
+        allocator.clear();
+        Assert.assertFalse(allocator.isReserved("test-2"));
+        Assert.assertEquals("test-2", allocator.nextFreeLabel(entityManager, "test", 255, false, null));
+    }
+
+    @Test
+    public void test_allocator_shared_by_label_space() throws PersisterException, FinderException, SynchronizerException {
+        SynchronizerContext context = new DefaultSynchronizerContext(entityManager);
+        Assert.assertSame(context.getShortLabelAllocator(ShortLabelSpace.INTERACTOR, null),
+                context.getShortLabelAllocator(ShortLabelSpace.INTERACTOR, null));
+        Assert.assertNotSame(context.getShortLabelAllocator(ShortLabelSpace.CV_TERM, "topic"),
+                context.getShortLabelAllocator(ShortLabelSpace.CV_TERM, "database"));
+
+        // the protein is not flushed so its label is only known by the allocator shared with the nucleic acid synchronizer
+        IntactProtein protein = context.getProteinSynchronizer().synchronize(new IntactProtein("test"), true);
+        IntactNucleicAcid nucleicAcid = context.getNucleicAcidSynchronizer().synchronize(new IntactNucleicAcid("test"), true);
+
+        Assert.assertEquals("test", protein.getShortName());
+        Assert.assertEquals("test-1", nucleicAcid.getShortName());
+
+        context.clearCache();
+        Assert.assertFalse(context.getShortLabelAllocator(ShortLabelSpace.INTERACTOR, null).isReserved("test-1"));
+    }
+
+    @Test
+    public void test_allocators_sharing_registry() {
+        ShortLabelRegistry registry = new ShortLabelRegistry();
+        ShortLabelAllocator allocator = new ShortLabelAllocator(registry, ShortLabelSpace.SOURCE, null);
+        ShortLabelAllocator allocator2 = new ShortLabelAllocator(registry, ShortLabelSpace.SOURCE, null);
+
+        // the label claimed by the first allocator is taken for the other allocators of the label space
+        Assert.assertEquals("test", allocator.nextFreeLabel(entityManager, "test", 255, false, null));
+        Assert.assertTrue(allocator2.isTaken(entityManager, "test", null));
+        Assert.assertEquals("test-1", allocator2.nextFreeLabel(entityManager, "test", 255, false, null));
+        // the cv labels are unique per objclass
+        Assert.assertFalse(new ShortLabelAllocator(registry, ShortLabelSpace.CV_TERM, "topic").isTaken(entityManager, "test", null));
+        Assert.assertFalse(new ShortLabelAllocator(registry, ShortLabelSpace.CV_TERM, "database").isTaken(entityManager, "test", null));
+        Assert.assertTrue(new ShortLabelAllocator(registry, ShortLabelSpace.CV_TERM, "topic").isTaken(entityManager, "test", null));
+
+        // the claims are kept when the synchronizers are flushed and released at the end of the transaction
+        allocator.clear();
+        Assert.assertTrue(new ShortLabelAllocator(registry, ShortLabelSpace.SOURCE, null).isTaken(entityManager, "test", null));
+        allocator.releaseClaims();
+        allocator2.releaseClaims();
+        Assert.assertEquals(2, registry.size());
+        Assert.assertFalse(new ShortLabelAllocator(registry, ShortLabelSpace.SOURCE, null).isTaken(entityManager, "test", null));
+    }
+
+    @Test
+    public void test_allocators_sharing_registry_across_commit() {
+        ShortLabelRegistry registry = new ShortLabelRegistry();
+        ShortLabelAllocator allocator = new ShortLabelAllocator(registry, ShortLabelSpace.SOURCE, null);
+        ShortLabelAllocator allocator2 = new ShortLabelAllocator(registry, ShortLabelSpace.SOURCE, null);
+
+        // the first allocator loads the labels before the second one commits its label
+        Assert.assertFalse(allocator.isTaken(entityManager, "test-2", null));
+        Assert.assertEquals("test", allocator2.nextFreeLabel(entityManager, "test", 255, false, null));
+        IntactSource source = new IntactSource("test");
+        entityManager.persist(source);
+        entityManager.flush();
+        // the transaction of the second allocator is committed
+        allocator2.releaseClaims();
+        allocator2.clear();
+        Assert.assertEquals(1, registry.size());
+        Assert.assertEquals(1, registry.releasedSize());
+
+        // the committed label is not allocated again by the first allocator
+        Assert.assertTrue(allocator.isTaken(entityManager, "test", null));
+        Assert.assertEquals("test-1", allocator.nextFreeLabel(entityManager, "test", 255, false, null));
+        // the committed object keeps its label
+        Assert.assertFalse(allocator.isTaken(entityManager, "test", source.getAc()));
+
+        // the released label is forgotten once the first allocator has cleared its labels
+        allocator.releaseClaims();
+        allocator.clear();
+        Assert.assertEquals(0, registry.releasedSize());
+        Assert.assertTrue(allocator.isTaken(entityManager, "test", null));
+        Assert.assertFalse(allocator.isTaken(entityManager, "test", source.getAc()));
+    }
+}
@@ -0,0 +1,76 @@
+package uk.ac.ebi.intact.jami.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tester for ShortLabelRegistry
+ *
+ * @author Marine Dumousseau (marine@ebi.ac.uk)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ShortLabelRegistryTest {
+
+    @Test
+    public void test_claim() {
+        ShortLabelRegistry registry = new ShortLabelRegistry();
+        Object worker1 = new Object();
+        Object worker2 = new Object();
+
+        Assert.assertTrue(registry.claim("INTERACTOR|null", "p12345", worker1));
+        // the same owner can claim its label again
+        Assert.assertTrue(registry.claim("INTERACTOR|null", "p12345", worker1));
+        Assert.assertFalse(registry.claim("INTERACTOR|null", "p12345", worker2));
+        Assert.assertTrue(registry.isClaimedByOther("INTERACTOR|null", "p12345", worker2));
+        Assert.assertFalse(registry.isClaimedByOther("INTERACTOR|null", "p12345", worker1));
+
+        // the labels are unique per family
+        Assert.assertTrue(registry.claim("SOURCE|null", "p12345", worker2));
+        Assert.assertEquals(2, registry.size());
+
+        // an existing object claims its label with its ac
+        Assert.assertTrue(registry.claim("SOURCE|null", "intact", "EBI-1"));
+        Assert.assertTrue(registry.claim("SOURCE|null", "intact", new String("EBI-1")));
+        Assert.assertFalse(registry.claim("SOURCE|null", "intact", worker1));
+
+        // a label is only released by its owner
+        registry.release("SOURCE|null", "intact", worker1);
+        Assert.assertTrue(registry.isClaimedByOther("SOURCE|null", "intact", worker1));
+        registry.release("SOURCE|null", "intact", "EBI-1");
+        Assert.assertFalse(registry.isClaimedByOther("SOURCE|null", "intact", worker1));
+        Assert.assertEquals(2, registry.size());
+
+        registry.clear();
+        Assert.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void test_released_labels_kept_for_open_views() {
+        ShortLabelRegistry registry = new ShortLabelRegistry();
+        Object worker1 = new Object();
+        Object worker2 = new Object();
+
+        registry.openView(worker1);
+        long loadedGeneration = registry.getGeneration();
+        Assert.assertTrue(registry.claim("SOURCE|null", "intact", worker2));
+        registry.release("SOURCE|null", "intact", worker2);
+        Assert.assertEquals(0, registry.size());
+        Assert.assertEquals(1, registry.releasedSize());
+
+        // the label released after the labels of the first worker were loaded cannot be claimed without reloading them
+        Assert.assertTrue(registry.isReleasedByOther("SOURCE|null", "intact", worker1, loadedGeneration));
+        Assert.assertFalse(registry.claim("SOURCE|null", "intact", worker1, loadedGeneration));
+        Assert.assertEquals(0, registry.size());
+        Assert.assertFalse(registry.isReleasedByOther("SOURCE|null", "intact", worker2, loadedGeneration));
+        Assert.assertTrue(registry.claim("SOURCE|null", "intact", worker1, registry.getGeneration()));
+        registry.release("SOURCE|null", "intact", worker1);
+
+        // the released labels are removed when the views opened before their release are closed
+        registry.openView(worker2);
+        registry.closeView(worker1);
+        Assert.assertEquals(0, registry.releasedSize());
+        registry.closeView(worker2);
+    }
+}